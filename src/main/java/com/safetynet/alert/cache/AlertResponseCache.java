@@ -0,0 +1,108 @@
+package com.safetynet.alert.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.event.DatasetLoadedEvent;
+import com.safetynet.alert.model.Address;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Names and keys of the caches of the alert responses, and their invalidation when the data change.
+ * The responses by station are keyed by the station number, the responses by address by the normalized street
+ * followed by the street as written in the request, which is part of the response.
+ * Both keys end with the version of their station or street: a response computed from the data read before a commit
+ * and cached after the eviction of this commit is kept under the previous version, and is never read again.
+ */
+@Slf4j
+@Component
+public class AlertResponseCache {
+
+    public static final String FIRE = "fire";
+    public static final String CHILD_ALERT = "childAlert";
+    public static final String FIRESTATION = "firestation";
+    public static final String PHONE_ALERT = "phoneAlert";
+
+    private final CacheManager cacheManager;
+
+    private final DatasetVersions datasetVersions;
+
+    @Autowired
+    public AlertResponseCache(CacheManager cacheManager, DatasetVersions datasetVersions) {
+        this.cacheManager = cacheManager;
+        this.datasetVersions = datasetVersions;
+    }
+
+    /**
+     * Get the key of a response by station, used by the @Cacheable annotations
+     *
+     * @param stationId - the number of the firestation
+     * @return the key of the response, at the current version of the firestation
+     */
+    public List<Object> stationKey(int stationId) {
+        return Arrays.asList(stationId, datasetVersions.getStationsETag(List.of(stationId)));
+    }
+
+    /**
+     * Get the key of a response by address, used by the @Cacheable annotations
+     *
+     * @param street - the street as written in the request
+     * @return the key of the response, at the current version of the street
+     */
+    public List<Object> streetKey(String street) {
+        return Arrays.asList(Address.normalizeStreet(street), street, datasetVersions.getStreetETag(street));
+    }
+
+    /**
+     * Evict the responses of the firestations and the addresses changed by a committed transaction
+     *
+     * @param event - the firestations and the addresses changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        log.debug("The responses cached are evicted after the change of " + event + ".");
+        //the responses of the previous versions can't be read anymore, they are evicted to free the memory they hold
+        evictKeys(FIRESTATION, event.getStationIds());
+        evictKeys(PHONE_ALERT, event.getStationIds());
+        evictKeys(FIRE, event.getNormalizedStreets());
+        evictKeys(CHILD_ALERT, event.getNormalizedStreets());
+    }
+
+    /**
+     * Evict all the responses when a new dataset is loaded
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public void clear() {
+        for (String cacheName : List.of(FIRE, CHILD_ALERT, FIRESTATION, PHONE_ALERT)) {
+            org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictKeys(String cacheName, Collection<?> stationsOrStreets) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || stationsOrStreets.isEmpty()) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof Cache) {
+            //the same street may have been requested with several spellings, and a station or a street cached at several versions,
+            //all of them are evicted
+            Set<Object> keys = ((Cache<Object, Object>) cache.getNativeCache()).asMap().keySet();
+            keys.removeIf(key -> key instanceof List && stationsOrStreets.contains(((List<?>) key).get(0)));
+        } else {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.safetynet.alert.cache;
+
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.event.DatasetLoadedEvent;
+import com.safetynet.alert.model.Address;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters of the data, bumped once a transaction modifying them is committed, from which the ETags of the GET responses are built.
+ * There is a counter per firestation, a counter per street and a global counter for the responses which aren't read by station or street.
+ * A station or a street which has never changed has the version 0, so reading a version never allocates anything.
+ */
+@Component
+public class DatasetVersions {
+
+    //the counters start again at each startup, the epoch keeps the ETags of two runs different
+    private final long epoch = System.currentTimeMillis();
+
+    //bumped when a whole dataset is loaded, which changes every response
+    private final AtomicLong loadVersion = new AtomicLong();
+
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private final ConcurrentMap<Integer, AtomicLong> stationVersions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> streetVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Get the ETag of a response depending on any data
+     *
+     * @return the ETag of the response
+     */
+    public String getGlobalETag() {
+        return prefix() + "g" + globalVersion.get();
+    }
+
+    /**
+     * Get the ETag of a response depending on the persons covered by some firestations
+     *
+     * @param stationIds - the numbers of the firestations, a repeated number is only counted once
+     * @return the ETag of the response
+     */
+    public String getStationsETag(Collection<Integer> stationIds) {
+        StringBuilder eTag = new StringBuilder(prefix());
+        for (Integer stationId : new LinkedHashSet<>(stationIds)) {
+            AtomicLong version = stationVersions.get(stationId);
+            eTag.append('s').append(stationId).append('.').append(version == null ? 0 : version.get());
+        }
+        return eTag.toString();
+    }
+
+    /**
+     * Get the ETag of a response depending on the persons living at an address
+     *
+     * @param street - the street of the address, as written in the request
+     * @return the ETag of the response
+     */
+    public String getStreetETag(String street) {
+        AtomicLong version = streetVersions.get(Address.normalizeStreet(street));
+        return prefix() + "a" + (version == null ? 0 : version.get());
+    }
+
+    /**
+     * Bump the versions of the firestations and the streets changed by a committed transaction
+     *
+     * @param event - the firestations and the streets changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        globalVersion.incrementAndGet();
+        for (Integer stationId : event.getStationIds()) {
+            stationVersions.computeIfAbsent(stationId, id -> new AtomicLong()).incrementAndGet();
+        }
+        for (String normalizedStreet : event.getNormalizedStreets()) {
+            if (normalizedStreet != null) {
+                streetVersions.computeIfAbsent(normalizedStreet, street -> new AtomicLong()).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Change the versions of all the responses when a new dataset is loaded
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public void onDatasetLoaded() {
+        loadVersion.incrementAndGet();
+    }
+
+    private String prefix() {
+        return epoch + "-" + loadVersion.get() + "-";
+    }
+}
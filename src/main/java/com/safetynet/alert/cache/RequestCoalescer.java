@@ -0,0 +1,82 @@
+package com.safetynet.alert.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Share one computation between identical requests running at the same time ("single flight").
+ * The first request computes the result, the requests arriving while it runs wait for it and get the same result or the same exception.
+ * Nothing is kept once the computation is over: a request arriving later computes the result again.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    public static final String SAVED_COMPUTATIONS_METRIC = "alert.requests.coalesced";
+
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Get the result of a computation, shared with the identical computation already running if there is one
+     *
+     * @param query       - the name of the request, used as a tag of the metric
+     * @param parameters  - the normalized parameters of the request, with equals and hashCode
+     * @param computation - the computation of the result
+     * @param <T>         - the type of the result
+     * @return the result of the computation
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String query, Object parameters, Supplier<T> computation) {
+        List<Object> key = Arrays.asList(query, parameters);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            log.debug("The request " + key + " waits for the same request already running.");
+            meterRegistry.counter(SAVED_COMPUTATIONS_METRIC, "query", query).increment();
+            return (T) join(running);
+        }
+        try {
+            T result = computation.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            //the waiting requests get the exception thrown by the computation, as if they had run it
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
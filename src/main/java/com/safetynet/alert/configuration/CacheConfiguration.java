@@ -0,0 +1,12 @@
+package com.safetynet.alert.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The caches are created by Spring Boot from the spring.cache.* properties, see application.properties
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+}
@@ -0,0 +1,33 @@
+package com.safetynet.alert.configuration;
+
+import com.safetynet.alert.init.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class DataFileSourceConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "alert.data.source", havingValue = "url", matchIfMissing = true)
+    public DataFileSource urlDataFileSource(@Value("${alert.data.location:}") String location,
+                                            @Value("${alert.data.connect-timeout:5000}") int connectTimeout,
+                                            @Value("${alert.data.read-timeout:30000}") int readTimeout) {
+        return new UrlDataFileSource(location.isEmpty() ? new DataFile().getDataUrl() : location, connectTimeout, readTimeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "alert.data.source", havingValue = "file")
+    public DataFileSource localFileDataFileSource(@Value("${alert.data.location}") String location) {
+        return new LocalFileDataFileSource(Paths.get(location));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "alert.data.source", havingValue = "classpath")
+    public DataFileSource classpathDataFileSource(@Value("${alert.data.location:data.json}") String location) {
+        return new ClasspathDataFileSource(location);
+    }
+}
@@ -0,0 +1,75 @@
+package com.safetynet.alert.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Responses of the GET requests conditional on the ETag of the data they are read from.
+ * The ETag is only given with a 200 or a 304 response, an error thrown by a service is never answered with it.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Check whether the If-None-Match header of the request holds the current ETag, the response being then set to 304.
+     * Unlike WebRequest.checkNotModified alone, the response is left untouched when the ETag doesn't match.
+     *
+     * @param webRequest - the request
+     * @param eTag       - the current ETag of the data read by the request
+     * @return true if the request has to be answered with 304, without any body
+     */
+    static boolean checkNotModified(WebRequest webRequest, String eTag) {
+        String[] ifNoneMatch = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String quotedETag = quote(eTag);
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(quotedETag)) {
+                    return webRequest.checkNotModified(eTag);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Create a response with status 200 giving the ETag of its body
+     *
+     * @param body - the body of the response
+     * @param eTag - the ETag of the data the body has been read from
+     * @param <T>  - the type of the body
+     * @return a response with status 200 and the ETag header
+     */
+    static <T> ResponseEntity<T> ok(T body, String eTag) {
+        return ok(body, new HttpHeaders(), eTag);
+    }
+
+    /**
+     * Create a response with status 200 giving the ETag of its body besides the other headers
+     *
+     * @param body    - the body of the response
+     * @param headers - the other headers of the response
+     * @param eTag    - the ETag of the data the body has been read from
+     * @param <T>     - the type of the body
+     * @return a response with status 200, the headers given and the ETag header
+     */
+    static <T> ResponseEntity<T> ok(T body, HttpHeaders headers, String eTag) {
+        headers.setETag(quote(eTag));
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    //quoted the way WebRequest.checkNotModified quotes it
+    private static String quote(String eTag) {
+        return eTag.startsWith("\"") || eTag.startsWith("W/") ? eTag : "\"" + eTag + "\"";
+    }
+}
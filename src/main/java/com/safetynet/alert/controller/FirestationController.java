@@ -1,7 +1,11 @@
 package com.safetynet.alert.controller;
 
+import com.safetynet.alert.cache.DatasetVersions;
+import com.safetynet.alert.model.DTO.BulkReport;
 import com.safetynet.alert.model.DTO.FirestationDTO;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.service.BulkWriteService;
 import com.safetynet.alert.service.FirestationService;
 import io.swagger.annotations.Api;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +14,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.transaction.Transactional;
@@ -24,33 +29,58 @@ public class FirestationController {
     @Autowired
     private FirestationService firestationService;
 
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private DatasetVersions datasetVersions;
+
     /**
      * Read - Get all firestations registered.
      *
-     * @return - A list of firestations.
+     * @param after - the number of the last firestation of the previous page, given by the X-Next-Cursor header of its response, absent to get the first page
+     * @param size - the number of firestations requested, bounded by alert.page.max-size
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
+     * @return - A page of the firestations, the X-Next-Cursor header giving the cursor of the next page.
      */
     @GetMapping("/firestations")
     @Transactional
-    public ResponseEntity<List<FirestationDTO>> getAllFirestations() {
+    public ResponseEntity<List<FirestationDTO>> getAllFirestations(@RequestParam(required = false) Integer after, @RequestParam(required = false) Integer size,
+                                                                   WebRequest webRequest) {
         log.debug("The function getAllFirestations in FirestationController is beginning.");
-        List<FirestationDTO> firestations = firestationService.getFirestations();
+        String eTag = datasetVersions.getGlobalETag();
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getAllFirestations in FirestationController is ending, the response hasn't changed.\n");
+            return null;
+        }
+        KeysetPage<FirestationDTO> page = firestationService.getFirestations(after, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.add(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
         log.debug("The function getAllFirestations in FirestationController is ending without any exception.\n");
-        return new ResponseEntity<>(firestations, HttpStatus.OK);
+        return ConditionalResponses.ok(page.getContent(), headers, eTag);
     }
 
     /**
      * Read - Get one firestation from its id or one of its attached addresses
      *
      * @param idOrAddress - An int which is the id of the researched firestation or a String which is one of its addresses
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return A String giving all information about the firestation object corresponding to the id
      */
     @GetMapping("/firestation/{idOrAddress}")
     @Transactional
-    public ResponseEntity<FirestationDTO> getFirestation(@PathVariable("idOrAddress") String idOrAddress) {
+    public ResponseEntity<FirestationDTO> getFirestation(@PathVariable("idOrAddress") String idOrAddress, WebRequest webRequest) {
         log.debug("The function getFirestation in FirestationController is beginning.");
+        String eTag = datasetVersions.getGlobalETag();
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getFirestation in FirestationController is ending, the response hasn't changed.\n");
+            return null;
+        }
         FirestationDTO result = firestationService.getFirestationDTO(idOrAddress);
         log.debug("The function getFirestation in FirestationController is ending without any exception.\n");
-        return new ResponseEntity<>(result, HttpStatus.OK);
+        return ConditionalResponses.ok(result, eTag);
     }
 
     /**
@@ -79,6 +109,20 @@ public class FirestationController {
         return new ResponseEntity<>(okCreated, httpHeaders, HttpStatus.CREATED);
     }
 
+    /**
+     * Create - Add several firestations or addresses to firestations at once, the items being saved by chunks, each chunk in its own transaction
+     *
+     * @param mappings - the mappings to add, each one containing a firestation's number and an address
+     * @return A report giving the result of each item, in the order of the request
+     */
+    @PostMapping("/firestation/bulk")
+    public ResponseEntity<BulkReport> addMappingsFirestationAddress(@RequestBody List<MappingFirestationAddressDTO> mappings) {
+        log.debug("The function addMappingsFirestationAddress in FirestationController is beginning.");
+        BulkReport report = bulkWriteService.addMappings(mappings);
+        log.debug("The function addMappingsFirestationAddress in FirestationController is ending without any exception.\n");
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
     /**
      * Update - Update an address' firestation
      *
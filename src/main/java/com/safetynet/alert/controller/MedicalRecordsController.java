@@ -1,7 +1,12 @@
 package com.safetynet.alert.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.alert.cache.DatasetVersions;
+import com.safetynet.alert.model.DTO.BulkReport;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MedicalRecordDTO;
 import com.safetynet.alert.model.MedicalRecords;
+import com.safetynet.alert.service.BulkWriteService;
 import com.safetynet.alert.service.MedicalRecordsService;
 import io.swagger.annotations.Api;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +15,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.transaction.Transactional;
@@ -25,30 +32,71 @@ public class MedicalRecordsController {
     @Autowired
     private MedicalRecordsService medicalRecordsService;
 
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private DatasetVersions datasetVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Read - Get all medical records registered.
      *
-     * @return - A String containing all medical records information.
+     * @param after - the id of the last medical records of the previous page, given by the X-Next-Cursor header of its response, absent to get the first page
+     * @param size - the number of medical records requested, bounded by alert.page.max-size
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
+     * @return - A page of the medical records, the X-Next-Cursor header giving the cursor of the next page.
      */
     @GetMapping("/medicalRecord")
     @Transactional
-    public ResponseEntity<List<MedicalRecordDTO>> getAllMedicalRecords() {
+    public ResponseEntity<List<MedicalRecordDTO>> getAllMedicalRecords(@RequestParam(required = false) Integer after, @RequestParam(required = false) Integer size,
+                                                                       WebRequest webRequest) {
         log.debug("The function getAllMedicalRecords in MedicalRecordsController is beginning.");
-        List<MedicalRecordDTO> medicalRecords = medicalRecordsService.getMedicalRecords();
+        String eTag = datasetVersions.getGlobalETag();
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getAllMedicalRecords in MedicalRecordsController is ending, the response hasn't changed.\n");
+            return null;
+        }
+        KeysetPage<MedicalRecordDTO> page = medicalRecordsService.getMedicalRecords(after, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.add(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
         log.debug("The function getAllMedicalRecords in MedicalRecordsController is ending without any exception.\n");
-        return new ResponseEntity<>(medicalRecords, HttpStatus.OK);
+        return ConditionalResponses.ok(page.getContent(), headers, eTag);
+    }
+
+    /**
+     * Read - Stream all the medical records registered, one JSON object per line, without building the whole list in memory.
+     *
+     * @return - A body writing the medical records, in the order of their ids, as newline delimited JSON.
+     */
+    @GetMapping(value = "/medicalRecord/stream", produces = NdjsonResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllMedicalRecords() {
+        log.debug("The function streamAllMedicalRecords in MedicalRecordsController is beginning.");
+        ResponseEntity<StreamingResponseBody> response = NdjsonResponses.<MedicalRecordDTO>ok(objectMapper, medicalRecordsService::forEachMedicalRecordDTO);
+        log.debug("The function streamAllMedicalRecords in MedicalRecordsController is ending without any exception.\n");
+        return response;
     }
 
     /**
      * Read - Get one medical records from the first name and the last name of the person
      *
      * @param pathVariables - A map object of two Strings which are first name and last name of the person whose medical records is researched
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return A String giving all information about the medical records concerning the person
      */
     @GetMapping("/medicalRecord/{firstName}/{lastName}")
     @Transactional
-    public ResponseEntity<MedicalRecordDTO> getMedicalRecords(@PathVariable Map<String, String> pathVariables) {
+    public ResponseEntity<MedicalRecordDTO> getMedicalRecords(@PathVariable Map<String, String> pathVariables, WebRequest webRequest) {
         log.debug("The function getMedicalRecords in MedicalRecordsController is beginning.");
+        String eTag = datasetVersions.getGlobalETag();
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getMedicalRecords in MedicalRecordsController is ending, the response hasn't changed.\n");
+            return null;
+        }
         //getting first name and last name from url
         String firstName = pathVariables.get("firstName");
         String lastName = pathVariables.get("lastName");
@@ -56,7 +104,7 @@ public class MedicalRecordsController {
         MedicalRecords medicalRecords = medicalRecordsService.getMedicalRecordsByName(firstName, lastName);
         MedicalRecordDTO medicalRecordDTO = medicalRecordsService.transformMedicalRecordsToMedicalRecordDTO(medicalRecords);
         log.debug("The function getMedicalRecords in MedicalRecordsController is ending without any exception.\n");
-        return new ResponseEntity<>(medicalRecordDTO, HttpStatus.OK);
+        return ConditionalResponses.ok(medicalRecordDTO, eTag);
     }
 
     /**
@@ -87,6 +135,20 @@ public class MedicalRecordsController {
         return new ResponseEntity<>(result, httpHeaders, HttpStatus.CREATED);
     }
 
+    /**
+     * Create - Add or replace the medical records of several persons at once, the items being saved by chunks, each chunk in its own transaction
+     *
+     * @param medicalRecords - the medical records to add
+     * @return A report giving the result of each item, in the order of the request
+     */
+    @PostMapping("/medicalRecord/bulk")
+    public ResponseEntity<BulkReport> addMedicalRecordsInBulk(@RequestBody List<MedicalRecordDTO> medicalRecords) {
+        log.debug("The function addMedicalRecordsInBulk in MedicalRecordsController is beginning.");
+        BulkReport report = bulkWriteService.addMedicalRecords(medicalRecords);
+        log.debug("The function addMedicalRecordsInBulk in MedicalRecordsController is ending without any exception.\n");
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
     /**
      * Update - Update medical records
      *
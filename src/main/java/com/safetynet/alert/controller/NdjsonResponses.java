@@ -0,0 +1,53 @@
+package com.safetynet.alert.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Responses written as newline delimited JSON, one element per line, while the elements are read
+ */
+final class NdjsonResponses {
+
+    static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private NdjsonResponses() {
+    }
+
+    /**
+     * Create a response whose body writes each element given by the producer as soon as it is given
+     *
+     * @param objectMapper - the mapper writing each element as JSON
+     * @param producer     - the function giving the elements one by one to the consumer it receives
+     * @param <T>          - the type of the elements
+     * @return a response with status 200 whose body is written after the controller has returned
+     */
+    static <T> ResponseEntity<StreamingResponseBody> ok(ObjectMapper objectMapper, Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try {
+                producer.accept(element -> {
+                    try {
+                        writer.write(objectMapper.writeValueAsString(element));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+}
@@ -1,7 +1,12 @@
 package com.safetynet.alert.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.alert.cache.DatasetVersions;
+import com.safetynet.alert.model.DTO.BulkReport;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.PersonDTO;
 import com.safetynet.alert.model.Person;
+import com.safetynet.alert.service.BulkWriteService;
 import com.safetynet.alert.service.PersonService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -11,6 +16,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.transaction.Transactional;
@@ -26,36 +33,77 @@ public class PersonController {
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private DatasetVersions datasetVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Read - Get all persons registered in database
      *
-     * @return - A list of all the persons
+     * @param after - the id of the last person of the previous page, given by the X-Next-Cursor header of its response, absent to get the first page
+     * @param size - the number of persons requested, bounded by alert.page.max-size
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
+     * @return - A page of the persons, the X-Next-Cursor header giving the cursor of the next page
      */
     @ApiOperation(value = "Get all the persons.")
     @GetMapping("/person")
     @Transactional
-    public ResponseEntity<List<PersonDTO>> getAllPersons() {
+    public ResponseEntity<List<PersonDTO>> getAllPersons(@RequestParam(required = false) String after, @RequestParam(required = false) Integer size,
+                                                         WebRequest webRequest) {
         log.debug("The function getAllPersons in PersonController is beginning.");
-        List<PersonDTO> persons = personService.getPersonsDTO();
+        String eTag = datasetVersions.getGlobalETag();
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getAllPersons in PersonController is ending, the response hasn't changed.\n");
+            return null;
+        }
+        KeysetPage<PersonDTO> page = personService.getPersonsDTO(after, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.add(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
         log.debug("The function getAllPersons in PersonController is ending without any exception.");
-        return new ResponseEntity<>(persons, HttpStatus.OK);
+        return ConditionalResponses.ok(page.getContent(), headers, eTag);
+    }
+
+    /**
+     * Read - Stream all the persons registered, one JSON object per line, without building the whole list in memory.
+     *
+     * @return - A body writing the persons, in the order of their ids, as newline delimited JSON.
+     */
+    @GetMapping(value = "/person/stream", produces = NdjsonResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllPersons() {
+        log.debug("The function streamAllPersons in PersonController is beginning.");
+        ResponseEntity<StreamingResponseBody> response = NdjsonResponses.<PersonDTO>ok(objectMapper, personService::forEachPersonDTO);
+        log.debug("The function streamAllPersons in PersonController is ending without any exception.\n");
+        return response;
     }
 
     /**
      * Read - Get one person from his first name and last name
      *
      * @param id - A string composed by the person's first name and last name
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return a PersonDTO object corresponding to the person researched
      */
     @ApiOperation(value = "Get a person by its id.")
     @GetMapping("/person/{id}")
     @Transactional
-    public ResponseEntity<PersonDTO> getPerson(@PathVariable String id) {
+    public ResponseEntity<PersonDTO> getPerson(@PathVariable String id, WebRequest webRequest) {
         log.debug("The function getPerson in PersonController is beginning.");
+        String eTag = datasetVersions.getGlobalETag();
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getPerson in PersonController is ending, the response hasn't changed.\n");
+            return null;
+        }
         PersonDTO personResearched = personService.getPersonDTOById(id);
         log.info("The person " + personResearched.getFirstName().toUpperCase() + " " + personResearched.getLastName().toUpperCase() + " has been found. ");
         log.debug("The function getPerson in PersonController is ending without any exception.\n");
-        return new ResponseEntity<>(personResearched, HttpStatus.OK);
+        return ConditionalResponses.ok(personResearched, eTag);
     }
 
     /**
@@ -82,6 +130,21 @@ public class PersonController {
         return new ResponseEntity<>(okSaved, httpHeaders, HttpStatus.CREATED);
     }
 
+    /**
+     * Create - Create several persons at once, the items being saved by chunks, each chunk in its own transaction
+     *
+     * @param persons - the persons to create
+     * @return A report giving the result of each item, in the order of the request
+     */
+    @ApiOperation(value = "Create several persons.")
+    @PostMapping("/person/bulk")
+    public ResponseEntity<BulkReport> addNewPersons(@RequestBody List<PersonDTO> persons) {
+        log.debug("The function addNewPersons in PersonController is beginning.");
+        BulkReport report = bulkWriteService.createPersons(persons);
+        log.debug("The function addNewPersons in PersonController is ending without any exception.\n");
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
     /**
      * Update - Update an existing person
      *
@@ -1,5 +1,7 @@
 package com.safetynet.alert.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.alert.cache.DatasetVersions;
 import com.safetynet.alert.model.DTO.ChildInfoDTO;
 import com.safetynet.alert.model.DTO.FireInfoDTO;
 import com.safetynet.alert.model.DTO.FirestationInfoDTO;
@@ -8,13 +10,13 @@ import com.safetynet.alert.service.UrlsService;
 import io.swagger.annotations.Api;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.transaction.Transactional;
 import java.util.List;
 
 @RestController
@@ -25,64 +27,90 @@ public class UrlsController {
     @Autowired
     private UrlsService urlsService;
 
+    @Autowired
+    private DatasetVersions datasetVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Read - Get a list of all the persons and also the number of adults and the number of children covered by a firestation.
      *
      * @param stationId - the number of the station in which information are researched.
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return - A FirestationInfoDTO object containing information about the persons covered by the firestation researched.
      */
-    @Transactional
     @GetMapping("/firestation")
-    public ResponseEntity<FirestationInfoDTO> getPersonsCoveredByStation(@RequestParam int stationId) {
+    public ResponseEntity<FirestationInfoDTO> getPersonsCoveredByStation(@RequestParam int stationId, WebRequest webRequest) {
         log.debug("The function getPersonsCoveredByStation in UrlsController is beginning.");
+        String eTag = datasetVersions.getStationsETag(List.of(stationId));
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getPersonsCoveredByStation in UrlsController is ending, the response hasn't changed.\n");
+            return null;
+        }
         FirestationInfoDTO personsCoveredByStation = urlsService.getPersonsCoveredByFirestation(stationId);
         log.debug("The function getPersonsCoveredByStation in UrlsController is ending without any exception.\n");
-        return new ResponseEntity<>(personsCoveredByStation, HttpStatus.OK);
+        return ConditionalResponses.ok(personsCoveredByStation, eTag);
     }
 
     /**
      * Read - Get a list of children living at the researched address and the members of their household.
      *
      * @param address - a String which corresponds to the researched address.
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return - A list of ChildInfoDTO objects, each one containing information about the children living at the researched address and his household.
      */
-    @Transactional
     @GetMapping("/childAlert")
-    public ResponseEntity<List<ChildInfoDTO>> getChildrenByAddress(@RequestParam String address) {
+    public ResponseEntity<List<ChildInfoDTO>> getChildrenByAddress(@RequestParam String address, WebRequest webRequest) {
         log.debug("The function getChildrenByAddress in UrlsController is beginning.");
+        String eTag = datasetVersions.getStreetETag(address);
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getChildrenByAddress in UrlsController is ending, the response hasn't changed.\n");
+            return null;
+        }
         List<ChildInfoDTO> childrenByAddress = urlsService.getChildrenByAddress(address);
         log.debug("The function getChildrenByAddress in UrlsController is ending without any exception.\n");
-        return new ResponseEntity<>(childrenByAddress, HttpStatus.OK);
+        return ConditionalResponses.ok(childrenByAddress, eTag);
     }
 
     /**
      * Read - Get a list phone numbers belonging to the persons covered by a firestation.
      *
      * @param stationId - the firestation number.
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return - A list of String which are all the phone numbers of the person covered by the researched firestation
      */
-    @Transactional
     @GetMapping("/phoneAlert")
-    public ResponseEntity<List<String>> getPhoneNumbersByFirestation(@RequestParam int stationId) {
+    public ResponseEntity<List<String>> getPhoneNumbersByFirestation(@RequestParam int stationId, WebRequest webRequest) {
         log.debug("The function getPhoneNumbersByFirestation in UrlsController is beginning.");
+        String eTag = datasetVersions.getStationsETag(List.of(stationId));
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getPhoneNumbersByFirestation in UrlsController is ending, the response hasn't changed.\n");
+            return null;
+        }
         List<String> phoneNumbersByFirestation = urlsService.getPhoneNumbersByFirestation(stationId);
         log.debug("The function getPhoneNumbersByFirestation in UrlsController is ending without any exception.\n");
-        return new ResponseEntity<>(phoneNumbersByFirestation, HttpStatus.OK);
+        return ConditionalResponses.ok(phoneNumbersByFirestation, eTag);
     }
 
     /**
      * Read - Get a list of person living at an address and information about them (phone number, age and medical records).
      *
      * @param address - a String that represents the researched address.
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return - A FireInfoDTO object containing information about the person found.
      */
-    @Transactional
     @GetMapping("/fire")
-    public ResponseEntity<FireInfoDTO> getPersonsByAddress(@RequestParam String address) {
+    public ResponseEntity<FireInfoDTO> getPersonsByAddress(@RequestParam String address, WebRequest webRequest) {
         log.debug("The function getPersonsByAddress in UrlsController is beginning.");
+        String eTag = datasetVersions.getStreetETag(address);
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getPersonsByAddress in UrlsController is ending, the response hasn't changed.\n");
+            return null;
+        }
         FireInfoDTO personsByAddress = urlsService.getPersonsByAddress(address);
         log.debug("The function getPersonsByAddress in UrlsController is ending without any exception.\n");
-        return new ResponseEntity<>(personsByAddress, HttpStatus.OK);
+        return ConditionalResponses.ok(personsByAddress, eTag);
     }
 
     /**
@@ -90,15 +118,20 @@ public class UrlsController {
      * for all the persons covered by firestations.
      *
      * @param stations - a list of Integer which are the numbers of the researched firestations.
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return - A list of FireInfoDTO objects containing information about persons found at each address covered by the researched firestations.
      */
-    @Transactional
     @GetMapping("/flood/stations")
-    public ResponseEntity<List<FireInfoDTO>> getHouseholdsByStation(@RequestParam List<Integer> stations) {
+    public ResponseEntity<List<FireInfoDTO>> getHouseholdsByStation(@RequestParam List<Integer> stations, WebRequest webRequest) {
         log.debug("The function getHouseholdsByStation in UrlsController is beginning.");
+        String eTag = datasetVersions.getStationsETag(stations);
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getHouseholdsByStation in UrlsController is ending, the response hasn't changed.\n");
+            return null;
+        }
         List<FireInfoDTO> result = urlsService.getHouseholdsByStation(stations);
         log.debug("The function getHouseholdsByStation in UrlsController is ending without any exception.\n");
-        return new ResponseEntity<>(result, HttpStatus.OK);
+        return ConditionalResponses.ok(result, eTag);
     }
 
     /**
@@ -106,29 +139,54 @@ public class UrlsController {
      *
      * @param firstName - a String which is the first name of the researched person.
      * @param lastName - a String which is the last name of the researched person.
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return - A list of PersonInfoDTO object which contains all the information concerning a person.
      */
-    @Transactional
     @GetMapping("/personInfo")
-    public ResponseEntity<List<PersonInfo2DTO>> getPersonsByName(@RequestParam String firstName, String lastName) {
+    public ResponseEntity<List<PersonInfo2DTO>> getPersonsByName(@RequestParam String firstName, String lastName, WebRequest webRequest) {
         log.debug("The function getPersonsByName in UrlsController is beginning.");
+        String eTag = datasetVersions.getGlobalETag();
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getPersonsByName in UrlsController is ending, the response hasn't changed.\n");
+            return null;
+        }
         List<PersonInfo2DTO> result = urlsService.getPersonsByName(firstName, lastName);
         log.debug("The function getPersonsByName in UrlsController is ending without any exception.\n");
-        return new ResponseEntity<>(result, HttpStatus.OK);
+        return ConditionalResponses.ok(result, eTag);
     }
 
     /**
      * Read - Get a list of city's residents' e-mail.
      *
      * @param city - a String which is the researched city.
+     * @param webRequest - the request, answered with 304 when its If-None-Match header holds the current ETag
      * @return - A list of String containing all the e-mail addresses of the persons living in the researched city.
      */
-    @Transactional
     @GetMapping("/communityEmail")
-    public ResponseEntity<List<String>> getMailsByCity(@RequestParam String city) {
+    public ResponseEntity<List<String>> getMailsByCity(@RequestParam String city, WebRequest webRequest) {
         log.debug("The function getMailsByCity in UrlsController is beginning.");
+        String eTag = datasetVersions.getGlobalETag();
+        if (ConditionalResponses.checkNotModified(webRequest, eTag)) {
+            log.debug("The function getMailsByCity in UrlsController is ending, the response hasn't changed.\n");
+            return null;
+        }
         List<String> result = urlsService.getMailsByCity(city);
         log.debug("The function getMailsByCity in UrlsController is ending without any exception.\n");
-        return new ResponseEntity<>(result, HttpStatus.OK);
+        return ConditionalResponses.ok(result, eTag);
+    }
+
+    /**
+     * Read - Stream the city's residents' e-mail, one JSON string per line, without building the whole list in memory.
+     *
+     * @param city - a String which is the researched city.
+     * @return - A body writing all the e-mail addresses of the persons living in the researched city as newline delimited JSON.
+     */
+    @GetMapping(value = "/communityEmail/stream", produces = NdjsonResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMailsByCity(@RequestParam String city) {
+        log.debug("The function streamMailsByCity in UrlsController is beginning.");
+        ResponseEntity<StreamingResponseBody> response = NdjsonResponses.<String>ok(objectMapper,
+                consumer -> urlsService.forEachMailByCity(city, consumer));
+        log.debug("The function streamMailsByCity in UrlsController is ending without any exception.\n");
+        return response;
     }
 }
@@ -0,0 +1,76 @@
+package com.safetynet.alert.event;
+
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.Person;
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Published by the services when persons, medical records or mappings are modified.
+ * It names the firestations and the streets whose derived data (indexes, caches...) have to be refreshed.
+ */
+@Getter
+public class DatasetChangedEvent {
+
+    private final Set<Integer> stationIds = new HashSet<>();
+    private final Set<String> normalizedStreets = new HashSet<>();
+    private final Set<String> personIds = new HashSet<>();
+
+    /**
+     * Mark a firestation as changed
+     *
+     * @param stationId - the number of the firestation
+     * @return this event
+     */
+    public DatasetChangedEvent station(int stationId) {
+        stationIds.add(stationId);
+        return this;
+    }
+
+    /**
+     * Mark an address as changed, with the firestation it is currently attached to
+     *
+     * @param address - the address, may be null
+     * @return this event
+     */
+    public DatasetChangedEvent address(Address address) {
+        if (address != null) {
+            normalizedStreets.add(address.getNormalizedStreet());
+            if (address.getFirestation() != null) {
+                stationIds.add(address.getFirestation().getStationId());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Mark a person as changed, with the address he currently lives at
+     *
+     * @param person - the person
+     * @return this event
+     */
+    public DatasetChangedEvent person(Person person) {
+        personIds.add(person.getId());
+        return address(person.getAddress());
+    }
+
+    /**
+     * Mark as changed the firestations, streets and persons of another event
+     *
+     * @param other - the event to merge into this one
+     * @return this event
+     */
+    public DatasetChangedEvent merge(DatasetChangedEvent other) {
+        stationIds.addAll(other.stationIds);
+        normalizedStreets.addAll(other.normalizedStreets);
+        personIds.addAll(other.personIds);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "stations " + stationIds + ", streets " + normalizedStreets + ", persons " + personIds;
+    }
+}
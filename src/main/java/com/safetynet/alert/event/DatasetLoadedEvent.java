@@ -0,0 +1,18 @@
+package com.safetynet.alert.event;
+
+/**
+ * Published once the whole dataset has been imported or restored,
+ * every derived data (indexes, caches...) has to be rebuilt from the database.
+ */
+public class DatasetLoadedEvent {
+
+    private final String source;
+
+    public DatasetLoadedEvent(String source) {
+        this.source = source;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,94 @@
+package com.safetynet.alert.index;
+
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.event.DatasetLoadedEvent;
+import com.safetynet.alert.repository.AddressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index giving the number of the firestation covering a normalized street.
+ * It is built from the database on first use or when the dataset is loaded,
+ * then each changed street is refreshed once the transaction that changed it is committed.
+ */
+@Slf4j
+@Component
+public class FirestationAddressIndex {
+
+    private final AddressRepository addressRepository;
+
+    private volatile Map<String, Integer> stationIdsByStreet;
+
+    @Autowired
+    public FirestationAddressIndex(AddressRepository addressRepository) {
+        this.addressRepository = addressRepository;
+    }
+
+    /**
+     * Get the number of the firestation covering a street
+     *
+     * @param normalizedStreet - the street, normalized with Address.normalizeStreet
+     * @return the number of the firestation, or an empty Optional if the street isn't attached to any firestation
+     */
+    public Optional<Integer> getStationId(String normalizedStreet) {
+        return Optional.ofNullable(getIndex().get(normalizedStreet));
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public synchronized void rebuild() {
+        log.debug("The function rebuild in FirestationAddressIndex is beginning.");
+        Map<String, Integer> index = new ConcurrentHashMap<>();
+        for (Object[] mapping : addressRepository.findStationMappings()) {
+            //when a street exists in several cities, the first mapping wins, as the former linear search did
+            index.putIfAbsent((String) mapping[0], (Integer) mapping[1]);
+        }
+        stationIdsByStreet = index;
+        log.debug("The function rebuild in FirestationAddressIndex is ending, " + index.size() + " streets indexed.");
+    }
+
+    /**
+     * Refresh the streets changed by a committed transaction
+     *
+     * @param event - the streets changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDatasetChanged(DatasetChangedEvent event) {
+        Map<String, Integer> index = stationIdsByStreet;
+        if (index == null) {
+            //the index will be built with the changes on first use
+            return;
+        }
+        for (String normalizedStreet : event.getNormalizedStreets()) {
+            List<Integer> stationIds = addressRepository.findStationIdsByNormalizedStreet(normalizedStreet);
+            if (stationIds.isEmpty()) {
+                index.remove(normalizedStreet);
+            } else {
+                index.put(normalizedStreet, stationIds.get(0));
+            }
+        }
+    }
+
+    private Map<String, Integer> getIndex() {
+        Map<String, Integer> index = stationIdsByStreet;
+        if (index == null) {
+            synchronized (this) {
+                if (stationIdsByStreet == null) {
+                    rebuild();
+                }
+                index = stationIdsByStreet;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,115 @@
+package com.safetynet.alert.index;
+
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.event.DatasetLoadedEvent;
+import com.safetynet.alert.model.Firestation;
+import com.safetynet.alert.repository.FirestationRepository;
+import com.safetynet.alert.repository.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * De-duplicated phone numbers of the persons covered by each firestation, as read by /phoneAlert.
+ * Every existing firestation has a roster, which may be empty. A roster is an immutable list
+ * which is replaced, never modified, when the persons or the mappings of its firestation change.
+ */
+@Slf4j
+@Component
+public class PhoneRosterIndex {
+
+    private final PersonRepository personRepository;
+
+    private final FirestationRepository firestationRepository;
+
+    private volatile Map<Integer, List<String>> rosters;
+
+    @Autowired
+    public PhoneRosterIndex(PersonRepository personRepository, FirestationRepository firestationRepository) {
+        this.personRepository = personRepository;
+        this.firestationRepository = firestationRepository;
+    }
+
+    /**
+     * Get the phone numbers of the persons covered by a firestation
+     *
+     * @param stationId - the number of the firestation
+     * @return the phone numbers, in the order of the addresses, or an empty Optional if the firestation doesn't exist
+     */
+    public Optional<List<String>> getPhoneNumbers(int stationId) {
+        return Optional.ofNullable(getRosters().get(stationId));
+    }
+
+    /**
+     * Rebuild the rosters of all the firestations from the database
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public synchronized void rebuild() {
+        log.debug("The function rebuild in PhoneRosterIndex is beginning.");
+        Map<Integer, Set<String>> phoneNumbersByStation = new HashMap<>();
+        for (Firestation firestation : firestationRepository.findAll()) {
+            phoneNumbersByStation.put(firestation.getStationId(), new LinkedHashSet<>());
+        }
+        for (Object[] row : personRepository.findPhoneNumbersOfAllStations()) {
+            phoneNumbersByStation.computeIfAbsent((Integer) row[0], id -> new LinkedHashSet<>()).add((String) row[1]);
+        }
+        Map<Integer, List<String>> newRosters = new ConcurrentHashMap<>();
+        phoneNumbersByStation.forEach((stationId, phoneNumbers) -> newRosters.put(stationId, toRoster(phoneNumbers)));
+        rosters = newRosters;
+        log.debug("The function rebuild in PhoneRosterIndex is ending, " + newRosters.size() + " firestations indexed.");
+    }
+
+    /**
+     * Refresh the rosters of the firestations changed by a committed transaction
+     *
+     * @param event - the firestations changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDatasetChanged(DatasetChangedEvent event) {
+        Map<Integer, List<String>> currentRosters = rosters;
+        if (currentRosters == null) {
+            //the rosters will be built with the changes on first use
+            return;
+        }
+        for (Integer stationId : event.getStationIds()) {
+            if (firestationRepository.existsById(stationId)) {
+                currentRosters.put(stationId, toRoster(personRepository.findPhoneNumbersByStationId(stationId)));
+            } else {
+                currentRosters.remove(stationId);
+            }
+        }
+    }
+
+    private static List<String> toRoster(Collection<String> phoneNumbers) {
+        //distinct phone numbers, in the order they were read, a person without phone number can't be called
+        List<String> roster = new ArrayList<>(new LinkedHashSet<>(phoneNumbers));
+        roster.removeIf(Objects::isNull);
+        return List.copyOf(roster);
+    }
+
+    private Map<Integer, List<String>> getRosters() {
+        Map<Integer, List<String>> currentRosters = rosters;
+        if (currentRosters == null) {
+            synchronized (this) {
+                if (rosters == null) {
+                    rebuild();
+                }
+                currentRosters = rosters;
+            }
+        }
+        return currentRosters;
+    }
+}
@@ -0,0 +1,46 @@
+package com.safetynet.alert.init;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class ClasspathDataFileSource implements DataFileSource {
+
+    private final ClassPathResource resource;
+
+    public ClasspathDataFileSource(String location) {
+        this.resource = new ClassPathResource(location);
+    }
+
+    /**
+     * Open the data file packaged with the application
+     *
+     * @return an InputStream reading the classpath resource
+     * @throws IOException - when the resource doesn't exist
+     */
+    @Override
+    public InputStream open() throws IOException {
+        if (!resource.exists()) {
+            throw new FileNotFoundException("The data file " + getDescription() + " was not found.");
+        }
+        return resource.getInputStream();
+    }
+
+    @Override
+    public String getDescription() {
+        return "classpath:" + resource.getPath();
+    }
+
+    /**
+     * Give the size and the last modification time of the packaged data file
+     *
+     * @return a String made of the size and the last modification time of the resource
+     * @throws IOException - when the resource doesn't exist
+     */
+    @Override
+    public String getFingerprint() throws IOException {
+        return resource.contentLength() + "-" + resource.lastModified();
+    }
+}
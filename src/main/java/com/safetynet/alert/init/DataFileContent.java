@@ -0,0 +1,26 @@
+package com.safetynet.alert.init;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The content of a data file opened because it changed, with the fingerprint of the version read
+ */
+@Getter
+@AllArgsConstructor
+public class DataFileContent implements Closeable {
+
+    private final InputStream inputStream;
+
+    //null when the version of the data file can't be known
+    private final String fingerprint;
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.safetynet.alert.init;
+
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+
+public interface DataFileHandler {
+
+    /**
+     * Receive one person read in the data file
+     *
+     * @param person - a PersonDTO object containing the information read about the person
+     */
+    void handlePerson(PersonDTO person);
+
+    /**
+     * Receive one mapping firestation/address read in the data file
+     *
+     * @param mapping - a MappingFirestationAddressDTO object containing the firestation number and the address
+     */
+    void handleFirestation(MappingFirestationAddressDTO mapping);
+
+    /**
+     * Receive one medical records read in the data file
+     *
+     * @param medicalRecords - a MedicalRecordDTO object containing the information read about the medical records,
+     *                       the birthdate is given as it is written in the file
+     */
+    void handleMedicalRecords(MedicalRecordDTO medicalRecords);
+}
@@ -0,0 +1,163 @@
+package com.safetynet.alert.init;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@Slf4j
+@Component
+public class DataFileParser {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Read the data file token by token, each person, mapping and medical records is given to the handler as soon as it is read,
+     * so the whole file is never kept in memory
+     *
+     * @param inputStream - the content of the data file
+     * @param handler     - the object receiving each element read in the file
+     * @throws IOException - when the file can't be read or is not a well-formed json file
+     */
+    public void parse(InputStream inputStream, DataFileHandler handler) throws IOException {
+        log.debug("The function parse in DataFileParser is beginning.");
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "The data file should contain a json object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.getCurrentName();
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    switch (section) {
+                        case "persons":
+                            handler.handlePerson(readPerson(parser));
+                            break;
+                        case "firestations":
+                            handler.handleFirestation(readFirestation(parser));
+                            break;
+                        case "medicalrecords":
+                            handler.handleMedicalRecords(readMedicalRecords(parser));
+                            break;
+                        default:
+                            parser.skipChildren();
+                    }
+                }
+            }
+        }
+        log.debug("The function parse in DataFileParser is ending without any exception.");
+    }
+
+    private PersonDTO readPerson(JsonParser parser) throws IOException {
+        PersonDTO person = new PersonDTO();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "firstName":
+                    person.setFirstName(parser.getValueAsString());
+                    break;
+                case "lastName":
+                    person.setLastName(parser.getValueAsString());
+                    break;
+                case "address":
+                    person.setAddress(parser.getValueAsString());
+                    break;
+                case "zip":
+                    person.setZip(parser.getValueAsString());
+                    break;
+                case "city":
+                    person.setCity(parser.getValueAsString());
+                    break;
+                case "phone":
+                    person.setPhoneNumber(parser.getValueAsString());
+                    break;
+                case "email":
+                    person.setMail(parser.getValueAsString());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return person;
+    }
+
+    private MappingFirestationAddressDTO readFirestation(JsonParser parser) throws IOException {
+        MappingFirestationAddressDTO mapping = new MappingFirestationAddressDTO();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "station":
+                    mapping.setNumber(parser.getValueAsInt());
+                    break;
+                case "address":
+                    mapping.setAddress(parser.getValueAsString());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return mapping;
+    }
+
+    private MedicalRecordDTO readMedicalRecords(JsonParser parser) throws IOException {
+        MedicalRecordDTO medicalRecords = new MedicalRecordDTO();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "firstName":
+                    medicalRecords.setFirstName(parser.getValueAsString());
+                    break;
+                case "lastName":
+                    medicalRecords.setLastName(parser.getValueAsString());
+                    break;
+                case "birthdate":
+                    medicalRecords.setBirthdate(parser.getValueAsString());
+                    break;
+                case "medications":
+                    readStrings(parser, medicalRecords.getMedications());
+                    break;
+                case "allergies":
+                    readStrings(parser, medicalRecords.getAllergies());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return medicalRecords;
+    }
+
+    private void readStrings(JsonParser parser, List<String> values) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token.isScalarValue()) {
+                values.add(parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.safetynet.alert.init;
+
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Normalizes the rows read in the data file the same way whether they are imported, staged or synchronized,
+ * so the three ways of loading the dataset write the same rows
+ */
+@Slf4j
+public final class DataFileRows {
+
+    //birthdates are written "MM/dd/yyyy" in the data file
+    private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private DataFileRows() {
+    }
+
+    /**
+     * Write a person read in the data file as it is registered: names and city in upper case, phone number without dashes
+     *
+     * @param personDTO - the person as it is read in the data file
+     * @return a new PersonDTO object containing the normalized information of the person
+     */
+    public static PersonDTO normalizePerson(PersonDTO personDTO) {
+        String phoneNumber = personDTO.getPhoneNumber() == null ? null : personDTO.getPhoneNumber().replace("-", "");
+        String city = personDTO.getCity() == null ? null : personDTO.getCity().toUpperCase();
+        return new PersonDTO(personDTO.getFirstName().toUpperCase(), personDTO.getLastName().toUpperCase(), personDTO.getAddress(),
+                personDTO.getZip(), city, phoneNumber, personDTO.getMail());
+    }
+
+    /**
+     * Read the birthdate of a medical records, written "MM/dd/yyyy" in the data file
+     *
+     * @param medicalRecordDTO - the medical records as it is read in the data file
+     * @return the birthdate, or null when it is missing or can't be read
+     */
+    public static LocalDate parseBirthdate(MedicalRecordDTO medicalRecordDTO) {
+        String birthdate = medicalRecordDTO.getBirthdate();
+        if (birthdate == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(birthdate, BIRTHDATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            log.error("The birthdate " + birthdate + " of " + medicalRecordDTO.getFirstName() + " " + medicalRecordDTO.getLastName() + " couldn't have been read.\n");
+            return null;
+        }
+    }
+
+    /**
+     * The ids of the addresses already written while the data file is read. A person is attached to the address with the same
+     * street, zip and city, a mapping to the first address of its street, which is created with the default zip and city if there is none.
+     */
+    static class AddressIds {
+
+        private final Map<String, Integer> addressIds = new HashMap<>();
+        private final Map<String, Integer> addressIdsByStreet = new HashMap<>();
+
+        Integer get(String street, String zip, String city) {
+            return addressIds.get(key(street, zip, city));
+        }
+
+        Integer getByStreet(String street) {
+            return addressIdsByStreet.get(street);
+        }
+
+        void put(String street, String zip, String city, int addressId) {
+            addressIds.put(key(street, zip, city), addressId);
+            addressIdsByStreet.putIfAbsent(street, addressId);
+        }
+
+        private static String key(String street, String zip, String city) {
+            return street + "|" + zip + "|" + city;
+        }
+    }
+}
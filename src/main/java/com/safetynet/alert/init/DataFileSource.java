@@ -0,0 +1,48 @@
+package com.safetynet.alert.init;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface DataFileSource {
+
+    /**
+     * Open the data file containing information about persons, firestations and medical records
+     *
+     * @return an InputStream giving the content of the data file, which has to be closed by the caller
+     * @throws IOException - when the data file can't be opened
+     */
+    InputStream open() throws IOException;
+
+    /**
+     * Describe where the data file is read from
+     *
+     * @return a String giving the location of the data file
+     */
+    String getDescription();
+
+    /**
+     * Give a fingerprint of the data file's content, read from its metadata and not from the content itself:
+     * it changes whenever the data file changes
+     *
+     * @return a String identifying the version of the data file, or null when it can't be known without reading the data file
+     * @throws IOException - when the metadata of the data file can't be read
+     */
+    default String getFingerprint() throws IOException {
+        return null;
+    }
+
+    /**
+     * Open the data file only if it changed since the version already loaded
+     *
+     * @param fingerprint - the fingerprint of the version already loaded, null when it isn't known
+     * @return a DataFileContent object giving the content and the fingerprint of the data file, or null when it hasn't changed
+     * @throws IOException - when the data file can't be opened
+     */
+    default DataFileContent openIfChanged(String fingerprint) throws IOException {
+        String currentFingerprint = getFingerprint();
+        if (fingerprint != null && fingerprint.equals(currentFingerprint)) {
+            return null;
+        }
+        return new DataFileContent(open(), currentFingerprint);
+    }
+}
@@ -1,24 +1,20 @@
 package com.safetynet.alert.init;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.safetynet.alert.model.*;
-import com.safetynet.alert.repository.AddressRepository;
-import com.safetynet.alert.repository.FirestationRepository;
-import com.safetynet.alert.repository.MedicalRecordsRepository;
-import com.safetynet.alert.repository.PersonRepository;
+import com.safetynet.alert.event.DatasetLoadedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
-import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
-import javax.transaction.Transactional;
-import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.InputStream;
 
 @Profile("!test")
 @Slf4j
@@ -26,128 +22,121 @@ import java.util.Optional;
 public class DataInit implements ApplicationRunner {
 
 
-    private final PersonRepository personRepository;
-    private final FirestationRepository firestationRepository;
-    private final MedicalRecordsRepository medicalRecordsRepository;
-    private final AddressRepository addressRepository;
+    private final DataFileSource dataFileSource;
+    private final StreamingDataImporter streamingDataImporter;
+    private final DatasetSnapshot datasetSnapshot;
+    private final DatasetMetadata datasetMetadata;
+    private final DatasetLoadProgress datasetLoadProgress;
+    private final DatasetMaintenanceLock datasetMaintenanceLock;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    //true when the database is kept between two startups, the dataset being then imported again only when the data file changed
+    private final boolean persistentStore;
 
 
     @Autowired
-    public DataInit(PersonRepository personRepository, FirestationRepository firestationRepository, MedicalRecordsRepository medicalRecordsRepository, AddressRepository addressRepository) {
-        this.personRepository = personRepository;
-        this.firestationRepository = firestationRepository;
-        this.medicalRecordsRepository = medicalRecordsRepository;
-        this.addressRepository = addressRepository;
+    public DataInit(DataFileSource dataFileSource, StreamingDataImporter streamingDataImporter, DatasetSnapshot datasetSnapshot,
+                    DatasetMetadata datasetMetadata, DatasetLoadProgress datasetLoadProgress, DatasetMaintenanceLock datasetMaintenanceLock,
+                    ApplicationEventPublisher applicationEventPublisher,
+                    @Value("${alert.store.persistent:false}") boolean persistentStore) {
+        this.dataFileSource = dataFileSource;
+        this.streamingDataImporter = streamingDataImporter;
+        this.datasetSnapshot = datasetSnapshot;
+        this.datasetMetadata = datasetMetadata;
+        this.datasetLoadProgress = datasetLoadProgress;
+        this.datasetMaintenanceLock = datasetMaintenanceLock;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.persistentStore = persistentStore;
     }
 
 
-    @Transactional
     @Override
     public void run(ApplicationArguments args) {
 
         log.debug("DataInit is beginning.");
-        try {
-            //getting json file from which information has to be read
-            RestTemplate restTemplate = new RestTemplate();
-            DataFile dataFile = new DataFile();
-            ResponseEntity<ObjectNode> response =
-                    restTemplate.getForEntity(dataFile.getDataUrl(), ObjectNode.class);
-            log.debug("Getting a response from dataUrl.");
-            ObjectNode jsonObject = response.getBody();
-            log.info("The file data.json have been get : " + response.getStatusCode());
-
-            if (jsonObject != null) {
+        //the lock is taken before the load is launched, so that no reload nor sync can start before the load itself
+        if (!datasetMaintenanceLock.tryAcquire("startup load")) {
+            log.error("The dataset can't be loaded while another maintenance is running, the application keeps refusing traffic.\n");
+            return;
+        }
+        //the dataset is loaded in background: the application is live at once, and ready to accept traffic once the load ends
+        new SimpleAsyncTaskExecutor("dataset-load-").execute(() -> {
+            try {
+                load();
+            } finally {
+                datasetMaintenanceLock.release();
+            }
+        });
+        log.debug("The function DataInit is ending, the dataset is loading in background.");
+    }
 
-                //getting each person in the json file and create a person objet with information and save it into database
-                log.debug("Beginning to get persons from json file.\n");
-                for (int numberOfPersons = 0; numberOfPersons < jsonObject.path("persons").size(); numberOfPersons++) {
-                    Person person = new Person();
-                    String firstName = jsonObject.path("persons").path(numberOfPersons).path("firstName").asText().toUpperCase();
-                    person.setFirstName(firstName);
-                    String lastName = jsonObject.path("persons").path(numberOfPersons).path("lastName").asText().toUpperCase();
-                    person.setLastName(lastName);
-                    person.setPhoneNumber(jsonObject.path("persons").path(numberOfPersons).path("phone").asText().replaceAll("-", ""));
-                    person.setMail(jsonObject.path("persons").path(numberOfPersons).path("email").asText());
-                    String street = jsonObject.path("persons").path(numberOfPersons).path("address").asText();
-                    String zip = jsonObject.path("persons").path(numberOfPersons).path("zip").asText();
-                    String city = jsonObject.path("persons").path(numberOfPersons).path("city").asText().toUpperCase();
-                    Address address;
-                    Optional<Address> addressOptional = addressRepository.findByStreetAndZipAndCity(street, zip, city);
-                    address = addressOptional.orElseGet(() -> new Address(street, zip, city));
-                    address.addPerson(person);
-                    personRepository.save(person);
-                    log.info(person.getFirstName().toUpperCase() + " " + person.getLastName().toUpperCase() + " have been saved. \n");
-                }
-                log.info("All the persons from data.json file have been registered in dataBase.\n");
+    /**
+     * Load the dataset, then announce that the application accepts traffic.
+     * If the dataset can't be loaded the application keeps refusing traffic, instead of serving an empty database.
+     */
+    private void load() {
+        log.debug("The function load in DataInit is beginning.");
+        String source = dataFileSource.getDescription();
+        datasetLoadProgress.started(source);
+        String fingerprint = getFingerprint();
+        boolean imported;
+        try {
+            imported = loadDataset(source, fingerprint);
+            applicationEventPublisher.publishEvent(new DatasetLoadedEvent(source));
+        } catch (Exception e) {
+            datasetLoadProgress.failed(e);
+            log.error("The dataset couldn't have been loaded from " + source + ", the application keeps refusing traffic : " + e.getMessage() + "\n");
+            return;
+        }
+        datasetLoadProgress.loaded();
+        AvailabilityChangeEvent.publish(applicationEventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        if (imported && !persistentStore) {
+            datasetSnapshot.refresh(source, fingerprint);
+        }
+        log.debug("The function load in DataInit is ending without any exception.");
+    }
 
-                //getting each mapping firestation/address in the json file
-                log.debug("Beginning to get firestations from json file.\n");
-                for (int numberOfAddresses = 0; numberOfAddresses < jsonObject.path("firestations").size(); numberOfAddresses++) {
-                    int stationNumber = jsonObject.path("firestations").path(numberOfAddresses).path("station").asInt();
-                    String street = jsonObject.path("firestations").path(numberOfAddresses).path("address").asText();
-                    Optional<Firestation> firestationToUpdate = firestationRepository.findById(stationNumber);
-                    Optional<Address> addressToUpdate = addressRepository.findByStreet(street);
-                    Address address;
-                    if (firestationToUpdate.isPresent()) {
-                        Firestation firestation = firestationToUpdate.get();
-                        //if the firestation already exists, the address is added to its attached addresses and saved in database
-                        address = addressToUpdate.orElseGet(() -> new Address(street, "97451", "CULVER"));
-                        firestation.addAddress(address);
-                        firestationRepository.save(firestation);
-                        log.info("The fire station number " + stationNumber + " have been updated, adding the address: " + address.getStreet() + ". \n");
-                    } else {
-                        //if the firestation doesn't exist, a firestation object is created, the address is added to its attached addresses and then the firestation is saved into database
-                        Firestation firestation = new Firestation();
-                        firestation.setStationId(stationNumber);
-                        address = addressToUpdate.orElseGet(() -> new Address(street, "97451", "CULVER"));
-                        firestation.addAddress(address);
-                        firestationRepository.save(firestation);
-                        log.info("Firestation number" + stationNumber + " have been created in dataBase with the address " + address + ".\n");
-                    }
-                }
-                log.info("All the firestations with all their addresses from data.json file have been registered in dataBase.\n");
+    /**
+     * Register the dataset in database, from the persistent store, from the snapshot or by importing the data file
+     *
+     * @param source      - a String describing where the data file is read from
+     * @param fingerprint - the fingerprint of the data file, null when it isn't known
+     * @return true if the data file has been imported, false if the dataset was already there or has been restored from the snapshot
+     * @throws IOException - when the data file can't be read
+     */
+    private boolean loadDataset(String source, String fingerprint) throws IOException {
+        //if the persistent store already holds the dataset of the same data file, nothing has to be loaded
+        if (persistentStore && datasetMetadata.isUpToDate(source, fingerprint)) {
+            log.info("The data registered in database are up to date with " + source + ", the data file isn't imported.\n");
+            return false;
+        }
+        //if a valid snapshot of the same version of the data file exists, it's restored instead of importing the data file
+        //a persistent store doesn't need the snapshot, the dataset being kept in database
+        if (!persistentStore && datasetSnapshot.isEnabled() && datasetSnapshot.restore(source, fingerprint)) {
+            log.info("The data have been restored from the snapshot " + datasetSnapshot.getPath() + ".\n");
+            datasetMetadata.record(source, fingerprint);
+            return false;
+        }
+        //the persistent store may hold an older dataset, which is removed before importing the data file
+        if (persistentStore) {
+            datasetMetadata.clearDataset();
+        }
+        //getting json file from which information has to be read, its content is imported while it is read
+        try (InputStream inputStream = dataFileSource.open()) {
+            log.info("The file data.json have been opened from " + source + ".");
+            ImportReport report = streamingDataImporter.importData(inputStream);
+            log.info("All the persons, firestations and medical records from data.json file have been registered in dataBase: " + report + ".\n");
+        }
+        //the version of the data file is remembered, so the sync doesn't download it again while it is unchanged
+        datasetMetadata.record(source, fingerprint);
+        return true;
+    }
 
-                //getting each medical records in the json file
-                log.debug("Beginning to get medical records from json file.\n");
-                for (int numberOfMedicalRecords = 0; numberOfMedicalRecords < jsonObject.path("medicalrecords").size(); numberOfMedicalRecords++) {
-                    MedicalRecords medicalRecords = new MedicalRecords();
-                    String firstName = jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("firstName").asText();
-                    String lastName = jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("lastName").asText();
-                    Person personToUpdate;
-                    List<Person> person = personRepository.findByFirstNameAndLastName(firstName.toUpperCase(), lastName.toUpperCase());
-                    if (person.isEmpty()) {
-                        personToUpdate = new Person(firstName, lastName);
-                    } else {
-                        personToUpdate = person.get(0);
-                    }
-                    medicalRecords.addPerson(personToUpdate);
-                    String birthdate = jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("birthdate").asText();
-                    int birthdateMonth = Integer.parseInt(birthdate.substring(0, 2));
-                    int birthdateDay = Integer.parseInt(birthdate.substring(3, 5));
-                    int birthdateYear = Integer.parseInt(birthdate.substring(6, 10));
-                    LocalDate birthdate2 = LocalDate.of(birthdateYear, birthdateMonth, birthdateDay);
-                    medicalRecords.setBirthdate(birthdate2);
-                    if (jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("medications").size() != 0) {
-                        for (int numberOfMedication = 0; numberOfMedication < jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("medications").size(); numberOfMedication++) {
-                            String medicationName = jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("medications").get(numberOfMedication).asText();
-                            medicalRecords.addMedication(new Medication(medicationName));
-                        }
-                    }
-                    if (jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("allergies").size() != 0) {
-                        for (int numberOfAllergies = 0; numberOfAllergies < jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("allergies").size(); numberOfAllergies++) {
-                            String allergyName = jsonObject.path("medicalrecords").path(numberOfMedicalRecords).path("allergies").get(numberOfAllergies).asText();
-                            medicalRecords.addAllergy(new Allergy(allergyName));
-                        }
-                    }
-                    medicalRecordsRepository.save(medicalRecords);
-                    personRepository.save(personToUpdate);
-                    log.info("Medical records about " + firstName + " " + lastName + " have been created.\n");
-                }
-                log.info("All the medical records from data.json file have been registered in dataBase.\n");
-            }
-            log.debug("The function DataInit is ending without any exception");
-        } catch (Exception e) {
-            log.error("Something went wrong while calling data.json file : " + e.getMessage() + "\n");
+    private String getFingerprint() {
+        try {
+            return dataFileSource.getFingerprint();
+        } catch (IOException e) {
+            log.warn("The fingerprint of " + dataFileSource.getDescription() + " couldn't have been read, the data file will be imported : " + e.getMessage());
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.safetynet.alert.init;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "dataset")
+public class DatasetLoadEndpoint {
+
+    private final DatasetLoadProgress datasetLoadProgress;
+
+    @Autowired
+    public DatasetLoadEndpoint(DatasetLoadProgress datasetLoadProgress) {
+        this.datasetLoadProgress = datasetLoadProgress;
+    }
+
+    /**
+     * Read - Get the progress of the dataset load done at startup
+     *
+     * @return a map giving the status of the load, its source, the rows imported so far and how long it has been running
+     */
+    @ReadOperation
+    public Map<String, Object> progress() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", datasetLoadProgress.getStatus());
+        result.put("source", datasetLoadProgress.getSource());
+        result.put("persons", datasetLoadProgress.getPersons());
+        result.put("firestationMappings", datasetLoadProgress.getFirestationMappings());
+        result.put("medicalRecords", datasetLoadProgress.getMedicalRecords());
+        Instant startedAt = datasetLoadProgress.getStartedAt();
+        if (startedAt != null) {
+            result.put("startedAt", startedAt.toString());
+            Instant finishedAt = datasetLoadProgress.getFinishedAt();
+            result.put("durationInMillis", Duration.between(startedAt, finishedAt == null ? Instant.now() : finishedAt).toMillis());
+        }
+        if (datasetLoadProgress.getError() != null) {
+            result.put("error", datasetLoadProgress.getError());
+        }
+        return result;
+    }
+}
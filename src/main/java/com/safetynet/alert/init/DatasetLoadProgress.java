@@ -0,0 +1,82 @@
+package com.safetynet.alert.init;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Progress of the dataset load done in background at startup, written by the loading thread and read by the actuator endpoint
+ * and by the readiness state.
+ */
+@Slf4j
+@Getter
+@Component
+public class DatasetLoadProgress {
+
+    public enum Status {
+        PENDING, LOADING, LOADED, FAILED
+    }
+
+    private volatile Status status = Status.PENDING;
+    private volatile String source;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile long persons;
+    private volatile long firestationMappings;
+    private volatile long medicalRecords;
+    private volatile String error;
+
+    /**
+     * Remember that the dataset begins to be loaded
+     *
+     * @param source - a String describing where the data are loaded from
+     */
+    public void started(String source) {
+        this.source = source;
+        this.startedAt = Instant.now();
+        this.finishedAt = null;
+        this.persons = 0;
+        this.firestationMappings = 0;
+        this.medicalRecords = 0;
+        this.error = null;
+        this.status = Status.LOADING;
+    }
+
+    /**
+     * Update the number of rows imported so far
+     *
+     * @param persons             - the number of persons imported
+     * @param firestationMappings - the number of firestation mappings imported
+     * @param medicalRecords      - the number of medical records imported
+     */
+    public void rowsImported(long persons, long firestationMappings, long medicalRecords) {
+        this.persons = persons;
+        this.firestationMappings = firestationMappings;
+        this.medicalRecords = medicalRecords;
+    }
+
+    /**
+     * Remember that the whole dataset has been loaded
+     */
+    public void loaded() {
+        this.finishedAt = Instant.now();
+        this.status = Status.LOADED;
+    }
+
+    /**
+     * Remember that the dataset couldn't have been loaded
+     *
+     * @param exception - the exception which stopped the load
+     */
+    public void failed(Exception exception) {
+        this.finishedAt = Instant.now();
+        this.error = exception.getClass().getSimpleName() + ": " + exception.getMessage();
+        this.status = Status.FAILED;
+    }
+
+    public boolean isLoaded() {
+        return status == Status.LOADED;
+    }
+}
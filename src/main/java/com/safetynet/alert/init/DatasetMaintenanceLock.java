@@ -0,0 +1,39 @@
+package com.safetynet.alert.init;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lets one maintenance of the whole dataset run at a time: the startup load, a reload and a sync all write the dataset from the data file,
+ * so none starts while another one runs.
+ */
+@Slf4j
+@Component
+public class DatasetMaintenanceLock {
+
+    //the name of the maintenance running, null when none is
+    private final AtomicReference<String> holder = new AtomicReference<>();
+
+    /**
+     * Take the lock if no other maintenance is running
+     *
+     * @param maintenance - the name of the maintenance taking the lock, as logged
+     * @return true if the lock has been taken, it has then to be released by the same maintenance
+     */
+    public boolean tryAcquire(String maintenance) {
+        if (!holder.compareAndSet(null, maintenance)) {
+            log.info("The " + maintenance + " can't start while a " + holder.get() + " is running.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Release the lock taken by a maintenance
+     */
+    public void release() {
+        holder.set(null);
+    }
+}
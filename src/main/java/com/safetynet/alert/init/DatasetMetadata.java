@@ -0,0 +1,95 @@
+package com.safetynet.alert.init;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Component
+public class DatasetMetadata {
+
+    //the table holds a single row, describing the dataset currently registered
+    private static final int ROW_ID = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DatasetMetadata(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Check if the dataset registered in database has been loaded from the given version of the data file
+     *
+     * @param source      - a String describing where the data file is read from
+     * @param fingerprint - the fingerprint of the data file, may be null when it isn't known
+     * @return true if the dataset comes from the same source with the same fingerprint, false if it has to be imported again
+     */
+    public boolean isUpToDate(String source, String fingerprint) {
+        log.debug("The function isUpToDate in DatasetMetadata is beginning.");
+        if (fingerprint == null) {
+            log.debug("The function isUpToDate in DatasetMetadata is ending, the fingerprint of " + source + " isn't known.");
+            return false;
+        }
+        boolean upToDate = fingerprint.equals(getFingerprint(source));
+        log.debug("The function isUpToDate in DatasetMetadata is ending without any exception.");
+        return upToDate;
+    }
+
+    /**
+     * Get the version of the data file the dataset registered in database has been loaded from
+     *
+     * @param source - a String describing where the data file is read from
+     * @return the fingerprint of the data file, or null when the dataset doesn't come from this source or when its version isn't known
+     */
+    public String getFingerprint(String source) {
+        List<String> fingerprints = jdbcTemplate.queryForList("SELECT fingerprint FROM dataset_metadata WHERE id = ? AND source = ?",
+                String.class, ROW_ID, source);
+        return fingerprints.isEmpty() ? null : fingerprints.get(0);
+    }
+
+    /**
+     * Remember the version of the data file the dataset has just been loaded from
+     *
+     * @param source      - a String describing where the data file has been read from
+     * @param fingerprint - the fingerprint of the data file, nothing is remembered when it is null
+     */
+    public void record(String source, String fingerprint) {
+        log.debug("The function record in DatasetMetadata is beginning.");
+        if (fingerprint == null) {
+            forget();
+        } else {
+            jdbcTemplate.update("MERGE INTO dataset_metadata (id, source, fingerprint, loaded_at) KEY (id) VALUES (?, ?, ?, ?)",
+                    ROW_ID, source, fingerprint, Timestamp.from(Instant.now()));
+        }
+        log.debug("The function record in DatasetMetadata is ending without any exception.");
+    }
+
+    /**
+     * Forget the version of the dataset, so it is imported again at the next startup
+     */
+    public void forget() {
+        jdbcTemplate.update("DELETE FROM dataset_metadata");
+    }
+
+    /**
+     * Remove every row of the dataset tables before the data file is imported again into a persistent store,
+     * the version of the dataset being forgotten first so an interrupted import is never taken as up to date
+     */
+    public void clearDataset() {
+        log.debug("The function clearDataset in DatasetMetadata is beginning.");
+        forget();
+        jdbcTemplate.update("DELETE FROM person");
+        jdbcTemplate.update("DELETE FROM medication");
+        jdbcTemplate.update("DELETE FROM allergy");
+        jdbcTemplate.update("DELETE FROM medical_records");
+        jdbcTemplate.update("DELETE FROM address");
+        jdbcTemplate.update("DELETE FROM firestation");
+        log.debug("The function clearDataset in DatasetMetadata is ending without any exception.");
+    }
+}
@@ -0,0 +1,37 @@
+package com.safetynet.alert.init;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces the application availability of Spring Boot, so the readiness state only becomes ACCEPTING_TRAFFIC once the dataset is loaded.
+ * Spring Boot announces ACCEPTING_TRAFFIC as soon as the application has started, while the dataset may still be loading in background:
+ * this announce is held back, and DataInit announces ACCEPTING_TRAFFIC again when the load ends.
+ * The liveness state isn't changed, the application being live as soon as it has started.
+ */
+@Profile("!test")
+@Slf4j
+@Component
+public class DatasetReadinessGate extends ApplicationAvailabilityBean {
+
+    private final DatasetLoadProgress datasetLoadProgress;
+
+    @Autowired
+    public DatasetReadinessGate(DatasetLoadProgress datasetLoadProgress) {
+        this.datasetLoadProgress = datasetLoadProgress;
+    }
+
+    @Override
+    public void onApplicationEvent(AvailabilityChangeEvent<?> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !datasetLoadProgress.isLoaded()) {
+            log.info("The application refuses traffic until the dataset is loaded, its load is " + datasetLoadProgress.getStatus() + ".");
+            return;
+        }
+        super.onApplicationEvent(event);
+    }
+}
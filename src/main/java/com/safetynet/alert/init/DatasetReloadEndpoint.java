@@ -0,0 +1,66 @@
+package com.safetynet.alert.init;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@Endpoint(id = "reload")
+public class DatasetReloadEndpoint {
+
+    private final DatasetReloader datasetReloader;
+
+    @Autowired
+    public DatasetReloadEndpoint(DatasetReloader datasetReloader) {
+        this.datasetReloader = datasetReloader;
+    }
+
+    /**
+     * Read - Get the state of the last reload of the dataset
+     *
+     * @return a map giving the status of the last reload, when it started and ended, what it imported and why it failed
+     */
+    @ReadOperation
+    public Map<String, Object> reloadStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", datasetReloader.getStatus());
+        if (datasetReloader.getStartedAt() != null) {
+            result.put("startedAt", datasetReloader.getStartedAt().toString());
+        }
+        if (datasetReloader.getFinishedAt() != null) {
+            result.put("finishedAt", datasetReloader.getFinishedAt().toString());
+        }
+        if (datasetReloader.getReport() != null) {
+            result.put("report", datasetReloader.getReport().toString());
+        }
+        if (datasetReloader.getMessage() != null) {
+            result.put("message", datasetReloader.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Create - Start reloading the dataset from the data file in background, the current dataset being served until the new one is swapped in
+     *
+     * @return a map telling if the reload has been started
+     */
+    @WriteOperation
+    public Map<String, Object> reload() {
+        log.debug("The function reload in DatasetReloadEndpoint is beginning.");
+        Map<String, Object> result = new LinkedHashMap<>();
+        boolean started = datasetReloader.startReload();
+        result.put("started", started);
+        if (!started) {
+            result.put("message", "A load of the dataset is already running.");
+        }
+        log.debug("The function reload in DatasetReloadEndpoint is ending without any exception.");
+        return result;
+    }
+}
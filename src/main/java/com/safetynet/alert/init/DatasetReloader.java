@@ -0,0 +1,236 @@
+package com.safetynet.alert.init;
+
+import com.safetynet.alert.event.DatasetLoadedEvent;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reloads the dataset while the application keeps serving the current one: the data file is imported into the staging schema,
+ * checked, and then swapped with the current dataset in one transaction, so readers see either the whole old dataset or the whole new one.
+ * As with a restart, the changes written through the API during a reload are replaced by the content of the data file.
+ */
+@Slf4j
+@Component
+public class DatasetReloader {
+
+    public enum Status {
+        NEVER_RUN, RUNNING, SWAPPED, REJECTED, FAILED
+    }
+
+    //has to be the allocationSize of the entities' sequence generators
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
+    private final DataFileSource dataFileSource;
+    private final StagingDataImporter stagingDataImporter;
+    private final DatasetMetadata datasetMetadata;
+    private final DatasetSnapshot datasetSnapshot;
+    private final DatasetMaintenanceLock datasetMaintenanceLock;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final boolean persistentStore;
+
+    @Getter
+    private volatile Status status = Status.NEVER_RUN;
+    @Getter
+    private volatile Instant startedAt;
+    @Getter
+    private volatile Instant finishedAt;
+    @Getter
+    private volatile ImportReport report;
+    @Getter
+    private volatile String message;
+
+    @Autowired
+    public DatasetReloader(DataFileSource dataFileSource, StagingDataImporter stagingDataImporter, DatasetMetadata datasetMetadata,
+                           DatasetSnapshot datasetSnapshot, DatasetMaintenanceLock datasetMaintenanceLock, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher applicationEventPublisher, @Value("${alert.store.persistent:false}") boolean persistentStore) {
+        this.dataFileSource = dataFileSource;
+        this.stagingDataImporter = stagingDataImporter;
+        this.datasetMetadata = datasetMetadata;
+        this.datasetSnapshot = datasetSnapshot;
+        this.datasetMaintenanceLock = datasetMaintenanceLock;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.persistentStore = persistentStore;
+    }
+
+    /**
+     * Start reloading the dataset from the configured data file in background
+     *
+     * @return false if a reload, a sync or the load done at startup is already running, true if the reload has been started
+     */
+    public boolean startReload() {
+        if (!datasetMaintenanceLock.tryAcquire("reload")) {
+            return false;
+        }
+        new SimpleAsyncTaskExecutor("dataset-reload-").execute(() -> {
+            try {
+                runReload(dataFileSource);
+            } finally {
+                datasetMaintenanceLock.release();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Reload the dataset from the given data file and wait for the end of the reload
+     *
+     * @param source - the data file to reload the dataset from
+     * @return the status of the reload, SWAPPED when the new dataset replaced the current one, REJECTED when it was invalid
+     * or when a reload, a sync or the load done at startup was running
+     */
+    public Status reload(DataFileSource source) {
+        if (!datasetMaintenanceLock.tryAcquire("reload")) {
+            return Status.REJECTED;
+        }
+        try {
+            return runReload(source);
+        } finally {
+            datasetMaintenanceLock.release();
+        }
+    }
+
+    private Status runReload(DataFileSource source) {
+        log.debug("The function reload in DatasetReloader is beginning.");
+        startedAt = Instant.now();
+        finishedAt = null;
+        report = null;
+        message = null;
+        status = Status.RUNNING;
+        try {
+            String fingerprint = source.getFingerprint();
+            try (InputStream inputStream = source.open()) {
+                report = stagingDataImporter.importData(inputStream);
+            }
+            List<String> errors = validate();
+            if (!errors.isEmpty()) {
+                finish(Status.REJECTED, "The staged dataset has been rejected: " + String.join(" ", errors));
+                log.warn(message);
+                return status;
+            }
+            swap(source.getDescription(), fingerprint);
+            stagingDataImporter.clear();
+            //the snapshot is written again, so a restart doesn't restore the dataset replaced
+            if (!persistentStore) {
+                datasetSnapshot.refresh(source.getDescription(), fingerprint);
+            }
+        } catch (IOException | RuntimeException e) {
+            finish(Status.FAILED, "The dataset couldn't have been reloaded from " + source.getDescription() + " : " + e.getMessage());
+            log.error(message);
+            return status;
+        }
+        //the indexes, the read model and the cached responses are rebuilt from the new dataset
+        applicationEventPublisher.publishEvent(new DatasetLoadedEvent(source.getDescription()));
+        finish(Status.SWAPPED, "The dataset has been reloaded from " + source.getDescription() + ": " + report + ".");
+        log.info(message);
+        log.debug("The function reload in DatasetReloader is ending without any exception.");
+        return status;
+    }
+
+    private void finish(Status status, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+
+    /**
+     * Check the staged dataset before it replaces the current one
+     *
+     * @return the problems found, empty when the staged dataset can be swapped in
+     */
+    private List<String> validate() {
+        List<String> errors = new ArrayList<>();
+        if (count("SELECT COUNT(*) FROM staging.person") == 0) {
+            errors.add("The data file contains no person.");
+        }
+        if (count("SELECT COUNT(*) FROM staging.firestation") == 0) {
+            errors.add("The data file contains no firestation.");
+        }
+        long personsWithoutAddress = count("SELECT COUNT(*) FROM staging.person p WHERE p.address_id IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM staging.address a WHERE a.address_id = p.address_id)");
+        long addressesWithoutStation = count("SELECT COUNT(*) FROM staging.address a WHERE a.station_id IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM staging.firestation f WHERE f.station_id = a.station_id)");
+        long personsWithoutMedicalRecords = count("SELECT COUNT(*) FROM staging.person p WHERE p.medical_id IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM staging.medical_records m WHERE m.medical_id = p.medical_id)");
+        long medicationsWithoutMedicalRecords = count("SELECT COUNT(*) FROM staging.medication m WHERE m.medical_id IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM staging.medical_records r WHERE r.medical_id = m.medical_id)");
+        long allergiesWithoutMedicalRecords = count("SELECT COUNT(*) FROM staging.allergy a WHERE a.medical_id IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM staging.medical_records r WHERE r.medical_id = a.medical_id)");
+        //the foreign keys of the current tables would reject these rows during the swap
+        long missingRows = personsWithoutAddress + addressesWithoutStation + personsWithoutMedicalRecords
+                + medicationsWithoutMedicalRecords + allergiesWithoutMedicalRecords;
+        if (missingRows > 0) {
+            errors.add("The staged dataset references " + missingRows + " missing rows.");
+        }
+        return errors;
+    }
+
+    /**
+     * Replace the current dataset by the staged one in one transaction.
+     * The staged ids begin at 1: they are moved to a range of ids reserved in each sequence beforehand,
+     * above every id the sequence has given, so they never collide with ids the entities' generators still hold.
+     */
+    private void swap(String source, String fingerprint) {
+        long addressOffset = reserveIds("address_seq", "staging.address", "address_id");
+        long medicalOffset = reserveIds("medical_records_seq", "staging.medical_records", "medical_id");
+        long medicationOffset = reserveIds("medication_seq", "staging.medication", "medication_id");
+        long allergyOffset = reserveIds("allergy_seq", "staging.allergy", "allergy_id");
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            datasetMetadata.clearDataset();
+            jdbcTemplate.update("INSERT INTO firestation (station_id) SELECT station_id FROM staging.firestation");
+            jdbcTemplate.update("INSERT INTO address (address_id, street, zip, city, station_id, normalized_street, normalized_city) " +
+                    "SELECT address_id + ?, street, zip, city, station_id, normalized_street, normalized_city FROM staging.address", addressOffset);
+            jdbcTemplate.update("INSERT INTO medical_records (medical_id, birthdate) SELECT medical_id + ?, birthdate FROM staging.medical_records",
+                    medicalOffset);
+            jdbcTemplate.update("INSERT INTO medication (medication_id, medication_name, medical_id) " +
+                    "SELECT medication_id + ?, medication_name, medical_id + ? FROM staging.medication", medicationOffset, medicalOffset);
+            jdbcTemplate.update("INSERT INTO allergy (allergy_id, allergy_name, medical_id) " +
+                    "SELECT allergy_id + ?, allergy_name, medical_id + ? FROM staging.allergy", allergyOffset, medicalOffset);
+            jdbcTemplate.update("INSERT INTO person (id, first_name, last_name, address_id, phone_number, mail, medical_id) " +
+                    "SELECT id, first_name, last_name, address_id + ?, phone_number, mail, medical_id + ? FROM staging.person", addressOffset, medicalOffset);
+            datasetMetadata.record(source, fingerprint);
+        });
+    }
+
+    /**
+     * Reserve in a sequence as many ids as there are staged rows, with one NEXT VALUE given while the increment of the sequence
+     * covers the staged rows: whatever the order of the writers' calls, their blocks of ids end below the value reserved
+     * or begin above the reserved range, so the reservation needs no lock against them
+     *
+     * @return the offset to add to the staged ids to move them into the reserved range
+     */
+    private long reserveIds(String sequence, String stagingTable, String column) {
+        long stagedIds = count("SELECT COALESCE(MAX(" + column + "), 0) FROM " + stagingTable);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + (stagedIds + SEQUENCE_ALLOCATION_SIZE));
+        try {
+            //the pooled optimizer uses a sequence value as the upper bound of its block of ids,
+            //so the block of the value reserved and the staged ids above it are free
+            Long reserved = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+            return reserved - SEQUENCE_ALLOCATION_SIZE;
+        } finally {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + SEQUENCE_ALLOCATION_SIZE);
+        }
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,342 @@
+package com.safetynet.alert.init;
+
+import com.safetynet.alert.model.Address;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+@Slf4j
+@Component
+public class DatasetSnapshot {
+
+    //"SALT" in ASCII, written at the beginning of every snapshot file
+    private static final int MAGIC = 0x53414C54;
+    //has to be incremented each time the tables or the layout of the snapshot change, older snapshots are then ignored
+    private static final int FORMAT_VERSION = 2;
+    private static final int BATCH_SIZE = 1000;
+    //has to be the allocationSize of the entities' sequence generators
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+    //the checksum of the whole file is written at its end
+    private static final int TRAILER_SIZE = Long.BYTES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Getter
+    private final boolean enabled;
+
+    @Getter
+    private final Path path;
+
+    @Autowired
+    public DatasetSnapshot(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${alert.snapshot.enabled:false}") boolean enabled,
+                           @Value("${alert.snapshot.path:snapshot/dataset.snapshot}") String path) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Write all the persons, addresses, firestations and medical records registered in database into the snapshot file.
+     * The file is first written aside and then moved, so an interrupted write never replaces a valid snapshot.
+     *
+     * @param source      - a String describing where the data registered in database come from
+     * @param fingerprint - the fingerprint of the data file the data registered in database come from, null when it isn't known
+     * @return the size of the snapshot file, in bytes
+     * @throws IOException - when the snapshot file can't be written
+     */
+    public long write(String source, String fingerprint) throws IOException {
+        log.debug("The function write in DatasetSnapshot is beginning.");
+        Path absolutePath = path.toAbsolutePath();
+        Files.createDirectories(absolutePath.getParent());
+        Path temporaryPath = absolutePath.resolveSibling(absolutePath.getFileName() + ".tmp");
+        CRC32 checksum = new CRC32();
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temporaryPath))) {
+            DataOutputStream output = new DataOutputStream(new CheckedOutputStream(file, checksum));
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(source);
+            writeString(output, fingerprint);
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnlyTransaction.setReadOnly(true);
+            readOnlyTransaction.executeWithoutResult(status -> writeTables(output));
+            new DataOutputStream(file).writeLong(checksum.getValue());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temporaryPath, absolutePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long size = Files.size(absolutePath);
+        log.info("The snapshot " + absolutePath + " have been written (" + size + " bytes).");
+        log.debug("The function write in DatasetSnapshot is ending without any exception.");
+        return size;
+    }
+
+    /**
+     * Write the snapshot again after the dataset changed, or remove it when it can't be written,
+     * so a restart never restores a dataset older than the one registered in database
+     *
+     * @param source      - a String describing where the data registered in database come from
+     * @param fingerprint - the fingerprint of the data file the data registered in database come from, null when it isn't known
+     */
+    public void refresh(String source, String fingerprint) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            write(source, fingerprint);
+        } catch (IOException | RuntimeException e) {
+            log.error("The snapshot couldn't have been written, it is removed : " + e.getMessage() + "\n");
+            delete();
+        }
+    }
+
+    /**
+     * Remove the snapshot file, the data file being then imported at the next startup
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(path.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("The snapshot " + path.toAbsolutePath() + " couldn't have been removed : " + e.getMessage() + "\n");
+        }
+    }
+
+    /**
+     * Replace the content of the database by the content of the snapshot file, if the snapshot is valid.
+     * A snapshot is valid when it has the current format version, when its checksum is correct
+     * and when it comes from the same version of the same source.
+     *
+     * @param source      - a String describing where the data are expected to come from
+     * @param fingerprint - the fingerprint of the data file the data are expected to come from,
+     *                    a snapshot is never restored when it is null since it can't be told stale
+     * @return true if the snapshot have been restored, false if there was no valid snapshot to restore
+     */
+    public boolean restore(String source, String fingerprint) {
+        log.debug("The function restore in DatasetSnapshot is beginning.");
+        Path absolutePath = path.toAbsolutePath();
+        if (!Files.isRegularFile(absolutePath)) {
+            log.debug("The function restore in DatasetSnapshot is ending, there is no snapshot " + absolutePath + ".");
+            return false;
+        }
+        if (fingerprint == null) {
+            log.info("The version of " + source + " isn't known, the snapshot " + absolutePath + " can't be told up to date and is ignored.");
+            return false;
+        }
+        try {
+            if (!isValid(absolutePath, source, fingerprint)) {
+                log.warn("The snapshot " + absolutePath + " is stale or corrupted, it is ignored.");
+                return false;
+            }
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(absolutePath)))) {
+                //skipping the header which have already been checked
+                input.readInt();
+                input.readInt();
+                input.readUTF();
+                readString(input);
+                transactionTemplate.executeWithoutResult(status -> readTables(input));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("The snapshot " + absolutePath + " couldn't have been restored : " + e.getMessage());
+            return false;
+        }
+        log.info("The snapshot " + absolutePath + " have been restored.");
+        log.debug("The function restore in DatasetSnapshot is ending without any exception.");
+        return true;
+    }
+
+    private boolean isValid(Path snapshotPath, String source, String fingerprint) throws IOException {
+        long contentSize = Files.size(snapshotPath) - TRAILER_SIZE;
+        if (contentSize <= 0) {
+            return false;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION || !input.readUTF().equals(source)
+                    || !fingerprint.equals(readString(input))) {
+                return false;
+            }
+        }
+        CRC32 checksum = new CRC32();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            byte[] buffer = new byte[8192];
+            long remaining = contentSize;
+            while (remaining > 0) {
+                int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    return false;
+                }
+                checksum.update(buffer, 0, read);
+                remaining -= read;
+            }
+            return input.readLong() == checksum.getValue();
+        }
+    }
+
+    private void writeTables(DataOutputStream output) {
+        writeRows(output, "SELECT station_id FROM firestation ORDER BY station_id",
+                resultSet -> output.writeInt(resultSet.getInt(1)));
+        writeRows(output, "SELECT address_id, street, zip, city, station_id FROM address ORDER BY address_id",
+                resultSet -> {
+                    output.writeInt(resultSet.getInt(1));
+                    writeString(output, resultSet.getString(2));
+                    writeString(output, resultSet.getString(3));
+                    writeString(output, resultSet.getString(4));
+                    writeInteger(output, (Integer) resultSet.getObject(5));
+                });
+        writeRows(output, "SELECT medical_id, birthdate FROM medical_records ORDER BY medical_id",
+                resultSet -> {
+                    output.writeInt(resultSet.getInt(1));
+                    Date birthdate = resultSet.getDate(2);
+                    output.writeBoolean(birthdate != null);
+                    if (birthdate != null) {
+                        output.writeLong(birthdate.toLocalDate().toEpochDay());
+                    }
+                });
+        writeRows(output, "SELECT medication_id, medication_name, medical_id FROM medication ORDER BY medication_id",
+                resultSet -> {
+                    output.writeLong(resultSet.getLong(1));
+                    writeString(output, resultSet.getString(2));
+                    writeInteger(output, (Integer) resultSet.getObject(3));
+                });
+        writeRows(output, "SELECT allergy_id, allergy_name, medical_id FROM allergy ORDER BY allergy_id",
+                resultSet -> {
+                    output.writeLong(resultSet.getLong(1));
+                    writeString(output, resultSet.getString(2));
+                    writeInteger(output, (Integer) resultSet.getObject(3));
+                });
+        writeRows(output, "SELECT id, first_name, last_name, address_id, phone_number, mail, medical_id FROM person ORDER BY id",
+                resultSet -> {
+                    output.writeUTF(resultSet.getString(1));
+                    writeString(output, resultSet.getString(2));
+                    writeString(output, resultSet.getString(3));
+                    writeInteger(output, (Integer) resultSet.getObject(4));
+                    writeString(output, resultSet.getString(5));
+                    writeString(output, resultSet.getString(6));
+                    writeInteger(output, (Integer) resultSet.getObject(7));
+                });
+    }
+
+    private void readTables(DataInputStream input) {
+        jdbcTemplate.update("DELETE FROM person");
+        jdbcTemplate.update("DELETE FROM medication");
+        jdbcTemplate.update("DELETE FROM allergy");
+        jdbcTemplate.update("DELETE FROM medical_records");
+        jdbcTemplate.update("DELETE FROM address");
+        jdbcTemplate.update("DELETE FROM firestation");
+        readRows(input, "INSERT INTO firestation (station_id) VALUES (?)",
+                in -> new Object[]{in.readInt()});
+        readRows(input, "INSERT INTO address (address_id, street, normalized_street, zip, city, normalized_city, station_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                in -> {
+                    int addressId = in.readInt();
+                    String street = readString(in);
+                    String zip = readString(in);
+                    String city = readString(in);
+                    return new Object[]{addressId, street, Address.normalizeStreet(street), zip, city, Address.normalizeCity(city), readInteger(in)};
+                });
+        readRows(input, "INSERT INTO medical_records (medical_id, birthdate) VALUES (?, ?)",
+                in -> new Object[]{in.readInt(), in.readBoolean() ? Date.valueOf(LocalDate.ofEpochDay(in.readLong())) : null});
+        readRows(input, "INSERT INTO medication (medication_id, medication_name, medical_id) VALUES (?, ?, ?)",
+                in -> new Object[]{in.readLong(), readString(in), readInteger(in)});
+        readRows(input, "INSERT INTO allergy (allergy_id, allergy_name, medical_id) VALUES (?, ?, ?)",
+                in -> new Object[]{in.readLong(), readString(in), readInteger(in)});
+        readRows(input, "INSERT INTO person (id, first_name, last_name, address_id, phone_number, mail, medical_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                in -> new Object[]{in.readUTF(), readString(in), readString(in), readInteger(in), readString(in), readString(in), readInteger(in)});
+        //the generated ids have to continue after the restored ones
+        restartSequence("address_seq", "address", "address_id");
+        restartSequence("medical_records_seq", "medical_records", "medical_id");
+        restartSequence("medication_seq", "medication", "medication_id");
+        restartSequence("allergy_seq", "allergy", "allergy_id");
+    }
+
+    private void restartSequence(String sequence, String table, String column) {
+        //the pooled optimizer uses the sequence value as the upper bound of the next block of ids
+        Long nextValue = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + column + "), 0) + " + SEQUENCE_ALLOCATION_SIZE + " FROM " + table, Long.class);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + nextValue);
+    }
+
+    private void writeRows(DataOutputStream output, String sql, RowWriter rowWriter) {
+        jdbcTemplate.query(sql, (RowCallbackHandler) resultSet -> {
+            try {
+                output.writeBoolean(true);
+                rowWriter.write(resultSet);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            output.writeBoolean(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readRows(DataInputStream input, String sql, RowReader rowReader) {
+        try {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            while (input.readBoolean()) {
+                batch.add(rowReader.read(input));
+                if (batch.size() == BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(sql, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, batch);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static void writeInteger(DataOutputStream output, Integer value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readInt() : null;
+    }
+
+    private interface RowWriter {
+        void write(ResultSet resultSet) throws SQLException, IOException;
+    }
+
+    private interface RowReader {
+        Object[] read(DataInputStream input) throws IOException;
+    }
+}
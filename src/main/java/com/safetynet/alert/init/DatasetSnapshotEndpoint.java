@@ -0,0 +1,73 @@
+package com.safetynet.alert.init;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@Endpoint(id = "snapshot")
+public class DatasetSnapshotEndpoint {
+
+    private final DatasetSnapshot datasetSnapshot;
+    private final DataFileSource dataFileSource;
+    private final DatasetMetadata datasetMetadata;
+
+    @Autowired
+    public DatasetSnapshotEndpoint(DatasetSnapshot datasetSnapshot, DataFileSource dataFileSource, DatasetMetadata datasetMetadata) {
+        this.datasetSnapshot = datasetSnapshot;
+        this.dataFileSource = dataFileSource;
+        this.datasetMetadata = datasetMetadata;
+    }
+
+    /**
+     * Read - Get information about the current snapshot file
+     *
+     * @return a map giving the path of the snapshot, if it exists, its size and its last modification
+     * @throws IOException - when the snapshot file can't be read
+     */
+    @ReadOperation
+    public Map<String, Object> snapshot() throws IOException {
+        Path path = datasetSnapshot.getPath().toAbsolutePath();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("path", path.toString());
+        result.put("enabled", datasetSnapshot.isEnabled());
+        boolean exists = Files.isRegularFile(path);
+        result.put("exists", exists);
+        if (exists) {
+            result.put("bytes", Files.size(path));
+            result.put("lastModified", Files.getLastModifiedTime(path).toString());
+        }
+        return result;
+    }
+
+    /**
+     * Create - Write a new snapshot of the data currently registered in database
+     *
+     * @return a map giving the path of the snapshot written, its size and the time it took
+     * @throws IOException - when the snapshot file can't be written
+     */
+    @WriteOperation
+    public Map<String, Object> writeSnapshot() throws IOException {
+        log.debug("The function writeSnapshot in DatasetSnapshotEndpoint is beginning.");
+        long start = System.currentTimeMillis();
+        String source = dataFileSource.getDescription();
+        //the snapshot is written with the version of the data file the dataset has been loaded from
+        long size = datasetSnapshot.write(source, datasetMetadata.getFingerprint(source));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("path", datasetSnapshot.getPath().toAbsolutePath().toString());
+        result.put("bytes", size);
+        result.put("durationInMillis", System.currentTimeMillis() - start);
+        log.debug("The function writeSnapshot in DatasetSnapshotEndpoint is ending without any exception.");
+        return result;
+    }
+}
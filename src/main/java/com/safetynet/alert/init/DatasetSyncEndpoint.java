@@ -0,0 +1,66 @@
+package com.safetynet.alert.init;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@Endpoint(id = "sync")
+public class DatasetSyncEndpoint {
+
+    private final DatasetSynchronizer datasetSynchronizer;
+
+    @Autowired
+    public DatasetSyncEndpoint(DatasetSynchronizer datasetSynchronizer) {
+        this.datasetSynchronizer = datasetSynchronizer;
+    }
+
+    /**
+     * Read - Get the state of the last sync of the dataset with the data file
+     *
+     * @return a map giving the status of the last sync, when it started and ended, the changes it applied and why it failed
+     */
+    @ReadOperation
+    public Map<String, Object> syncStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", datasetSynchronizer.getStatus());
+        if (datasetSynchronizer.getStartedAt() != null) {
+            result.put("startedAt", datasetSynchronizer.getStartedAt().toString());
+        }
+        if (datasetSynchronizer.getFinishedAt() != null) {
+            result.put("finishedAt", datasetSynchronizer.getFinishedAt().toString());
+        }
+        if (datasetSynchronizer.getReport() != null) {
+            result.put("report", datasetSynchronizer.getReport().toString());
+        }
+        if (datasetSynchronizer.getMessage() != null) {
+            result.put("message", datasetSynchronizer.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Update - Start synchronizing the dataset with the data file in background, only the differences being written
+     *
+     * @return a map telling if the sync has been started
+     */
+    @WriteOperation
+    public Map<String, Object> sync() {
+        log.debug("The function sync in DatasetSyncEndpoint is beginning.");
+        Map<String, Object> result = new LinkedHashMap<>();
+        boolean started = datasetSynchronizer.startSync();
+        result.put("started", started);
+        if (!started) {
+            result.put("message", "A load, a reload or a sync of the dataset is already running.");
+        }
+        log.debug("The function sync in DatasetSyncEndpoint is ending without any exception.");
+        return result;
+    }
+}
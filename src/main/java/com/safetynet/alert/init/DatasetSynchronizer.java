@@ -0,0 +1,414 @@
+package com.safetynet.alert.init;
+
+import com.safetynet.alert.exceptions.EmptyObjectException;
+import com.safetynet.alert.exceptions.ObjectNotFoundException;
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.DTO.FirestationDTO;
+import com.safetynet.alert.model.DTO.KeysetPage;
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+import com.safetynet.alert.service.AddressService;
+import com.safetynet.alert.service.FirestationService;
+import com.safetynet.alert.service.MedicalRecordsService;
+import com.safetynet.alert.service.PersonService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Synchronizes the dataset with the data file without importing it again: the data file is only downloaded when it changed
+ * since the last sync, then its persons, mappings and medical records are compared by natural key with the current ones,
+ * and only the inserts, updates and deletes found are applied through the services, each one in its own transaction.
+ * The changes written through the API since the last sync are kept as long as the data file doesn't change.
+ */
+@Slf4j
+@Component
+public class DatasetSynchronizer {
+
+    public enum Status {
+        NEVER_RUN, RUNNING, UNCHANGED, SYNCED, FAILED
+    }
+
+    private enum Action {
+        INSERT, UPDATE, DELETE
+    }
+
+    //birthdates are written "dd-MM-yyyy" in a MedicalRecordDTO read from the services and "dd/MM/yyyy" in a MedicalRecordDTO given to the services
+    private static final DateTimeFormatter READ_BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter WRITTEN_BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    //the number of firestations read by page when the current mappings are listed
+    private static final int FIRESTATIONS_PAGE_SIZE = 1000;
+
+    private final DataFileSource dataFileSource;
+    private final DataFileParser dataFileParser;
+    private final DatasetMetadata datasetMetadata;
+    private final DatasetSnapshot datasetSnapshot;
+    private final DatasetMaintenanceLock datasetMaintenanceLock;
+    private final PersonService personService;
+    private final FirestationService firestationService;
+    private final MedicalRecordsService medicalRecordsService;
+    private final AddressService addressService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean persistentStore;
+
+    @Getter
+    private volatile Status status = Status.NEVER_RUN;
+    @Getter
+    private volatile Instant startedAt;
+    @Getter
+    private volatile Instant finishedAt;
+    @Getter
+    private volatile SyncReport report;
+    @Getter
+    private volatile String message;
+
+    @Autowired
+    public DatasetSynchronizer(DataFileSource dataFileSource, DataFileParser dataFileParser, DatasetMetadata datasetMetadata,
+                               DatasetSnapshot datasetSnapshot, DatasetMaintenanceLock datasetMaintenanceLock,
+                               PersonService personService, FirestationService firestationService, MedicalRecordsService medicalRecordsService,
+                               AddressService addressService, PlatformTransactionManager transactionManager,
+                               @Value("${alert.store.persistent:false}") boolean persistentStore) {
+        this.dataFileSource = dataFileSource;
+        this.dataFileParser = dataFileParser;
+        this.datasetMetadata = datasetMetadata;
+        this.datasetSnapshot = datasetSnapshot;
+        this.datasetMaintenanceLock = datasetMaintenanceLock;
+        this.personService = personService;
+        this.firestationService = firestationService;
+        this.medicalRecordsService = medicalRecordsService;
+        this.addressService = addressService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.persistentStore = persistentStore;
+    }
+
+    /**
+     * Start synchronizing the dataset with the configured data file in background
+     *
+     * @return false if a sync, a reload or the load done at startup is already running, true if the sync has been started
+     */
+    public boolean startSync() {
+        if (!datasetMaintenanceLock.tryAcquire("sync")) {
+            return false;
+        }
+        new SimpleAsyncTaskExecutor("dataset-sync-").execute(() -> {
+            try {
+                runSync(dataFileSource);
+            } finally {
+                datasetMaintenanceLock.release();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Synchronize the dataset with the given data file and wait for the end of the sync
+     *
+     * @param source - the data file to synchronize the dataset with
+     * @return the status of the sync, UNCHANGED when the data file hasn't changed since the last sync, SYNCED when the differences
+     * have been applied, FAILED when the data file couldn't have been read or when a sync, a reload or the load done at startup was running
+     */
+    public Status sync(DataFileSource source) {
+        if (!datasetMaintenanceLock.tryAcquire("sync")) {
+            return Status.FAILED;
+        }
+        try {
+            return runSync(source);
+        } finally {
+            datasetMaintenanceLock.release();
+        }
+    }
+
+    private Status runSync(DataFileSource source) {
+        log.debug("The function sync in DatasetSynchronizer is beginning.");
+        startedAt = Instant.now();
+        finishedAt = null;
+        report = null;
+        message = null;
+        status = Status.RUNNING;
+        long start = System.currentTimeMillis();
+        try {
+            String fingerprint;
+            FileState file = new FileState();
+            try (DataFileContent content = source.openIfChanged(datasetMetadata.getFingerprint(source.getDescription()))) {
+                if (content == null) {
+                    report = new SyncReport(false, 0, 0, 0, 0, System.currentTimeMillis() - start);
+                    finish(Status.UNCHANGED, "The data file " + source.getDescription() + " hasn't changed since the last sync: " + report + ".");
+                    log.info(message);
+                    return status;
+                }
+                dataFileParser.parse(content.getInputStream(), file);
+                fingerprint = content.getFingerprint();
+            }
+            long[] applied = new long[Action.values().length];
+            long failed = 0;
+            for (Change change : diff(file)) {
+                if (apply(change)) {
+                    applied[change.action.ordinal()]++;
+                } else {
+                    failed++;
+                }
+            }
+            //the version of the data file is only remembered when every change has been applied, otherwise the next sync compares it again
+            datasetMetadata.record(source.getDescription(), failed == 0 ? fingerprint : null);
+            //the snapshot is written again, or removed when the dataset doesn't match any version of the data file,
+            //so a restart doesn't restore the dataset as it was before the sync
+            if (!persistentStore && failed == 0) {
+                datasetSnapshot.refresh(source.getDescription(), fingerprint);
+            } else if (!persistentStore) {
+                datasetSnapshot.delete();
+            }
+            report = new SyncReport(true, applied[Action.INSERT.ordinal()], applied[Action.UPDATE.ordinal()], applied[Action.DELETE.ordinal()],
+                    failed, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            finish(Status.FAILED, "The dataset couldn't have been synchronized with " + source.getDescription() + " : " + e.getMessage());
+            log.error(message);
+            return status;
+        }
+        finish(Status.SYNCED, "The dataset has been synchronized with " + source.getDescription() + ": " + report + ".");
+        log.info(message);
+        log.debug("The function sync in DatasetSynchronizer is ending without any exception.");
+        return status;
+    }
+
+    private void finish(Status status, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+
+    /**
+     * Compare the content of the data file with the current dataset
+     *
+     * @return the changes to apply, in the order they have to be applied: the firestations and the persons a mapping
+     * or a medical records refers to are written before, and deleted after
+     */
+    private List<Change> diff(FileState file) {
+        List<Change> changes = new ArrayList<>();
+        List<Change> deletes = new ArrayList<>();
+        diffMappings(file, changes, deletes);
+        diffPersons(file, changes, deletes);
+        diffMedicalRecords(file, changes, deletes);
+        //the medical records are deleted before their persons, the mappings before their firestations
+        deletes.sort((first, second) -> Integer.compare(first.order, second.order));
+        changes.addAll(deletes);
+        log.debug(changes.size() + " changes found between the data file and the current dataset.");
+        return changes;
+    }
+
+    private void diffMappings(FileState file, List<Change> changes, List<Change> deletes) {
+        Map<String, MappingFirestationAddressDTO> currentMappings = new HashMap<>();
+        Set<Integer> currentStations = new TreeSet<>();
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            String after = null;
+            do {
+                KeysetPage<FirestationDTO> page;
+                try {
+                    page = firestationService.getFirestations(after == null ? null : Integer.valueOf(after), FIRESTATIONS_PAGE_SIZE);
+                } catch (EmptyObjectException e) {
+                    return;
+                }
+                page.getContent().forEach(firestation -> currentStations.add(firestation.getFirestationNumber()));
+                after = page.getNextCursor();
+            } while (after != null);
+            for (Address address : addressService.getAddressesByStations(currentStations)) {
+                currentMappings.put(Address.normalizeStreet(address.getStreet()),
+                        new MappingFirestationAddressDTO(address.getFirestation().getStationId(), address.getStreet(), address.getZip(), address.getCity()));
+            }
+        });
+        Set<Integer> fileStations = new HashSet<>();
+        file.mappings.forEach((street, mapping) -> {
+            fileStations.add(mapping.getNumber());
+            MappingFirestationAddressDTO current = currentMappings.remove(street);
+            if (current == null) {
+                changes.add(new Change(Action.INSERT, 0, "mapping of " + mapping.getAddress(), () -> addMapping(mapping)));
+            } else if (current.getNumber() != mapping.getNumber()) {
+                changes.add(new Change(Action.UPDATE, 0, "mapping of " + mapping.getAddress(), () -> updateMapping(mapping)));
+            }
+        });
+        currentMappings.values().forEach(mapping -> deletes.add(new Change(Action.DELETE, 2, "mapping of " + mapping.getAddress(),
+                () -> firestationService.deleteFirestationOrAddress(mapping.getAddress()))));
+        currentStations.stream()
+                .filter(stationId -> !fileStations.contains(stationId))
+                .forEach(stationId -> deletes.add(new Change(Action.DELETE, 3, "firestation " + stationId,
+                        () -> firestationService.deleteFirestationOrAddress(String.valueOf(stationId)))));
+    }
+
+    private void addMapping(MappingFirestationAddressDTO mapping) {
+        try {
+            addressService.getAddress(mapping.getAddress());
+        } catch (ObjectNotFoundException e) {
+            //the address is created with the default zip and city, as when the data file is imported
+            firestationService.addNewMapping(mapping);
+            return;
+        }
+        //the address is already known from a person living there, it only has to be attached to the firestation
+        updateMapping(mapping);
+    }
+
+    private void updateMapping(MappingFirestationAddressDTO mapping) {
+        try {
+            firestationService.getFirestationById(mapping.getNumber());
+        } catch (ObjectNotFoundException e) {
+            firestationService.addNewMapping(new MappingFirestationAddressDTO(mapping.getNumber(), null, null, null));
+        }
+        firestationService.updateMapping(mapping);
+    }
+
+    private void diffPersons(FileState file, List<Change> changes, List<Change> deletes) {
+        Map<String, PersonDTO> expectedPersons = new LinkedHashMap<>(file.persons);
+        personService.forEachPersonDTO(current -> {
+            String id = (current.getFirstName() + current.getLastName()).toUpperCase();
+            PersonDTO expected = expectedPersons.remove(id);
+            if (expected != null) {
+                PersonDTO newInformation = newInformation(current, expected);
+                if (newInformation != null) {
+                    changes.add(new Change(Action.UPDATE, 0, "person " + id, () -> personService.updatePerson(current, newInformation)));
+                }
+            } else if (!file.medicalRecords.containsKey(id)) {
+                //a person only known from medical records in the data file is kept
+                deletes.add(new Change(Action.DELETE, 1, "person " + id, () -> personService.deletePersonById(id)));
+            }
+        });
+        expectedPersons.forEach((id, expected) -> changes.add(new Change(Action.INSERT, 0, "person " + id, () -> personService.createPerson(expected))));
+    }
+
+    /**
+     * Give the information of a person which differ in the data file, the information missing in the data file being kept
+     *
+     * @return a PersonDTO object containing only the information to update, or null when the person hasn't changed
+     */
+    private static PersonDTO newInformation(PersonDTO current, PersonDTO expected) {
+        PersonDTO newInformation = new PersonDTO();
+        boolean changed = false;
+        if (expected.getAddress() != null && (!expected.getAddress().equals(current.getAddress())
+                || !Objects.equals(expected.getZip(), current.getZip()) || !Objects.equals(expected.getCity(), current.getCity()))) {
+            newInformation.setAddress(expected.getAddress());
+            newInformation.setZip(expected.getZip());
+            newInformation.setCity(expected.getCity());
+            changed = true;
+        }
+        if (expected.getPhoneNumber() != null && !expected.getPhoneNumber().equals(current.getPhoneNumber())) {
+            newInformation.setPhoneNumber(expected.getPhoneNumber());
+            changed = true;
+        }
+        if (expected.getMail() != null && !expected.getMail().equals(current.getMail())) {
+            newInformation.setMail(expected.getMail());
+            changed = true;
+        }
+        return changed ? newInformation : null;
+    }
+
+    private void diffMedicalRecords(FileState file, List<Change> changes, List<Change> deletes) {
+        Map<String, MedicalRecordDTO> expectedMedicalRecords = new LinkedHashMap<>(file.medicalRecords);
+        medicalRecordsService.forEachMedicalRecordDTO(current -> {
+            String id = (current.getFirstName() + current.getLastName()).toUpperCase();
+            MedicalRecordDTO expected = expectedMedicalRecords.remove(id);
+            if (expected == null) {
+                deletes.add(new Change(Action.DELETE, 0, "medical records of " + id,
+                        () -> medicalRecordsService.deleteMedicalRecords(current.getFirstName(), current.getLastName())));
+            } else if (!sameMedicalRecords(current, expected)) {
+                //the medical records are replaced, only the medications and allergies which differ being written
+                changes.add(new Change(Action.UPDATE, 0, "medical records of " + id, () -> medicalRecordsService.addNewMedicalRecords(expected)));
+            }
+        });
+        expectedMedicalRecords.forEach((id, expected) -> changes.add(new Change(Action.INSERT, 0, "medical records of " + id,
+                () -> medicalRecordsService.addNewMedicalRecords(expected))));
+    }
+
+    private static boolean sameMedicalRecords(MedicalRecordDTO current, MedicalRecordDTO expected) {
+        return Objects.equals(parseDate(current.getBirthdate(), READ_BIRTHDATE_FORMAT), parseDate(expected.getBirthdate(), WRITTEN_BIRTHDATE_FORMAT))
+                && sorted(current.getMedications()).equals(sorted(expected.getMedications()))
+                && sorted(current.getAllergies()).equals(sorted(expected.getAllergies()));
+    }
+
+    private static List<String> sorted(List<String> items) {
+        List<String> sortedItems = items == null ? new ArrayList<>() : new ArrayList<>(items);
+        sortedItems.sort(null);
+        return sortedItems;
+    }
+
+    private static LocalDate parseDate(String date, DateTimeFormatter format) {
+        return date == null || date.isEmpty() ? null : LocalDate.parse(date, format);
+    }
+
+    /**
+     * Apply one change in its own transaction, a failing change doesn't stop the sync
+     *
+     * @return true if the change has been applied
+     */
+    private boolean apply(Change change) {
+        try {
+            transactionTemplate.executeWithoutResult(transactionStatus -> change.write.run());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("The " + change.description + " couldn't have been synchronized : " + e.getMessage());
+            return false;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Change {
+
+        private final Action action;
+
+        //the order of the deletes, the rows referred to being deleted last
+        private final int order;
+
+        private final String description;
+
+        private final Runnable write;
+    }
+
+    /**
+     * The content of the data file, by natural key and written as in the current dataset
+     */
+    private static class FileState implements DataFileHandler {
+
+        private final Map<String, PersonDTO> persons = new LinkedHashMap<>();
+        private final Map<String, MappingFirestationAddressDTO> mappings = new LinkedHashMap<>();
+        private final Map<String, MedicalRecordDTO> medicalRecords = new LinkedHashMap<>();
+
+        @Override
+        public void handlePerson(PersonDTO personDTO) {
+            PersonDTO row = DataFileRows.normalizePerson(personDTO);
+            persons.put(row.getFirstName() + row.getLastName(), row);
+        }
+
+        @Override
+        public void handleFirestation(MappingFirestationAddressDTO mapping) {
+            mappings.put(Address.normalizeStreet(mapping.getAddress()), new MappingFirestationAddressDTO(mapping.getNumber(), mapping.getAddress(), null, null));
+        }
+
+        @Override
+        public void handleMedicalRecords(MedicalRecordDTO medicalRecordDTO) {
+            String firstName = medicalRecordDTO.getFirstName().toUpperCase();
+            String lastName = medicalRecordDTO.getLastName().toUpperCase();
+            LocalDate birthdate = DataFileRows.parseBirthdate(medicalRecordDTO);
+            medicalRecords.put(firstName + lastName, new MedicalRecordDTO(firstName, lastName,
+                    birthdate == null ? null : birthdate.format(WRITTEN_BIRTHDATE_FORMAT),
+                    medicalRecordDTO.getMedications(), medicalRecordDTO.getAllergies()));
+        }
+    }
+}
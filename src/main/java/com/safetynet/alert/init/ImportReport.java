@@ -0,0 +1,44 @@
+package com.safetynet.alert.init;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportReport {
+
+    private final long persons;
+
+    private final long firestationMappings;
+
+    private final long medicalRecords;
+
+    private final long durationInMillis;
+
+    /**
+     * Get the number of rows read in the data file, whatever their type
+     *
+     * @return the sum of persons, mappings and medical records imported
+     */
+    public long getRows() {
+        return persons + firestationMappings + medicalRecords;
+    }
+
+    /**
+     * Get the import throughput
+     *
+     * @return the number of rows imported per second
+     */
+    public long getRowsPerSecond() {
+        if (durationInMillis == 0) {
+            return getRows();
+        }
+        return getRows() * 1000 / durationInMillis;
+    }
+
+    @Override
+    public String toString() {
+        return persons + " persons, " + firestationMappings + " firestation mappings and " + medicalRecords + " medical records imported in "
+                + durationInMillis + " ms (" + getRowsPerSecond() + " rows/s)";
+    }
+}
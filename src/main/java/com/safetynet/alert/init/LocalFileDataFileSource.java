@@ -0,0 +1,44 @@
+package com.safetynet.alert.init;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class LocalFileDataFileSource implements DataFileSource {
+
+    private final Path path;
+
+    public LocalFileDataFileSource(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Open the local data file through a memory-mapped channel, so its content is read from the page cache without being copied on the heap
+     *
+     * @return an InputStream reading the mapped file
+     * @throws IOException - when the file can't be opened
+     */
+    @Override
+    public InputStream open() throws IOException {
+        return new MappedFileInputStream(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    @Override
+    public String getDescription() {
+        return path.toAbsolutePath().toString();
+    }
+
+    /**
+     * Give the size and the last modification time of the local data file
+     *
+     * @return a String made of the size and the last modification time, in milliseconds, of the file
+     * @throws IOException - when the attributes of the file can't be read
+     */
+    @Override
+    public String getFingerprint() throws IOException {
+        return Files.size(path) + "-" + Files.getLastModifiedTime(path).toMillis();
+    }
+}
@@ -0,0 +1,67 @@
+package com.safetynet.alert.init;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MappedFileInputStream extends InputStream {
+
+    //the file is mapped region by region, so files bigger than 2GB can be read too
+    private static final long REGION_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private long position;
+    private MappedByteBuffer region;
+
+    public MappedFileInputStream(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!hasRemainingBytes()) {
+            return -1;
+        }
+        return region.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!hasRemainingBytes()) {
+            return -1;
+        }
+        int bytesRead = Math.min(length, region.remaining());
+        region.get(bytes, offset, bytesRead);
+        return bytesRead;
+    }
+
+    @Override
+    public int available() {
+        return region == null ? 0 : region.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+
+    private boolean hasRemainingBytes() throws IOException {
+        if (region != null && region.hasRemaining()) {
+            return true;
+        }
+        if (position >= size) {
+            return false;
+        }
+        long regionSize = Math.min(REGION_SIZE, size - position);
+        region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+        position += regionSize;
+        return true;
+    }
+}
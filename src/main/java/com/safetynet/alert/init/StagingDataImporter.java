@@ -0,0 +1,196 @@
+package com.safetynet.alert.init;
+
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports the data file into the tables of the staging schema with JDBC batches, the same way StreamingDataImporter imports it
+ * into the current tables. The ids of the staged rows begin at 1, they are moved above the current ids when the staged dataset is swapped in.
+ */
+@Slf4j
+@Component
+public class StagingDataImporter {
+
+    private static final String INSERT_FIRESTATION = "INSERT INTO staging.firestation (station_id) VALUES (?)";
+    private static final String INSERT_ADDRESS = "INSERT INTO staging.address (address_id, street, zip, city, station_id, normalized_street, normalized_city) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_ADDRESS_STATION = "UPDATE staging.address SET station_id = ? WHERE address_id = ?";
+    private static final String INSERT_PERSON = "INSERT INTO staging.person (id, first_name, last_name, address_id, phone_number, mail, medical_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MEDICAL_RECORDS = "INSERT INTO staging.medical_records (medical_id, birthdate) VALUES (?, ?)";
+    private static final String UPDATE_PERSON_MEDICAL_RECORDS = "UPDATE staging.person SET medical_id = ? WHERE id = ?";
+    private static final String INSERT_MEDICATION = "INSERT INTO staging.medication (medication_id, medication_name, medical_id) VALUES (?, ?, ?)";
+    private static final String INSERT_ALLERGY = "INSERT INTO staging.allergy (allergy_id, allergy_name, medical_id) VALUES (?, ?, ?)";
+
+    //the batches are always executed in this order, so a row is inserted before it is updated
+    private static final List<String> STATEMENTS = List.of(INSERT_FIRESTATION, INSERT_ADDRESS, UPDATE_ADDRESS_STATION, INSERT_PERSON,
+            INSERT_MEDICAL_RECORDS, UPDATE_PERSON_MEDICAL_RECORDS, INSERT_MEDICATION, INSERT_ALLERGY);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DataFileParser dataFileParser;
+
+    private final int batchSize;
+
+    @Autowired
+    public StagingDataImporter(JdbcTemplate jdbcTemplate, DataFileParser dataFileParser, @Value("${alert.init.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataFileParser = dataFileParser;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Empty the staging tables and import the data file into them
+     *
+     * @param inputStream - the content of the data file
+     * @return an ImportReport object giving the number of rows imported and the import throughput
+     * @throws IOException - when the data file can't be read
+     */
+    public ImportReport importData(InputStream inputStream) throws IOException {
+        log.debug("The function importData in StagingDataImporter is beginning.");
+        long start = System.currentTimeMillis();
+        clear();
+        StagingHandler handler = new StagingHandler();
+        dataFileParser.parse(inputStream, handler);
+        handler.flush();
+        ImportReport report = new ImportReport(handler.persons, handler.mappings, handler.medicalRecords, System.currentTimeMillis() - start);
+        log.info("Data file imported into the staging schema: " + report + ".\n");
+        log.debug("The function importData in StagingDataImporter is ending without any exception.");
+        return report;
+    }
+
+    /**
+     * Remove every row of the staging tables
+     */
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM staging.person");
+        jdbcTemplate.update("DELETE FROM staging.medication");
+        jdbcTemplate.update("DELETE FROM staging.allergy");
+        jdbcTemplate.update("DELETE FROM staging.medical_records");
+        jdbcTemplate.update("DELETE FROM staging.address");
+        jdbcTemplate.update("DELETE FROM staging.firestation");
+    }
+
+    private class StagingHandler implements DataFileHandler {
+
+        private final Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+        private final DataFileRows.AddressIds addressIds = new DataFileRows.AddressIds();
+        private final Set<Integer> firestationIds = new HashSet<>();
+        private final Set<String> personIds = new HashSet<>();
+
+        private int lastAddressId;
+        private int lastMedicalId;
+        private long lastMedicationId;
+        private long lastAllergyId;
+
+        private long persons;
+        private long mappings;
+        private long medicalRecords;
+        private int pending;
+
+        private StagingHandler() {
+            STATEMENTS.forEach(statement -> batches.put(statement, new ArrayList<>()));
+        }
+
+        @Override
+        public void handlePerson(PersonDTO personDTO) {
+            PersonDTO row = DataFileRows.normalizePerson(personDTO);
+            String firstName = row.getFirstName();
+            String lastName = row.getLastName();
+            Integer addressId = resolveAddress(row.getAddress(), row.getZip(), row.getCity());
+            personIds.add(firstName + lastName);
+            add(INSERT_PERSON, firstName + lastName, firstName, lastName, addressId, row.getPhoneNumber(), row.getMail(), null);
+            persons++;
+        }
+
+        @Override
+        public void handleFirestation(MappingFirestationAddressDTO mapping) {
+            int stationNumber = mapping.getNumber();
+            if (firestationIds.add(stationNumber)) {
+                add(INSERT_FIRESTATION, stationNumber);
+            }
+            String street = mapping.getAddress();
+            Integer addressId = addressIds.getByStreet(street);
+            if (addressId != null) {
+                add(UPDATE_ADDRESS_STATION, stationNumber, addressId);
+            } else {
+                insertAddress(street, Address.DEFAULT_ZIP, Address.DEFAULT_CITY, stationNumber);
+            }
+            mappings++;
+        }
+
+        @Override
+        public void handleMedicalRecords(MedicalRecordDTO medicalRecordDTO) {
+            String firstName = medicalRecordDTO.getFirstName().toUpperCase();
+            String lastName = medicalRecordDTO.getLastName().toUpperCase();
+            int medicalId = ++lastMedicalId;
+            add(INSERT_MEDICAL_RECORDS, medicalId, DataFileRows.parseBirthdate(medicalRecordDTO));
+            if (personIds.add(firstName + lastName)) {
+                add(INSERT_PERSON, firstName + lastName, firstName, lastName, null, null, null, medicalId);
+            } else {
+                add(UPDATE_PERSON_MEDICAL_RECORDS, medicalId, firstName + lastName);
+            }
+            for (String medication : medicalRecordDTO.getMedications()) {
+                add(INSERT_MEDICATION, ++lastMedicationId, medication, medicalId);
+            }
+            for (String allergy : medicalRecordDTO.getAllergies()) {
+                add(INSERT_ALLERGY, ++lastAllergyId, allergy, medicalId);
+            }
+            medicalRecords++;
+        }
+
+        private Integer resolveAddress(String street, String zip, String city) {
+            if (street == null) {
+                return null;
+            }
+            Integer addressId = addressIds.get(street, zip, city);
+            return addressId != null ? addressId : insertAddress(street, zip, city, null);
+        }
+
+        private int insertAddress(String street, String zip, String city, Integer stationId) {
+            int addressId = ++lastAddressId;
+            add(INSERT_ADDRESS, addressId, street, zip, city, stationId, Address.normalizeStreet(street), Address.normalizeCity(city));
+            addressIds.put(street, zip, city, addressId);
+            return addressId;
+        }
+
+        private void add(String statement, Object... row) {
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] instanceof LocalDate) {
+                    row[i] = Date.valueOf((LocalDate) row[i]);
+                }
+            }
+            batches.get(statement).add(row);
+            if (++pending >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            batches.forEach((statement, rows) -> {
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(statement, rows);
+                    rows.clear();
+                }
+            });
+            pending = 0;
+            log.debug(persons + " persons, " + mappings + " mappings and " + medicalRecords + " medical records imported into the staging schema.");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.safetynet.alert.init;
+
+import com.safetynet.alert.model.*;
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class StreamingDataImporter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final DataFileParser dataFileParser;
+
+    private final DatasetLoadProgress datasetLoadProgress;
+
+    private final int batchSize;
+
+    @Autowired
+    public StreamingDataImporter(DataFileParser dataFileParser, DatasetLoadProgress datasetLoadProgress,
+                                 @Value("${alert.init.batch-size:500}") int batchSize) {
+        this.dataFileParser = dataFileParser;
+        this.datasetLoadProgress = datasetLoadProgress;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import the data file into database, reading it token by token.
+     * Entities are flushed by JDBC batches and then detached, so the memory used doesn't depend on the file size.
+     *
+     * @param inputStream - the content of the data file
+     * @return an ImportReport object giving the number of rows imported and the import throughput
+     * @throws IOException - when the data file can't be read
+     */
+    @Transactional
+    public ImportReport importData(InputStream inputStream) throws IOException {
+        return importData(inputStream, batchSize, batchSize);
+    }
+
+    /**
+     * Import the data file into database, flushing the entities every batchSize rows by JDBC batches of jdbcBatchSize statements
+     *
+     * @param inputStream   - the content of the data file
+     * @param batchSize     - the number of rows flushed together and then detached
+     * @param jdbcBatchSize - the number of statements sent together when the rows are flushed, 1 disables JDBC batching
+     * @return an ImportReport object giving the number of rows imported and the import throughput
+     * @throws IOException - when the data file can't be read
+     */
+    @Transactional
+    public ImportReport importData(InputStream inputStream, int batchSize, int jdbcBatchSize) throws IOException {
+        log.debug("The function importData in StreamingDataImporter is beginning.");
+        long start = System.currentTimeMillis();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        ImportHandler handler = new ImportHandler(batchSize);
+        dataFileParser.parse(inputStream, handler);
+        entityManager.flush();
+        entityManager.clear();
+        datasetLoadProgress.rowsImported(handler.persons, handler.mappings, handler.medicalRecords);
+        ImportReport report = new ImportReport(handler.persons, handler.mappings, handler.medicalRecords, System.currentTimeMillis() - start);
+        log.info("Data file imported: " + report + ".\n");
+        log.debug("The function importData in StreamingDataImporter is ending without any exception.");
+        return report;
+    }
+
+    private class ImportHandler implements DataFileHandler {
+
+        //addresses are resolved in memory: only their ids are kept, the entities are detached at each flush
+        private final DataFileRows.AddressIds addressIds = new DataFileRows.AddressIds();
+        private final Set<Integer> firestationIds = new HashSet<>();
+
+        private final int batchSize;
+
+        private long persons;
+        private long mappings;
+        private long medicalRecords;
+        private long pending;
+
+        private ImportHandler(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void handlePerson(PersonDTO personDTO) {
+            PersonDTO row = DataFileRows.normalizePerson(personDTO);
+            Person person = new Person(row.getFirstName(), row.getLastName());
+            person.setPhoneNumber(row.getPhoneNumber());
+            person.setMail(row.getMail());
+            person.setAddress(resolveAddress(row.getAddress(), row.getZip(), row.getCity()));
+            entityManager.persist(person);
+            persons++;
+            flushIfNeeded();
+        }
+
+        @Override
+        public void handleFirestation(MappingFirestationAddressDTO mapping) {
+            int stationNumber = mapping.getNumber();
+            Firestation firestation;
+            if (firestationIds.add(stationNumber)) {
+                firestation = new Firestation();
+                firestation.setStationId(stationNumber);
+                entityManager.persist(firestation);
+            } else {
+                firestation = entityManager.getReference(Firestation.class, stationNumber);
+            }
+            String street = mapping.getAddress();
+            Integer addressId = addressIds.getByStreet(street);
+            Address address;
+            if (addressId != null) {
+                address = entityManager.find(Address.class, addressId);
+                address.setFirestation(firestation);
+            } else {
+                address = new Address(street, Address.DEFAULT_ZIP, Address.DEFAULT_CITY);
+                address.setFirestation(firestation);
+                persistAddress(address);
+            }
+            mappings++;
+            flushIfNeeded();
+        }
+
+        @Override
+        public void handleMedicalRecords(MedicalRecordDTO medicalRecordDTO) {
+            String firstName = medicalRecordDTO.getFirstName().toUpperCase();
+            String lastName = medicalRecordDTO.getLastName().toUpperCase();
+            Person person = entityManager.find(Person.class, firstName + lastName);
+            if (person == null) {
+                person = new Person(firstName, lastName);
+                entityManager.persist(person);
+            }
+            MedicalRecords records = new MedicalRecords();
+            records.addPerson(person);
+            records.setBirthdate(DataFileRows.parseBirthdate(medicalRecordDTO));
+            for (String medication : medicalRecordDTO.getMedications()) {
+                records.addMedication(new Medication(medication));
+            }
+            for (String allergy : medicalRecordDTO.getAllergies()) {
+                records.addAllergy(new Allergy(allergy));
+            }
+            entityManager.persist(records);
+            medicalRecords++;
+            flushIfNeeded();
+        }
+
+        private Address resolveAddress(String street, String zip, String city) {
+            if (street == null) {
+                return null;
+            }
+            Integer addressId = addressIds.get(street, zip, city);
+            if (addressId != null) {
+                return entityManager.getReference(Address.class, addressId);
+            }
+            Address address = new Address(street, zip, city);
+            persistAddress(address);
+            return address;
+        }
+
+        private void persistAddress(Address address) {
+            entityManager.persist(address);
+            addressIds.put(address.getStreet(), address.getZip(), address.getCity(), address.getAddressId());
+        }
+
+        private void flushIfNeeded() {
+            if (++pending >= batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+                datasetLoadProgress.rowsImported(persons, mappings, medicalRecords);
+                log.debug(persons + " persons, " + mappings + " mappings and " + medicalRecords + " medical records imported.");
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.safetynet.alert.init;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SyncReport {
+
+    //false when the data file hasn't changed since the last sync, nothing being compared then
+    private final boolean changed;
+
+    private final long inserted;
+
+    private final long updated;
+
+    private final long deleted;
+
+    //the changes which couldn't have been applied, they are applied again by the next sync
+    private final long failed;
+
+    private final long durationInMillis;
+
+    @Override
+    public String toString() {
+        if (!changed) {
+            return "data file unchanged, checked in " + durationInMillis + " ms";
+        }
+        return inserted + " inserts, " + updated + " updates and " + deleted + " deletes applied, " + failed + " failed, in "
+                + durationInMillis + " ms";
+    }
+}
@@ -0,0 +1,123 @@
+package com.safetynet.alert.init;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class UrlDataFileSource implements DataFileSource {
+
+    //the fingerprints built from the last modification and the length, the other fingerprints being ETags
+    private static final Pattern LAST_MODIFIED_FINGERPRINT = Pattern.compile("(\\d+)-(-?\\d+)");
+
+    private final String url;
+    //in milliseconds, a server which doesn't answer fails the request instead of blocking the load or the synchronization
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    public UrlDataFileSource(String url, int connectTimeout, int readTimeout) {
+        this.url = url;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Open a connection to the remote data file, the content is streamed while it is downloaded
+     *
+     * @return an InputStream reading the response's body
+     * @throws IOException - when the remote data file can't be reached
+     */
+    @Override
+    public InputStream open() throws IOException {
+        log.debug("Getting a response from " + url + ".");
+        return openConnection().getInputStream();
+    }
+
+    @Override
+    public String getDescription() {
+        return url;
+    }
+
+    /**
+     * Ask the server for the version of the remote data file with a HEAD request, its content isn't downloaded
+     *
+     * @return the ETag of the data file, or its last modification and its length if the server gives no ETag, or null if it gives neither
+     * @throws IOException - when the remote data file can't be reached
+     */
+    @Override
+    public String getFingerprint() throws IOException {
+        URLConnection connection = openConnection();
+        if (!(connection instanceof HttpURLConnection)) {
+            return null;
+        }
+        HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        try {
+            httpConnection.setRequestMethod("HEAD");
+            if (httpConnection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return null;
+            }
+            return fingerprintOf(httpConnection);
+        } finally {
+            httpConnection.disconnect();
+        }
+    }
+
+    /**
+     * Download the remote data file with a conditional GET request, the server answering "304 Not Modified" without any content
+     * when the data file still has the ETag or hasn't been modified since the last modification given by the fingerprint
+     *
+     * @param fingerprint - the fingerprint of the version already loaded, null when it isn't known
+     * @return a DataFileContent object streaming the response's body, or null when the data file hasn't changed
+     * @throws IOException - when the remote data file can't be reached or when the server answers with an error
+     */
+    @Override
+    public DataFileContent openIfChanged(String fingerprint) throws IOException {
+        //the synchronization holds the maintenance lock during the request, a server which doesn't answer must not keep it
+        URLConnection connection = openConnection();
+        if (!(connection instanceof HttpURLConnection)) {
+            return DataFileSource.super.openIfChanged(fingerprint);
+        }
+        HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        if (fingerprint != null) {
+            Matcher lastModified = LAST_MODIFIED_FINGERPRINT.matcher(fingerprint);
+            if (lastModified.matches()) {
+                httpConnection.setIfModifiedSince(Long.parseLong(lastModified.group(1)));
+            } else {
+                httpConnection.setRequestProperty("If-None-Match", fingerprint);
+            }
+        }
+        int responseCode = httpConnection.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            log.debug("The data file " + url + " hasn't changed since the version " + fingerprint + ".");
+            httpConnection.disconnect();
+            return null;
+        }
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            httpConnection.disconnect();
+            throw new IOException("The data file " + url + " couldn't have been downloaded, the server answered " + responseCode + ".");
+        }
+        return new DataFileContent(httpConnection.getInputStream(), fingerprintOf(httpConnection));
+    }
+
+    private URLConnection openConnection() throws IOException {
+        URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        return connection;
+    }
+
+    private static String fingerprintOf(HttpURLConnection httpConnection) {
+        String eTag = httpConnection.getHeaderField("ETag");
+        if (eTag != null) {
+            return eTag;
+        }
+        long lastModified = httpConnection.getLastModified();
+        return lastModified == 0 ? null : lastModified + "-" + httpConnection.getContentLengthLong();
+    }
+}
@@ -1,7 +1,7 @@
 package com.safetynet.alert.model;
 
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -10,24 +10,37 @@ import javax.persistence.*;
 import javax.validation.constraints.Size;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 
 @Entity
 @Table(name = "ADDRESS")
 public class Address {
 
+    private static final Pattern WHITESPACES = Pattern.compile("\\s");
+
+    //default zip and city of the addresses only known from a firestation mapping
+    public static final String DEFAULT_ZIP = "97451";
+    public static final String DEFAULT_CITY = "CULVER";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_generator")
+    @SequenceGenerator(name = "address_generator", sequenceName = "ADDRESS_SEQ", allocationSize = 50)
     @Column(name = "ADDRESS_ID")
     private int addressId;
 
     @Column(name = "STREET")
     private String street;
 
+    //the street without whitespaces and in upper case, computed when the street is set and indexed in database
+    @Setter(AccessLevel.NONE)
+    @Column(name = "NORMALIZED_STREET")
+    private String normalizedStreet;
+
     @Column(name = "ZIP")
     @Size(min = 5, max = 5, message = "The zip should contains 5 characters.")
     private String zip;
@@ -35,6 +48,11 @@ public class Address {
     @Column(name = "CITY")
     private String city;
 
+    //the city in upper case, computed when the city is set and indexed in database
+    @Setter(AccessLevel.NONE)
+    @Column(name = "NORMALIZED_CITY")
+    private String normalizedCity;
+
     @OneToMany(mappedBy = "address",
             cascade = CascadeType.ALL,
             orphanRemoval = true,
@@ -46,10 +64,62 @@ public class Address {
     @JoinColumn(name="STATION_ID")
     private Firestation firestation;
 
+    public Address(int addressId, String street, String zip, String city, List<Person> personList, Firestation firestation) {
+        this.addressId = addressId;
+        setStreet(street);
+        this.zip = zip;
+        setCity(city);
+        this.personList = personList;
+        this.firestation = firestation;
+    }
+
     public Address(String street, String zip, String city){
-        this.street = street;
+        setStreet(street);
         this.zip=zip;
-        this.city=city;
+        setCity(city);
+    }
+
+    public void setStreet(String street) {
+        this.street = street;
+        this.normalizedStreet = normalizeStreet(street);
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+        this.normalizedCity = normalizeCity(city);
+    }
+
+    /**
+     * Normalize a street so that two ways of writing the same street give the same key
+     *
+     * @param street - a String corresponding to the street and number of an address
+     * @return the street without any whitespace and in upper case, or null if the street is null
+     */
+    public static String normalizeStreet(String street) {
+        if (street == null) {
+            return null;
+        }
+        return WHITESPACES.matcher(street).replaceAll("").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalize a city so that the cities can be compared ignoring case
+     *
+     * @param city - a String corresponding to the city of an address
+     * @return the city trimmed and in upper case, or null if the city is null
+     */
+    public static String normalizeCity(String city) {
+        if (city == null) {
+            return null;
+        }
+        return city.trim().toUpperCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void updateNormalizedColumns() {
+        this.normalizedStreet = normalizeStreet(street);
+        this.normalizedCity = normalizeCity(city);
     }
 
     public void addPerson(Person person) {
@@ -15,7 +15,8 @@ import javax.persistence.*;
 public class Allergy {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "allergy_generator")
+    @SequenceGenerator(name = "allergy_generator", sequenceName = "ALLERGY_SEQ", allocationSize = 50)
     @Column(name = "ALLERGY_ID")
     private long allergyId;
 
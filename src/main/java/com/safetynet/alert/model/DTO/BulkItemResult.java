@@ -0,0 +1,24 @@
+package com.safetynet.alert.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The result of one item of a bulk request, identified by its position in the request's array
+ */
+@Getter
+@AllArgsConstructor
+public class BulkItemResult {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        REJECTED
+    }
+
+    private final int index;
+
+    private final Status status;
+
+    private final String message;
+}
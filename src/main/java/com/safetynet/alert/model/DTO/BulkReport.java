@@ -0,0 +1,47 @@
+package com.safetynet.alert.model.DTO;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The report of a bulk request: the number of items created, updated and rejected, and the result of each item
+ */
+@Getter
+public class BulkReport {
+
+    private int created;
+
+    private int updated;
+
+    private int rejected;
+
+    private final List<BulkItemResult> items = new ArrayList<>();
+
+    /**
+     * Add the results of a chunk of items to the report, the chunks being added in the order of the request
+     *
+     * @param results - the results of the items of the chunk, in the order of the request
+     */
+    public void addAll(List<BulkItemResult> results) {
+        for (BulkItemResult result : results) {
+            switch (result.getStatus()) {
+                case CREATED:
+                    created++;
+                    break;
+                case UPDATED:
+                    updated++;
+                    break;
+                default:
+                    rejected++;
+            }
+            items.add(result);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return created + " created, " + updated + " updated, " + rejected + " rejected";
+    }
+}
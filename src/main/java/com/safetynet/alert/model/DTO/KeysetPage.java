@@ -0,0 +1,25 @@
+package com.safetynet.alert.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a list read by keyset pagination: the elements are read in the order of their key,
+ * the next page begins after the key of the last element of this one.
+ *
+ * @param <T> - the type of the elements
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    //header of the response giving the cursor to pass as "after" parameter to get the next page
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> content;
+
+    //the key of the last element of the page, null when this page is the last one
+    private final String nextCursor;
+}
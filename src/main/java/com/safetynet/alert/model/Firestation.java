@@ -23,9 +23,9 @@ public class Firestation {
     @Column(name = "STATION_ID")
     private int stationId;
 
+    //an address removed from its firestation is only unmapped, it is kept with its residents
     @OneToMany(mappedBy = "firestation",
             cascade = CascadeType.ALL,
-            orphanRemoval = true,
             fetch = FetchType.LAZY)
     List<Address> attachedAddresses = new ArrayList<>();
 
@@ -8,7 +8,11 @@ import lombok.extern.slf4j.Slf4j;
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 
 @Slf4j
@@ -20,7 +24,8 @@ import java.util.List;
 public class MedicalRecords {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medical_records_generator")
+    @SequenceGenerator(name = "medical_records_generator", sequenceName = "MEDICAL_RECORDS_SEQ", allocationSize = 50)
     @Column(name = "MEDICAL_ID")
     private int medicalId;
 
@@ -57,6 +62,59 @@ public class MedicalRecords {
     }
 
 
+    /**
+     * Replace the medications by the given ones, keeping the medications which are still wanted:
+     * only the medications no longer given are deleted and only the new ones are inserted
+     *
+     * @param medicationNames - the names of the medications wanted, may contain the same name several times
+     * @return true if a medication has been added or removed
+     */
+    public boolean replaceMedications(List<String> medicationNames) {
+        return replaceByName(medications, medicationNames, Medication::getMedicationName,
+                name -> addMedication(new Medication(name)));
+    }
+
+
+    /**
+     * Replace the allergies by the given ones, keeping the allergies which are still wanted:
+     * only the allergies no longer given are deleted and only the new ones are inserted
+     *
+     * @param allergyNames - the names of the allergies wanted, may contain the same name several times
+     * @return true if an allergy has been added or removed
+     */
+    public boolean replaceAllergies(List<String> allergyNames) {
+        return replaceByName(allergies, allergyNames, Allergy::getAllergyName,
+                name -> addAllergy(new Allergy(name)));
+    }
+
+
+    //the lists are compared as multisets of names, the removed items are deleted by orphan removal
+    private static <T> boolean replaceByName(List<T> items, List<String> wantedNames, Function<T, String> getName, Consumer<String> add) {
+        Map<String, Integer> missing = new LinkedHashMap<>();
+        if (wantedNames != null) {
+            wantedNames.forEach(name -> missing.merge(name, 1, Integer::sum));
+        }
+        //an item is kept as long as its name is still wanted, the names left are the ones to add
+        boolean removed = items.removeIf(item -> {
+            String name = getName.apply(item);
+            Integer count = missing.get(name);
+            if (count == null || count == 0) {
+                return true;
+            }
+            missing.put(name, count - 1);
+            return false;
+        });
+        boolean added = false;
+        for (Map.Entry<String, Integer> entry : missing.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                add.accept(entry.getKey());
+                added = true;
+            }
+        }
+        return removed || added;
+    }
+
+
     public void addPerson(Person person) {
         this.person = person;
         person.setMedicalRecords(this);
@@ -15,7 +15,8 @@ import javax.persistence.*;
 public class Medication {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medication_generator")
+    @SequenceGenerator(name = "medication_generator", sequenceName = "MEDICATION_SEQ", allocationSize = 50)
     @Column(name = "MEDICATION_ID")
     private long medicationId;
 
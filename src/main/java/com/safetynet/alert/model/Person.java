@@ -9,6 +9,9 @@ import javax.validation.constraints.Size;
 
 @Entity
 @Table(name = "PERSON")
+//the emergency endpoints read the address and the medical records of every person they return
+@NamedEntityGraph(name = "Person.addressAndMedicalRecords",
+        attributeNodes = {@NamedAttributeNode("address"), @NamedAttributeNode("medicalRecords")})
 @Getter
 @Setter
 @AllArgsConstructor
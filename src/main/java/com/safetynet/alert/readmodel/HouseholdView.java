@@ -0,0 +1,29 @@
+package com.safetynet.alert.readmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Immutable view of an address of the read model and of the persons living there
+ */
+@Getter
+@AllArgsConstructor
+public class HouseholdView {
+
+    private final int addressId;
+    private final String street;
+    private final String zip;
+    private final String city;
+    //the keys of the household in the read model, null when the street or the city is unknown
+    private final String normalizedStreet;
+    private final String normalizedCity;
+    //null when the address isn't covered by any firestation
+    private final Integer stationId;
+    private final List<ResidentView> residents;
+
+    public String getLabel() {
+        return street + " - " + zip + " " + city;
+    }
+}
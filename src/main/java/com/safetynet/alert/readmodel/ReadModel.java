@@ -0,0 +1,84 @@
+package com.safetynet.alert.readmodel;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable projection of the persons, households, firestations and medical data, indexed the way the alert endpoints read them.
+ * A read model is never modified: a new one is built and swapped when the data change.
+ */
+public class ReadModel {
+
+    private final Map<Integer, StationView> stations;
+    private final Map<Integer, HouseholdView> householdsById;
+    //all the households of a street, in the order of their addresses
+    private final Map<String, List<HouseholdView>> householdsByNormalizedStreet;
+    private final Map<String, ResidentView> residentsById;
+    private final Map<List<String>, List<ResidentView>> residentsByName;
+    private final Map<String, List<ResidentView>> residentsByNormalizedCity;
+
+    public ReadModel(Map<Integer, StationView> stations, Map<Integer, HouseholdView> householdsById,
+                     Map<String, List<HouseholdView>> householdsByNormalizedStreet, Map<String, ResidentView> residentsById,
+                     Map<List<String>, List<ResidentView>> residentsByName, Map<String, List<ResidentView>> residentsByNormalizedCity) {
+        this.stations = Collections.unmodifiableMap(stations);
+        this.householdsById = Collections.unmodifiableMap(householdsById);
+        this.householdsByNormalizedStreet = Collections.unmodifiableMap(householdsByNormalizedStreet);
+        this.residentsById = Collections.unmodifiableMap(residentsById);
+        this.residentsByName = Collections.unmodifiableMap(residentsByName);
+        this.residentsByNormalizedCity = Collections.unmodifiableMap(residentsByNormalizedCity);
+    }
+
+    public Optional<StationView> getStation(int stationId) {
+        return Optional.ofNullable(stations.get(stationId));
+    }
+
+    public Optional<HouseholdView> getHousehold(String normalizedStreet) {
+        //as for the JPA path, the first address of a street is the one returned
+        List<HouseholdView> households = householdsByNormalizedStreet.get(normalizedStreet);
+        return households == null ? Optional.empty() : Optional.of(households.get(0));
+    }
+
+    public List<ResidentView> getResidentsByName(String upperCaseFirstName, String upperCaseLastName) {
+        return residentsByName.getOrDefault(Arrays.asList(upperCaseFirstName, upperCaseLastName), Collections.emptyList());
+    }
+
+    public List<String> getMails(String normalizedCity) {
+        return residentsByNormalizedCity.getOrDefault(normalizedCity, Collections.emptyList()).stream()
+                .map(ResidentView::getMail)
+                .collect(Collectors.toList());
+    }
+
+    public int getNumberOfStations() {
+        return stations.size();
+    }
+
+    //the indexes below are copied by the loader to build the next read model from this one
+
+    Map<Integer, StationView> getStations() {
+        return stations;
+    }
+
+    Map<Integer, HouseholdView> getHouseholdsById() {
+        return householdsById;
+    }
+
+    Map<String, List<HouseholdView>> getHouseholdsByNormalizedStreet() {
+        return householdsByNormalizedStreet;
+    }
+
+    Map<String, ResidentView> getResidentsById() {
+        return residentsById;
+    }
+
+    Map<List<String>, List<ResidentView>> getResidentsByName() {
+        return residentsByName;
+    }
+
+    Map<String, List<ResidentView>> getResidentsByNormalizedCity() {
+        return residentsByNormalizedCity;
+    }
+}
@@ -0,0 +1,89 @@
+package com.safetynet.alert.readmodel;
+
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.event.DatasetLoadedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hold the current read model. Readers get a consistent snapshot without lock nor query, the writers update it
+ * once their transaction is committed, from the keys of their changes, and swap it atomically.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "alert.read-model.enabled", havingValue = "true")
+public class ReadModelHolder {
+
+    private final ReadModelLoader readModelLoader;
+
+    //empty until the first build, when the application is ready or the dataset is loaded
+    private final AtomicReference<ReadModel> readModel = new AtomicReference<>(new ReadModel(Collections.emptyMap(), Collections.emptyMap(),
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()));
+
+    //the changes committed and not yet applied, the writers committing while another one updates the read model are applied together
+    private final Queue<DatasetChangedEvent> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public ReadModelHolder(ReadModelLoader readModelLoader) {
+        this.readModelLoader = readModelLoader;
+    }
+
+    /**
+     * Get the current read model
+     *
+     * @return the current read model
+     */
+    public ReadModel get() {
+        return readModel.get();
+    }
+
+    /**
+     * Build a new read model from the database and swap it with the current one
+     */
+    @EventListener({ApplicationReadyEvent.class, DatasetLoadedEvent.class})
+    public synchronized void rebuild() {
+        log.debug("The function rebuild in ReadModelHolder is beginning.");
+        //the changes queued until now are read with the whole dataset
+        pendingChanges.clear();
+        readModel.set(readModelLoader.load());
+        log.debug("The function rebuild in ReadModelHolder is ending without any exception.");
+    }
+
+    /**
+     * Update the read model once a transaction modifying the data is committed. Only the households, residents and firestations
+     * named by the changes are read again, so that a write doesn't read the whole dataset.
+     *
+     * @param event - the data changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDatasetChanged(DatasetChangedEvent event) {
+        //queued even during a rebuild, the changes committed while the dataset is read being applied once it ends
+        pendingChanges.add(event);
+        synchronized (this) {
+            //empty when another writer has already applied this change with its own
+            if (!pendingChanges.isEmpty()) {
+                applyPendingChanges();
+            }
+        }
+    }
+
+    private void applyPendingChanges() {
+        DatasetChangedEvent changes = new DatasetChangedEvent();
+        DatasetChangedEvent event;
+        while ((event = pendingChanges.poll()) != null) {
+            changes.merge(event);
+        }
+        log.debug("The read model is updated after the change of " + changes + ".");
+        readModel.set(readModelLoader.update(readModel.get(), changes));
+    }
+}
@@ -0,0 +1,433 @@
+package com.safetynet.alert.readmodel;
+
+import com.safetynet.alert.event.DatasetChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Build the read model from the tables, with one query per table and no entity
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "alert.read-model.enabled", havingValue = "true")
+public class ReadModelLoader {
+
+    private static final String ADDRESS_COLUMNS = "SELECT address_id, street, zip, city, normalized_street, normalized_city, station_id FROM address";
+
+    private static final String PERSON_COLUMNS = "SELECT id, first_name, last_name, address_id, phone_number, mail, medical_id FROM person";
+
+    private static final Comparator<HouseholdView> BY_ADDRESS_ID = Comparator.comparingInt(HouseholdView::getAddressId);
+
+    private static final Comparator<ResidentView> BY_PERSON_ID = Comparator.comparing(ResidentView::getId);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ReadModelLoader(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //the loader is called after the commit of a write, when the committed transaction is still bound to the thread
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Read all the tables and build a new read model
+     *
+     * @return the read model of the data currently committed
+     */
+    public ReadModel load() {
+        log.debug("The function load in ReadModelLoader is beginning.");
+        long start = System.currentTimeMillis();
+        ReadModel readModel = transactionTemplate.execute(status -> read());
+        log.debug("The function load in ReadModelLoader is ending, " + readModel.getNumberOfStations() + " firestations read in "
+                + (System.currentTimeMillis() - start) + " ms.");
+        return readModel;
+    }
+
+    /**
+     * Build a new read model from the current one, reading again only the households, residents and firestations named by the changes.
+     * The indexes of the current read model are copied and the entries of the changed keys are replaced, the other views are shared.
+     *
+     * @param current - the read model to update, it isn't modified
+     * @param changes - the firestations, streets and persons changed since the current read model was built
+     * @return the read model of the data currently committed
+     */
+    public ReadModel update(ReadModel current, DatasetChangedEvent changes) {
+        log.debug("The function update in ReadModelLoader is beginning.");
+        long start = System.currentTimeMillis();
+        ReadModel readModel = transactionTemplate.execute(status -> readChanges(current, changes));
+        log.debug("The function update in ReadModelLoader is ending, " + changes + " read in "
+                + (System.currentTimeMillis() - start) + " ms.");
+        return readModel;
+    }
+
+    private ReadModel read() {
+        Map<Integer, AddressRow> addresses = readAddresses("", Collections.emptyList());
+        List<PersonRow> persons = readPersons("", Collections.emptyList());
+        //the persons are read in the order of their ids, which is the order of the residents of a household and of the mails of a city
+        List<ResidentView> residents = toResidents(persons, addresses, readMedicalData("", Collections.emptyList()));
+        Map<Integer, HouseholdView> householdsById = toHouseholds(addresses, residents);
+
+        Map<String, List<HouseholdView>> householdsByNormalizedStreet = new HashMap<>();
+        Map<Integer, List<HouseholdView>> householdsByStation = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT station_id FROM firestation ORDER BY station_id", rs -> {
+            householdsByStation.put(rs.getInt(1), new ArrayList<>());
+        });
+        for (HouseholdView household : householdsById.values()) {
+            if (household.getNormalizedStreet() != null) {
+                householdsByNormalizedStreet.computeIfAbsent(household.getNormalizedStreet(), street -> new ArrayList<>()).add(household);
+            }
+            if (household.getStationId() != null) {
+                householdsByStation.computeIfAbsent(household.getStationId(), id -> new ArrayList<>()).add(household);
+            }
+        }
+        Map<Integer, StationView> stations = new HashMap<>();
+        householdsByStation.forEach((stationId, households) -> stations.put(stationId, toStationView(stationId, households)));
+
+        Map<String, ResidentView> residentsById = new HashMap<>();
+        Map<List<String>, List<ResidentView>> residentsByName = new HashMap<>();
+        Map<String, List<ResidentView>> residentsByNormalizedCity = new HashMap<>();
+        for (ResidentView resident : residents) {
+            residentsById.put(resident.getId(), resident);
+            residentsByName.computeIfAbsent(nameOf(resident), name -> new ArrayList<>()).add(resident);
+            String city = cityOf(resident, householdsById);
+            if (city != null) {
+                residentsByNormalizedCity.computeIfAbsent(city, key -> new ArrayList<>()).add(resident);
+            }
+        }
+
+        householdsByNormalizedStreet.replaceAll((street, households) -> Collections.unmodifiableList(households));
+        residentsByName.replaceAll((name, list) -> Collections.unmodifiableList(list));
+        residentsByNormalizedCity.replaceAll((city, list) -> Collections.unmodifiableList(list));
+        return new ReadModel(stations, householdsById, householdsByNormalizedStreet, residentsById, residentsByName, residentsByNormalizedCity);
+    }
+
+    private ReadModel readChanges(ReadModel current, DatasetChangedEvent changes) {
+        //the addresses of the changed streets and the persons named by the changes or living there, as committed
+        Map<Integer, AddressRow> addresses = changes.getNormalizedStreets().isEmpty() ? new LinkedHashMap<>()
+                : readAddresses(" WHERE " + in("normalized_street", changes.getNormalizedStreets()), changes.getNormalizedStreets());
+        Set<Integer> changedAddressIds = new HashSet<>(addresses.keySet());
+        for (String street : changes.getNormalizedStreets()) {
+            current.getHouseholdsByNormalizedStreet().getOrDefault(street, Collections.emptyList())
+                    .forEach(household -> changedAddressIds.add(household.getAddressId()));
+        }
+        Set<String> changedPersonIds = new HashSet<>(changes.getPersonIds());
+        addResidentIds(current, changedAddressIds, changedPersonIds);
+        Map<String, PersonRow> persons = new TreeMap<>();
+        readChangedPersons(changedPersonIds, addresses.keySet()).forEach(person -> persons.put(person.id, person));
+
+        //a person who moved left or joined an address of another street, whose household has to be read again too
+        Set<Integer> otherAddressIds = new HashSet<>();
+        persons.values().forEach(person -> otherAddressIds.add(person.addressId));
+        changedPersonIds.forEach(id -> {
+            ResidentView resident = current.getResidentsById().get(id);
+            if (resident != null) {
+                otherAddressIds.add(resident.getAddressId());
+            }
+        });
+        otherAddressIds.remove(null);
+        otherAddressIds.removeAll(addresses.keySet());
+        if (!otherAddressIds.isEmpty()) {
+            Map<Integer, AddressRow> otherAddresses = readAddresses(" WHERE " + in("address_id", otherAddressIds), otherAddressIds);
+            addresses.putAll(otherAddresses);
+            changedAddressIds.addAll(otherAddressIds);
+            addResidentIds(current, otherAddressIds, changedPersonIds);
+            readChangedPersons(Collections.emptySet(), otherAddresses.keySet()).forEach(person -> persons.put(person.id, person));
+        }
+        changedPersonIds.addAll(persons.keySet());
+
+        Set<Integer> medicalIds = persons.values().stream().map(person -> person.medicalId).filter(Objects::nonNull).collect(Collectors.toSet());
+        MedicalData medicalData = medicalIds.isEmpty() ? new MedicalData()
+                : readMedicalData(" WHERE " + in("medical_id", medicalIds), medicalIds);
+        List<ResidentView> residents = toResidents(persons.values(), addresses, medicalData);
+        Map<Integer, HouseholdView> households = toHouseholds(addresses, residents);
+
+        //households, copied and replaced for the changed addresses
+        List<HouseholdView> oldHouseholds = changedAddressIds.stream()
+                .map(current.getHouseholdsById()::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<Integer, HouseholdView> householdsById = new HashMap<>(current.getHouseholdsById());
+        householdsById.keySet().removeAll(changedAddressIds);
+        householdsById.putAll(households);
+        Map<String, List<HouseholdView>> householdsByNormalizedStreet = new HashMap<>(current.getHouseholdsByNormalizedStreet());
+        replaceEntries(householdsByNormalizedStreet, oldHouseholds, HouseholdView::getNormalizedStreet,
+                households.values(), HouseholdView::getNormalizedStreet,
+                household -> changedAddressIds.contains(household.getAddressId()), BY_ADDRESS_ID);
+
+        //firestations, rebuilt from their unchanged households and their changed ones
+        Set<Integer> changedStationIds = new HashSet<>(changes.getStationIds());
+        oldHouseholds.forEach(household -> changedStationIds.add(household.getStationId()));
+        households.values().forEach(household -> changedStationIds.add(household.getStationId()));
+        changedStationIds.remove(null);
+        Map<Integer, StationView> stations = new HashMap<>(current.getStations());
+        stations.keySet().removeAll(changedStationIds);
+        if (!changedStationIds.isEmpty()) {
+            jdbcTemplate.query("SELECT station_id FROM firestation WHERE " + in("station_id", changedStationIds), rs -> {
+                int stationId = rs.getInt(1);
+                List<HouseholdView> stationHouseholds = new ArrayList<>();
+                StationView oldStation = current.getStations().get(stationId);
+                if (oldStation != null) {
+                    oldStation.getHouseholds().stream()
+                            .filter(household -> !changedAddressIds.contains(household.getAddressId()))
+                            .forEach(stationHouseholds::add);
+                }
+                households.values().stream()
+                        .filter(household -> Integer.valueOf(stationId).equals(household.getStationId()))
+                        .forEach(stationHouseholds::add);
+                stationHouseholds.sort(BY_ADDRESS_ID);
+                stations.put(stationId, toStationView(stationId, stationHouseholds));
+            }, changedStationIds.toArray());
+        }
+
+        //residents, copied and replaced for the changed persons
+        List<ResidentView> oldResidents = changedPersonIds.stream()
+                .map(current.getResidentsById()::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<String, ResidentView> residentsById = new HashMap<>(current.getResidentsById());
+        residentsById.keySet().removeAll(changedPersonIds);
+        residents.forEach(resident -> residentsById.put(resident.getId(), resident));
+        Map<List<String>, List<ResidentView>> residentsByName = new HashMap<>(current.getResidentsByName());
+        replaceEntries(residentsByName, oldResidents, ReadModelLoader::nameOf, residents, ReadModelLoader::nameOf,
+                resident -> changedPersonIds.contains(resident.getId()), BY_PERSON_ID);
+        Map<String, List<ResidentView>> residentsByNormalizedCity = new HashMap<>(current.getResidentsByNormalizedCity());
+        //the city of a resident is the one of its household, before and after the changes
+        replaceEntries(residentsByNormalizedCity, oldResidents, resident -> cityOf(resident, current.getHouseholdsById()),
+                residents, resident -> cityOf(resident, householdsById), resident -> changedPersonIds.contains(resident.getId()), BY_PERSON_ID);
+
+        return new ReadModel(stations, householdsById, householdsByNormalizedStreet, residentsById, residentsByName, residentsByNormalizedCity);
+    }
+
+    private void addResidentIds(ReadModel current, Collection<Integer> addressIds, Set<String> personIds) {
+        for (Integer addressId : addressIds) {
+            HouseholdView household = current.getHouseholdsById().get(addressId);
+            if (household != null) {
+                household.getResidents().forEach(resident -> personIds.add(resident.getId()));
+            }
+        }
+    }
+
+    private List<PersonRow> readChangedPersons(Collection<String> personIds, Collection<Integer> addressIds) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        if (!personIds.isEmpty()) {
+            conditions.add(in("id", personIds));
+            values.addAll(personIds);
+        }
+        if (!addressIds.isEmpty()) {
+            conditions.add(in("address_id", addressIds));
+            values.addAll(addressIds);
+        }
+        if (conditions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return readPersons(" WHERE " + String.join(" OR ", conditions), values);
+    }
+
+    //replace the entries of an index for the keys of the old and of the new values:
+    //the list of a key is kept without the changed values, the new values are added and the list is sorted again
+    private static <K, V> void replaceEntries(Map<K, List<V>> index, Collection<V> oldValues, Function<V, K> oldKey,
+                                              Collection<V> newValues, Function<V, K> newKey, Predicate<V> changed, Comparator<V> order) {
+        Set<K> keys = new HashSet<>();
+        oldValues.forEach(value -> keys.add(oldKey.apply(value)));
+        newValues.forEach(value -> keys.add(newKey.apply(value)));
+        keys.remove(null);
+        for (K k : keys) {
+            List<V> values = new ArrayList<>();
+            index.getOrDefault(k, Collections.emptyList()).stream()
+                    .filter(value -> !changed.test(value))
+                    .forEach(values::add);
+            newValues.stream()
+                    .filter(value -> k.equals(newKey.apply(value)))
+                    .forEach(values::add);
+            if (values.isEmpty()) {
+                index.remove(k);
+            } else {
+                values.sort(order);
+                index.put(k, Collections.unmodifiableList(values));
+            }
+        }
+    }
+
+    private Map<Integer, AddressRow> readAddresses(String condition, Collection<?> values) {
+        Map<Integer, AddressRow> addresses = new LinkedHashMap<>();
+        jdbcTemplate.query(ADDRESS_COLUMNS + condition + " ORDER BY address_id", rs -> {
+            AddressRow address = new AddressRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getString(5), rs.getString(6), getInteger(rs, 7));
+            addresses.put(address.addressId, address);
+        }, values.toArray());
+        return addresses;
+    }
+
+    private List<PersonRow> readPersons(String condition, Collection<?> values) {
+        return jdbcTemplate.query(PERSON_COLUMNS + condition + " ORDER BY id", (rs, rowNum) -> new PersonRow(rs.getString(1), rs.getString(2),
+                rs.getString(3), getInteger(rs, 4), rs.getString(5), rs.getString(6), getInteger(rs, 7)), values.toArray());
+    }
+
+    private MedicalData readMedicalData(String condition, Collection<?> values) {
+        MedicalData medicalData = new MedicalData();
+        readNames("SELECT medical_id, medication_name FROM medication" + condition + " ORDER BY medication_id", values, medicalData.medications);
+        readNames("SELECT medical_id, allergy_name FROM allergy" + condition + " ORDER BY allergy_id", values, medicalData.allergies);
+        jdbcTemplate.query("SELECT medical_id, birthdate FROM medical_records" + condition, rs -> {
+            Date birthdate = rs.getDate(2);
+            medicalData.birthdates.put(rs.getInt(1), birthdate == null ? null : birthdate.toLocalDate());
+        }, values.toArray());
+        return medicalData;
+    }
+
+    private void readNames(String sql, Collection<?> values, Map<Integer, List<String>> namesByMedicalId) {
+        jdbcTemplate.query(sql, rs -> {
+            Integer medicalId = getInteger(rs, 1);
+            if (medicalId != null) {
+                namesByMedicalId.computeIfAbsent(medicalId, id -> new ArrayList<>()).add(rs.getString(2));
+            }
+        }, values.toArray());
+        namesByMedicalId.replaceAll((medicalId, names) -> Collections.unmodifiableList(names));
+    }
+
+    private static List<ResidentView> toResidents(Collection<PersonRow> persons, Map<Integer, AddressRow> addresses, MedicalData medicalData) {
+        List<ResidentView> residents = new ArrayList<>(persons.size());
+        for (PersonRow person : persons) {
+            AddressRow address = person.addressId == null ? null : addresses.get(person.addressId);
+            Integer medicalId = person.medicalId;
+            residents.add(new ResidentView(person.id, person.firstName, person.lastName, person.phoneNumber, person.mail,
+                    address == null ? null : address.label(),
+                    address == null ? null : address.addressId,
+                    medicalId == null ? null : medicalData.birthdates.get(medicalId),
+                    medicalId == null ? Collections.emptyList() : medicalData.medications.getOrDefault(medicalId, Collections.emptyList()),
+                    medicalId == null ? Collections.emptyList() : medicalData.allergies.getOrDefault(medicalId, Collections.emptyList())));
+        }
+        return residents;
+    }
+
+    private static Map<Integer, HouseholdView> toHouseholds(Map<Integer, AddressRow> addresses, List<ResidentView> residents) {
+        Map<Integer, List<ResidentView>> residentsByAddressId = new HashMap<>();
+        for (ResidentView resident : residents) {
+            if (resident.getAddressId() != null) {
+                residentsByAddressId.computeIfAbsent(resident.getAddressId(), id -> new ArrayList<>()).add(resident);
+            }
+        }
+        Map<Integer, HouseholdView> households = new LinkedHashMap<>();
+        for (AddressRow address : addresses.values()) {
+            households.put(address.addressId, new HouseholdView(address.addressId, address.street, address.zip, address.city,
+                    address.normalizedStreet, address.normalizedCity, address.stationId,
+                    Collections.unmodifiableList(residentsByAddressId.getOrDefault(address.addressId, new ArrayList<>()))));
+        }
+        return households;
+    }
+
+    private static StationView toStationView(int stationId, List<HouseholdView> households) {
+        //distinct phone numbers, in the order of the addresses, a person without phone number can't be called
+        Set<String> phoneNumbers = new LinkedHashSet<>();
+        for (HouseholdView household : households) {
+            for (ResidentView resident : household.getResidents()) {
+                phoneNumbers.add(resident.getPhoneNumber());
+            }
+        }
+        phoneNumbers.remove(null);
+        return new StationView(stationId, Collections.unmodifiableList(households), List.copyOf(phoneNumbers));
+    }
+
+    private static List<String> nameOf(ResidentView resident) {
+        return Arrays.asList(resident.getFirstName(), resident.getLastName());
+    }
+
+    private static String cityOf(ResidentView resident, Map<Integer, HouseholdView> householdsById) {
+        HouseholdView household = resident.getAddressId() == null ? null : householdsById.get(resident.getAddressId());
+        return household == null ? null : household.getNormalizedCity();
+    }
+
+    private static String in(String column, Collection<?> values) {
+        return column + " IN (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")";
+    }
+
+    private static Integer getInteger(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static class AddressRow {
+
+        private final int addressId;
+        private final String street;
+        private final String zip;
+        private final String city;
+        private final String normalizedStreet;
+        private final String normalizedCity;
+        private final Integer stationId;
+
+        private AddressRow(int addressId, String street, String zip, String city, String normalizedStreet, String normalizedCity, Integer stationId) {
+            this.addressId = addressId;
+            this.street = street;
+            this.zip = zip;
+            this.city = city;
+            this.normalizedStreet = normalizedStreet;
+            this.normalizedCity = normalizedCity;
+            this.stationId = stationId;
+        }
+
+        private String label() {
+            return street + " - " + zip + " " + city;
+        }
+    }
+
+    private static class PersonRow {
+
+        private final String id;
+        private final String firstName;
+        private final String lastName;
+        private final Integer addressId;
+        private final String phoneNumber;
+        private final String mail;
+        private final Integer medicalId;
+
+        private PersonRow(String id, String firstName, String lastName, Integer addressId, String phoneNumber, String mail, Integer medicalId) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.addressId = addressId;
+            this.phoneNumber = phoneNumber;
+            this.mail = mail;
+            this.medicalId = medicalId;
+        }
+    }
+
+    private static class MedicalData {
+
+        private final Map<Integer, List<String>> medications = new HashMap<>();
+        private final Map<Integer, List<String>> allergies = new HashMap<>();
+        private final Map<Integer, LocalDate> birthdates = new HashMap<>();
+    }
+}
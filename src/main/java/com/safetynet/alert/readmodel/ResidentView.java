@@ -0,0 +1,48 @@
+package com.safetynet.alert.readmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Immutable view of a person of the read model, with the label of its address and its medical data
+ */
+@Getter
+@AllArgsConstructor
+public class ResidentView {
+
+    private final String id;
+    private final String firstName;
+    private final String lastName;
+    private final String phoneNumber;
+    private final String mail;
+    //"street - zip city", as returned by the alert endpoints, null for a person without address
+    private final String address;
+    //null for a person without address
+    private final Integer addressId;
+    private final LocalDate birthdate;
+    private final List<String> medications;
+    private final List<String> allergies;
+
+    /**
+     * Indicates if the person is under 18, a person without birthdate is considered as an adult
+     *
+     * @param now - the date at which the age is computed
+     * @return true if the person is a child
+     */
+    public boolean isChild(LocalDate now) {
+        return birthdate != null && birthdate.isAfter(now.minusYears(18));
+    }
+
+    /**
+     * Get the age of the person, computed the same way as the JPA path, 0 when the birthdate is unknown
+     *
+     * @param now - the date at which the age is computed
+     * @return the age of the person
+     */
+    public int getAge(LocalDate now) {
+        return birthdate == null ? 0 : now.compareTo(birthdate);
+    }
+}
@@ -0,0 +1,19 @@
+package com.safetynet.alert.readmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Immutable view of a firestation of the read model: the households it covers, in the order of their addresses,
+ * and the distinct phone numbers of their residents
+ */
+@Getter
+@AllArgsConstructor
+public class StationView {
+
+    private final int stationId;
+    private final List<HouseholdView> households;
+    private final List<String> phoneNumbers;
+}
@@ -1,9 +1,14 @@
 package com.safetynet.alert.repository;
 
 import com.safetynet.alert.model.Address;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,6 +17,22 @@ public interface AddressRepository extends CrudRepository<Address, Integer> {
     Optional<Address> findByStreetAndZipAndCity(String street, String zip, String City);
 
     Optional<Address> findByStreet(String street);
+
+    Optional<Address> findFirstByNormalizedStreet(String normalizedStreet);
+
+    Optional<Address> findFirstByNormalizedStreetAndZipAndCityIgnoreCase(String normalizedStreet, String zip, String city);
+
+    List<Address> findByFirestationStationIdInOrderByAddressId(Collection<Integer> stationIds);
+
+    //the bulk requests resolve the addresses of a whole chunk with one query
+    @EntityGraph(attributePaths = "firestation")
+    List<Address> findByNormalizedStreetIn(Collection<String> normalizedStreets);
+
+    @Query("select a.normalizedStreet, a.firestation.stationId from Address a where a.firestation is not null order by a.addressId")
+    List<Object[]> findStationMappings();
+
+    @Query("select a.firestation.stationId from Address a where a.normalizedStreet = :normalizedStreet and a.firestation is not null order by a.addressId")
+    List<Integer> findStationIdsByNormalizedStreet(@Param("normalizedStreet") String normalizedStreet);
 }
 
 
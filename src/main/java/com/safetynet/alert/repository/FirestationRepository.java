@@ -2,10 +2,24 @@ package com.safetynet.alert.repository;
 
 
 import com.safetynet.alert.model.Firestation;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface FirestationRepository extends CrudRepository<Firestation, Integer> {
+public interface FirestationRepository extends PagingAndSortingRepository<Firestation, Integer> {
+
+    //keyset pagination: a page is read in the order of the numbers, from the number following the last one of the previous page
+    List<Firestation> findAllByOrderByStationIdAsc(Pageable pageable);
+
+    List<Firestation> findByStationIdGreaterThanOrderByStationIdAsc(int stationId, Pageable pageable);
 
+    //the addresses of a page are fetched once the page is read, a fetch join in the page query would be paginated in memory
+    @Query("select distinct f from Firestation f left join fetch f.attachedAddresses where f in :firestations")
+    List<Firestation> fetchAttachedAddresses(@Param("firestations") Collection<Firestation> firestations);
 }
@@ -2,10 +2,41 @@ package com.safetynet.alert.repository;
 
 
 import com.safetynet.alert.model.MedicalRecords;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface MedicalRecordsRepository extends CrudRepository<MedicalRecords, Integer> {
+public interface MedicalRecordsRepository extends PagingAndSortingRepository<MedicalRecords, Integer> {
+
+    //keyset pagination: a page is read in the order of the ids, from the id following the last one of the previous page
+    @EntityGraph(attributePaths = "person")
+    List<MedicalRecords> findAllByOrderByMedicalIdAsc(Pageable pageable);
+
+    @EntityGraph(attributePaths = "person")
+    List<MedicalRecords> findByMedicalIdGreaterThanOrderByMedicalIdAsc(int medicalId, Pageable pageable);
+
+    //medications and allergies are two lists: they are fetched by two queries, as fetching both at once would multiply their rows
+    @Query("select distinct m from MedicalRecords m left join fetch m.medications where m in :medicalRecords")
+    List<MedicalRecords> fetchMedications(@Param("medicalRecords") Collection<MedicalRecords> medicalRecords);
+
+    @Query("select distinct m from MedicalRecords m left join fetch m.allergies where m in :medicalRecords")
+    List<MedicalRecords> fetchAllergies(@Param("medicalRecords") Collection<MedicalRecords> medicalRecords);
 
+    //the export reads all the medical records through a JDBC cursor, the entities are read-only so no snapshot is kept to be dirty checked
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select m from MedicalRecords m join fetch m.person order by m.medicalId")
+    Stream<MedicalRecords> streamAllWithPerson();
 }
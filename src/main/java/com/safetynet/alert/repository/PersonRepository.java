@@ -1,15 +1,73 @@
 package com.safetynet.alert.repository;
 
+import com.safetynet.alert.model.Address;
 import com.safetynet.alert.model.Person;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface PersonRepository extends CrudRepository<Person, String> {
+public interface PersonRepository extends PagingAndSortingRepository<Person, String> {
+
+    //keyset pagination: a page is read in the order of the ids, from the id following the last one of the previous page
+    @EntityGraph(attributePaths = "address")
+    List<Person> findAllByOrderByIdAsc(Pageable pageable);
+
+    @EntityGraph(attributePaths = "address")
+    List<Person> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
 
     List<Person> findByFirstNameAndLastName(String firstName, String lastName);
 
+    //the bulk requests resolve the persons of a whole chunk with one query
+    @Query("select p.id from Person p where p.id in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    @EntityGraph("Person.addressAndMedicalRecords")
+    List<Person> findWithMedicalRecordsByIdIn(Collection<String> ids);
+
+    @EntityGraph("Person.addressAndMedicalRecords")
+    List<Person> findWithMedicalRecordsByFirstNameAndLastName(String firstName, String lastName);
+
+    @EntityGraph("Person.addressAndMedicalRecords")
+    List<Person> findWithMedicalRecordsByAddress(Address address);
+
+    @Query("select p from Person p join fetch p.address a left join fetch p.medicalRecords " +
+            "where a.firestation.stationId = :stationId order by a.addressId, p.id")
+    List<Person> findByStationIdFetchingAddressAndMedicalRecords(@Param("stationId") int stationId);
+
+    @Query("select p from Person p join fetch p.address a left join fetch p.medicalRecords " +
+            "where a.firestation.stationId in :stationIds order by a.addressId, p.id")
+    List<Person> findByStationIdsFetchingAddressAndMedicalRecords(@Param("stationIds") Collection<Integer> stationIds);
+
+    @Query("select a.firestation.stationId, p.phoneNumber from Person p join p.address a " +
+            "where a.firestation is not null order by a.addressId, p.id")
+    List<Object[]> findPhoneNumbersOfAllStations();
+
+    @Query("select p.phoneNumber from Person p join p.address a where a.firestation.stationId = :stationId order by a.addressId, p.id")
+    List<String> findPhoneNumbersByStationId(@Param("stationId") int stationId);
+
+    @Query("select p.mail from Person p join p.address a where a.normalizedCity = :normalizedCity order by p.id")
+    List<String> findMailsByNormalizedCity(@Param("normalizedCity") String normalizedCity);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.mail from Person p join p.address a where a.normalizedCity = :normalizedCity order by p.id")
+    Stream<String> streamMailsByNormalizedCity(@Param("normalizedCity") String normalizedCity);
+
+    //the export reads all the persons through a JDBC cursor, the entities are read-only so no snapshot is kept to be dirty checked
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select p from Person p left join fetch p.address order by p.id")
+    Stream<Person> streamAllWithAddress();
 
 }
@@ -4,6 +4,9 @@ import com.safetynet.alert.exceptions.ObjectNotFoundException;
 import com.safetynet.alert.model.Address;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+
 @Service
 public interface AddressService {
 
@@ -26,4 +29,12 @@ public interface AddressService {
      * @throws ObjectNotFoundException When the researched address is not found
      */
     Address getAddress(String street) throws ObjectNotFoundException;
+
+    /**
+     * Get all the addresses attached to some firestations with one query
+     *
+     * @param stationIds - the numbers of the firestations
+     * @return the addresses attached to these firestations, ordered by id
+     */
+    List<Address> getAddressesByStations(Collection<Integer> stationIds);
 }
\ No newline at end of file
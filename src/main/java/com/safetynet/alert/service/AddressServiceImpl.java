@@ -7,9 +7,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 
 @Slf4j
@@ -31,23 +31,17 @@ public class AddressServiceImpl implements AddressService {
     @Override
     public Address getAddress(String street, String zip, String city) throws ObjectNotFoundException {
         log.debug("The function getAddress in AddressService is beginning.");
-        List<Address> addressesResearched = (List<Address>) addressRepository.findAll();
-        List<Address> addressesFound = new ArrayList<>();
-        if(street!=null){
-        addressesFound = addressesResearched
-                        .stream()
-                        .filter(a -> (a.getStreet()).replaceAll("\\s", "").equalsIgnoreCase(street.replaceAll("\\s", "")))
-                        .filter(a -> a.getZip().equals(zip))
-                        .filter(a -> a.getCity().equalsIgnoreCase(city))
-                        .collect(Collectors.toList());}
+        Optional<Address> addressFound = Optional.empty();
+        if (street != null) {
+            addressFound = addressRepository.findFirstByNormalizedStreetAndZipAndCityIgnoreCase(Address.normalizeStreet(street), zip, city);
+        }
 
-        if (addressesFound.isEmpty()) {
+        if (addressFound.isEmpty()) {
             log.debug("The function getAddress in AddressService is ending, no address was found.");
             throw new ObjectNotFoundException("The address " + street + " - " + zip + " " + city + " was not found.\n");
         } else {
-            Address addressFound = addressesFound.get(0);
             log.debug("The function getAddress in AddressService is ending, an address was found");
-            return addressFound;
+            return addressFound.get();
         }
     }
 
@@ -61,22 +55,29 @@ public class AddressServiceImpl implements AddressService {
     @Override
     public Address getAddress(String street) throws ObjectNotFoundException {
         log.debug("The function getAddress in AddressService is beginning.");
-        List<Address> addressesResearched = (List<Address>) addressRepository.findAll();
-        List<Address> addressesFound =
-                addressesResearched
-                        .stream()
-                        .filter(a -> (a.getStreet()).replaceAll("\\s", "").equalsIgnoreCase(street.replaceAll("\\s", "")))
-                        .collect(Collectors.toList());
+        Optional<Address> addressFound = addressRepository.findFirstByNormalizedStreet(Address.normalizeStreet(street));
 
-        if (addressesFound.isEmpty()) {
+        if (addressFound.isEmpty()) {
             log.debug("The function getAddress in AddressService is ending, no address was found.");
             throw new ObjectNotFoundException("The address " + street + " was not found.\n");
         } else {
-            Address addressFound = addressesFound.get(0);
             log.debug("The function getAddress in AddressService is ending, an address was found");
-            return addressFound;
+            return addressFound.get();
         }
     }
 
+    /**
+     * Get all the addresses attached to some firestations with one query
+     *
+     * @param stationIds - the numbers of the firestations
+     * @return the addresses attached to these firestations, ordered by id
+     */
+    @Override
+    public List<Address> getAddressesByStations(Collection<Integer> stationIds) {
+        log.debug("The function getAddressesByStations in AddressService is beginning.");
+        List<Address> addresses = addressRepository.findByFirestationStationIdInOrderByAddressId(stationIds);
+        log.debug("The function getAddressesByStations in AddressService is ending, " + addresses.size() + " addresses were found.");
+        return addresses;
+    }
 }
 
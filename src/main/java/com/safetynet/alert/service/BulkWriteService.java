@@ -0,0 +1,37 @@
+package com.safetynet.alert.service;
+
+import com.safetynet.alert.model.DTO.BulkReport;
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+
+import java.util.List;
+
+public interface BulkWriteService {
+
+    /**
+     * Create several persons, the persons being validated, resolved and saved by chunks, each chunk in its own transaction
+     *
+     * @param persons - the persons to create
+     * @return a BulkReport object giving the result of each person, in the order of the list
+     */
+    BulkReport createPersons(List<PersonDTO> persons);
+
+    /**
+     * Add or replace the medical records of several persons, the persons being created when they don't exist yet.
+     * The medical records are validated, resolved and saved by chunks, each chunk in its own transaction
+     *
+     * @param medicalRecords - the medical records to add
+     * @return a BulkReport object giving the result of each medical records, in the order of the list
+     */
+    BulkReport addMedicalRecords(List<MedicalRecordDTO> medicalRecords);
+
+    /**
+     * Add several mappings address/firestation, the firestations being created when they don't exist yet.
+     * The mappings are validated, resolved and saved by chunks, each chunk in its own transaction
+     *
+     * @param mappings - the mappings to add
+     * @return a BulkReport object giving the result of each mapping, in the order of the list
+     */
+    BulkReport addMappings(List<MappingFirestationAddressDTO> mappings);
+}
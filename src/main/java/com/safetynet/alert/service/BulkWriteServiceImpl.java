@@ -0,0 +1,372 @@
+package com.safetynet.alert.service;
+
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.exceptions.NotRightFormatToPostException;
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.DTO.BulkItemResult;
+import com.safetynet.alert.model.DTO.BulkReport;
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+import com.safetynet.alert.model.Firestation;
+import com.safetynet.alert.model.MedicalRecords;
+import com.safetynet.alert.model.Person;
+import com.safetynet.alert.repository.AddressRepository;
+import com.safetynet.alert.repository.FirestationRepository;
+import com.safetynet.alert.repository.MedicalRecordsRepository;
+import com.safetynet.alert.repository.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.safetynet.alert.model.DTO.BulkItemResult.Status.CREATED;
+import static com.safetynet.alert.model.DTO.BulkItemResult.Status.REJECTED;
+import static com.safetynet.alert.model.DTO.BulkItemResult.Status.UPDATED;
+
+@Slf4j
+@Service
+public class BulkWriteServiceImpl implements BulkWriteService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PersonRepository personRepository;
+    private final AddressRepository addressRepository;
+    private final FirestationRepository firestationRepository;
+    private final MedicalRecordsRepository medicalRecordsRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public BulkWriteServiceImpl(PersonRepository personRepository, AddressRepository addressRepository, FirestationRepository firestationRepository,
+                                MedicalRecordsRepository medicalRecordsRepository, ApplicationEventPublisher applicationEventPublisher,
+                                PlatformTransactionManager transactionManager, @Value("${alert.bulk.chunk-size:500}") int chunkSize) {
+        this.personRepository = personRepository;
+        this.addressRepository = addressRepository;
+        this.firestationRepository = firestationRepository;
+        this.medicalRecordsRepository = medicalRecordsRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //each chunk is committed on its own, so a failing chunk doesn't roll back the chunks already saved
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Create several persons, the persons being validated, resolved and saved by chunks, each chunk in its own transaction
+     *
+     * @param persons - the persons to create
+     * @return a BulkReport object giving the result of each person, in the order of the list
+     */
+    @Override
+    public BulkReport createPersons(List<PersonDTO> persons) {
+        log.debug("The function createPersons in BulkWriteService is beginning.");
+        BulkReport report = writeByChunks(persons, this::createPersonsChunk);
+        log.info("Bulk creation of persons: " + report + ".");
+        log.debug("The function createPersons in BulkWriteService is ending without any exception.");
+        return report;
+    }
+
+    /**
+     * Add or replace the medical records of several persons, the persons being created when they don't exist yet.
+     * The medical records are validated, resolved and saved by chunks, each chunk in its own transaction
+     *
+     * @param medicalRecords - the medical records to add
+     * @return a BulkReport object giving the result of each medical records, in the order of the list
+     */
+    @Override
+    public BulkReport addMedicalRecords(List<MedicalRecordDTO> medicalRecords) {
+        log.debug("The function addMedicalRecords in BulkWriteService is beginning.");
+        BulkReport report = writeByChunks(medicalRecords, this::addMedicalRecordsChunk);
+        log.info("Bulk addition of medical records: " + report + ".");
+        log.debug("The function addMedicalRecords in BulkWriteService is ending without any exception.");
+        return report;
+    }
+
+    /**
+     * Add several mappings address/firestation, the firestations being created when they don't exist yet.
+     * The mappings are validated, resolved and saved by chunks, each chunk in its own transaction
+     *
+     * @param mappings - the mappings to add
+     * @return a BulkReport object giving the result of each mapping, in the order of the list
+     */
+    @Override
+    public BulkReport addMappings(List<MappingFirestationAddressDTO> mappings) {
+        log.debug("The function addMappings in BulkWriteService is beginning.");
+        BulkReport report = writeByChunks(mappings, this::addMappingsChunk);
+        log.info("Bulk addition of mappings: " + report + ".");
+        log.debug("The function addMappings in BulkWriteService is ending without any exception.");
+        return report;
+    }
+
+    private <T> BulkReport writeByChunks(List<T> items, ChunkWriter<T> chunkWriter) {
+        BulkReport report = new BulkReport();
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            int firstIndex = start;
+            List<T> chunk = items.subList(start, Math.min(start + chunkSize, items.size()));
+            List<BulkItemResult> results;
+            try {
+                results = transactionTemplate.execute(status -> chunkWriter.write(firstIndex, chunk));
+            } catch (RuntimeException e) {
+                //the rows are only written when the chunk is flushed, so a failure rejects the whole chunk
+                String message = "The chunk of items " + firstIndex + " to " + (firstIndex + chunk.size() - 1) + " couldn't have been saved : " + e.getMessage() + "\n";
+                log.error(message);
+                results = new ArrayList<>();
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(new BulkItemResult(firstIndex + i, REJECTED, message));
+                }
+            }
+            report.addAll(results);
+        }
+        return report;
+    }
+
+    private List<BulkItemResult> createPersonsChunk(int firstIndex, List<PersonDTO> chunk) {
+        BulkItemResult[] results = new BulkItemResult[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            PersonDTO personDTO = chunk.get(i);
+            if (personDTO == null || personDTO.getFirstName() == null || personDTO.getLastName() == null) {
+                results[i] = new BulkItemResult(firstIndex + i, REJECTED, "There is something missing in the request :\nto post a new person there should be at least a \"firstName\" and a \"lastName\" fields.\n");
+            }
+        }
+        //the existing persons and addresses of the whole chunk are read with one query each
+        List<String> ids = new ArrayList<>();
+        List<String> streets = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                ids.add(personId(chunk.get(i).getFirstName(), chunk.get(i).getLastName()));
+                streets.add(chunk.get(i).getAddress());
+            }
+        }
+        Set<String> existingIds = ids.isEmpty() ? new HashSet<>() : new HashSet<>(personRepository.findExistingIds(ids));
+        Map<String, Address> addresses = findAddresses(streets);
+
+        DatasetChangedEvent event = new DatasetChangedEvent();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            PersonDTO personDTO = chunk.get(i);
+            String firstName = personDTO.getFirstName().toUpperCase();
+            String lastName = personDTO.getLastName().toUpperCase();
+            //a person given twice in the request is created once
+            if (!existingIds.add(firstName + lastName)) {
+                results[i] = new BulkItemResult(firstIndex + i, REJECTED, "The person " + firstName + " " + lastName + " was already existing, so it couldn't have been created.\n");
+                continue;
+            }
+            Person person = new Person(firstName, lastName);
+            String street = personDTO.getAddress();
+            if (street != null) {
+                String zip = personDTO.getZip();
+                String city = personDTO.getCity() == null ? null : personDTO.getCity().toUpperCase();
+                //only the owning side is set, so the residents of an existing address aren't loaded
+                person.setAddress(addresses.computeIfAbsent(addressKey(street, zip, city), key -> new Address(street, zip, city)));
+            }
+            person.setPhoneNumber(personDTO.getPhoneNumber());
+            person.setMail(personDTO.getMail());
+            entityManager.persist(person);
+            event.person(person);
+            results[i] = new BulkItemResult(firstIndex + i, CREATED, "The person " + firstName + " " + lastName + " have been created.\n");
+        }
+        publishIfChanged(event);
+        return Arrays.asList(results);
+    }
+
+    private List<BulkItemResult> addMedicalRecordsChunk(int firstIndex, List<MedicalRecordDTO> chunk) {
+        BulkItemResult[] results = new BulkItemResult[chunk.size()];
+        LocalDate[] birthdates = new LocalDate[chunk.size()];
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            MedicalRecordDTO medicalRecordDTO = chunk.get(i);
+            if (medicalRecordDTO == null || medicalRecordDTO.getFirstName() == null || medicalRecordDTO.getLastName() == null) {
+                results[i] = new BulkItemResult(firstIndex + i, REJECTED, "To add new medical records, the body's request should contains, at least, a \"firstName\" and a \"lastName\" fields.");
+                continue;
+            }
+            try {
+                birthdates[i] = MedicalRecordsServiceImpl.parseBirthdate(medicalRecordDTO.getBirthdate());
+                ids.add(personId(medicalRecordDTO.getFirstName(), medicalRecordDTO.getLastName()));
+            } catch (NotRightFormatToPostException e) {
+                results[i] = new BulkItemResult(firstIndex + i, REJECTED, e.getMessage());
+            }
+        }
+        //the persons of the whole chunk are read with their medical records by one query,
+        //then the medications and the allergies which are going to be replaced by one query each
+        Map<String, Person> persons = new HashMap<>();
+        if (!ids.isEmpty()) {
+            personRepository.findWithMedicalRecordsByIdIn(ids).forEach(person -> persons.put(person.getId(), person));
+        }
+        List<MedicalRecords> existingMedicalRecords = persons.values()
+                .stream()
+                .map(Person::getMedicalRecords)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!existingMedicalRecords.isEmpty()) {
+            medicalRecordsRepository.fetchMedications(existingMedicalRecords);
+            medicalRecordsRepository.fetchAllergies(existingMedicalRecords);
+        }
+
+        DatasetChangedEvent event = new DatasetChangedEvent();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            MedicalRecordDTO medicalRecordDTO = chunk.get(i);
+            String firstName = medicalRecordDTO.getFirstName().toUpperCase();
+            String lastName = medicalRecordDTO.getLastName().toUpperCase();
+            Person person = persons.get(firstName + lastName);
+            MedicalRecords medicalRecords;
+            boolean created = person == null || person.getMedicalRecords() == null;
+            if (created) {
+                if (person == null) {
+                    person = new Person(firstName, lastName);
+                    persons.put(firstName + lastName, person);
+                }
+                medicalRecords = new MedicalRecords();
+                medicalRecords.addPerson(person);
+            } else {
+                medicalRecords = person.getMedicalRecords();
+            }
+            medicalRecords.setBirthdate(birthdates[i]);
+            medicalRecords.replaceMedications(medicalRecordDTO.getMedications());
+            medicalRecords.replaceAllergies(medicalRecordDTO.getAllergies());
+            if (created) {
+                entityManager.persist(medicalRecords);
+            }
+            event.person(person);
+            results[i] = new BulkItemResult(firstIndex + i, created ? CREATED : UPDATED,
+                    "The medical records of " + firstName + " " + lastName + " have been " + (created ? "created" : "replaced") + ".\n");
+        }
+        publishIfChanged(event);
+        return Arrays.asList(results);
+    }
+
+    private List<BulkItemResult> addMappingsChunk(int firstIndex, List<MappingFirestationAddressDTO> chunk) {
+        BulkItemResult[] results = new BulkItemResult[chunk.size()];
+        Set<Integer> stationIds = new HashSet<>();
+        List<String> streets = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            MappingFirestationAddressDTO mapping = chunk.get(i);
+            if (mapping == null || mapping.getNumber() == 0) {
+                results[i] = new BulkItemResult(firstIndex + i, REJECTED, "There is something missing in the request :\nto post a new mapping there should be at least a \"number\" and an \"address\" fields.\n");
+            } else {
+                stationIds.add(mapping.getNumber());
+                streets.add(mapping.getAddress());
+            }
+        }
+        //the firestations and the addresses of the whole chunk are read with one query each
+        Map<Integer, Firestation> firestations = new HashMap<>();
+        if (!stationIds.isEmpty()) {
+            firestationRepository.findAllById(stationIds).forEach(firestation -> firestations.put(firestation.getStationId(), firestation));
+        }
+        Map<String, Address> addresses = findAddresses(streets);
+
+        DatasetChangedEvent event = new DatasetChangedEvent();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            MappingFirestationAddressDTO mapping = chunk.get(i);
+            int id = mapping.getNumber();
+            String street = mapping.getAddress();
+            if (street == null) {
+                //a mapping without address creates an empty firestation
+                if (firestations.containsKey(id)) {
+                    results[i] = new BulkItemResult(firstIndex + i, REJECTED, "There is something missing in the request :\nto post a new mapping there should be at least a \"number\" and an \"address\" fields.\n");
+                } else {
+                    firestations.put(id, createFirestation(id));
+                    event.station(id);
+                    results[i] = new BulkItemResult(firstIndex + i, CREATED, "The Firestation number " + id + " have been created.\n" +
+                            "This Firestation isn't attached to any address yet.\n");
+                }
+                continue;
+            }
+            String zip = mapping.getZip() == null ? Address.DEFAULT_ZIP : mapping.getZip();
+            String city = mapping.getCity() == null ? Address.DEFAULT_CITY : mapping.getCity().toUpperCase();
+            Address address = addresses.get(addressKey(street, zip, city));
+            if (address != null && address.getFirestation() != null) {
+                int numberStation = address.getFirestation().getStationId();
+                String message = numberStation == id
+                        ? "The address \"" + street + " - " + zip + " " + city + "\" was already attached to the firestation number " + id + ".\n"
+                        : "The address \"" + street + " - " + zip + " " + city + "\" is already attached to the firestation number " + numberStation
+                        + ",\nso it can't be attached to the firestation number " + id + ".\n"
+                        + "If you want to change an address' mapping, please update it.\n";
+                results[i] = new BulkItemResult(firstIndex + i, REJECTED, message);
+                continue;
+            }
+            Firestation firestation = firestations.computeIfAbsent(id, this::createFirestation);
+            if (address == null) {
+                address = new Address(street, zip, city);
+                addresses.put(addressKey(street, zip, city), address);
+                entityManager.persist(address);
+            }
+            //only the owning side is set, so the addresses of an existing firestation aren't loaded
+            address.setFirestation(firestation);
+            event.address(address);
+            results[i] = new BulkItemResult(firstIndex + i, CREATED, "The address \"" + street + " - " + zip + " " + city + "\" have been added to the firestation number " + id + ".\n");
+        }
+        publishIfChanged(event);
+        return Arrays.asList(results);
+    }
+
+    private Firestation createFirestation(int id) {
+        Firestation firestation = new Firestation();
+        firestation.setStationId(id);
+        entityManager.persist(firestation);
+        return firestation;
+    }
+
+    //the addresses are matched as by AddressService: same street without whitespaces, same zip and same city ignoring case
+    private Map<String, Address> findAddresses(Collection<String> streets) {
+        Set<String> normalizedStreets = streets
+                .stream()
+                .filter(Objects::nonNull)
+                .map(Address::normalizeStreet)
+                .collect(Collectors.toSet());
+        Map<String, Address> addresses = new HashMap<>();
+        if (!normalizedStreets.isEmpty()) {
+            addressRepository.findByNormalizedStreetIn(normalizedStreets)
+                    .forEach(address -> addresses.putIfAbsent(addressKey(address.getStreet(), address.getZip(), address.getCity()), address));
+        }
+        return addresses;
+    }
+
+    private static String addressKey(String street, String zip, String city) {
+        return Address.normalizeStreet(street) + "|" + zip + "|" + Address.normalizeCity(city);
+    }
+
+    private static String personId(String firstName, String lastName) {
+        return firstName.toUpperCase() + lastName.toUpperCase();
+    }
+
+    private void publishIfChanged(DatasetChangedEvent event) {
+        if (!event.getPersonIds().isEmpty() || !event.getStationIds().isEmpty() || !event.getNormalizedStreets().isEmpty()) {
+            //published within the chunk's transaction, the listeners are called once it's committed
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        List<BulkItemResult> write(int firstIndex, List<T> chunk);
+    }
+}
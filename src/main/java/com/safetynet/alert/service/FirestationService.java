@@ -6,10 +6,12 @@ import com.safetynet.alert.exceptions.ObjectAlreadyExistingException;
 import com.safetynet.alert.exceptions.NotRightFormatToPostException;
 import com.safetynet.alert.exceptions.ObjectNotFoundException;
 import com.safetynet.alert.model.DTO.FirestationDTO;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
 import com.safetynet.alert.model.Firestation;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -17,12 +19,14 @@ public interface FirestationService {
 
 
     /**
-     * Get all the firestations presents in data
+     * Get one page of the firestations presents in data, in the order of their numbers
      *
-     * @return a list containing all the firestations presents in data
+     * @param afterStationId - the number of the last firestation of the previous page, null to get the first page
+     * @param size           - the number of firestations requested, null to get the default page size
+     * @return a KeysetPage object containing the firestations of the page and the cursor of the next page
      * @throws EmptyObjectException - when there is no firestation found
      */
-    List<FirestationDTO> getFirestations() throws EmptyObjectException;
+    KeysetPage<FirestationDTO> getFirestations(Integer afterStationId, Integer size) throws EmptyObjectException;
 
 
     /**
@@ -65,5 +69,14 @@ public interface FirestationService {
      * @throws ObjectNotFoundException - when the firestation researched is not found
      */
     Firestation getFirestationById(int id) throws ObjectNotFoundException;
+
+    /**
+     * Get several firestations from their ids with one query
+     *
+     * @param ids - the ids of the researched firestations
+     * @return the firestations researched, if they are all found
+     * @throws ObjectNotFoundException - when one of the firestations researched is not found
+     */
+    List<Firestation> getFirestationsById(Collection<Integer> ids) throws ObjectNotFoundException;
 }
 
@@ -1,18 +1,26 @@
 package com.safetynet.alert.service;
 
+import com.safetynet.alert.event.DatasetChangedEvent;
 import com.safetynet.alert.exceptions.*;
+import com.safetynet.alert.index.FirestationAddressIndex;
 import com.safetynet.alert.model.Address;
 import com.safetynet.alert.model.DTO.FirestationDTO;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
 import com.safetynet.alert.model.Firestation;
 import com.safetynet.alert.repository.FirestationRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -27,24 +35,48 @@ public class FirestationServiceImpl implements FirestationService {
     @Autowired
     private AddressService addressService;
 
+    @Autowired
+    private FirestationAddressIndex firestationAddressIndex;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private PageSizeLimit pageSizeLimit;
+
     /**
-     * Get all the firestations presents in data
+     * Get one page of the firestations presents in data, in the order of their numbers
      *
-     * @return a list containing all the firestations presents in data
+     * @param afterStationId - the number of the last firestation of the previous page, null to get the first page
+     * @param size           - the number of firestations requested, null to get the default page size
+     * @return a KeysetPage object containing the firestations of the page and the cursor of the next page
      * @throws EmptyObjectException - when there is no firestation found
      */
     @Override
-    public List<FirestationDTO> getFirestations() throws EmptyObjectException {
+    public KeysetPage<FirestationDTO> getFirestations(Integer afterStationId, Integer size) throws EmptyObjectException {
         log.debug("The function getFirestations in FirestationService is beginning.");
-        List<Firestation> allFirestations = (List<Firestation>) firestationRepository.findAll();
-        if (!allFirestations.isEmpty()) {
-            List<FirestationDTO> allFirestationsDTO = allFirestations.stream().map(this::transformFirestationToFirestationDTO).collect(Collectors.toList());
-            log.debug("The function getFirestations in FirestationService is ending. Some firestations were found.");
-            return allFirestationsDTO;
-        } else {
+        int pageSize = pageSizeLimit.resolve(size);
+        //one more firestation than the page size is read to know if there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Firestation> firestations = afterStationId == null
+                ? firestationRepository.findAllByOrderByStationIdAsc(pageable)
+                : firestationRepository.findByStationIdGreaterThanOrderByStationIdAsc(afterStationId, pageable);
+        if (firestations.isEmpty() && afterStationId == null) {
             log.debug("The function getFirestations in FirestationService is ending without founding any firestation.");
             throw new EmptyObjectException("There are no firestations registered.\n");
         }
+        String nextCursor = null;
+        if (firestations.size() > pageSize) {
+            firestations = firestations.subList(0, pageSize);
+            nextCursor = String.valueOf(firestations.get(pageSize - 1).getStationId());
+        }
+        //the addresses of the whole page are fetched by one query
+        if (!firestations.isEmpty()) {
+            firestationRepository.fetchAttachedAddresses(firestations);
+        }
+        List<FirestationDTO> firestationsDTO = firestations.stream().map(this::transformFirestationToFirestationDTO).collect(Collectors.toList());
+        log.debug("The function getFirestations in FirestationService is ending without any exception.");
+        return new KeysetPage<>(firestationsDTO, nextCursor);
     }
 
     /**
@@ -68,25 +100,46 @@ public class FirestationServiceImpl implements FirestationService {
         }
     }
 
+    /**
+     * Get several firestations from their ids with one query
+     *
+     * @param ids - the ids of the researched firestations
+     * @return the firestations researched, if they are all found
+     * @throws ObjectNotFoundException - when one of the firestations researched is not found
+     */
+    @Override
+    public List<Firestation> getFirestationsById(Collection<Integer> ids) throws ObjectNotFoundException {
+        log.debug("The function getFirestationsById in FirestationService is beginning.");
+        List<Firestation> firestations = (List<Firestation>) firestationRepository.findAllById(ids);
+        Set<Integer> idsFound = firestations.stream().map(Firestation::getStationId).collect(Collectors.toSet());
+        for (Integer id : ids) {
+            if (!idsFound.contains(id)) {
+                log.debug("The function getFirestationsById in FirestationService is ending, a firestation was not found.");
+                throw new ObjectNotFoundException("The firestation with Id number " + id + " was not found.\n");
+            }
+        }
+        log.debug("The function getFirestationsById in FirestationService is ending, all the firestations have been found.");
+        return firestations;
+    }
+
     /**
      * Get firestation from one of its addresses
      *
+     * The firestation's number is read from the address index, so only the researched firestation is loaded
+     *
      * @param address - a string which is one of the firestation's addresses
      * @return the firestations having the researched address attached to its
      * @throws ObjectNotFoundException - when the address researched is not found in any firestation
      */
     public Firestation getFirestationByAddress(String address) throws ObjectNotFoundException {
         log.debug("The function getFirestationByAddress in FirestationService is beginning.");
-        List<Firestation> allFirestations = (List<Firestation>) firestationRepository.findAll();
-        List<Firestation> firestationFoundList = allFirestations
-                .stream()
-                .filter(f -> isAddressAttachedToFireStation(f, address))
-                .collect(Collectors.toList());
-        if (firestationFoundList.isEmpty()) {
+        Optional<Firestation> firestation = firestationAddressIndex.getStationId(Address.normalizeStreet(address))
+                .flatMap(firestationRepository::findById);
+        if (firestation.isEmpty()) {
             log.debug("The function getFirestationByAddress in FirestationService is ending, no firestation was found.");
             throw new ObjectNotFoundException("No firestation was found with the address : " + address);
         } else {
-            Firestation firestationFound = firestationFoundList.get(0);
+            Firestation firestationFound = firestation.get();
             log.debug("The function getFirestationByAddress in FirestationService is ending, a firestation have been found.");
             return firestationFound;
         }
@@ -134,26 +187,6 @@ public class FirestationServiceImpl implements FirestationService {
         return firestationDTO;
     }
 
-    /**
-     * Indicates if an address is attached to a firestation or not
-     *
-     * @param firestation - the firestation to which the address might be attached
-     * @param address     - a String which represents the address which might be attached to he firestation
-     * @return true if the address is attached to the firestation, false if it's not
-     */
-    public boolean isAddressAttachedToFireStation(Firestation firestation, String address) {
-        log.debug("The function isAddressAttachedToFireStation in FirestationService is beginning.");
-        boolean isAttached = false;
-        for (Address attachedAddress : firestation.getAttachedAddresses()) {
-            if ((attachedAddress.getStreet()).replaceAll("\\s", "").equalsIgnoreCase(address.replaceAll("\\s", ""))) {
-                isAttached = true;
-                break;
-            }
-        }
-        log.debug("The function isAddressAttachedToFireStation in FirestationService is ending without any exception.");
-        return (isAttached);
-    }
-
     /**
      * Add a new mapping address/firestation
      *
@@ -176,6 +209,7 @@ public class FirestationServiceImpl implements FirestationService {
                 Firestation newEmptyFirestation = new Firestation();
                 newEmptyFirestation.setStationId(firestationNumber);
                 firestationRepository.save(newEmptyFirestation);
+                applicationEventPublisher.publishEvent(new DatasetChangedEvent().station(firestationNumber));
                 message = "The Firestation number " + firestationNumber + " have been created.\n" +
                         "This Firestation isn't attached to any address yet.\n";
                 log.debug("The function addNewMapping in FirestationService is ending, a new empty firestation have been created");
@@ -187,21 +221,26 @@ public class FirestationServiceImpl implements FirestationService {
             String zip;
             if (mappingFirestationAddressDTO.getZip() == null) {
                 //default zip if there is not
-                zip = "97451";
+                zip = Address.DEFAULT_ZIP;
             } else {
                 zip = mappingFirestationAddressDTO.getZip();
             }
             String city;
             if (mappingFirestationAddressDTO.getCity() == null) {
                 //default city if there is not
-                city = "CULVER";
+                city = Address.DEFAULT_CITY;
             } else {
                 city = mappingFirestationAddressDTO.getCity().toUpperCase();
             }
             Address address;
             try {
                 address = addressService.getAddress(street, zip, city);
-                //if the address already exists, that means
+            } catch (ObjectNotFoundException e) {
+                log.debug("a new address is created");
+                address = new Address(street, zip, city);
+            }
+            //an existing address can only be attached if its mapping has been deleted
+            if (address.getFirestation() != null) {
                 if (address.getFirestation().getStationId() == id) {
                     throw new ObjectAlreadyExistingException("The address \"" + street + " - " + zip + " " + city + "\" was already attached to the firestation number " + id + ".\n");
                 } else {
@@ -210,27 +249,26 @@ public class FirestationServiceImpl implements FirestationService {
                             + ",\nso it can't be attached to the firestation number " + id + ".\n"
                             + "If you want to change an address' mapping, please update it.\n");
                 }
-            } catch (ObjectNotFoundException e) {
-                log.debug("a new address is created");
-                address = new Address(street, zip, city);
-                Optional<Firestation> firestation = firestationRepository.findById(id);
-                if (firestation.isPresent()) {
-                    Firestation firestationWithNewAddress = firestation.get();
-                    firestationWithNewAddress.addAddress(address);
-                    firestationRepository.save(firestationWithNewAddress);
-                    message = "The address \"" + street + " - " + zip + " " + city + "\" have been added to the firestation number " + id + ".\n";
-                    log.info(message);
-                    log.debug("The function addNewMapping in FirestationService is ending, an address have been added to an existing firestation.");
-                } else {
-                    Firestation newStation = new Firestation();
-                    newStation.setStationId(id);
-                    newStation.addAddress(address);
-                    firestationRepository.save(newStation);
-                    message = "The firestation number " + id + " have been created,\n" +
-                            " the address \"" + street + " - " + zip + " " + city + "\" have been added to the firestation number " + id + ".\n";
-                    log.info(message);
-                    log.debug("The function addNewMapping in FirestationService is ending, a firestation have been created and an address have been added to the new firestation.");
-                }
+            }
+            Optional<Firestation> firestation = firestationRepository.findById(id);
+            if (firestation.isPresent()) {
+                Firestation firestationWithNewAddress = firestation.get();
+                firestationWithNewAddress.addAddress(address);
+                firestationRepository.save(firestationWithNewAddress);
+                applicationEventPublisher.publishEvent(new DatasetChangedEvent().address(address));
+                message = "The address \"" + street + " - " + zip + " " + city + "\" have been added to the firestation number " + id + ".\n";
+                log.info(message);
+                log.debug("The function addNewMapping in FirestationService is ending, an address have been added to an existing firestation.");
+            } else {
+                Firestation newStation = new Firestation();
+                newStation.setStationId(id);
+                newStation.addAddress(address);
+                firestationRepository.save(newStation);
+                applicationEventPublisher.publishEvent(new DatasetChangedEvent().address(address));
+                message = "The firestation number " + id + " have been created,\n" +
+                        " the address \"" + street + " - " + zip + " " + city + "\" have been added to the firestation number " + id + ".\n";
+                log.info(message);
+                log.debug("The function addNewMapping in FirestationService is ending, a firestation have been created and an address have been added to the new firestation.");
             }
         }
         return message;
@@ -249,6 +287,7 @@ public class FirestationServiceImpl implements FirestationService {
         if (firestation.isPresent()) {
             if (firestation.get().getAttachedAddresses().isEmpty()) {
                 firestationRepository.deleteById(id);
+                applicationEventPublisher.publishEvent(new DatasetChangedEvent().station(id));
                 log.debug("The function deleteFirestation in FirestationService is ending without any exception.");
                 return "The Firestation number " + id + " have been deleted";
             } else {
@@ -280,8 +319,10 @@ public class FirestationServiceImpl implements FirestationService {
         log.debug("The function deleteAddress in FirestationService is beginning.");
         Firestation firestation = address.getFirestation();
         if (firestation != null) {
+            DatasetChangedEvent event = new DatasetChangedEvent().address(address);
             firestation.removeAttachedAddress(address);
             firestationRepository.save(firestation);
+            applicationEventPublisher.publishEvent(event);
             String message = "The address " + address.getStreet() + " - " + address.getZip() + " " + address.getCity() + " have been removed from firestation number " + firestation.getStationId() + ".\n";
             log.info(message);
             log.debug("The function deleteAddressFromFirestation in FirestationService is ending without any exception.");
@@ -308,6 +349,7 @@ public class FirestationServiceImpl implements FirestationService {
             }
             firestation.addAddress(address);
             firestationRepository.save(firestation);
+            applicationEventPublisher.publishEvent(new DatasetChangedEvent().address(address));
             result = result + "The address " + address.getStreet() + " - " + address.getZip() + " " + address.getCity() + " have been attached to firestation number " + id + ".\n";
             log.debug("The function deleteAddress in FirestationService is ending without any exception.");
             return result;
@@ -1,22 +1,34 @@
 package com.safetynet.alert.service;
 
 import com.safetynet.alert.exceptions.*;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MedicalRecordDTO;
 import com.safetynet.alert.model.MedicalRecords;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public interface MedicalRecordsService {
 
     /**
-     * Get all the medical records presents in data
+     * Get one page of the medical records presents in data, in the order of their ids
      *
-     * @return a list containing all the medical records
+     * @param afterMedicalId - the id of the last medical records of the previous page, null to get the first page
+     * @param size           - the number of medical records requested, null to get the default page size
+     * @return a KeysetPage object containing the medical records of the page and the cursor of the next page
      * @throws EmptyObjectException - when there are no medical records found
      */
-    List<MedicalRecordDTO> getMedicalRecords() throws EmptyObjectException;
+    KeysetPage<MedicalRecordDTO> getMedicalRecords(Integer afterMedicalId, Integer size) throws EmptyObjectException;
+
+    /**
+     * Give all the medical records presents in data, one by one in the order of their ids,
+     * without holding the whole list in memory
+     *
+     * @param consumer - the function receiving each medical records
+     */
+    void forEachMedicalRecordDTO(Consumer<MedicalRecordDTO> consumer);
 
     /**
      * Create a MedicalRecordDTO object containing information about medicalRecords
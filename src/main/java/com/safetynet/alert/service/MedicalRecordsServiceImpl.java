@@ -1,7 +1,9 @@
 package com.safetynet.alert.service;
 
+import com.safetynet.alert.event.DatasetChangedEvent;
 import com.safetynet.alert.exceptions.*;
 import com.safetynet.alert.model.Allergy;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MedicalRecordDTO;
 import com.safetynet.alert.model.MedicalRecords;
 import com.safetynet.alert.model.Medication;
@@ -9,45 +11,121 @@ import com.safetynet.alert.model.Person;
 import com.safetynet.alert.repository.MedicalRecordsRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
 @Slf4j
 public class MedicalRecordsServiceImpl implements MedicalRecordsService {
 
+    //number of medical records read by the export between two clearings of the persistence context
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     @Autowired
     private MedicalRecordsRepository medicalRecordsRepository;
 
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private PageSizeLimit pageSizeLimit;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
-     * Get all the medical records presents in data
+     * Get one page of the medical records presents in data, in the order of their ids
      *
-     * @return a list containing all the medical records
+     * @param afterMedicalId - the id of the last medical records of the previous page, null to get the first page
+     * @param size           - the number of medical records requested, null to get the default page size
+     * @return a KeysetPage object containing the medical records of the page and the cursor of the next page
      * @throws EmptyObjectException - when there are no medical records found
      */
     @Override
-    public List<MedicalRecordDTO> getMedicalRecords() throws EmptyObjectException {
+    public KeysetPage<MedicalRecordDTO> getMedicalRecords(Integer afterMedicalId, Integer size) throws EmptyObjectException {
         log.debug("The function getMedicalRecords in MedicalRecordsService is beginning.");
-        List<MedicalRecords> allMedicalRecords = (List<MedicalRecords>) medicalRecordsRepository.findAll();
-        if (!allMedicalRecords.isEmpty()) {
-            List<MedicalRecordDTO> allMedicalRecordsDTO = allMedicalRecords.stream().map(this::transformMedicalRecordsToMedicalRecordDTO).collect(Collectors.toList());
-            log.debug("The function getMedicalRecords in MedicalRecordsService is ending. Some medical records were found.");
-            return allMedicalRecordsDTO;
-        } else {
+        int pageSize = pageSizeLimit.resolve(size);
+        //one more medical records than the page size is read to know if there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<MedicalRecords> medicalRecords = afterMedicalId == null
+                ? medicalRecordsRepository.findAllByOrderByMedicalIdAsc(pageable)
+                : medicalRecordsRepository.findByMedicalIdGreaterThanOrderByMedicalIdAsc(afterMedicalId, pageable);
+        if (medicalRecords.isEmpty() && afterMedicalId == null) {
             log.debug("The function getMedicalRecords in MedicalRecordsService is ending without founding any medical record.");
             throw new EmptyObjectException("There are no medical records registered.\n");
         }
+        String nextCursor = null;
+        if (medicalRecords.size() > pageSize) {
+            medicalRecords = medicalRecords.subList(0, pageSize);
+            nextCursor = String.valueOf(medicalRecords.get(pageSize - 1).getMedicalId());
+        }
+        //the medications and the allergies of the whole page are fetched by two queries
+        if (!medicalRecords.isEmpty()) {
+            medicalRecordsRepository.fetchMedications(medicalRecords);
+            medicalRecordsRepository.fetchAllergies(medicalRecords);
+        }
+        List<MedicalRecordDTO> medicalRecordsDTO = medicalRecords.stream().map(this::transformMedicalRecordsToMedicalRecordDTO).collect(Collectors.toList());
+        log.debug("The function getMedicalRecords in MedicalRecordsService is ending without any exception.");
+        return new KeysetPage<>(medicalRecordsDTO, nextCursor);
+    }
+
+    /**
+     * Give all the medical records presents in data, one by one in the order of their ids,
+     * without holding the whole list in memory
+     *
+     * @param consumer - the function receiving each medical records
+     */
+    //the medical records are read through a JDBC cursor by batches: the medications and the allergies of a batch are fetched
+    //by two queries, then the persistence context is cleared so the memory used doesn't depend on the number of medical records
+    @Transactional
+    @Override
+    public void forEachMedicalRecordDTO(Consumer<MedicalRecordDTO> consumer) {
+        log.debug("The function forEachMedicalRecordDTO in MedicalRecordsService is beginning.");
+        long count = 0;
+        List<MedicalRecords> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+        try (Stream<MedicalRecords> medicalRecords = medicalRecordsRepository.streamAllWithPerson()) {
+            Iterator<MedicalRecords> iterator = medicalRecords.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == EXPORT_BATCH_SIZE) {
+                    count += giveBatch(batch, consumer);
+                }
+            }
+        }
+        count += giveBatch(batch, consumer);
+        log.debug("The function forEachMedicalRecordDTO in MedicalRecordsService is ending, " + count + " medical records were given.");
+    }
+
+    private int giveBatch(List<MedicalRecords> batch, Consumer<MedicalRecordDTO> consumer) {
+        int size = batch.size();
+        if (size > 0) {
+            medicalRecordsRepository.fetchMedications(batch);
+            medicalRecordsRepository.fetchAllergies(batch);
+            batch.forEach(medicalRecords -> consumer.accept(transformMedicalRecordsToMedicalRecordDTO(medicalRecords)));
+            batch.clear();
+            entityManager.clear();
+        }
+        return size;
     }
 
     /**
@@ -125,43 +203,46 @@ public class MedicalRecordsServiceImpl implements MedicalRecordsService {
                 medicalRecordsToSave.addPerson(person);
             }
             //putting birthdate to medical records
-            String birthdate = medicalRecords.getBirthdate();
-            LocalDate birthdateFormatted = null;
-            if (birthdate != null) {
-                int birthdateDay;
-                int birthdateMonth;
-                int birthdateYear;
-                try {
-                    birthdateDay = Integer.parseInt(birthdate.substring(0, 2));
-                    birthdateMonth = Integer.parseInt(birthdate.substring(3, 5));
-                    birthdateYear = Integer.parseInt(birthdate.substring(6, 10));
-                } catch (StringIndexOutOfBoundsException | NumberFormatException e) {
-                    throw new NotRightFormatToPostException("The birthdate should be given at the format \"dd/MM/yyyy\".\n");
-                }
-                //
-                try {
-                    birthdateFormatted = LocalDate.of(birthdateYear, birthdateMonth, birthdateDay);
-                } catch (DateTimeException e) {
-                    throw new NotRightFormatToPostException("The birthdate should be given at the format \"dd/MM/yyyy\"\n" + e.getMessage());
-                }
-            }
+            LocalDate birthdateFormatted = parseBirthdate(medicalRecords.getBirthdate());
             medicalRecordsToSave.setBirthdate(birthdateFormatted);
-            //clearing medications (if not empty) and putting new ones
-            medicalRecordsToSave.getMedications().clear();
-            for (String medication : medicalRecords.getMedications()) {
-                medicalRecordsToSave.addMedication(new Medication(medication));
-            }
-            //clearing allergies (if not empty) and putting new ones
-            medicalRecordsToSave.getAllergies().clear();
-            for (String allergy : medicalRecords.getAllergies()) {
-                medicalRecordsToSave.addAllergy(new Allergy(allergy));
-            }
+            //replacing medications and allergies: only the ones removed are deleted and only the new ones are inserted
+            medicalRecordsToSave.replaceMedications(medicalRecords.getMedications());
+            medicalRecordsToSave.replaceAllergies(medicalRecords.getAllergies());
             //saving new medical records and returning it
             medicalRecordsRepository.save(medicalRecordsToSave);
+            applicationEventPublisher.publishEvent(new DatasetChangedEvent().person(person));
             return medicalRecordsToSave;
         }
     }
 
+    /**
+     * Read a birthdate written "dd/MM/yyyy"
+     *
+     * @param birthdate - the birthdate as it is given in a request, may be null
+     * @return the birthdate, or null when no birthdate is given
+     * @throws NotRightFormatToPostException - when the birthdate isn't written "dd/MM/yyyy" or isn't a valid date
+     */
+    static LocalDate parseBirthdate(String birthdate) throws NotRightFormatToPostException {
+        if (birthdate == null) {
+            return null;
+        }
+        int birthdateDay;
+        int birthdateMonth;
+        int birthdateYear;
+        try {
+            birthdateDay = Integer.parseInt(birthdate.substring(0, 2));
+            birthdateMonth = Integer.parseInt(birthdate.substring(3, 5));
+            birthdateYear = Integer.parseInt(birthdate.substring(6, 10));
+        } catch (StringIndexOutOfBoundsException | NumberFormatException e) {
+            throw new NotRightFormatToPostException("The birthdate should be given at the format \"dd/MM/yyyy\".\n");
+        }
+        try {
+            return LocalDate.of(birthdateYear, birthdateMonth, birthdateDay);
+        } catch (DateTimeException e) {
+            throw new NotRightFormatToPostException("The birthdate should be given at the format \"dd/MM/yyyy\"\n" + e.getMessage());
+        }
+    }
+
     /**
      * Update person's medical records having his first name and his last name and information to update
      *
@@ -196,49 +277,27 @@ public class MedicalRecordsServiceImpl implements MedicalRecordsService {
         //using a boolean and a String to remember if there are changes and which ones
         boolean updated = false;
         //if there's a birthdate in the MedicalRecordDTO information, it's set to the person's medical records
-        String birthdate = medicalRecordDTO.getBirthdate();
-        LocalDate birthdateFormatted;
+        LocalDate birthdate = parseBirthdate(medicalRecordDTO.getBirthdate());
         if (birthdate != null) {
-            int birthdateDay;
-            int birthdateMonth;
-            int birthdateYear;
-            try {
-                birthdateDay = Integer.parseInt(birthdate.substring(0, 2));
-                birthdateMonth = Integer.parseInt(birthdate.substring(3, 5));
-                birthdateYear = Integer.parseInt(birthdate.substring(6, 10));
-            } catch (StringIndexOutOfBoundsException | NumberFormatException e) {
-                throw new NotRightFormatToPostException("The birthdate should be given at the format \"dd/MM/yyyy\".\n");
-            }
-            //
-            try {
-                birthdateFormatted = LocalDate.of(birthdateYear, birthdateMonth, birthdateDay);
-            } catch (DateTimeException e) {
-                throw new NotRightFormatToPostException("The birthdate should be given at the format \"dd/MM/yyyy\"\n" + e.getMessage());
-            }
-            medicalRecords.setBirthdate(birthdateFormatted);
+            medicalRecords.setBirthdate(birthdate);
             updated = true;
         }
-        //if there are medications in the MedicalRecordDTO information, older medications are cleared and new ones are set to the person's medical records
+        //if there are medications in the MedicalRecordDTO information, they replace the older ones: only the differences are written
         List<String> medications = medicalRecordDTO.getMedications();
         if (!medications.equals(Collections.emptyList())) {
-            medicalRecords.getMedications().clear();
-            for (String medication : medications) {
-                medicalRecords.addMedication(new Medication(medication));
-            }
+            medicalRecords.replaceMedications(medications);
             updated = true;
         }
-        //if there are allergies in the MedicalRecordDTO information, older allergies are cleared and new ones set to the person's medical records
+        //if there are allergies in the MedicalRecordDTO information, they replace the older ones: only the differences are written
         List<String> allergies = medicalRecordDTO.getAllergies();
         if (!allergies.equals(Collections.emptyList())) {
-            medicalRecords.getAllergies().clear();
-            for (String allergy : allergies) {
-                medicalRecords.addAllergy(new Allergy(allergy));
-            }
+            medicalRecords.replaceAllergies(allergies);
             updated = true;
         }
         //if there are changes, they are registered and a String containing changed information is returned
         if (updated) {
             medicalRecordsRepository.save(medicalRecords);
+            applicationEventPublisher.publishEvent(new DatasetChangedEvent().person(personToUpdateMedicals));
             String updatingMessage = "The medical records about the person " + upperCaseFirstName + " " + upperCaseLastName + " have been updated.\n";
             log.info(updatingMessage);
             log.debug("The function updateMedicalRecords in MedicalRecordsService is ending with updating medical records.");
@@ -272,6 +331,7 @@ public class MedicalRecordsServiceImpl implements MedicalRecordsService {
         if (medicalRecordsToDelete != null) {
             medicalRecordsToDelete.removePerson(personDeleteMedicalRecords);
             medicalRecordsRepository.delete(medicalRecordsToDelete);
+            applicationEventPublisher.publishEvent(new DatasetChangedEvent().person(personDeleteMedicalRecords));
             String message = "The medical records about the person " + upperCaseFirstName + " " + upperCaseLastName + " have been deleted.\n";
             log.debug("The function deleteMedicalRecords in MedicalRecordsService is ending.");
             return message;
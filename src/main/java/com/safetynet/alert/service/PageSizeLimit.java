@@ -0,0 +1,33 @@
+package com.safetynet.alert.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Number of elements returned in a page of the CRUD lists, bounded so that the memory used by one request is bounded too
+ */
+@Component
+public class PageSizeLimit {
+
+    private final int defaultSize;
+
+    private final int maxSize;
+
+    public PageSizeLimit(@Value("${alert.page.default-size:100}") int defaultSize, @Value("${alert.page.max-size:1000}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the size of a page from the size requested
+     *
+     * @param requestedSize - the size requested, null when the request doesn't give any
+     * @return the size requested brought between 1 and the maximum size, or the default size
+     */
+    public int resolve(Integer requestedSize) {
+        if (requestedSize == null) {
+            return defaultSize;
+        }
+        return Math.max(1, Math.min(requestedSize, maxSize));
+    }
+}
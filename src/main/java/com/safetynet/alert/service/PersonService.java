@@ -4,20 +4,28 @@ import com.safetynet.alert.exceptions.EmptyObjectException;
 import com.safetynet.alert.exceptions.NotRightFormatToPostException;
 import com.safetynet.alert.exceptions.ObjectAlreadyExistingException;
 import com.safetynet.alert.exceptions.ObjectNotFoundException;
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.PersonDTO;
 import com.safetynet.alert.model.Person;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 public interface PersonService {
 
     /**
-     * Get all the persons presents in data in PersonDTO object format
+     * Get one page of the persons presents in data in PersonDTO object format, in the order of their ids
      *
-     * @return a list containing all the persons presents in data
+     * @param afterId - the id of the last person of the previous page, null to get the first page
+     * @param size    - the number of persons requested, null to get the default page size
+     * @return a KeysetPage object containing the persons of the page and the cursor of the next page
+     * @throws EmptyObjectException When there is no person registered
      */
-    List<PersonDTO> getPersonsDTO();
+    KeysetPage<PersonDTO> getPersonsDTO(String afterId, Integer size) throws EmptyObjectException;
 
     /**
      * Get all the persons presents in data
@@ -80,5 +88,64 @@ public interface PersonService {
      */
     List<Person> getPersonsByName(String firstName, String lastName) throws ObjectNotFoundException;
 
+    /**
+     * Get the persons living at the addresses covered by a firestation, with their address and medical records already loaded
+     *
+     * @param stationId - the number of the firestation
+     * @return a list of the persons covered by the firestation, which may be empty
+     */
+    List<Person> getPersonsByStation(int stationId);
+
+    /**
+     * Get one person from his first name and last name, with his address, medical records, medications and allergies already loaded
+     *
+     * @param firstName A String which is the first name of the researched person
+     * @param lastName  A String which is the last name of the researched person
+     * @return a list of the persons which correspond to the researched person
+     * @throws ObjectNotFoundException When the researched person is not found
+     */
+    List<Person> getPersonsByNameWithMedicalData(String firstName, String lastName) throws ObjectNotFoundException;
+
+    /**
+     * Get the persons living at an address, with their medical records, medications and allergies already loaded
+     *
+     * @param address - the address of the persons
+     * @return a list of the persons living at the address, which may be empty
+     */
+    List<Person> getResidentsWithMedicalData(Address address);
+
+    /**
+     * Get the persons living at the addresses covered by some firestations,
+     * with their address, medical records, medications and allergies already loaded
+     *
+     * @param stationIds - the numbers of the firestations
+     * @return a list of the persons covered by the firestations, ordered by address
+     */
+    List<Person> getPersonsByStationsWithMedicalData(Collection<Integer> stationIds);
+
+    /**
+     * Get the mails of the persons living in a city, without loading the persons
+     *
+     * @param city - the city, compared ignoring case
+     * @return a list of the mails of the city's residents
+     */
+    List<String> getMailsByCity(String city);
+
+    /**
+     * Stream the mails of the persons living in a city, the stream has to be consumed within a transaction and then closed
+     *
+     * @param city - the city, compared ignoring case
+     * @return a stream of the mails of the city's residents
+     */
+    Stream<String> streamMailsByCity(String city);
+
+    /**
+     * Give all the persons presents in data in PersonDTO object format, one by one in the order of their ids,
+     * without holding the whole list in memory
+     *
+     * @param consumer - the function receiving each person
+     */
+    void forEachPersonDTO(Consumer<PersonDTO> consumer);
+
 
 }
@@ -1,28 +1,59 @@
 package com.safetynet.alert.service;
 
+import com.safetynet.alert.event.DatasetChangedEvent;
 import com.safetynet.alert.exceptions.*;
 import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.PersonDTO;
+import com.safetynet.alert.model.MedicalRecords;
 import com.safetynet.alert.model.Person;
+import com.safetynet.alert.repository.MedicalRecordsRepository;
 import com.safetynet.alert.repository.PersonRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
 @Slf4j
 public class PersonServiceImpl implements PersonService {
+
+    //number of persons read by the export between two clearings of the persistence context
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     @Autowired
     private PersonRepository personRepository;
 
     @Autowired
     private AddressService addressService;
 
+    @Autowired
+    private MedicalRecordsRepository medicalRecordsRepository;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private PageSizeLimit pageSizeLimit;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Get all the persons presents in data
      *
@@ -42,21 +73,37 @@ public class PersonServiceImpl implements PersonService {
     }
 
     /**
-     * Get all the persons presents in data in PersonDTO object format
+     * Get one page of the persons presents in data in PersonDTO object format, in the order of their ids
      *
-     * @return a list containing all the persons presents in data
+     * @param afterId - the id of the last person of the previous page, null to get the first page
+     * @param size    - the number of persons requested, null to get the default page size
+     * @return a KeysetPage object containing the persons of the page and the cursor of the next page
+     * @throws EmptyObjectException When there is no person registered
      */
     @Override
-    public List<PersonDTO> getPersonsDTO() {
+    public KeysetPage<PersonDTO> getPersonsDTO(String afterId, Integer size) throws EmptyObjectException {
         log.debug("The function getPersonsDTO in PersonService is beginning.");
-
-        List<PersonDTO> result = getPersons()
+        int pageSize = pageSizeLimit.resolve(size);
+        //one more person than the page size is read to know if there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Person> persons = afterId == null
+                ? personRepository.findAllByOrderByIdAsc(pageable)
+                : personRepository.findByIdGreaterThanOrderByIdAsc(afterId.toUpperCase(), pageable);
+        if (persons.isEmpty() && afterId == null) {
+            throw new EmptyObjectException("There are no persons registered.\n");
+        }
+        String nextCursor = null;
+        if (persons.size() > pageSize) {
+            persons = persons.subList(0, pageSize);
+            nextCursor = persons.get(pageSize - 1).getId();
+        }
+        List<PersonDTO> result = persons
                 .stream()
                 .map(this::transformPersonToPersonDTO)
                 .collect(Collectors.toList());
 
-        log.debug("The function getPersons in PersonService is ending. Some persons were found.");
-        return result;
+        log.debug("The function getPersonsDTO in PersonService is ending without any exception.");
+        return new KeysetPage<>(result, nextCursor);
     }
 
     /**
@@ -117,6 +164,142 @@ public class PersonServiceImpl implements PersonService {
         }
     }
 
+    /**
+     * Get the persons living at the addresses covered by a firestation, with their address and medical records already loaded
+     *
+     * @param stationId - the number of the firestation
+     * @return a list of the persons covered by the firestation, which may be empty
+     */
+    @Override
+    public List<Person> getPersonsByStation(int stationId) {
+        log.debug("The function getPersonsByStation in PersonService is beginning.");
+        List<Person> personsCovered = personRepository.findByStationIdFetchingAddressAndMedicalRecords(stationId);
+        log.debug("The function getPersonsByStation in PersonService is ending, " + personsCovered.size() + " persons were found.");
+        return personsCovered;
+    }
+
+    /**
+     * Get one person from his first name and last name, with his address, medical records, medications and allergies already loaded
+     *
+     * @param firstName A String which is the first name of the researched person
+     * @param lastName  A String which is the last name of the researched person
+     * @return a list of the persons which correspond to the researched person
+     * @throws ObjectNotFoundException When the researched person is not found
+     */
+    @Override
+    public List<Person> getPersonsByNameWithMedicalData(String firstName, String lastName) throws ObjectNotFoundException {
+        log.debug("The function getPersonsByNameWithMedicalData in PersonService is beginning.");
+        String upperCaseFirstName = firstName.toUpperCase();
+        String upperCaseLastName = lastName.toUpperCase();
+        List<Person> personResearched = personRepository.findWithMedicalRecordsByFirstNameAndLastName(upperCaseFirstName, upperCaseLastName);
+        if (personResearched.isEmpty()) {
+            log.debug("The function getPersonsByNameWithMedicalData in PersonService is ending, no person was found.");
+            throw new ObjectNotFoundException("The person " + upperCaseFirstName + " " + upperCaseLastName + " was not found.\n");
+        }
+        fetchMedicationsAndAllergies(personResearched);
+        log.debug("The function getPersonsByNameWithMedicalData in PersonService is ending, a person was found");
+        return personResearched;
+    }
+
+    /**
+     * Get the persons living at an address, with their medical records, medications and allergies already loaded
+     *
+     * @param address - the address of the persons
+     * @return a list of the persons living at the address, which may be empty
+     */
+    @Override
+    public List<Person> getResidentsWithMedicalData(Address address) {
+        log.debug("The function getResidentsWithMedicalData in PersonService is beginning.");
+        List<Person> residents = personRepository.findWithMedicalRecordsByAddress(address);
+        fetchMedicationsAndAllergies(residents);
+        log.debug("The function getResidentsWithMedicalData in PersonService is ending, " + residents.size() + " persons were found.");
+        return residents;
+    }
+
+    /**
+     * Get the persons living at the addresses covered by some firestations,
+     * with their address, medical records, medications and allergies already loaded
+     *
+     * @param stationIds - the numbers of the firestations
+     * @return a list of the persons covered by the firestations, ordered by address
+     */
+    @Override
+    public List<Person> getPersonsByStationsWithMedicalData(Collection<Integer> stationIds) {
+        log.debug("The function getPersonsByStationsWithMedicalData in PersonService is beginning.");
+        List<Person> personsCovered = personRepository.findByStationIdsFetchingAddressAndMedicalRecords(stationIds);
+        fetchMedicationsAndAllergies(personsCovered);
+        log.debug("The function getPersonsByStationsWithMedicalData in PersonService is ending, " + personsCovered.size() + " persons were found.");
+        return personsCovered;
+    }
+
+    /**
+     * Get the mails of the persons living in a city, without loading the persons
+     *
+     * @param city - the city, compared ignoring case
+     * @return a list of the mails of the city's residents
+     */
+    @Override
+    public List<String> getMailsByCity(String city) {
+        log.debug("The function getMailsByCity in PersonService is beginning.");
+        List<String> mails = personRepository.findMailsByNormalizedCity(Address.normalizeCity(city));
+        log.debug("The function getMailsByCity in PersonService is ending, " + mails.size() + " mails were found.");
+        return mails;
+    }
+
+    /**
+     * Stream the mails of the persons living in a city, the stream has to be consumed within a transaction and then closed
+     *
+     * @param city - the city, compared ignoring case
+     * @return a stream of the mails of the city's residents
+     */
+    @Override
+    public Stream<String> streamMailsByCity(String city) {
+        log.debug("The function streamMailsByCity in PersonService is called.");
+        return personRepository.streamMailsByNormalizedCity(Address.normalizeCity(city));
+    }
+
+    /**
+     * Give all the persons presents in data in PersonDTO object format, one by one in the order of their ids,
+     * without holding the whole list in memory
+     *
+     * @param consumer - the function receiving each person
+     */
+    //the persons are read through a JDBC cursor, and the persistence context is cleared regularly so the memory used doesn't depend on their number
+    @Transactional
+    @Override
+    public void forEachPersonDTO(Consumer<PersonDTO> consumer) {
+        log.debug("The function forEachPersonDTO in PersonService is beginning.");
+        long count = 0;
+        try (Stream<Person> persons = personRepository.streamAllWithAddress()) {
+            Iterator<Person> iterator = persons.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(transformPersonToPersonDTO(iterator.next()));
+                if (++count % EXPORT_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.debug("The function forEachPersonDTO in PersonService is ending, " + count + " persons were given.");
+    }
+
+    /**
+     * Load the medications and the allergies of the persons' medical records with one query each,
+     * instead of two lazy loadings per person
+     *
+     * @param persons - the persons whose medical records are already loaded
+     */
+    private void fetchMedicationsAndAllergies(List<Person> persons) {
+        List<MedicalRecords> medicalRecords = persons
+                .stream()
+                .map(Person::getMedicalRecords)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!medicalRecords.isEmpty()) {
+            medicalRecordsRepository.fetchMedications(medicalRecords);
+            medicalRecordsRepository.fetchAllergies(medicalRecords);
+        }
+    }
+
     /**
      * Create a new person
      *
@@ -158,6 +341,7 @@ public class PersonServiceImpl implements PersonService {
             }
             Person createdPerson = transformPersonDTOToPerson(person);
             personRepository.save(createdPerson);
+            applicationEventPublisher.publishEvent(new DatasetChangedEvent().person(createdPerson));
             log.info("The person " + upperCaseFirstName + " " + upperCaseLastName + " have been created.");
             log.debug("The function createPerson in PersonService is ending with creating a person.");
             return createdPerson;
@@ -264,6 +448,8 @@ public class PersonServiceImpl implements PersonService {
                 ((lastName.equals("")) || (upperCaseLastName.equals(lastName)))) {
 
             Person person = getPersonById(upperCaseFirstName + upperCaseLastName);
+            //the household the person leaves has to be refreshed as well as the new one
+            DatasetChangedEvent event = new DatasetChangedEvent().address(person.getAddress());
             String street = personWithNewInformation.getAddress();
             String city = personWithNewInformation.getCity();
             if (city != null) {
@@ -292,6 +478,7 @@ public class PersonServiceImpl implements PersonService {
             }
             if (updated) {
                 Person personSaved = personRepository.save(person);
+                applicationEventPublisher.publishEvent(event.person(personSaved));
 
                 log.info("The person " + personSaved.getFirstName() + " " + personSaved.getLastName() + " have been updated.");
                 log.debug("The function updatePerson in PersonService is ending with updating a person.");
@@ -318,9 +505,11 @@ public class PersonServiceImpl implements PersonService {
         log.debug("The function deletePersonByName in PersonService is beginning.");
         try {
             Person person = getPersonById(id);
+            DatasetChangedEvent event = new DatasetChangedEvent().person(person);
             if(person.getAddress()!=null)
             { person.getAddress().removePerson(person);}
             personRepository.delete(person);
+            applicationEventPublisher.publishEvent(event);
 
             //personRepository.deleteById(upperCaseId);
             log.info("The person with id " + id + " have been deleted. \n");
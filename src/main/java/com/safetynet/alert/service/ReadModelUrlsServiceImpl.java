@@ -0,0 +1,176 @@
+package com.safetynet.alert.service;
+
+import com.safetynet.alert.exceptions.ObjectNotFoundException;
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.DTO.*;
+import com.safetynet.alert.readmodel.HouseholdView;
+import com.safetynet.alert.readmodel.ReadModel;
+import com.safetynet.alert.readmodel.ReadModelHolder;
+import com.safetynet.alert.readmodel.ResidentView;
+import com.safetynet.alert.readmodel.StationView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * UrlsService answering from the in-memory read model instead of the database, used when alert.read-model.enabled is true.
+ * Every request reads one snapshot of the read model, so its answer is consistent even if the data change meanwhile.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "alert.read-model.enabled", havingValue = "true")
+public class ReadModelUrlsServiceImpl implements UrlsService {
+
+    @Autowired
+    private ReadModelHolder readModelHolder;
+
+    @Override
+    public FirestationInfoDTO getPersonsCoveredByFirestation(int stationNumber) {
+        log.debug("The function getPersonsCoveredByFirestation in ReadModelUrlsService is beginning.");
+        StationView station = getStation(readModelHolder.get(), stationNumber);
+        LocalDate now = LocalDate.now();
+        int numberOfChildren = 0;
+        List<PersonFirestationDTO> personsDTOCoveredByFirestation = new ArrayList<>();
+        for (HouseholdView household : station.getHouseholds()) {
+            for (ResidentView resident : household.getResidents()) {
+                boolean child = resident.isChild(now);
+                personsDTOCoveredByFirestation.add(new PersonFirestationDTO(resident.getFirstName(), resident.getLastName(),
+                        resident.getAddress(), resident.getPhoneNumber(), child));
+                if (child) {
+                    numberOfChildren++;
+                }
+            }
+        }
+        int numberOfAdults = personsDTOCoveredByFirestation.size() - numberOfChildren;
+        log.debug("The function getPersonsCoveredByFirestation in ReadModelUrlsService is ending without any exception.");
+        return new FirestationInfoDTO(stationNumber, numberOfChildren, numberOfAdults, personsDTOCoveredByFirestation);
+    }
+
+    @Override
+    public List<ChildInfoDTO> getChildrenByAddress(String address) {
+        log.debug("The function getChildrenByAddress in ReadModelUrlsService is beginning.");
+        HouseholdView household = getHousehold(readModelHolder.get(), address);
+        List<ResidentView> residents = household.getResidents();
+        List<String> residentsNames = residents
+                .stream()
+                .map(resident -> resident.getFirstName() + " " + resident.getLastName())
+                .collect(Collectors.toList());
+        LocalDate now = LocalDate.now();
+        List<ChildInfoDTO> childrenLivingAtAddress = new ArrayList<>();
+        for (int i = 0; i < residents.size(); i++) {
+            ResidentView resident = residents.get(i);
+            if (resident.isChild(now)) {
+                List<String> householdMembers = new ArrayList<>(residentsNames);
+                householdMembers.remove(i);
+                childrenLivingAtAddress.add(new ChildInfoDTO(resident.getFirstName(), resident.getLastName(), resident.getAge(now),
+                        household.getLabel(), householdMembers));
+            }
+        }
+        log.debug("The function getChildrenByAddress in ReadModelUrlsService is ending without any exception.");
+        return childrenLivingAtAddress;
+    }
+
+    @Override
+    public List<String> getPhoneNumbersByFirestation(int stationId) {
+        log.debug("The function getPhoneNumbersByFirestation in ReadModelUrlsService is beginning.");
+        List<String> allPhoneNumbers = getStation(readModelHolder.get(), stationId).getPhoneNumbers();
+        log.debug("The function getPhoneNumbersByFirestation in ReadModelUrlsService is ending without any exception.");
+        return allPhoneNumbers;
+    }
+
+    @Override
+    public FireInfoDTO getPersonsByAddress(String address) {
+        log.debug("The function getPersonsByAddress in ReadModelUrlsService is beginning.");
+        HouseholdView household = getHousehold(readModelHolder.get(), address);
+        if (household.getStationId() == null) {
+            log.debug("The function getPersonsByAddress in ReadModelUrlsService is ending, the address isn't covered by any firestation.");
+            throw new ObjectNotFoundException("No firestation was found with the address " + address + ".\n");
+        }
+        FireInfoDTO result = transformHouseholdToFireInfoDTO(address, household.getStationId(), household, LocalDate.now());
+        log.debug("The function getPersonsByAddress in ReadModelUrlsService is ending without any exception.");
+        return result;
+    }
+
+    @Override
+    public List<FireInfoDTO> getHouseholdsByStation(List<Integer> stationNumbers) {
+        log.debug("The function getHouseholdsByStation in ReadModelUrlsService is beginning.");
+        ReadModel readModel = readModelHolder.get();
+        Set<Integer> distinctStationNumbers = new LinkedHashSet<>(stationNumbers);
+        //all the firestations are checked before answering, as the JPA path does
+        List<StationView> stations = distinctStationNumbers
+                .stream()
+                .map(stationNumber -> getStation(readModel, stationNumber))
+                .collect(Collectors.toList());
+        LocalDate now = LocalDate.now();
+        List<FireInfoDTO> result = new ArrayList<>();
+        for (StationView station : stations) {
+            for (HouseholdView household : station.getHouseholds()) {
+                result.add(transformHouseholdToFireInfoDTO(household.getStreet(), station.getStationId(), household, now));
+            }
+        }
+        log.debug("The function getHouseholdsByStation in ReadModelUrlsService is ending without any exception.");
+        return result;
+    }
+
+    @Override
+    public List<PersonInfo2DTO> getPersonsByName(String firstName, String lastName) {
+        log.debug("The function getPersonsByName in ReadModelUrlsService is beginning.");
+        String upperCaseFirstName = firstName.toUpperCase();
+        String upperCaseLastName = lastName.toUpperCase();
+        List<ResidentView> residents = readModelHolder.get().getResidentsByName(upperCaseFirstName, upperCaseLastName);
+        if (residents.isEmpty()) {
+            log.debug("The function getPersonsByName in ReadModelUrlsService is ending, no person was found.");
+            throw new ObjectNotFoundException("The person " + upperCaseFirstName + " " + upperCaseLastName + " was not found.\n");
+        }
+        List<PersonInfo2DTO> result = residents
+                .stream()
+                .map(resident -> new PersonInfo2DTO(resident.getFirstName(), resident.getLastName(), resident.getAddress(),
+                        resident.getMail(), resident.getPhoneNumber(), new ArrayList<>(resident.getMedications()), new ArrayList<>(resident.getAllergies())))
+                .collect(Collectors.toList());
+        log.debug("The function getPersonsByName in ReadModelUrlsService is ending without any exception.");
+        return result;
+    }
+
+    @Override
+    public List<String> getMailsByCity(String city) {
+        log.debug("The function getMailsByCity in ReadModelUrlsService is beginning.");
+        List<String> result = readModelHolder.get().getMails(Address.normalizeCity(city));
+        log.debug("The function getMailsByCity in ReadModelUrlsService is ending without any exception.");
+        return result;
+    }
+
+    @Override
+    public void forEachMailByCity(String city, Consumer<String> consumer) {
+        log.debug("The function forEachMailByCity in ReadModelUrlsService is beginning.");
+        readModelHolder.get().getMails(Address.normalizeCity(city)).forEach(consumer);
+        log.debug("The function forEachMailByCity in ReadModelUrlsService is ending without any exception.");
+    }
+
+    private StationView getStation(ReadModel readModel, int stationId) {
+        return readModel.getStation(stationId)
+                .orElseThrow(() -> new ObjectNotFoundException("The firestation with Id number " + stationId + " was not found.\n"));
+    }
+
+    private HouseholdView getHousehold(ReadModel readModel, String street) {
+        return readModel.getHousehold(Address.normalizeStreet(street))
+                .orElseThrow(() -> new ObjectNotFoundException("The address " + street + " was not found.\n"));
+    }
+
+    private FireInfoDTO transformHouseholdToFireInfoDTO(String address, int stationId, HouseholdView household, LocalDate now) {
+        List<PersonInfoDTO> personInfoDTOList = household.getResidents()
+                .stream()
+                .map(resident -> new PersonInfoDTO(resident.getFirstName(), resident.getLastName(), resident.getPhoneNumber(),
+                        resident.getAge(now), new ArrayList<>(resident.getMedications()), new ArrayList<>(resident.getAllergies())))
+                .collect(Collectors.toList());
+        return new FireInfoDTO(address, stationId, personInfoDTOList);
+    }
+}
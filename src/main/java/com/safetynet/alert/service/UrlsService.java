@@ -7,6 +7,7 @@ import com.safetynet.alert.model.DTO.PersonInfo2DTO;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 
 @Service
@@ -25,4 +26,6 @@ public interface UrlsService {
     List<PersonInfo2DTO> getPersonsByName(String firstName, String lastName);
 
     List<String> getMailsByCity(String city);
+
+    void forEachMailByCity(String city, Consumer<String> consumer);
 }
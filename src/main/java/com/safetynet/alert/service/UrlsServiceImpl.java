@@ -1,21 +1,43 @@
 package com.safetynet.alert.service;
 
+import com.safetynet.alert.cache.AlertResponseCache;
+import com.safetynet.alert.cache.RequestCoalescer;
+import com.safetynet.alert.exceptions.ObjectNotFoundException;
+import com.safetynet.alert.index.PhoneRosterIndex;
 import com.safetynet.alert.model.*;
 import com.safetynet.alert.model.DTO.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.transaction.Transactional;
 import java.time.LocalDate;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
+@ConditionalOnProperty(name = "alert.read-model.enabled", havingValue = "false", matchIfMissing = true)
 public class UrlsServiceImpl implements UrlsService {
 
+    //the responses are cached under their station or their normalized street, so that they can be evicted by station or by street,
+    //and under the version of the station or the street, so that a response computed before a change is never read after it
+    private static final String STATION_KEY = "@alertResponseCache.stationKey(#p0)";
+    private static final String STREET_KEY = "@alertResponseCache.streetKey(#p0)";
+
     @Autowired
     private PersonService personService;
 
@@ -25,150 +47,162 @@ public class UrlsServiceImpl implements UrlsService {
     @Autowired
     private AddressService addressService;
 
+    @Autowired
+    private PhoneRosterIndex phoneRosterIndex;
+
+    //identical requests running at the same time share one computation, /phoneAlert is only an index lookup
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Cacheable(cacheNames = AlertResponseCache.FIRESTATION, key = STATION_KEY)
     @Override
     public FirestationInfoDTO getPersonsCoveredByFirestation(int stationNumber) {
         log.debug("The function getPersonsCoveredByFirestation in UrlsService is beginning.");
-        List<Address> addresses = firestationService.getFirestationById(stationNumber).getAttachedAddresses();
-        List<Person> personsCoveredByStation = personService.getPersons()
-                .stream()
-                .filter(person -> addresses.contains(person.getAddress())).collect(Collectors.toList());
-        List<PersonFirestationDTO> personsDTOCoveredByFirestation =
-                personsCoveredByStation.stream()
-                        .map(person -> {
-                            PersonFirestationDTO personFirestationDTO = new PersonFirestationDTO();
-                            personFirestationDTO.setFirstName(person.getFirstName());
-                            personFirestationDTO.setLastName(person.getLastName());
-                            personFirestationDTO.setPhonenumber(person.getPhoneNumber());
-                            personFirestationDTO.setAddress(person.getAddress().getStreet() + " - " + person.getAddress().getZip() + " " + person.getAddress().getCity());
-                            personFirestationDTO.setChild(person.getMedicalRecords().getBirthdate().isAfter(LocalDate.now().minusYears(18)));
-                            return personFirestationDTO;
-                        })
-                        .collect(Collectors.toList());
-
-        int numberOfChildren = (int) personsDTOCoveredByFirestation
-                .stream()
-                .filter(PersonFirestationDTO::isChild)
-                .count();
+        FirestationInfoDTO result = requestCoalescer.execute("firestation", stationNumber, () -> readInTransaction(() -> readPersonsCoveredByFirestation(stationNumber)));
+        log.debug("The function getPersonsCoveredByFirestation in UrlsService is ending without any exception.");
+        return result;
+    }
 
-        int numberOfAdults = (int) personsDTOCoveredByFirestation
-                .stream()
-                .filter(person -> !person.isChild())
-                .count();
+    private FirestationInfoDTO readPersonsCoveredByFirestation(int stationNumber) {
+        //throws an ObjectNotFoundException if the firestation doesn't exist
+        firestationService.getFirestationById(stationNumber);
+        //the persons of the station are read with their address and medical records in one query, and counted in the same pass
+        LocalDate now = LocalDate.now();
+        int numberOfChildren = 0;
+        List<PersonFirestationDTO> personsDTOCoveredByFirestation = new ArrayList<>();
+        for (Person person : personService.getPersonsByStation(stationNumber)) {
+            PersonFirestationDTO personFirestationDTO = new PersonFirestationDTO();
+            personFirestationDTO.setFirstName(person.getFirstName());
+            personFirestationDTO.setLastName(person.getLastName());
+            personFirestationDTO.setPhonenumber(person.getPhoneNumber());
+            personFirestationDTO.setAddress(person.getAddress().getStreet() + " - " + person.getAddress().getZip() + " " + person.getAddress().getCity());
+            boolean child = isChild(person, now);
+            personFirestationDTO.setChild(child);
+            if (child) {
+                numberOfChildren++;
+            }
+            personsDTOCoveredByFirestation.add(personFirestationDTO);
+        }
+        int numberOfAdults = personsDTOCoveredByFirestation.size() - numberOfChildren;
 
         FirestationInfoDTO result = new FirestationInfoDTO(stationNumber, numberOfChildren, numberOfAdults, personsDTOCoveredByFirestation);
-        log.debug("The function getPersonsCoveredByFirestation in UrlsService is ending without any exception.");
         return result;
     }
 
+    @Cacheable(cacheNames = AlertResponseCache.CHILD_ALERT, key = STREET_KEY)
     @Override
     public List<ChildInfoDTO> getChildrenByAddress(String address) {
         log.debug("The function getChildrenByAddress in UrlsService is beginning.");
+        List<ChildInfoDTO> result = requestCoalescer.execute("childAlert", Address.normalizeStreet(address), () -> readInTransaction(() -> readChildrenByAddress(address)));
+        log.debug("The function getChildrenByAddress in UrlsService is ending without any exception.");
+        return result;
+    }
+
+    private List<ChildInfoDTO> readChildrenByAddress(String address) {
         Address addressSearched = addressService.getAddress(address);
-        List<ChildInfoDTO> childrenLivingAtAddress =
-                personService.getPersons()
-                        .stream()
-                        .filter(person -> person.getAddress().equals(addressSearched))
-                        .filter(person -> person.getMedicalRecords().getBirthdate().isAfter(LocalDate.now().minusYears(18)))
-                        .map(person -> {
-                            ChildInfoDTO childInfoDTO = new ChildInfoDTO();
-                            childInfoDTO.setFirstName(person.getFirstName());
-                            childInfoDTO.setLastName(person.getLastName());
-                            childInfoDTO.setAddress(person.getAddress().getStreet() + " - " + person.getAddress().getZip() + " " + person.getAddress().getCity());
-                            childInfoDTO.setAge(LocalDate.now().compareTo(person.getMedicalRecords().getBirthdate()));
-                            return childInfoDTO;
-                        })
-                        .collect(Collectors.toList());
-
-        childrenLivingAtAddress = childrenLivingAtAddress.stream()
-                .peek(c -> {
-                    List<Person> householdMembers =
-                            personService.getPersons()
-                                    .stream()
-                                    .filter(p -> p.getAddress().equals(addressSearched))
-                                    .filter(p -> !((p.getFirstName().equals(c.getFirstName())) && (p.getLastName().equals(c.getLastName()))))
-                                    .collect(Collectors.toList());
-                    List<String> householdMembersString =
-                            householdMembers
-                                    .stream()
-                                    .map(p -> p.getFirstName() + " " + p.getLastName())
-                                    .collect(Collectors.toList());
-                    c.setHouseholdMembers(householdMembersString);
-                })
+        //the residents are read once with their medical records, the same household list is used for every child
+        List<Person> residents = personService.getResidentsWithMedicalData(addressSearched);
+        List<String> residentsNames = residents
+                .stream()
+                .map(p -> p.getFirstName() + " " + p.getLastName())
                 .collect(Collectors.toList());
-        log.debug("The function getChildrenByAddress in UrlsService is ending without any exception.");
+        LocalDate now = LocalDate.now();
+        List<ChildInfoDTO> childrenLivingAtAddress = new ArrayList<>();
+        for (int i = 0; i < residents.size(); i++) {
+            Person person = residents.get(i);
+            if (isChild(person, now)) {
+                ChildInfoDTO childInfoDTO = new ChildInfoDTO();
+                childInfoDTO.setFirstName(person.getFirstName());
+                childInfoDTO.setLastName(person.getLastName());
+                childInfoDTO.setAddress(addressSearched.getStreet() + " - " + addressSearched.getZip() + " " + addressSearched.getCity());
+                childInfoDTO.setAge(now.compareTo(person.getMedicalRecords().getBirthdate()));
+                List<String> householdMembers = new ArrayList<>(residentsNames);
+                householdMembers.remove(i);
+                childInfoDTO.setHouseholdMembers(householdMembers);
+                childrenLivingAtAddress.add(childInfoDTO);
+            }
+        }
         return childrenLivingAtAddress;
     }
 
+    @Cacheable(cacheNames = AlertResponseCache.PHONE_ALERT, key = STATION_KEY)
     @Override
     public List<String> getPhoneNumbersByFirestation(int stationId) {
         log.debug("The function getPhoneNumbersByFirestation in UrlsService is beginning.");
-        List<Address> attachedAddresses = firestationService.getFirestationById(stationId).getAttachedAddresses();
-        List<Person> allPerson = attachedAddresses
-                .stream()
-                .map(Address::getPersonList)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-        List<String> allPhoneNumbers = allPerson
-                .stream()
-                .map(Person::getPhoneNumber)
-                .distinct()
-                .collect(Collectors.toList());
+        //the roster is maintained by the index when persons or mappings change, it is returned as it is
+        List<String> allPhoneNumbers = phoneRosterIndex.getPhoneNumbers(stationId)
+                .orElseThrow(() -> new ObjectNotFoundException("The firestation with Id number " + stationId + " was not found.\n"));
         log.debug("The function getPhoneNumbersByFirestation in UrlsService is ending without any exception.");
         return allPhoneNumbers;
     }
 
+    @Cacheable(cacheNames = AlertResponseCache.FIRE, key = STREET_KEY)
     @Override
     public FireInfoDTO getPersonsByAddress(String address) {
         log.debug("The function getPersonsByAddress in UrlsService is beginning.");
+        FireInfoDTO shared = requestCoalescer.execute("fire", Address.normalizeStreet(address), () -> readInTransaction(() -> readPersonsByAddress(address)));
+        //the response is shared by the requests of the same street, each one gets back the street as it was written
+        FireInfoDTO result = new FireInfoDTO(address, shared.getStation(), shared.getPersonList());
+        log.debug("The function getPersonsByAddress in UrlsService is ending without any exception.");
+        return result;
+    }
+
+    private FireInfoDTO readPersonsByAddress(String address) {
         Address addressFound = addressService.getAddress(address);
-        List<Person> personsByAddress = addressFound.getPersonList();
-        List<PersonInfoDTO> personInfoDTOList = personsByAddress.stream()
-                .map(person -> {
-                    PersonInfoDTO personInfoDTO = new PersonInfoDTO();
-                    personInfoDTO.setFirstName(person.getFirstName());
-                    personInfoDTO.setLastName(person.getLastName());
-                    personInfoDTO.setPhoneNumber(person.getPhoneNumber());
-                    personInfoDTO.setAge(LocalDate.now().compareTo(person.getMedicalRecords().getBirthdate()));
-                    personInfoDTO.setMedications(person.getMedicalRecords().getMedications()
-                            .stream()
-                            .map(Medication::getMedicationName)
-                            .collect(Collectors.toList()));
-                    personInfoDTO.setAllergies(person.getMedicalRecords().getAllergies()
-                            .stream()
-                            .map(Allergy::getAllergyName)
-                            .collect(Collectors.toList()));
-                    return personInfoDTO;
-                })
-                .collect(Collectors.toList());
+        //an address whose mapping has been deleted is kept with its residents, but no firestation covers it
+        if (addressFound.getFirestation() == null) {
+            throw new ObjectNotFoundException("No firestation was found with the address " + address + ".\n");
+        }
+        List<Person> personsByAddress = personService.getResidentsWithMedicalData(addressFound);
         int stationId = addressFound.getFirestation().getStationId();
-        FireInfoDTO result = new FireInfoDTO(address, stationId, personInfoDTOList);
-        log.debug("The function getPersonsByAddress in UrlsService is ending without any exception.");
+        FireInfoDTO result = transformResidentsToFireInfoDTO(address, stationId, personsByAddress);
         return result;
     }
 
     @Override
     public List<FireInfoDTO> getHouseholdsByStation(List<Integer> stationNumbers) {
         log.debug("The function getHouseholdsByStation in UrlsService is beginning.");
-        List<Firestation> firestationList = stationNumbers
+        List<FireInfoDTO> result = requestCoalescer.execute("flood", new ArrayList<>(new LinkedHashSet<>(stationNumbers)), () -> readInTransaction(() -> readHouseholdsByStation(stationNumbers)));
+        log.debug("The function getHouseholdsByStation in UrlsService is ending without any exception.");
+        return result;
+    }
+
+    private List<FireInfoDTO> readHouseholdsByStation(List<Integer> stationNumbers) {
+        //each firestation is read once, even if its number is repeated in the request
+        Set<Integer> distinctStationNumbers = new LinkedHashSet<>(stationNumbers);
+        //throws an ObjectNotFoundException if one of the firestations doesn't exist
+        firestationService.getFirestationsById(distinctStationNumbers);
+        //the addresses and their residents are read for all the firestations at once, then grouped by address
+        List<Address> addresses = addressService.getAddressesByStations(distinctStationNumbers);
+        Map<Integer, List<Person>> residentsByAddress = personService.getPersonsByStationsWithMedicalData(distinctStationNumbers)
                 .stream()
-                .map(number -> firestationService.getFirestationById(number))
-                .collect(Collectors.toList());
-        List<Address> addressesList = firestationList
+                .collect(Collectors.groupingBy(person -> person.getAddress().getAddressId()));
+        Map<Integer, List<Address>> addressesByStation = addresses
                 .stream()
-                .map(Firestation::getAttachedAddresses)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-        List<FireInfoDTO> result = addressesList.stream().map(address -> getPersonsByAddress(address.getStreet())).collect(Collectors.toList());
-        log.debug("The function getHouseholdsByStation in UrlsService is ending without any exception.");
+                .collect(Collectors.groupingBy(address -> address.getFirestation().getStationId()));
+        List<FireInfoDTO> result = new ArrayList<>();
+        for (Integer stationNumber : distinctStationNumbers) {
+            for (Address address : addressesByStation.getOrDefault(stationNumber, Collections.emptyList())) {
+                List<Person> residents = residentsByAddress.getOrDefault(address.getAddressId(), Collections.emptyList());
+                result.add(transformResidentsToFireInfoDTO(address.getStreet(), stationNumber, residents));
+            }
+        }
         return result;
     }
 
     @Override
     public List<PersonInfo2DTO> getPersonsByName(String firstName, String lastName) {
         log.debug("The function getPersonsByName in UrlsService is beginning.");
-        List<Person> personFound = personService.getPersonsByName(firstName, lastName);
+        List<PersonInfo2DTO> result = requestCoalescer.execute("personInfo", Arrays.asList(firstName.toUpperCase(), lastName.toUpperCase()), () -> readInTransaction(() -> readPersonsByName(firstName, lastName)));
+        log.debug("The function getPersonsByName in UrlsService is ending without any exception.");
+        return result;
+    }
+
+    private List<PersonInfo2DTO> readPersonsByName(String firstName, String lastName) {
+        List<Person> personFound = personService.getPersonsByNameWithMedicalData(firstName, lastName);
         List<PersonInfo2DTO> result = personFound
                 .stream()
                 .map(person -> {
@@ -182,15 +216,81 @@ public class UrlsServiceImpl implements UrlsService {
             personInfo2DTO.setPhoneNumber(person.getPhoneNumber());
             return personInfo2DTO;})
                 .collect(Collectors.toList());
-        log.debug("The function getPersonsByName in UrlsService is ending without any exception.");
         return result;
     }
 
     @Override
     public List<String> getMailsByCity(String city) {
         log.debug("The function getMailsByCity in UrlsService is beginning.");
-        List<String> result = personService.getPersons().stream().filter(person -> person.getAddress().getCity().equalsIgnoreCase(city)).map(Person::getMail).collect(Collectors.toList());
+        List<String> result = requestCoalescer.execute("communityEmail", Address.normalizeCity(city), () -> readInTransaction(() -> readMailsByCity(city)));
         log.debug("The function getMailsByCity in UrlsService is ending without any exception.");
         return result;
     }
+
+    private List<String> readMailsByCity(String city) {
+        List<String> result = personService.getMailsByCity(city);
+        return result;
+    }
+
+    //only the computation shared by identical requests opens a transaction, the requests waiting for it hold no connection
+    private <T> T readInTransaction(Supplier<T> read) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> read.get());
+    }
+
+    //the response is written after the controller has returned, so the stream needs its own transaction
+    @Transactional
+    @Override
+    public void forEachMailByCity(String city, Consumer<String> consumer) {
+        log.debug("The function forEachMailByCity in UrlsService is beginning.");
+        try (Stream<String> mails = personService.streamMailsByCity(city)) {
+            mails.forEach(consumer);
+        }
+        log.debug("The function forEachMailByCity in UrlsService is ending without any exception.");
+    }
+
+    /**
+     * Transform the residents of an address to a FireInfoDTO object which can be returned to user
+     *
+     * @param address   - the street of the address
+     * @param stationId - the number of the firestation covering the address
+     * @param residents - the persons living at the address, with their medical data already loaded
+     * @return a FireInfoDTO object containing the medical information of the residents
+     */
+    private FireInfoDTO transformResidentsToFireInfoDTO(String address, int stationId, List<Person> residents) {
+        LocalDate now = LocalDate.now();
+        List<PersonInfoDTO> personInfoDTOList = residents.stream()
+                .map(person -> {
+                    PersonInfoDTO personInfoDTO = new PersonInfoDTO();
+                    personInfoDTO.setFirstName(person.getFirstName());
+                    personInfoDTO.setLastName(person.getLastName());
+                    personInfoDTO.setPhoneNumber(person.getPhoneNumber());
+                    personInfoDTO.setAge(now.compareTo(person.getMedicalRecords().getBirthdate()));
+                    personInfoDTO.setMedications(person.getMedicalRecords().getMedications()
+                            .stream()
+                            .map(Medication::getMedicationName)
+                            .collect(Collectors.toList()));
+                    personInfoDTO.setAllergies(person.getMedicalRecords().getAllergies()
+                            .stream()
+                            .map(Allergy::getAllergyName)
+                            .collect(Collectors.toList()));
+                    return personInfoDTO;
+                })
+                .collect(Collectors.toList());
+        return new FireInfoDTO(address, stationId, personInfoDTOList);
+    }
+
+    /**
+     * Indicates if a person is under 18, a person without birthdate is considered as an adult
+     *
+     * @param person - the person whose medical records are read
+     * @param now    - the date at which the age is computed
+     * @return true if the person is a child
+     */
+    private boolean isChild(Person person, LocalDate now) {
+        MedicalRecords medicalRecords = person.getMedicalRecords();
+        return medicalRecords != null && medicalRecords.getBirthdate() != null
+                && medicalRecords.getBirthdate().isAfter(now.minusYears(18));
+    }
 }
@@ -10,39 +10,52 @@
  );
 
  CREATE TABLE address (
-   address_id INT AUTO_INCREMENT NOT NULL,
+   address_id INT NOT NULL,
    street VARCHAR(255) NULL,
    zip VARCHAR(255) NULL,
    city VARCHAR(255) NULL,
    station_id INT NULL,
+   normalized_street VARCHAR(255) NULL,
+   normalized_city VARCHAR(255) NULL,
    CONSTRAINT pk_address PRIMARY KEY (address_id)
  );
 
+-- addresses are researched by their street without whitespaces, and then by zip and city
+CREATE INDEX idx_address_normalized_street ON address (normalized_street, zip, city);
+-- the mails of a city are read from the addresses of the city
+CREATE INDEX idx_address_normalized_city ON address (normalized_city);
+
 CREATE TABLE firestation (
   station_id INT NOT NULL,
   CONSTRAINT pk_firestation PRIMARY KEY (station_id)
 );
 
 CREATE TABLE medical_records (
-  medical_id INT AUTO_INCREMENT NOT NULL,
+  medical_id INT NOT NULL,
   birthdate date NULL,
   CONSTRAINT pk_medical_records PRIMARY KEY (medical_id)
 );
 
 CREATE TABLE allergy (
-  allergy_id BIGINT AUTO_INCREMENT NOT NULL,
+  allergy_id BIGINT NOT NULL,
   allergy_name VARCHAR(255) NULL,
   medical_id INT NULL,
   CONSTRAINT pk_allergy PRIMARY KEY (allergy_id)
 );
 
 CREATE TABLE medication (
-  medication_id BIGINT AUTO_INCREMENT NOT NULL,
+  medication_id BIGINT NOT NULL,
   medication_name VARCHAR(255) NULL,
   medical_id INT NULL,
   CONSTRAINT pk_medication PRIMARY KEY (medication_id)
 );
 
+-- ids are generated by pooled sequences, each call reserves 50 ids so inserts can be batched
+CREATE SEQUENCE address_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE medical_records_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE allergy_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE medication_seq START WITH 1 INCREMENT BY 50;
+
 ALTER TABLE person ADD CONSTRAINT FK_PERSON_ON_ADDRESS FOREIGN KEY (address_id) REFERENCES address (address_id);
 ALTER TABLE person ADD CONSTRAINT FK_PERSON_ON_MEDICAL FOREIGN KEY (medical_id) REFERENCES medical_records (medical_id);
 ALTER TABLE address ADD CONSTRAINT FK_ADDRESS_ON_STATION FOREIGN KEY (station_id) REFERENCES firestation (station_id);
@@ -0,0 +1,26 @@
+-- the foreign keys are dropped and added again after their indexes are created:
+-- H2 then uses the named indexes below instead of the indexes it generates for the foreign keys
+ALTER TABLE person DROP CONSTRAINT FK_PERSON_ON_ADDRESS;
+ALTER TABLE person DROP CONSTRAINT FK_PERSON_ON_MEDICAL;
+ALTER TABLE address DROP CONSTRAINT FK_ADDRESS_ON_STATION;
+ALTER TABLE medication DROP CONSTRAINT FK_MEDICATION_ON_MEDICAL;
+ALTER TABLE allergy DROP CONSTRAINT FK_ALLERGY_ON_MEDICAL;
+
+-- persons are researched by their first name and their last name
+CREATE INDEX idx_person_first_name_last_name ON person (first_name, last_name);
+-- addresses are researched by their street, and then by zip and city
+CREATE INDEX idx_address_street ON address (street, zip, city);
+
+-- the foreign keys are used to load the residents of an address, the addresses of a firestation,
+-- the person of medical records and the medications and allergies of medical records
+CREATE INDEX idx_person_address_id ON person (address_id);
+CREATE INDEX idx_person_medical_id ON person (medical_id);
+CREATE INDEX idx_address_station_id ON address (station_id);
+CREATE INDEX idx_medication_medical_id ON medication (medical_id);
+CREATE INDEX idx_allergy_medical_id ON allergy (medical_id);
+
+ALTER TABLE person ADD CONSTRAINT FK_PERSON_ON_ADDRESS FOREIGN KEY (address_id) REFERENCES address (address_id);
+ALTER TABLE person ADD CONSTRAINT FK_PERSON_ON_MEDICAL FOREIGN KEY (medical_id) REFERENCES medical_records (medical_id);
+ALTER TABLE address ADD CONSTRAINT FK_ADDRESS_ON_STATION FOREIGN KEY (station_id) REFERENCES firestation (station_id);
+ALTER TABLE medication ADD CONSTRAINT FK_MEDICATION_ON_MEDICAL FOREIGN KEY (medical_id) REFERENCES medical_records (medical_id);
+ALTER TABLE allergy ADD CONSTRAINT FK_ALLERGY_ON_MEDICAL FOREIGN KEY (medical_id) REFERENCES medical_records (medical_id);
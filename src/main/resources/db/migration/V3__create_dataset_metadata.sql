@@ -0,0 +1,8 @@
+-- one row describing the data file the dataset was imported from, so a persistent store which is up to date isn't imported again
+CREATE TABLE dataset_metadata (
+  id INT NOT NULL,
+  source VARCHAR(1024) NOT NULL,
+  fingerprint VARCHAR(255) NOT NULL,
+  loaded_at TIMESTAMP NOT NULL,
+  CONSTRAINT pk_dataset_metadata PRIMARY KEY (id)
+);
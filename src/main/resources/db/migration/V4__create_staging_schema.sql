@@ -0,0 +1,50 @@
+-- a new version of the data file is imported into these tables first, while the alert endpoints keep reading the current ones;
+-- the tables have no foreign key, the staged dataset being checked as a whole before it replaces the current one
+CREATE SCHEMA staging;
+
+CREATE TABLE staging.person (
+  id VARCHAR(255) NOT NULL,
+  first_name VARCHAR(255) NULL,
+  last_name VARCHAR(255) NULL,
+  address_id INT NULL,
+  phone_number VARCHAR(255) NULL,
+  mail VARCHAR(255) NULL,
+  medical_id INT NULL,
+  CONSTRAINT pk_staging_person PRIMARY KEY (id)
+);
+
+CREATE TABLE staging.address (
+  address_id INT NOT NULL,
+  street VARCHAR(255) NULL,
+  zip VARCHAR(255) NULL,
+  city VARCHAR(255) NULL,
+  station_id INT NULL,
+  normalized_street VARCHAR(255) NULL,
+  normalized_city VARCHAR(255) NULL,
+  CONSTRAINT pk_staging_address PRIMARY KEY (address_id)
+);
+
+CREATE TABLE staging.firestation (
+  station_id INT NOT NULL,
+  CONSTRAINT pk_staging_firestation PRIMARY KEY (station_id)
+);
+
+CREATE TABLE staging.medical_records (
+  medical_id INT NOT NULL,
+  birthdate date NULL,
+  CONSTRAINT pk_staging_medical_records PRIMARY KEY (medical_id)
+);
+
+CREATE TABLE staging.allergy (
+  allergy_id BIGINT NOT NULL,
+  allergy_name VARCHAR(255) NULL,
+  medical_id INT NULL,
+  CONSTRAINT pk_staging_allergy PRIMARY KEY (allergy_id)
+);
+
+CREATE TABLE staging.medication (
+  medication_id BIGINT NOT NULL,
+  medication_name VARCHAR(255) NULL,
+  medical_id INT NULL,
+  CONSTRAINT pk_staging_medication PRIMARY KEY (medication_id)
+);
@@ -0,0 +1,23 @@
+package com.safetynet.alert.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Remove every row of the dataset tables, so each benchmark run starts from an empty database
+     *
+     * @param jdbcTemplate - the JdbcTemplate of the database to clear
+     */
+    public static void clear(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM person");
+        jdbcTemplate.update("DELETE FROM medication");
+        jdbcTemplate.update("DELETE FROM allergy");
+        jdbcTemplate.update("DELETE FROM medical_records");
+        jdbcTemplate.update("DELETE FROM address");
+        jdbcTemplate.update("DELETE FROM firestation");
+    }
+}
@@ -0,0 +1,81 @@
+package com.safetynet.alert.benchmarks;
+
+import com.safetynet.alert.init.StreamingDataImporter;
+import com.safetynet.alert.model.DTO.ChildInfoDTO;
+import com.safetynet.alert.service.UrlsService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+/**
+ * Measures /childAlert on the same household while the total population grows:
+ * the latency should stay flat as only the residents of the researched address are read.
+ * Run with: mvn test -Dbenchmark=true -Dtest=ChildAlertBenchmark
+ */
+@Tag("Benchmarks")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ChildAlertBenchmark {
+
+    private static final int[] POPULATIONS = {1_000, 10_000, 100_000};
+    private static final int WARM_UP = 200;
+    private static final int ITERATIONS = 1_000;
+
+    @Autowired
+    private StreamingDataImporter streamingDataImporter;
+
+    @Autowired
+    private UrlsService urlsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void childAlertWhilePopulationGrows(@TempDir Path directory) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        String street = SyntheticDataset.street(0);
+        for (int population : POPULATIONS) {
+            Path dataFile = SyntheticDataset.write(directory.resolve("data" + population + ".json"), population);
+            BenchmarkData.clear(jdbcTemplate);
+            try (InputStream inputStream = Files.newInputStream(dataFile)) {
+                streamingDataImporter.importData(inputStream);
+            }
+            for (int i = 0; i < WARM_UP; i++) {
+                transactionTemplate.execute(status -> urlsService.getChildrenByAddress(street));
+            }
+            long start = System.nanoTime();
+            List<ChildInfoDTO> children = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                children = transactionTemplate.execute(status -> urlsService.getChildrenByAddress(street));
+            }
+            long averageMicros = (System.nanoTime() - start) / ITERATIONS / 1_000;
+            log.info("/childAlert with " + population + " persons in database: " + averageMicros + " µs per request.");
+            assertThat(children).hasSize(1);
+            assertThat(children.get(0).getHouseholdMembers()).hasSize(SyntheticDataset.HOUSEHOLD_SIZE - 1);
+        }
+    }
+}
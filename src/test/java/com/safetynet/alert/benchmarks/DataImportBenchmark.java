@@ -0,0 +1,65 @@
+package com.safetynet.alert.benchmarks;
+
+import com.safetynet.alert.init.ImportReport;
+import com.safetynet.alert.init.StreamingDataImporter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+/**
+ * Compares the import of a 100k persons data file with one statement per row (what IDENTITY ids imposed)
+ * and with JDBC batches made possible by the pooled sequences. Both imports flush and detach the entities every
+ * FLUSH_INTERVAL rows, only the number of statements sent together differs.
+ * Run with: mvn test -Dbenchmark=true -Dtest=DataImportBenchmark
+ */
+@Tag("Benchmarks")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DataImportBenchmark {
+
+    private static final int PERSONS = 100_000;
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    @Autowired
+    private StreamingDataImporter streamingDataImporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void importWithAndWithoutBatching(@TempDir Path directory) throws Exception {
+        Path dataFile = SyntheticDataset.write(directory.resolve("data.json"), PERSONS);
+
+        ImportReport withoutBatching = runImport(dataFile, 1);
+        ImportReport withBatching = runImport(dataFile, 50);
+
+        log.info("Import of " + PERSONS + " persons without JDBC batching: " + withoutBatching);
+        log.info("Import of " + PERSONS + " persons with JDBC batches of 50: " + withBatching);
+        assertThat(withBatching.getRows()).isEqualTo(withoutBatching.getRows());
+    }
+
+    private ImportReport runImport(Path dataFile, int jdbcBatchSize) throws Exception {
+        BenchmarkData.clear(jdbcTemplate);
+        try (InputStream inputStream = Files.newInputStream(dataFile)) {
+            return streamingDataImporter.importData(inputStream, FLUSH_INTERVAL, jdbcBatchSize);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.safetynet.alert.benchmarks;
+
+import com.safetynet.alert.init.StreamingDataImporter;
+import com.safetynet.alert.model.Allergy;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.MedicalRecords;
+import com.safetynet.alert.model.Medication;
+import com.safetynet.alert.service.MedicalRecordsService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+/**
+ * Measures the write amplification of replacing medical records: the same medical records are posted again,
+ * then with one medication changed, once with the former clear-and-reinsert strategy and once with the diff
+ * done by MedicalRecords. The rows inserted and deleted are counted by the Hibernate statistics.
+ * Run with: mvn test -Dbenchmark=true -Dtest=MedicalRecordsUpdateBenchmark
+ */
+@Tag("Benchmarks")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MedicalRecordsUpdateBenchmark {
+
+    private static final int POPULATION = 10_000;
+    private static final int UPDATES = 1_000;
+
+    //the medical records written by SyntheticDataset, and the same ones with one medication changed
+    private static final List<String> MEDICATIONS = List.of("aznol:350mg", "hydrapermazol:100mg");
+    private static final List<String> CHANGED_MEDICATIONS = List.of("aznol:350mg", "noznazol:250mg");
+    private static final List<String> ALLERGIES = List.of("nillacilan");
+    private static final LocalDate BIRTHDATE = LocalDate.of(1980, 1, 1);
+
+    @Autowired
+    private StreamingDataImporter streamingDataImporter;
+
+    @Autowired
+    private MedicalRecordsService medicalRecordsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void replaceMedicalRecordsWriteAmplification(@TempDir Path directory) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        Path dataFile = SyntheticDataset.write(directory.resolve("data.json"), POPULATION);
+        try {
+            importDataset(dataFile);
+            measure("clear and re-insert, nothing changed", statistics, transactionTemplate,
+                    i -> clearAndReinsert(i, MEDICATIONS));
+            measure("diff, nothing changed", statistics, transactionTemplate,
+                    i -> medicalRecordsService.addNewMedicalRecords(medicalRecordDTO(i, MEDICATIONS)));
+            measure("clear and re-insert, one medication changed", statistics, transactionTemplate,
+                    i -> clearAndReinsert(i, CHANGED_MEDICATIONS));
+            importDataset(dataFile);
+            measure("diff, one medication changed", statistics, transactionTemplate,
+                    i -> medicalRecordsService.addNewMedicalRecords(medicalRecordDTO(i, CHANGED_MEDICATIONS)));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        Integer medications = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM medication WHERE medication_name = 'noznazol:250mg'", Integer.class);
+        assertThat(medications).isEqualTo(UPDATES);
+    }
+
+    private void importDataset(Path dataFile) throws Exception {
+        BenchmarkData.clear(jdbcTemplate);
+        try (InputStream inputStream = Files.newInputStream(dataFile)) {
+            streamingDataImporter.importData(inputStream);
+        }
+    }
+
+    private void measure(String strategy, Statistics statistics, TransactionTemplate transactionTemplate, Consumer<Integer> update) {
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            int person = i;
+            transactionTemplate.executeWithoutResult(status -> update.accept(person));
+        }
+        long averageMicros = (System.nanoTime() - start) / UPDATES / 1_000;
+        log.info(strategy + ": " + statistics.getEntityInsertCount() + " rows inserted, " + statistics.getEntityDeleteCount()
+                + " rows deleted, " + statistics.getPrepareStatementCount() + " statements for " + UPDATES + " medical records, "
+                + averageMicros + " µs per medical records.");
+    }
+
+    //the strategy used before: every medication and allergy is deleted and inserted again
+    private void clearAndReinsert(int person, List<String> medications) {
+        MedicalRecords medicalRecords = medicalRecordsService.getMedicalRecordsByName("First" + person, "Last" + person);
+        medicalRecords.setBirthdate(BIRTHDATE);
+        medicalRecords.getMedications().clear();
+        medications.forEach(medication -> medicalRecords.addMedication(new Medication(medication)));
+        medicalRecords.getAllergies().clear();
+        ALLERGIES.forEach(allergy -> medicalRecords.addAllergy(new Allergy(allergy)));
+    }
+
+    private static MedicalRecordDTO medicalRecordDTO(int person, List<String> medications) {
+        return new MedicalRecordDTO("First" + person, "Last" + person, "01/01/1980", medications, ALLERGIES);
+    }
+}
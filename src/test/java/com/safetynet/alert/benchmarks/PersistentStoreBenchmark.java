@@ -0,0 +1,78 @@
+package com.safetynet.alert.benchmarks;
+
+import com.safetynet.alert.AlertApplication;
+import com.safetynet.alert.init.DatasetLoadProgress;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the time until the application accepts traffic and the heap used then, with the in-memory database and with the file store of the prod profile.
+ * The file store is started twice: the first startup imports the data file, the second one finds the store up to date.
+ * Run with: mvn test -Dbenchmark=true -Dtest=PersistentStoreBenchmark
+ */
+@Tag("Benchmarks")
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PersistentStoreBenchmark {
+
+    private static final int POPULATION = 100_000;
+
+    @Test
+    public void startupWithMemoryAndFileStores(@TempDir Path directory) throws Exception {
+        Path dataFile = SyntheticDataset.write(directory.resolve("data.json"), POPULATION);
+        String dataLocation = "--alert.data.location=" + dataFile;
+        start("in-memory database", null, dataLocation, "--alert.snapshot.enabled=false", "--spring.datasource.url=jdbc:h2:mem:benchmark");
+        //the settings of application-prod.properties, the store being written in the temporary directory
+        String fileStoreUrl = "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("applidb")
+                + ";MV_STORE=TRUE;CACHE_SIZE=65536;WRITE_DELAY=1000;DB_CLOSE_ON_EXIT=FALSE";
+        start("file store, first startup", "prod", dataLocation, fileStoreUrl);
+        start("file store, store up to date", "prod", dataLocation, fileStoreUrl);
+    }
+
+    private void start(String store, String profile, String... arguments) throws InterruptedException {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(AlertApplication.class);
+        if (profile != null) {
+            builder.profiles(profile);
+        }
+        //given as arguments, so they override application.properties
+        List<String> allArguments = new ArrayList<>(List.of("--alert.data.source=file", "--server.port=0", "--management.server.port=0"));
+        allArguments.addAll(Arrays.asList(arguments));
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = builder.run(allArguments.toArray(new String[0]))) {
+            //the dataset is loaded in background, the application is started once it accepts traffic
+            ApplicationAvailability availability = context.getBean(ApplicationAvailability.class);
+            while (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+                assertThat(context.getBean(DatasetLoadProgress.class).getStatus()).isNotEqualTo(DatasetLoadProgress.Status.FAILED);
+                Thread.sleep(10);
+            }
+            long startupMillis = (System.nanoTime() - start) / 1_000_000;
+            long heapMegabytes = usedHeapAfterGc() / (1024 * 1024);
+            log.info(store + ": started in " + startupMillis + " ms, " + heapMegabytes + " MB of heap used.");
+            Integer persons = context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM person", Integer.class);
+            assertThat(persons).isEqualTo(POPULATION);
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
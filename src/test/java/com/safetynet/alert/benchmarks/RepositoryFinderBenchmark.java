@@ -0,0 +1,123 @@
+package com.safetynet.alert.benchmarks;
+
+import com.safetynet.alert.init.StreamingDataImporter;
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.Person;
+import com.safetynet.alert.repository.AddressRepository;
+import com.safetynet.alert.repository.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+/**
+ * Measures the repository finders and the lazy collection loads while the number of persons grows,
+ * and logs the plan H2 chooses for each of them: with the indexes of the V2 migration the latency should stay flat.
+ * The population of 1,000,000 persons needs a few gigabytes of heap.
+ * Run with: mvn test -Dbenchmark=true -Dtest=RepositoryFinderBenchmark
+ */
+@Tag("Benchmarks")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RepositoryFinderBenchmark {
+
+    private static final int[] POPULATIONS = {10_000, 100_000, 1_000_000};
+    private static final int WARM_UP = 200;
+    private static final int ITERATIONS = 1_000;
+
+    @Autowired
+    private StreamingDataImporter streamingDataImporter;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void findersWhilePopulationGrows(@TempDir Path directory) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        for (int population : POPULATIONS) {
+            Path dataFile = SyntheticDataset.write(directory.resolve("data" + population + ".json"), population);
+            BenchmarkData.clear(jdbcTemplate);
+            try (InputStream inputStream = Files.newInputStream(dataFile)) {
+                streamingDataImporter.importData(inputStream);
+            }
+            int addresses = population / SyntheticDataset.HOUSEHOLD_SIZE;
+            measure("findByFirstNameAndLastName", population, transactionTemplate, i -> {
+                List<Person> persons = personRepository.findByFirstNameAndLastName("FIRST" + i, "LAST" + i);
+                assertThat(persons).hasSize(1);
+                return persons;
+            });
+            measure("findByStreetAndZipAndCity", population, transactionTemplate, i -> {
+                String street = SyntheticDataset.street(i % addresses);
+                return addressRepository.findByStreetAndZipAndCity(street, "97451", SyntheticDataset.CITY.toUpperCase()).orElseThrow();
+            });
+            measure("findByStreet", population, transactionTemplate,
+                    i -> addressRepository.findByStreet(SyntheticDataset.street(i % addresses)).orElseThrow());
+            measure("residents of an address", population, transactionTemplate, i -> {
+                Address address = addressRepository.findByStreet(SyntheticDataset.street(i % addresses)).orElseThrow();
+                assertThat(address.getPersonList()).hasSize(SyntheticDataset.HOUSEHOLD_SIZE);
+                return address;
+            });
+            measure("medications and allergies of medical records", population, transactionTemplate, i -> {
+                Person person = personRepository.findById("FIRST" + i + "LAST" + i).orElseThrow();
+                assertThat(person.getMedicalRecords().getMedications()).hasSize(2);
+                assertThat(person.getMedicalRecords().getAllergies()).hasSize(1);
+                return person;
+            });
+        }
+        explain("SELECT * FROM person WHERE first_name = 'FIRST1' AND last_name = 'LAST1'");
+        explain("SELECT * FROM address WHERE street = '1 Synthetic St' AND zip = '97451' AND city = 'CULVER'");
+        explain("SELECT * FROM person WHERE address_id = 1");
+        explain("SELECT * FROM address WHERE station_id = 1");
+        explain("SELECT * FROM medication WHERE medical_id = 1");
+        explain("SELECT * FROM allergy WHERE medical_id = 1");
+    }
+
+    private void measure(String finder, int population, TransactionTemplate transactionTemplate, IntFunction<Object> find) {
+        for (int i = 0; i < WARM_UP; i++) {
+            int person = i;
+            transactionTemplate.execute(status -> find.apply(person));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            //the persons researched are spread over the whole population
+            int person = (int) ((long) i * population / ITERATIONS);
+            transactionTemplate.execute(status -> find.apply(person));
+        }
+        long averageMicros = (System.nanoTime() - start) / ITERATIONS / 1_000;
+        log.info(finder + " with " + population + " persons in database: " + averageMicros + " µs per call.");
+    }
+
+    private void explain(String sql) {
+        log.info(sql + " -> " + jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class));
+    }
+}
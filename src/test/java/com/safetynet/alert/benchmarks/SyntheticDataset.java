@@ -0,0 +1,79 @@
+package com.safetynet.alert.benchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a data file with the same layout as data.json and a chosen number of persons.
+ * Persons live by households of HOUSEHOLD_SIZE, addresses are spread over STATIONS firestations
+ * and every person has medical records, one person out of four being a child.
+ */
+public class SyntheticDataset {
+
+    public static final int HOUSEHOLD_SIZE = 4;
+    public static final int STATIONS = 10;
+    public static final String CITY = "Culver";
+
+    private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private SyntheticDataset() {
+    }
+
+    public static String street(int addressNumber) {
+        return addressNumber + " Synthetic St";
+    }
+
+    public static Path write(Path path, int numberOfPersons) throws IOException {
+        LocalDate today = LocalDate.now();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(path.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("persons");
+            for (int i = 0; i < numberOfPersons; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("firstName", "First" + i);
+                generator.writeStringField("lastName", "Last" + i);
+                generator.writeStringField("address", street(i / HOUSEHOLD_SIZE));
+                generator.writeStringField("city", CITY);
+                generator.writeStringField("zip", "97451");
+                generator.writeStringField("phone", String.format("841-%03d-%04d", (i / 10000) % 1000, i % 10000));
+                generator.writeStringField("email", "person" + i + "@email.com");
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("firestations");
+            int numberOfAddresses = (numberOfPersons + HOUSEHOLD_SIZE - 1) / HOUSEHOLD_SIZE;
+            for (int a = 0; a < numberOfAddresses; a++) {
+                generator.writeStartObject();
+                generator.writeStringField("address", street(a));
+                generator.writeStringField("station", String.valueOf(a % STATIONS + 1));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("medicalrecords");
+            for (int i = 0; i < numberOfPersons; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("firstName", "First" + i);
+                generator.writeStringField("lastName", "Last" + i);
+                LocalDate birthdate = i % HOUSEHOLD_SIZE == 0 ? today.minusYears(8) : today.minusYears(40);
+                generator.writeStringField("birthdate", birthdate.format(BIRTHDATE_FORMAT));
+                generator.writeArrayFieldStart("medications");
+                generator.writeString("aznol:350mg");
+                generator.writeString("hydrapermazol:100mg");
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("allergies");
+                generator.writeString("nillacilan");
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return path;
+    }
+}
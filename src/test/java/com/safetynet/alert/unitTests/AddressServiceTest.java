@@ -17,7 +17,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -50,12 +50,12 @@ public class AddressServiceTest {
         public void getAddressTest() {
             //GIVEN
             Address address = new Address("streetTest", "zipTest", "cityTest");
-            doReturn(List.of(address)).when(addressRepository).findAll();
+            doReturn(Optional.of(address)).when(addressRepository).findFirstByNormalizedStreetAndZipAndCityIgnoreCase("STREETTEST", "zipTest", "cityTest");
             //WHEN
             Address result = addressService.getAddress("streetTest", "zipTest", "cityTest");
             //THEN
             assertThat(result).isEqualTo(address);
-            verify(addressRepository, Mockito.times(1)).findAll();
+            verify(addressRepository, Mockito.times(1)).findFirstByNormalizedStreetAndZipAndCityIgnoreCase("STREETTEST", "zipTest", "cityTest");
         }
 
         @DisplayName("GIVEN a non existing address  " +
@@ -64,12 +64,12 @@ public class AddressServiceTest {
         @Test
         public void getAddressNonExistingTest() {
             //GIVEN
-            doReturn(List.of()).when(addressRepository).findAll();
+            doReturn(Optional.empty()).when(addressRepository).findFirstByNormalizedStreetAndZipAndCityIgnoreCase("STREETTEST", "zipTest", "cityTest");
             //WHEN
             //THEN
             Exception exception = assertThrows(ObjectNotFoundException.class, () -> addressService.getAddress("streetTest", "zipTest", "cityTest"));
             assertEquals("The address streetTest - zipTest cityTest was not found.\n", exception.getMessage());
-            verify(addressRepository, Mockito.times(1)).findAll();
+            verify(addressRepository, Mockito.times(1)).findFirstByNormalizedStreetAndZipAndCityIgnoreCase("STREETTEST", "zipTest", "cityTest");
         }
 
         @DisplayName("GIVEN an existing address with street, zip and city  " +
@@ -79,12 +79,12 @@ public class AddressServiceTest {
         public void getAddressWithStreetTest() {
             //GIVEN
             Address address = new Address("streetTest", "zipTest", "cityTest");
-            doReturn(List.of(address)).when(addressRepository).findAll();
+            doReturn(Optional.of(address)).when(addressRepository).findFirstByNormalizedStreet("STREETTEST");
             //WHEN
             Address result = addressService.getAddress("streetTest");
             //THEN
             assertThat(result).isEqualTo(address);
-            verify(addressRepository, Mockito.times(1)).findAll();
+            verify(addressRepository, Mockito.times(1)).findFirstByNormalizedStreet("STREETTEST");
         }
 
         @DisplayName("GIVEN a non existing address  " +
@@ -93,12 +93,28 @@ public class AddressServiceTest {
         @Test
         public void getAddressNonExistingWithStreetTest() {
             //GIVEN
-            doReturn(List.of()).when(addressRepository).findAll();
+            doReturn(Optional.empty()).when(addressRepository).findFirstByNormalizedStreet("STREETTEST");
             //WHEN
             //THEN
             Exception exception = assertThrows(ObjectNotFoundException.class, () -> addressService.getAddress("streetTest"));
             assertEquals("The address streetTest was not found.\n", exception.getMessage());
-            verify(addressRepository, Mockito.times(1)).findAll();
+            verify(addressRepository, Mockito.times(1)).findFirstByNormalizedStreet("STREETTEST");
+        }
+
+        @DisplayName("GIVEN an existing address researched with different whitespaces and case " +
+                "WHEN the function getAddress is called " +
+                "THEN the address should be found with its normalized street.")
+        @Test
+        public void getAddressWithDifferentWhitespacesTest() {
+            //GIVEN
+            Address address = new Address("streetTest", "zipTest", "cityTest");
+            doReturn(Optional.of(address)).when(addressRepository).findFirstByNormalizedStreet("STREETTEST");
+            //WHEN
+            Address result = addressService.getAddress(" street  TEST ");
+            //THEN
+            assertThat(result).isEqualTo(address);
+            assertThat(result.getNormalizedStreet()).isEqualTo("STREETTEST");
+            verify(addressRepository, Mockito.times(1)).findFirstByNormalizedStreet("STREETTEST");
         }
     }
 }
\ No newline at end of file
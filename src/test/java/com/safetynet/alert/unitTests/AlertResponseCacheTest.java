@@ -0,0 +1,103 @@
+package com.safetynet.alert.unitTests;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.safetynet.alert.cache.AlertResponseCache;
+import com.safetynet.alert.cache.DatasetVersions;
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.model.Address;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("UrlsTests")
+public class AlertResponseCacheTest {
+
+    private CaffeineCacheManager cacheManager;
+
+    private DatasetVersions datasetVersions;
+
+    private AlertResponseCache alertResponseCache;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = new CaffeineCacheManager(AlertResponseCache.FIRE, AlertResponseCache.CHILD_ALERT,
+                AlertResponseCache.FIRESTATION, AlertResponseCache.PHONE_ALERT);
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100));
+        datasetVersions = new DatasetVersions();
+        alertResponseCache = new AlertResponseCache(cacheManager, datasetVersions);
+        Cache fire = cacheManager.getCache(AlertResponseCache.FIRE);
+        fire.put(alertResponseCache.streetKey("addressTest1"), "fire1");
+        fire.put(alertResponseCache.streetKey("address Test1"), "fire1 written differently");
+        fire.put(alertResponseCache.streetKey("addressTest2"), "fire2");
+        cacheManager.getCache(AlertResponseCache.FIRESTATION).put(alertResponseCache.stationKey(1), "firestation1");
+        cacheManager.getCache(AlertResponseCache.FIRESTATION).put(alertResponseCache.stationKey(2), "firestation2");
+        cacheManager.getCache(AlertResponseCache.PHONE_ALERT).put(alertResponseCache.stationKey(1), "phoneAlert1");
+    }
+
+    @DisplayName("GIVEN responses cached for two firestations " +
+            "WHEN a DatasetChangedEvent is received for one of them " +
+            "THEN only the responses of this firestation are evicted.")
+    @Test
+    public void onStationChangedTest() {
+        //GIVEN
+        //WHEN
+        alertResponseCache.onDatasetChanged(new DatasetChangedEvent().station(1));
+        //THEN
+        assertThat(cacheManager.getCache(AlertResponseCache.FIRESTATION).get(alertResponseCache.stationKey(1))).isNull();
+        assertThat(cacheManager.getCache(AlertResponseCache.PHONE_ALERT).get(alertResponseCache.stationKey(1))).isNull();
+        assertThat(cacheManager.getCache(AlertResponseCache.FIRESTATION).get(alertResponseCache.stationKey(2)).get()).isEqualTo("firestation2");
+        assertThat(cacheManager.getCache(AlertResponseCache.FIRE).get(alertResponseCache.streetKey("addressTest1"))).isNotNull();
+    }
+
+    @DisplayName("GIVEN responses cached for a street written in two ways and for another street " +
+            "WHEN a DatasetChangedEvent is received for the first street " +
+            "THEN both spellings of the street are evicted and the other street is kept.")
+    @Test
+    public void onAddressChangedTest() {
+        //GIVEN
+        Address address = new Address("addressTest1", "11111", "cityTest1");
+        //WHEN
+        alertResponseCache.onDatasetChanged(new DatasetChangedEvent().address(address));
+        //THEN
+        Cache fire = cacheManager.getCache(AlertResponseCache.FIRE);
+        assertThat(fire.get(alertResponseCache.streetKey("addressTest1"))).isNull();
+        assertThat(fire.get(alertResponseCache.streetKey("address Test1"))).isNull();
+        assertThat(fire.get(alertResponseCache.streetKey("addressTest2")).get()).isEqualTo("fire2");
+        assertThat(cacheManager.getCache(AlertResponseCache.FIRESTATION).get(alertResponseCache.stationKey(1))).isNotNull();
+    }
+
+    @DisplayName("GIVEN responses cached " +
+            "WHEN a new dataset is loaded " +
+            "THEN all the responses are evicted.")
+    @Test
+    public void clearTest() {
+        //GIVEN
+        //WHEN
+        alertResponseCache.clear();
+        //THEN
+        assertThat(cacheManager.getCache(AlertResponseCache.FIRE).get(alertResponseCache.streetKey("addressTest2"))).isNull();
+        assertThat(cacheManager.getCache(AlertResponseCache.FIRESTATION).get(alertResponseCache.stationKey(2))).isNull();
+    }
+
+    @DisplayName("GIVEN a response computed from the data read before a change of its firestation " +
+            "WHEN it is cached after the change has been committed and the responses evicted " +
+            "THEN it isn't read for the firestation anymore.")
+    @Test
+    public void cachedAfterEvictionTest() {
+        //GIVEN
+        Cache firestation = cacheManager.getCache(AlertResponseCache.FIRESTATION);
+        Object keyBeforeChange = alertResponseCache.stationKey(1);
+        DatasetChangedEvent event = new DatasetChangedEvent().station(1);
+        datasetVersions.onDatasetChanged(event);
+        alertResponseCache.onDatasetChanged(event);
+        //WHEN
+        firestation.put(keyBeforeChange, "firestation1 before the change");
+        //THEN
+        assertThat(firestation.get(alertResponseCache.stationKey(1))).isNull();
+    }
+}
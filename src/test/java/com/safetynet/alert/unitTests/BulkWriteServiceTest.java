@@ -0,0 +1,115 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.model.DTO.BulkItemResult;
+import com.safetynet.alert.model.DTO.BulkReport;
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+import com.safetynet.alert.service.BulkWriteService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+/**
+ * The chunks hold two items, so each request below is saved in several transactions.
+ */
+@Tag("BulkTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest(properties = "alert.bulk.chunk-size=2")
+public class BulkWriteServiceTest {
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DisplayName("GIVEN new persons, an existing person, a person given twice and a person without last name " +
+            "WHEN the function createPersons is called " +
+            "THEN only the new persons are created, at the existing address when it matches, and each person has its result in the report.")
+    @Test
+    public void createPersonsTest() {
+        //GIVEN
+        List<PersonDTO> persons = Arrays.asList(
+                new PersonDTO("bulkFirst1", "bulkLast", "address Test1", "11111", "cityTest1", "1234567890", "bulk1@mail.com"),
+                new PersonDTO("firstName1", "lastName1", "addressTest1", "11111", "cityTest1", "1111111111", "person1@mail.com"),
+                new PersonDTO("bulkFirst2", "bulkLast", "bulk street", "22222", "bulkCity", "1234567890", "bulk2@mail.com"),
+                new PersonDTO("bulkFirst1", "bulkLast", "address Test1", "11111", "cityTest1", "1234567890", "bulk1@mail.com"),
+                new PersonDTO("bulkFirst3", null, "bulk street", "22222", "bulkCity", "1234567890", "bulk3@mail.com"));
+        //WHEN
+        BulkReport report = bulkWriteService.createPersons(persons);
+        //THEN
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(report.getItems()).extracting(BulkItemResult::getStatus).containsExactly(
+                BulkItemResult.Status.CREATED, BulkItemResult.Status.REJECTED, BulkItemResult.Status.CREATED,
+                BulkItemResult.Status.REJECTED, BulkItemResult.Status.REJECTED);
+        assertThat(report.getItems().get(1).getMessage()).isEqualTo("The person FIRSTNAME1 LASTNAME1 was already existing, so it couldn't have been created.\n");
+        Integer addressId = jdbcTemplate.queryForObject("SELECT address_id FROM person WHERE id = 'BULKFIRST1BULKLAST'", Integer.class);
+        assertThat(addressId).isEqualTo(1);
+        String city = jdbcTemplate.queryForObject("SELECT a.city FROM person p JOIN address a ON p.address_id = a.address_id WHERE p.id = 'BULKFIRST2BULKLAST'", String.class);
+        assertThat(city).isEqualTo("BULKCITY");
+    }
+
+    @DisplayName("GIVEN medical records of a new person, of a person given twice and with a wrong birthdate " +
+            "WHEN the function addMedicalRecords is called " +
+            "THEN the valid medical records are saved, the last ones given for a person replacing the first ones.")
+    @Test
+    public void addMedicalRecordsTest() {
+        //GIVEN
+        List<MedicalRecordDTO> medicalRecords = Arrays.asList(
+                new MedicalRecordDTO("bulkMed1", "bulkLast", "01/02/2000", List.of("medication1"), List.of("allergy1")),
+                new MedicalRecordDTO("bulkMed2", "bulkLast", "2000-02-01", List.of(), List.of()),
+                new MedicalRecordDTO("bulkMed1", "bulkLast", "03/04/2001", List.of("medication2", "medication3"), List.of()));
+        //WHEN
+        BulkReport report = bulkWriteService.addMedicalRecords(medicalRecords);
+        //THEN
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getItems().get(1).getMessage()).isEqualTo("The birthdate should be given at the format \"dd/MM/yyyy\".\n");
+        List<String> medications = jdbcTemplate.queryForList("SELECT m.medication_name FROM person p JOIN medication m ON p.medical_id = m.medical_id " +
+                "WHERE p.id = 'BULKMED1BULKLAST' ORDER BY m.medication_name", String.class);
+        assertThat(medications).containsExactly("medication2", "medication3");
+        Integer allergies = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person p JOIN allergy a ON p.medical_id = a.medical_id WHERE p.id = 'BULKMED1BULKLAST'", Integer.class);
+        assertThat(allergies).isZero();
+    }
+
+    @DisplayName("GIVEN mappings to a new firestation, for a new address and for an address without firestation, and a mapping given twice " +
+            "WHEN the function addMappings is called " +
+            "THEN the firestation is created once and the addresses are attached to it, the repeated mapping being rejected.")
+    @Test
+    public void addMappingsTest() {
+        //GIVEN
+        List<MappingFirestationAddressDTO> mappings = Arrays.asList(
+                new MappingFirestationAddressDTO(80, "bulk mapping street", null, null),
+                new MappingFirestationAddressDTO(80, "addressTest1", "11111", "cityTest1"),
+                new MappingFirestationAddressDTO(81, "bulk mapping street", null, null),
+                new MappingFirestationAddressDTO(0, "another street", null, null));
+        //WHEN
+        BulkReport report = bulkWriteService.addMappings(mappings);
+        //THEN
+        assertThat(report.getItems()).extracting(BulkItemResult::getStatus).containsExactly(
+                BulkItemResult.Status.CREATED, BulkItemResult.Status.CREATED, BulkItemResult.Status.REJECTED, BulkItemResult.Status.REJECTED);
+        Integer addresses = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM address WHERE station_id = 80", Integer.class);
+        assertThat(addresses).isEqualTo(2);
+        String zip = jdbcTemplate.queryForObject("SELECT zip FROM address WHERE street = 'bulk mapping street'", String.class);
+        assertThat(zip).isEqualTo("97451");
+        Integer firestations = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM firestation WHERE station_id = 81", Integer.class);
+        assertThat(firestations).isZero();
+    }
+}
@@ -0,0 +1,55 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.init.DataFileRows;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("InitTests")
+public class DataFileRowsTest {
+
+    @DisplayName("GIVEN a person read in the data file " +
+            "WHEN the function normalizePerson is called " +
+            "THEN the names and the city are in upper case and the phone number has no dashes.")
+    @Test
+    public void normalizePersonTest() {
+        //GIVEN
+        PersonDTO personDTO = new PersonDTO("John", "Boyd", "1509 Culver St", "97451", "Culver", "841-874-6512", "jaboyd@email.com");
+        //WHEN
+        PersonDTO row = DataFileRows.normalizePerson(personDTO);
+        //THEN
+        assertThat(row.getFirstName()).isEqualTo("JOHN");
+        assertThat(row.getLastName()).isEqualTo("BOYD");
+        assertThat(row.getAddress()).isEqualTo("1509 Culver St");
+        assertThat(row.getZip()).isEqualTo("97451");
+        assertThat(row.getCity()).isEqualTo("CULVER");
+        assertThat(row.getPhoneNumber()).isEqualTo("8418746512");
+        assertThat(row.getMail()).isEqualTo("jaboyd@email.com");
+    }
+
+    @DisplayName("GIVEN medical records read in the data file with a valid, an invalid and no birthdate " +
+            "WHEN the function parseBirthdate is called " +
+            "THEN the valid birthdate is read as \"MM/dd/yyyy\" and null is returned for the others.")
+    @Test
+    public void parseBirthdateTest() {
+        //GIVEN
+        MedicalRecordDTO valid = new MedicalRecordDTO("John", "Boyd", "03/06/1984", List.of(), List.of());
+        MedicalRecordDTO invalid = new MedicalRecordDTO("John", "Boyd", "13/45/1984", List.of(), List.of());
+        MedicalRecordDTO missing = new MedicalRecordDTO("John", "Boyd", null, List.of(), List.of());
+        //WHEN
+        LocalDate validBirthdate = DataFileRows.parseBirthdate(valid);
+        LocalDate invalidBirthdate = DataFileRows.parseBirthdate(invalid);
+        LocalDate missingBirthdate = DataFileRows.parseBirthdate(missing);
+        //THEN
+        assertThat(validBirthdate).isEqualTo(LocalDate.of(1984, 3, 6));
+        assertThat(invalidBirthdate).isNull();
+        assertThat(missingBirthdate).isNull();
+    }
+}
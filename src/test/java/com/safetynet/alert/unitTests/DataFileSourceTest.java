@@ -0,0 +1,95 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.init.ClasspathDataFileSource;
+import com.safetynet.alert.init.DataFileSource;
+import com.safetynet.alert.init.LocalFileDataFileSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("InitTests")
+public class DataFileSourceTest {
+
+    @Nested
+    @DisplayName("LocalFileDataFileSource tests:")
+    class LocalFileDataFileSourceTest {
+
+        @DisplayName("GIVEN an existing local file " +
+                "WHEN the function open is called " +
+                "THEN the whole content of the file is read through the mapped stream.")
+        @Test
+        public void openLocalFileTest(@TempDir Path directory) throws IOException {
+            //GIVEN
+            String content = "{\"persons\": [], \"firestations\": [], \"medicalrecords\": []}";
+            Path file = Files.write(directory.resolve("data.json"), content.getBytes(StandardCharsets.UTF_8));
+            DataFileSource dataFileSource = new LocalFileDataFileSource(file);
+            //WHEN
+            String result;
+            try (InputStream inputStream = dataFileSource.open()) {
+                result = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            //THEN
+            assertThat(result).isEqualTo(content);
+        }
+
+        @DisplayName("GIVEN an empty local file " +
+                "WHEN the function open is called " +
+                "THEN the stream is immediately at its end.")
+        @Test
+        public void openEmptyLocalFileTest(@TempDir Path directory) throws IOException {
+            //GIVEN
+            Path file = Files.createFile(directory.resolve("data.json"));
+            DataFileSource dataFileSource = new LocalFileDataFileSource(file);
+            //WHEN
+            //THEN
+            try (InputStream inputStream = dataFileSource.open()) {
+                assertThat(inputStream.read()).isEqualTo(-1);
+            }
+        }
+
+        @DisplayName("GIVEN a local file " +
+                "WHEN the file is modified between two calls of the function getFingerprint " +
+                "THEN the fingerprint changes.")
+        @Test
+        public void getFingerprintTest(@TempDir Path directory) throws IOException {
+            //GIVEN
+            Path file = Files.write(directory.resolve("data.json"), "{}".getBytes(StandardCharsets.UTF_8));
+            DataFileSource dataFileSource = new LocalFileDataFileSource(file);
+            String fingerprint = dataFileSource.getFingerprint();
+            //WHEN
+            Files.write(file, "{\"persons\": []}".getBytes(StandardCharsets.UTF_8));
+            //THEN
+            assertThat(fingerprint).isNotNull();
+            assertThat(dataFileSource.getFingerprint()).isNotEqualTo(fingerprint);
+        }
+    }
+
+    @Nested
+    @DisplayName("ClasspathDataFileSource tests:")
+    class ClasspathDataFileSourceTest {
+
+        @DisplayName("GIVEN a non-existing classpath resource " +
+                "WHEN the function open is called " +
+                "THEN a FileNotFoundException is thrown.")
+        @Test
+        public void openNonExistingResourceTest() {
+            //GIVEN
+            DataFileSource dataFileSource = new ClasspathDataFileSource("nonExisting.json");
+            //WHEN
+            //THEN
+            assertThrows(FileNotFoundException.class, dataFileSource::open);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.init.DatasetMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+@Tag("InitTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+public class DatasetMetadataTest {
+
+    private static final String SOURCE = "sourceTest";
+
+    @Autowired
+    private DatasetMetadata datasetMetadata;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        datasetMetadata.forget();
+    }
+
+    @DisplayName("GIVEN the fingerprint of a data file recorded " +
+            "WHEN the function isUpToDate is called " +
+            "THEN only the same source with the same fingerprint is up to date.")
+    @Test
+    public void isUpToDateTest() {
+        //GIVEN
+        datasetMetadata.record(SOURCE, "fingerprint1");
+        //WHEN
+        //THEN
+        assertTrue(datasetMetadata.isUpToDate(SOURCE, "fingerprint1"));
+        assertFalse(datasetMetadata.isUpToDate(SOURCE, "fingerprint2"));
+        assertFalse(datasetMetadata.isUpToDate("anotherSource", "fingerprint1"));
+        assertFalse(datasetMetadata.isUpToDate(SOURCE, null));
+    }
+
+    @DisplayName("GIVEN a fingerprint recorded " +
+            "WHEN a data file without fingerprint is recorded " +
+            "THEN the former fingerprint is forgotten.")
+    @Test
+    public void recordWithoutFingerprintTest() {
+        //GIVEN
+        datasetMetadata.record(SOURCE, "fingerprint1");
+        //WHEN
+        datasetMetadata.record(SOURCE, null);
+        //THEN
+        assertFalse(datasetMetadata.isUpToDate(SOURCE, "fingerprint1"));
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM dataset_metadata", Integer.class);
+        assertThat(rows).isZero();
+    }
+}
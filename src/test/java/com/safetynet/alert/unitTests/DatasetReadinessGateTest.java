@@ -0,0 +1,74 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.init.DatasetLoadProgress;
+import com.safetynet.alert.init.DatasetReadinessGate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("InitTests")
+public class DatasetReadinessGateTest {
+
+    private DatasetLoadProgress datasetLoadProgress;
+    private DatasetReadinessGate datasetReadinessGate;
+
+    @BeforeEach
+    public void setUp() {
+        datasetLoadProgress = new DatasetLoadProgress();
+        datasetReadinessGate = new DatasetReadinessGate(datasetLoadProgress);
+    }
+
+    @DisplayName("GIVEN a dataset still loading " +
+            "WHEN the application announces it is live and accepts traffic " +
+            "THEN the application is live but still refuses traffic.")
+    @Test
+    public void refuseTrafficWhileLoadingTest() {
+        //GIVEN
+        datasetLoadProgress.started("sourceTest");
+        //WHEN
+        datasetReadinessGate.onApplicationEvent(new AvailabilityChangeEvent<>(this, LivenessState.CORRECT));
+        datasetReadinessGate.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        //THEN
+        assertThat(datasetReadinessGate.getLivenessState()).isEqualTo(LivenessState.CORRECT);
+        assertThat(datasetReadinessGate.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+    }
+
+    @DisplayName("GIVEN a dataset loaded " +
+            "WHEN the application announces it accepts traffic " +
+            "THEN the application accepts traffic.")
+    @Test
+    public void acceptTrafficOnceLoadedTest() {
+        //GIVEN
+        datasetLoadProgress.started("sourceTest");
+        datasetLoadProgress.rowsImported(10, 5, 10);
+        datasetLoadProgress.loaded();
+        //WHEN
+        datasetReadinessGate.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        //THEN
+        assertThat(datasetReadinessGate.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(datasetLoadProgress.getPersons()).isEqualTo(10);
+    }
+
+    @DisplayName("GIVEN a dataset whose load failed " +
+            "WHEN the application announces it accepts traffic " +
+            "THEN the application still refuses traffic and the failure is kept.")
+    @Test
+    public void refuseTrafficAfterFailureTest() {
+        //GIVEN
+        datasetLoadProgress.started("sourceTest");
+        datasetLoadProgress.failed(new IOException("unreachable"));
+        //WHEN
+        datasetReadinessGate.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        //THEN
+        assertThat(datasetReadinessGate.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+        assertThat(datasetLoadProgress.getError()).isEqualTo("IOException: unreachable");
+    }
+}
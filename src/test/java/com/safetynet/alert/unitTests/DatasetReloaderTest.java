@@ -0,0 +1,91 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.init.DatasetReloader;
+import com.safetynet.alert.init.LocalFileDataFileSource;
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.repository.AddressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+@Tag("InitTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+public class DatasetReloaderTest {
+
+    private static final String DATA_FILE = "{\"persons\": [" +
+            "{ \"firstName\":\"John\", \"lastName\":\"Boyd\", \"address\":\"1509 Culver St\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-6512\", \"email\":\"jaboyd@email.com\" }," +
+            "{ \"firstName\":\"Jacob\", \"lastName\":\"Boyd\", \"address\":\"1509 Culver St\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-6513\", \"email\":\"drk@email.com\" }]," +
+            "\"firestations\": [" +
+            "{ \"address\":\"1509 Culver St\", \"station\":\"3\" }," +
+            "{ \"address\":\"29 15th St\", \"station\":\"2\" }]," +
+            "\"medicalrecords\": [" +
+            "{ \"firstName\":\"John\", \"lastName\":\"Boyd\", \"birthdate\":\"03/06/1984\", \"medications\":[\"aznol:350mg\", \"hydrapermazol:100mg\"], \"allergies\":[\"nillacilan\"] }]}";
+
+    @Autowired
+    private DatasetReloader datasetReloader;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DisplayName("GIVEN a valid data file " +
+            "WHEN the function reload is called " +
+            "THEN the current dataset is replaced by the content of the file and new rows still get free ids.")
+    @Test
+    public void reloadTest(@TempDir Path directory) throws Exception {
+        //GIVEN
+        Path file = Files.write(directory.resolve("data.json"), DATA_FILE.getBytes(StandardCharsets.UTF_8));
+        //WHEN
+        DatasetReloader.Status status = datasetReloader.reload(new LocalFileDataFileSource(file));
+        //THEN
+        assertThat(status).isEqualTo(DatasetReloader.Status.SWAPPED);
+        List<String> persons = jdbcTemplate.queryForList("SELECT id FROM person ORDER BY id", String.class);
+        assertThat(persons).containsExactly("JACOBBOYD", "JOHNBOYD");
+        Integer station = jdbcTemplate.queryForObject("SELECT a.station_id FROM person p JOIN address a ON p.address_id = a.address_id WHERE p.id = 'JOHNBOYD'", Integer.class);
+        assertThat(station).isEqualTo(3);
+        List<String> medications = jdbcTemplate.queryForList("SELECT m.medication_name FROM person p JOIN medication m ON p.medical_id = m.medical_id " +
+                "WHERE p.id = 'JOHNBOYD' ORDER BY m.medication_name", String.class);
+        assertThat(medications).containsExactly("aznol:350mg", "hydrapermazol:100mg");
+        Integer stagedPersons = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM staging.person", Integer.class);
+        assertThat(stagedPersons).isZero();
+        Address address = addressRepository.save(new Address("reload street", "11111", "RELOADCITY"));
+        assertThat(addressRepository.findById(address.getAddressId())).isPresent();
+    }
+
+    @DisplayName("GIVEN a data file without any person " +
+            "WHEN the function reload is called " +
+            "THEN the staged dataset is rejected and the current dataset is kept.")
+    @Test
+    public void reloadRejectedTest(@TempDir Path directory) throws Exception {
+        //GIVEN
+        Path file = Files.write(directory.resolve("data.json"), "{\"persons\": [], \"firestations\": [], \"medicalrecords\": []}".getBytes(StandardCharsets.UTF_8));
+        List<String> personsBefore = jdbcTemplate.queryForList("SELECT id FROM person ORDER BY id", String.class);
+        //WHEN
+        DatasetReloader.Status status = datasetReloader.reload(new LocalFileDataFileSource(file));
+        //THEN
+        assertThat(status).isEqualTo(DatasetReloader.Status.REJECTED);
+        assertThat(datasetReloader.getMessage()).contains("The data file contains no person.");
+        List<String> personsAfter = jdbcTemplate.queryForList("SELECT id FROM person ORDER BY id", String.class);
+        assertThat(personsAfter).isEqualTo(personsBefore);
+    }
+}
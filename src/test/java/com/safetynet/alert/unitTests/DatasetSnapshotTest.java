@@ -0,0 +1,118 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.init.DatasetSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+@Tag("InitTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+public class DatasetSnapshotTest {
+
+    private static final String SOURCE = "sourceTest";
+    private static final String FINGERPRINT = "fingerprintTest";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DisplayName("GIVEN a snapshot written from the database " +
+            "WHEN the database is modified and the function restore is called " +
+            "THEN the database contains the data of the snapshot again.")
+    @Test
+    public void writeAndRestoreTest(@TempDir Path directory) throws Exception {
+        //GIVEN
+        DatasetSnapshot datasetSnapshot = new DatasetSnapshot(jdbcTemplate, transactionManager, true, directory.resolve("dataset.snapshot").toString());
+        datasetSnapshot.write(SOURCE, FINGERPRINT);
+        jdbcTemplate.update("UPDATE person SET mail = 'changed@mail.com' WHERE id = 'FIRSTNAME1LASTNAME1'");
+        //WHEN
+        boolean restored = datasetSnapshot.restore(SOURCE, FINGERPRINT);
+        //THEN
+        assertTrue(restored);
+        String mail = jdbcTemplate.queryForObject("SELECT mail FROM person WHERE id = 'FIRSTNAME1LASTNAME1'", String.class);
+        assertThat(mail).isEqualTo("person1@mail.com");
+        String street = jdbcTemplate.queryForObject("SELECT a.street FROM person p JOIN address a ON p.address_id = a.address_id WHERE p.id = 'FIRSTNAME1LASTNAME1'", String.class);
+        assertThat(street).isEqualTo("addressTest1");
+    }
+
+    @DisplayName("GIVEN a snapshot written from another source " +
+            "WHEN the function restore is called " +
+            "THEN the snapshot is considered stale and isn't restored.")
+    @Test
+    public void restoreFromAnotherSourceTest(@TempDir Path directory) throws Exception {
+        //GIVEN
+        DatasetSnapshot datasetSnapshot = new DatasetSnapshot(jdbcTemplate, transactionManager, true, directory.resolve("dataset.snapshot").toString());
+        datasetSnapshot.write(SOURCE, FINGERPRINT);
+        //WHEN
+        boolean restored = datasetSnapshot.restore("anotherSource", FINGERPRINT);
+        //THEN
+        assertFalse(restored);
+    }
+
+    @DisplayName("GIVEN a snapshot written from a former version of the data file " +
+            "WHEN the function restore is called with the fingerprint of the current version " +
+            "THEN the snapshot is considered stale and isn't restored.")
+    @Test
+    public void restoreFromAnotherVersionTest(@TempDir Path directory) throws Exception {
+        //GIVEN
+        DatasetSnapshot datasetSnapshot = new DatasetSnapshot(jdbcTemplate, transactionManager, true, directory.resolve("dataset.snapshot").toString());
+        datasetSnapshot.write(SOURCE, FINGERPRINT);
+        //WHEN
+        boolean restored = datasetSnapshot.restore(SOURCE, "anotherFingerprint");
+        //THEN
+        assertFalse(restored);
+        assertFalse(datasetSnapshot.restore(SOURCE, null));
+    }
+
+    @DisplayName("GIVEN a corrupted snapshot " +
+            "WHEN the function restore is called " +
+            "THEN the checksum doesn't match and the snapshot isn't restored.")
+    @Test
+    public void restoreCorruptedSnapshotTest(@TempDir Path directory) throws Exception {
+        //GIVEN
+        Path path = directory.resolve("dataset.snapshot");
+        DatasetSnapshot datasetSnapshot = new DatasetSnapshot(jdbcTemplate, transactionManager, true, path.toString());
+        datasetSnapshot.write(SOURCE, FINGERPRINT);
+        byte[] content = Files.readAllBytes(path);
+        content[content.length / 2] ^= 0xFF;
+        Files.write(path, content);
+        //WHEN
+        boolean restored = datasetSnapshot.restore(SOURCE, FINGERPRINT);
+        //THEN
+        assertFalse(restored);
+    }
+
+    @DisplayName("GIVEN no snapshot file " +
+            "WHEN the function restore is called " +
+            "THEN nothing is restored.")
+    @Test
+    public void restoreNonExistingSnapshotTest(@TempDir Path directory) {
+        //GIVEN
+        DatasetSnapshot datasetSnapshot = new DatasetSnapshot(jdbcTemplate, transactionManager, true, directory.resolve("dataset.snapshot").toString());
+        //WHEN
+        boolean restored = datasetSnapshot.restore(SOURCE, FINGERPRINT);
+        //THEN
+        assertFalse(restored);
+    }
+}
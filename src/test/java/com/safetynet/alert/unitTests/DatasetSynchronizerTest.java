@@ -0,0 +1,211 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.init.DatasetSynchronizer;
+import com.safetynet.alert.init.SyncReport;
+import com.safetynet.alert.init.UrlDataFileSource;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+@Tag("InitTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+public class DatasetSynchronizerTest {
+
+    private static final String DATA_FILE = "{\"persons\": [" +
+            "{ \"firstName\":\"John\", \"lastName\":\"Boyd\", \"address\":\"1509 Culver St\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-6512\", \"email\":\"jaboyd@email.com\" }," +
+            "{ \"firstName\":\"Jacob\", \"lastName\":\"Boyd\", \"address\":\"1509 Culver St\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-6513\", \"email\":\"drk@email.com\" }," +
+            "{ \"firstName\":\"Foster\", \"lastName\":\"Shepard\", \"address\":\"748 Townings Dr\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-6544\", \"email\":\"jaboyd@email.com\" }]," +
+            "\"firestations\": [" +
+            "{ \"address\":\"1509 Culver St\", \"station\":\"3\" }," +
+            "{ \"address\":\"29 15th St\", \"station\":\"2\" }," +
+            "{ \"address\":\"748 Townings Dr\", \"station\":\"3\" }]," +
+            "\"medicalrecords\": [" +
+            "{ \"firstName\":\"John\", \"lastName\":\"Boyd\", \"birthdate\":\"03/06/1984\", \"medications\":[\"aznol:350mg\", \"hydrapermazol:100mg\"], \"allergies\":[\"nillacilan\"] }," +
+            "{ \"firstName\":\"Foster\", \"lastName\":\"Shepard\", \"birthdate\":\"01/08/1980\", \"medications\":[], \"allergies\":[] }]}";
+
+    //John Boyd has a new phone number and no more hydrapermazol, Jacob Boyd left, 1509 Culver St is now covered by the firestation 2
+    private static final String CHANGED_DATA_FILE = "{\"persons\": [" +
+            "{ \"firstName\":\"John\", \"lastName\":\"Boyd\", \"address\":\"1509 Culver St\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-7777\", \"email\":\"jaboyd@email.com\" }," +
+            "{ \"firstName\":\"Foster\", \"lastName\":\"Shepard\", \"address\":\"748 Townings Dr\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-6544\", \"email\":\"jaboyd@email.com\" }]," +
+            "\"firestations\": [" +
+            "{ \"address\":\"1509 Culver St\", \"station\":\"2\" }," +
+            "{ \"address\":\"29 15th St\", \"station\":\"2\" }," +
+            "{ \"address\":\"748 Townings Dr\", \"station\":\"3\" }]," +
+            "\"medicalrecords\": [" +
+            "{ \"firstName\":\"John\", \"lastName\":\"Boyd\", \"birthdate\":\"03/06/1984\", \"medications\":[\"aznol:350mg\"], \"allergies\":[\"nillacilan\"] }," +
+            "{ \"firstName\":\"Foster\", \"lastName\":\"Shepard\", \"birthdate\":\"01/08/1980\", \"medications\":[], \"allergies\":[] }]}";
+
+    @Autowired
+    private DatasetSynchronizer datasetSynchronizer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    //local stand-in of the server giving the data file, answering conditional requests with an ETag computed from the content
+    private HttpServer server;
+    private volatile String content;
+    private final List<Integer> responseCodes = new CopyOnWriteArrayList<>();
+    private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/data.json", this::serveDataFile);
+        server.createContext("/hung.json", this::hang);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void serveDataFile(HttpExchange exchange) throws IOException {
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        String eTag = "\"" + Integer.toHexString(content.hashCode()) + "\"";
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        ifNoneMatchHeaders.add(String.valueOf(ifNoneMatch));
+        exchange.getResponseHeaders().add("ETag", eTag);
+        if (eTag.equals(ifNoneMatch)) {
+            responseCodes.add(304);
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            responseCodes.add(200);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    //a server accepting the connection and never answering in time
+    private void hang(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.close();
+    }
+
+    private UrlDataFileSource dataFileSource() {
+        return new UrlDataFileSource("http://localhost:" + server.getAddress().getPort() + "/data.json", 5000, 5000);
+    }
+
+    @DisplayName("GIVEN a data file served with an ETag " +
+            "WHEN the function sync is called twice " +
+            "THEN the dataset is synchronized with the data file the first time and the data file isn't downloaded again the second time.")
+    @Test
+    public void syncTest() {
+        //GIVEN
+        content = DATA_FILE;
+        UrlDataFileSource source = dataFileSource();
+        //WHEN
+        DatasetSynchronizer.Status firstStatus = datasetSynchronizer.sync(source);
+        long failed = datasetSynchronizer.getReport().getFailed();
+        DatasetSynchronizer.Status secondStatus = datasetSynchronizer.sync(source);
+        //THEN
+        assertThat(firstStatus).isEqualTo(DatasetSynchronizer.Status.SYNCED);
+        assertThat(failed).isZero();
+        List<String> persons = jdbcTemplate.queryForList("SELECT id FROM person", String.class);
+        assertThat(persons).containsExactlyInAnyOrder("JOHNBOYD", "JACOBBOYD", "FOSTERSHEPARD");
+        assertThat(stationOf("JOHNBOYD")).isEqualTo(3);
+        assertThat(medicationsOf("JOHNBOYD")).containsExactly("aznol:350mg", "hydrapermazol:100mg");
+        assertThat(secondStatus).isEqualTo(DatasetSynchronizer.Status.UNCHANGED);
+        assertThat(responseCodes).containsExactly(200, 304);
+        assertThat(ifNoneMatchHeaders.get(1)).isEqualTo("\"" + Integer.toHexString(DATA_FILE.hashCode()) + "\"");
+    }
+
+    @DisplayName("GIVEN a dataset synchronized with a data file which then changes " +
+            "WHEN the function sync is called " +
+            "THEN only the persons, mappings and medical records which changed are written.")
+    @Test
+    public void syncChangesTest() {
+        //GIVEN
+        content = DATA_FILE;
+        UrlDataFileSource source = dataFileSource();
+        datasetSynchronizer.sync(source);
+        content = CHANGED_DATA_FILE;
+        //WHEN
+        DatasetSynchronizer.Status status = datasetSynchronizer.sync(source);
+        //THEN
+        assertThat(status).isEqualTo(DatasetSynchronizer.Status.SYNCED);
+        SyncReport report = datasetSynchronizer.getReport();
+        assertThat(report.getInserted()).isZero();
+        assertThat(report.getUpdated()).isEqualTo(3);
+        assertThat(report.getDeleted()).isEqualTo(1);
+        assertThat(report.getFailed()).isZero();
+        List<String> persons = jdbcTemplate.queryForList("SELECT id FROM person", String.class);
+        assertThat(persons).containsExactlyInAnyOrder("JOHNBOYD", "FOSTERSHEPARD");
+        String phoneNumber = jdbcTemplate.queryForObject("SELECT phone_number FROM person WHERE id = 'JOHNBOYD'", String.class);
+        assertThat(phoneNumber).isEqualTo("8418747777");
+        assertThat(stationOf("JOHNBOYD")).isEqualTo(2);
+        assertThat(stationOf("FOSTERSHEPARD")).isEqualTo(3);
+        assertThat(medicationsOf("JOHNBOYD")).containsExactly("aznol:350mg");
+    }
+
+    @DisplayName("GIVEN a server which doesn't answer " +
+            "WHEN the fingerprint of its data file is read " +
+            "THEN the request fails once the read timeout has elapsed.")
+    @Test
+    public void getFingerprintTimeoutTest() {
+        //GIVEN
+        UrlDataFileSource source = new UrlDataFileSource("http://localhost:" + server.getAddress().getPort() + "/hung.json", 5000, 200);
+        //WHEN
+        Exception exception = assertThrows(SocketTimeoutException.class, source::getFingerprint);
+        //THEN
+        assertThat(exception).isNotNull();
+    }
+
+    @DisplayName("GIVEN a server which doesn't answer " +
+            "WHEN the function sync is called " +
+            "THEN the sync fails once the read timeout has elapsed and releases the maintenance lock.")
+    @Test
+    public void syncTimeoutTest() {
+        //GIVEN
+        content = DATA_FILE;
+        UrlDataFileSource hungSource = new UrlDataFileSource("http://localhost:" + server.getAddress().getPort() + "/hung.json", 5000, 200);
+        //WHEN
+        DatasetSynchronizer.Status status = datasetSynchronizer.sync(hungSource);
+        DatasetSynchronizer.Status nextStatus = datasetSynchronizer.sync(dataFileSource());
+        //THEN
+        assertThat(status).isEqualTo(DatasetSynchronizer.Status.FAILED);
+        assertThat(nextStatus).isEqualTo(DatasetSynchronizer.Status.SYNCED);
+    }
+
+    private Integer stationOf(String personId) {
+        return jdbcTemplate.queryForObject("SELECT a.station_id FROM person p JOIN address a ON p.address_id = a.address_id WHERE p.id = ?",
+                Integer.class, personId);
+    }
+
+    private List<String> medicationsOf(String personId) {
+        return jdbcTemplate.queryForList("SELECT m.medication_name FROM person p JOIN medication m ON p.medical_id = m.medical_id " +
+                "WHERE p.id = ? ORDER BY m.medication_name", String.class, personId);
+    }
+}
@@ -0,0 +1,78 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.index.FirestationAddressIndex;
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.Firestation;
+import com.safetynet.alert.repository.AddressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@Tag("FirestationTests")
+public class FirestationAddressIndexTest {
+
+    private AddressRepository addressRepository;
+
+    private FirestationAddressIndex firestationAddressIndex;
+
+    @BeforeEach
+    public void setUp() {
+        addressRepository = Mockito.mock(AddressRepository.class);
+        List<Object[]> mappings = new ArrayList<>();
+        mappings.add(new Object[]{"ADDRESSTEST1", 1});
+        mappings.add(new Object[]{"ADDRESSTEST2", 2});
+        doReturn(mappings).when(addressRepository).findStationMappings();
+        firestationAddressIndex = new FirestationAddressIndex(addressRepository);
+    }
+
+    @DisplayName("GIVEN streets attached to firestations in database " +
+            "WHEN the function getStationId is called several times " +
+            "THEN the firestation numbers are returned and the mappings are read only once.")
+    @Test
+    public void getStationIdTest() {
+        //GIVEN
+        //WHEN
+        Optional<Integer> stationId1 = firestationAddressIndex.getStationId("ADDRESSTEST1");
+        Optional<Integer> stationId2 = firestationAddressIndex.getStationId("ADDRESSTEST2");
+        Optional<Integer> stationId3 = firestationAddressIndex.getStationId("ADDRESSTEST3");
+        //THEN
+        assertThat(stationId1).contains(1);
+        assertThat(stationId2).contains(2);
+        assertThat(stationId3).isEmpty();
+        verify(addressRepository, Mockito.times(1)).findStationMappings();
+    }
+
+    @DisplayName("GIVEN a street moved to another firestation and a street detached from its firestation " +
+            "WHEN a DatasetChangedEvent is received " +
+            "THEN only these streets are refreshed.")
+    @Test
+    public void onDatasetChangedTest() {
+        //GIVEN
+        firestationAddressIndex.getStationId("ADDRESSTEST1");
+        Address movedAddress = new Address("address test 1", "11111", "cityTest");
+        Firestation firestation = new Firestation();
+        firestation.setStationId(3);
+        firestation.addAddress(movedAddress);
+        Address detachedAddress = new Address("address test 2", "11111", "cityTest");
+        doReturn(Collections.singletonList(3)).when(addressRepository).findStationIdsByNormalizedStreet("ADDRESSTEST1");
+        doReturn(Collections.emptyList()).when(addressRepository).findStationIdsByNormalizedStreet("ADDRESSTEST2");
+        //WHEN
+        firestationAddressIndex.onDatasetChanged(new DatasetChangedEvent().address(movedAddress).address(detachedAddress));
+        //THEN
+        assertThat(firestationAddressIndex.getStationId("ADDRESSTEST1")).contains(3);
+        assertThat(firestationAddressIndex.getStationId("ADDRESSTEST2")).isEmpty();
+        verify(addressRepository, Mockito.times(1)).findStationMappings();
+    }
+}
@@ -2,6 +2,7 @@ package com.safetynet.alert.unitTests;
 
 import com.safetynet.alert.exceptions.*;
 import com.safetynet.alert.model.DTO.FirestationDTO;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
 import com.safetynet.alert.model.Firestation;
 import com.safetynet.alert.service.FirestationService;
@@ -65,7 +66,7 @@ public class FirestationControllerTest {
             List<Firestation> firestations = new ArrayList<>();
             firestations.add(firestation1);
             firestations.add(firestation2);
-            doReturn(firestations).when(firestationService).getFirestations();
+            doReturn(new KeysetPage<>(firestations, null)).when(firestationService).getFirestations(null, null);
             //WHEN
             //we call the uri "/firestation",
             mockMvc.perform(get("/firestations"))
@@ -74,7 +75,7 @@ public class FirestationControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$", hasSize(2)));
-            verify(firestationService, Mockito.times(1)).getFirestations();
+            verify(firestationService, Mockito.times(1)).getFirestations(null, null);
 
         }
 
@@ -86,7 +87,7 @@ public class FirestationControllerTest {
             // GIVEN
             //an empty list of firestations
             EmptyObjectException emptyObjectException = new EmptyObjectException("error message");
-            doThrow(emptyObjectException).when(firestationService).getFirestations();
+            doThrow(emptyObjectException).when(firestationService).getFirestations(null, null);
             //WHEN
             //we call the uri "/firestation"
             mockMvc.perform(get("/firestations"))
@@ -94,7 +95,7 @@ public class FirestationControllerTest {
                     //we should have a "notFound" status and the response's body should contain a String with the expected error message
                     .andExpect(status().isNotFound())
                     .andExpect(content().string("error message"));
-            verify(firestationService, Mockito.times(1)).getFirestations();
+            verify(firestationService, Mockito.times(1)).getFirestations(null, null);
         }
 
 
@@ -0,0 +1,95 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.exceptions.ObjectNotFoundException;
+import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
+import com.safetynet.alert.service.FirestationService;
+import com.safetynet.alert.service.UrlsService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+/**
+ * Station 10 covers one address where one person lives, the mapping of this address is deleted by each test.
+ */
+@Tag("FirestationTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+public class FirestationMappingTest {
+
+    @Autowired
+    private FirestationService firestationService;
+
+    @Autowired
+    private UrlsService urlsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("INSERT INTO firestation VALUES (10)");
+        jdbcTemplate.update("INSERT INTO address VALUES (1000, 'mappingStreet', '11111', 'MAPPINGCITY', 10, 'MAPPINGSTREET', 'MAPPINGCITY')");
+        jdbcTemplate.update("INSERT INTO person VALUES ('MAPPINGFIRSTMAPPINGLAST', 'MAPPINGFIRST', 'MAPPINGLAST', 1000, '8410000000', 'mapping@mail.com', null)");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM person WHERE id = 'MAPPINGFIRSTMAPPINGLAST'");
+        jdbcTemplate.update("DELETE FROM address WHERE address_id = 1000");
+        jdbcTemplate.update("DELETE FROM firestation WHERE station_id IN (10, 11)");
+    }
+
+    @DisplayName("GIVEN an address whose mapping has been deleted " +
+            "WHEN the same address is mapped again to a firestation " +
+            "THEN the address is attached to the firestation and keeps its resident.")
+    @Test
+    public void addNewMappingAfterDeleteTest() {
+        //GIVEN
+        transactionTemplate.execute(status -> firestationService.deleteFirestationOrAddress("mappingStreet"));
+        //WHEN
+        String result = transactionTemplate.execute(status ->
+                firestationService.addNewMapping(new MappingFirestationAddressDTO(11, "mappingStreet", "11111", "mappingCity")));
+        //THEN
+        assertThat(result).contains("have been added to the firestation number 11");
+        Integer station = jdbcTemplate.queryForObject("SELECT station_id FROM address WHERE address_id = 1000", Integer.class);
+        assertThat(station).isEqualTo(11);
+        Integer residents = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person WHERE address_id = 1000", Integer.class);
+        assertThat(residents).isEqualTo(1);
+    }
+
+    @DisplayName("GIVEN an address whose mapping has been deleted " +
+            "WHEN /fire is called for this address " +
+            "THEN an ObjectNotFoundException is thrown as no firestation covers it.")
+    @Test
+    public void fireAfterDeleteTest() {
+        //GIVEN
+        transactionTemplate.execute(status -> firestationService.deleteFirestationOrAddress("mappingStreet"));
+        //WHEN
+        //THEN
+        assertThrows(ObjectNotFoundException.class, () -> urlsService.getPersonsByAddress("mappingStreet"));
+        Integer residents = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person WHERE address_id = 1000", Integer.class);
+        assertThat(residents).isEqualTo(1);
+    }
+}
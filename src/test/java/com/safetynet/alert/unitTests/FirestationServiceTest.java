@@ -2,8 +2,10 @@ package com.safetynet.alert.unitTests;
 
 
 import com.safetynet.alert.exceptions.*;
+import com.safetynet.alert.index.FirestationAddressIndex;
 import com.safetynet.alert.model.Address;
 import com.safetynet.alert.model.DTO.FirestationDTO;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MappingFirestationAddressDTO;
 import com.safetynet.alert.model.Firestation;
 import com.safetynet.alert.repository.FirestationRepository;
@@ -18,6 +20,8 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -28,6 +32,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
 
@@ -48,6 +54,9 @@ public class FirestationServiceTest {
     @MockBean
     private AddressService addressService;
 
+    @MockBean
+    private FirestationAddressIndex firestationAddressIndex;
+
     @Nested
     @DisplayName("getFirestations() tests:")
     class getFirestationsTest {
@@ -66,10 +75,10 @@ public class FirestationServiceTest {
                 firestation.addAddress(new Address("new address " + numberOfFirestationsTest,"1111"+numberOfFirestationsTest,"cityTest"));
                 AllFirestationsTest.add(firestation);
             }
-            when(firestationRepository.findAll()).thenReturn(AllFirestationsTest);
+            when(firestationRepository.findAllByOrderByStationIdAsc(any(Pageable.class))).thenReturn(AllFirestationsTest);
             //WHEN
             //the function getFirestations is called
-            List<FirestationDTO> result = firestationService.getFirestations();
+            List<FirestationDTO> result = firestationService.getFirestations(null, null).getContent();
             //THEN
             //the result should be a list of 3 firestationDTO, containing correct information
             assertThat(result.size()).isEqualTo(3);
@@ -82,7 +91,33 @@ public class FirestationServiceTest {
             assertThat(result.get(2).getFirestationNumber()).isEqualTo(2);
             assertThat(result.get(2).getAddressesList().get(0)).isEqualTo("new address 2 - 11112 cityTest");
             assertThat(result.get(2).getAddressesList().size()).isEqualTo(1);
-            verify(firestationRepository, Mockito.times(1)).findAll();
+            verify(firestationRepository, Mockito.times(1)).findAllByOrderByStationIdAsc(any(Pageable.class));
+            verify(firestationRepository, Mockito.times(1)).fetchAttachedAddresses(AllFirestationsTest);
+        }
+
+        @DisplayName("GIVEN more firestations returned by firestationRepository than the page size " +
+                "WHEN function getFirestations() is called after a given number " +
+                "THEN it returns a page of the requested size with the number of its last firestation as next cursor.")
+        @Test
+        public void getFirestationsWithNextPageTest() {
+            //GIVEN
+            //a list containing 3 firestations, one more than the requested page size
+            ArrayList<Firestation> AllFirestationsTest = new ArrayList<>();
+            for (int numberOfFirestationsTest = 3; numberOfFirestationsTest < 6; numberOfFirestationsTest++) {
+                Firestation firestation = new Firestation();
+                firestation.setStationId(numberOfFirestationsTest);
+                AllFirestationsTest.add(firestation);
+            }
+            when(firestationRepository.findByStationIdGreaterThanOrderByStationIdAsc(anyInt(), any(Pageable.class))).thenReturn(AllFirestationsTest);
+            //WHEN
+            //the function getFirestations is called with a page size of 2
+            KeysetPage<FirestationDTO> result = firestationService.getFirestations(2, 2);
+            //THEN
+            //the page should contain the firestations 3 and 4, and the next cursor should be 4
+            assertThat(result.getContent().size()).isEqualTo(2);
+            assertThat(result.getContent().get(1).getFirestationNumber()).isEqualTo(4);
+            assertThat(result.getNextCursor()).isEqualTo("4");
+            verify(firestationRepository, Mockito.times(1)).findByStationIdGreaterThanOrderByStationIdAsc(2, PageRequest.of(0, 3));
         }
 
         @DisplayName("GIVEN an empty list returned by firestationRepository " +
@@ -92,13 +127,13 @@ public class FirestationServiceTest {
         public void getFirestationsWhenEmptyTest() {
             //GIVEN
             //an empty list of firestations
-            when(firestationRepository.findAll()).thenReturn(new ArrayList<>());
+            when(firestationRepository.findAllByOrderByStationIdAsc(any(Pageable.class))).thenReturn(new ArrayList<>());
             //WHEN
             // the function getFirestations() is called
             //THEN
             // an EmptyObjectException is thrown
-            assertThrows(EmptyObjectException.class, () -> firestationService.getFirestations());
-            verify(firestationRepository, Mockito.times(1)).findAll();
+            assertThrows(EmptyObjectException.class, () -> firestationService.getFirestations(null, null));
+            verify(firestationRepository, Mockito.times(1)).findAllByOrderByStationIdAsc(any(Pageable.class));
         }
     }
 
@@ -118,9 +153,8 @@ public class FirestationServiceTest {
             Firestation firestation = new Firestation();
             firestation.setStationId(1);
             firestation.addAddress(address);
-            List<Firestation> firestations = new ArrayList<>();
-            firestations.add(firestation);
-            doReturn(firestations).when(firestationRepository).findAll();
+            doReturn(Optional.of(1)).when(firestationAddressIndex).getStationId("ADDRESSTEST");
+            doReturn(Optional.of(firestation)).when(firestationRepository).findById(1);
             // WHEN
             //the tested function  getFirestationDTO is called with this address
             FirestationDTO returnedFirestation = firestationService.getFirestationDTO("address test");
@@ -129,8 +163,9 @@ public class FirestationServiceTest {
             assertThat(returnedFirestation.getFirestationNumber()).isEqualTo(1);
             assertThat(returnedFirestation.getAddressesList().size()).isEqualTo(1);
             assertThat(returnedFirestation.getAddressesList().get(0)).isEqualTo("address test - 12345 cityTest");
-            verify(firestationRepository, Mockito.times(1)).findAll();
-            verify(firestationRepository, Mockito.times(0)).findById(1);
+            verify(firestationAddressIndex, Mockito.times(1)).getStationId("ADDRESSTEST");
+            verify(firestationRepository, Mockito.times(1)).findById(1);
+            verify(firestationRepository, Mockito.times(0)).findAll();
         }
 
         @Test
@@ -144,9 +179,8 @@ public class FirestationServiceTest {
             Firestation firestation = new Firestation();
             firestation.setStationId(1);
             firestation.addAddress(address);
-            List<Firestation> firestations = new ArrayList<>();
-            firestations.add(firestation);
-            doReturn(firestations).when(firestationRepository).findAll();
+            doReturn(Optional.of(1)).when(firestationAddressIndex).getStationId("ADDRESSTEST");
+            doReturn(Optional.of(firestation)).when(firestationRepository).findById(1);
             // WHEN
             //the tested function getFirestationDTO is called with the same address written in different case
             FirestationDTO returnedFirestation = firestationService.getFirestationDTO("Address TEST");
@@ -155,8 +189,9 @@ public class FirestationServiceTest {
             assertThat(returnedFirestation.getFirestationNumber()).isEqualTo(1);
             assertThat(returnedFirestation.getAddressesList().size()).isEqualTo(1);
             assertThat(returnedFirestation.getAddressesList().get(0)).isEqualTo("address test - 12345 cityTest");
-            verify(firestationRepository, Mockito.times(1)).findAll();
-            verify(firestationRepository, Mockito.times(0)).findById(1);
+            verify(firestationAddressIndex, Mockito.times(1)).getStationId("ADDRESSTEST");
+            verify(firestationRepository, Mockito.times(1)).findById(1);
+            verify(firestationRepository, Mockito.times(0)).findAll();
         }
 
         @Test
@@ -170,9 +205,8 @@ public class FirestationServiceTest {
             Firestation firestation = new Firestation();
             firestation.setStationId(1);
             firestation.addAddress(address);
-            List<Firestation> firestations = new ArrayList<>();
-            firestations.add(firestation);
-            doReturn(firestations).when(firestationRepository).findAll();
+            doReturn(Optional.of(1)).when(firestationAddressIndex).getStationId("ADDRESSTEST");
+            doReturn(Optional.of(firestation)).when(firestationRepository).findById(1);
             // WHEN
             //the tested function getFirestationDTO is called with this address written with spaces
             FirestationDTO returnedFirestation = firestationService.getFirestationDTO("  address    test   ");
@@ -181,8 +215,9 @@ public class FirestationServiceTest {
             assertThat(returnedFirestation.getFirestationNumber()).isEqualTo(1);
             assertThat(returnedFirestation.getAddressesList().size()).isEqualTo(1);
             assertThat(returnedFirestation.getAddressesList().get(0)).isEqualTo("address test - 12345 cityTest");
-            verify(firestationRepository, Mockito.times(1)).findAll();
-            verify(firestationRepository, Mockito.times(0)).findById(1);
+            verify(firestationAddressIndex, Mockito.times(1)).getStationId("ADDRESSTEST");
+            verify(firestationRepository, Mockito.times(1)).findById(1);
+            verify(firestationRepository, Mockito.times(0)).findAll();
         }
 
         @Test
@@ -202,17 +237,18 @@ public class FirestationServiceTest {
             Firestation firestation2 = new Firestation();
             firestation2.setStationId(2);
             firestation2.addAddress(address3);
-            List<Firestation> firestations = new ArrayList<>();
-            firestations.add(firestation);
-            firestations.add(firestation2);
-            doReturn(firestations).when(firestationRepository).findAll();
+            doReturn(Optional.of(1)).when(firestationAddressIndex).getStationId("ADDRESSTEST1");
+            doReturn(Optional.of(1)).when(firestationAddressIndex).getStationId("ADDRESSTEST2");
+            doReturn(Optional.of(2)).when(firestationAddressIndex).getStationId("ADDRESSTEST3");
+            doReturn(Optional.empty()).when(firestationAddressIndex).getStationId("ADDRESSTEST4");
             // WHEN
             //the tested function getFirestationDTO is called
             // THEN
             //a FirestationNotFoundException should be thrown
             assertThrows(ObjectNotFoundException.class, () -> firestationService.getFirestationDTO("address test 4"));
-            verify(firestationRepository, Mockito.times(1)).findAll();
-            verify(firestationRepository, Mockito.times(0)).findById(1);
+            verify(firestationAddressIndex, Mockito.times(1)).getStationId("ADDRESSTEST4");
+            verify(firestationRepository, Mockito.times(0)).findById(anyInt());
+            verify(firestationRepository, Mockito.times(0)).findAll();
         }
 
         @Test
@@ -304,6 +340,48 @@ public class FirestationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getFirestationsById() tests:")
+    class GetFirestationsByIdTest {
+
+        @Test
+        @DisplayName("GIVEN existing firestations " +
+                "WHEN the function getFirestationsById() is called " +
+                "THEN the firestations should be found with one query.")
+        void getFirestationsByIdTest() {
+            // GIVEN
+            //existing firestations with id number 1 and 2
+            Firestation firestation1 = new Firestation(1, new ArrayList<>());
+            Firestation firestation2 = new Firestation(2, new ArrayList<>());
+            doReturn(List.of(firestation1, firestation2)).when(firestationRepository).findAllById(List.of(1, 2));
+            // WHEN
+            //the tested function getFirestationsById is called with these ids
+            List<Firestation> returnedFirestations = firestationService.getFirestationsById(List.of(1, 2));
+            // THEN
+            //the firestations should be found
+            assertThat(returnedFirestations).containsExactly(firestation1, firestation2);
+            verify(firestationRepository, Mockito.times(1)).findAllById(List.of(1, 2));
+            verify(firestationRepository, Mockito.times(0)).findById(anyInt());
+        }
+
+        @Test
+        @DisplayName("GIVEN an existing firestation and a non-existing one " +
+                "WHEN the function getFirestationsById() is called " +
+                "THEN an ObjectNotFoundException should be thrown with the expected error message.")
+        void getFirestationsByIdNotExistingTest() {
+            // GIVEN
+            //an existing firestation with id number 1, the firestation number 2 doesn't exist
+            Firestation firestation1 = new Firestation(1, new ArrayList<>());
+            doReturn(List.of(firestation1)).when(firestationRepository).findAllById(List.of(1, 2));
+            //WHEN
+            //the tested function getFirestationsById is called
+            //THEN
+            //an ObjectNotFoundException should be thrown with the expected error message
+            Exception exception = assertThrows(ObjectNotFoundException.class, () -> firestationService.getFirestationsById(List.of(1, 2)));
+            assertEquals("The firestation with Id number 2 was not found.\n", exception.getMessage());
+        }
+    }
+
     @Nested
     @DisplayName("addNewMapping tests:")
     class AddNewMappingTest {
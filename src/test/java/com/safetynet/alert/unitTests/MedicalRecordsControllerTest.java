@@ -1,6 +1,7 @@
 package com.safetynet.alert.unitTests;
 
 import com.safetynet.alert.exceptions.*;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MedicalRecordDTO;
 import com.safetynet.alert.model.MedicalRecords;
 import com.safetynet.alert.model.Person;
@@ -64,14 +65,14 @@ public class MedicalRecordsControllerTest {
             List<MedicalRecords> medicalRecordsList = new ArrayList<>();
             medicalRecordsList.add(medicalRecords1);
             medicalRecordsList.add(medicalRecords2);
-            doReturn(medicalRecordsList).when(medicalRecordsService).getMedicalRecords();
+            doReturn(new KeysetPage<>(medicalRecordsList, null)).when(medicalRecordsService).getMedicalRecords(null, null);
             //WHEN
             mockMvc.perform(get("/medicalRecord"))
                     // THEN
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$", hasSize(2)));
-            verify(medicalRecordsService, Mockito.times(1)).getMedicalRecords();
+            verify(medicalRecordsService, Mockito.times(1)).getMedicalRecords(null, null);
         }
 
         @Test
@@ -81,13 +82,13 @@ public class MedicalRecordsControllerTest {
         void getAllMedicalRecordsEmptyTest() throws Exception {
             // GIVEN
             EmptyObjectException emptyObjectException = new EmptyObjectException("error message");
-            doThrow(emptyObjectException).when(medicalRecordsService).getMedicalRecords();
+            doThrow(emptyObjectException).when(medicalRecordsService).getMedicalRecords(null, null);
             //WHEN
             mockMvc.perform(get("/medicalRecord"))
                     // THEN
                     .andExpect(status().isNotFound())
                     .andExpect(content().string("error message"));
-            verify(medicalRecordsService, Mockito.times(1)).getMedicalRecords();
+            verify(medicalRecordsService, Mockito.times(1)).getMedicalRecords(null, null);
         }
 
         @Test
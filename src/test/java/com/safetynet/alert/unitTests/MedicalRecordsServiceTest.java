@@ -2,6 +2,7 @@ package com.safetynet.alert.unitTests;
 
 import com.safetynet.alert.exceptions.*;
 import com.safetynet.alert.model.Allergy;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.MedicalRecordDTO;
 import com.safetynet.alert.model.MedicalRecords;
 import com.safetynet.alert.model.Medication;
@@ -18,16 +19,21 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
 
@@ -71,18 +77,47 @@ public class MedicalRecordsServiceTest {
             medicalRecords1.setBirthdate(birthdate1);
             medicalRecords2.setBirthdate(birthdate2);
             List<MedicalRecords> medicalRecordsList = List.of(medicalRecords1, medicalRecords2);
-            doReturn(medicalRecordsList).when(medicalRecordsRepository).findAll();
+            doReturn(medicalRecordsList).when(medicalRecordsRepository).findAllByOrderByMedicalIdAsc(any(Pageable.class));
             //WHEN
             //the tested function getMedicalRecords is called
-            List<MedicalRecordDTO> result = medicalRecordsService.getMedicalRecords();
+            KeysetPage<MedicalRecordDTO> result = medicalRecordsService.getMedicalRecords(null, null);
             //THEN
-            //the same list of medicalRecords should be returned
-            assertThat(result.size()).isEqualTo(2);
-            assertThat(result.get(0).getFirstName()).isEqualTo("firstNameTest1");
-            assertThat(result.get(1).getFirstName()).isEqualTo("firstNameTest2");
-            assertThat(result.get(0).getBirthdate()).isEqualTo("14-11-1982");
-            assertThat(result.get(1).getBirthdate()).isEqualTo("18-04-2013");
-            verify(medicalRecordsRepository, Mockito.times(1)).findAll();
+            //the same list of medicalRecords should be returned in the last page
+            assertThat(result.getContent().size()).isEqualTo(2);
+            assertThat(result.getContent().get(0).getFirstName()).isEqualTo("firstNameTest1");
+            assertThat(result.getContent().get(1).getFirstName()).isEqualTo("firstNameTest2");
+            assertThat(result.getContent().get(0).getBirthdate()).isEqualTo("14-11-1982");
+            assertThat(result.getContent().get(1).getBirthdate()).isEqualTo("18-04-2013");
+            assertThat(result.getNextCursor()).isNull();
+            verify(medicalRecordsRepository, Mockito.times(1)).findAllByOrderByMedicalIdAsc(any(Pageable.class));
+            verify(medicalRecordsRepository, Mockito.times(1)).fetchMedications(medicalRecordsList);
+            verify(medicalRecordsRepository, Mockito.times(1)).fetchAllergies(medicalRecordsList);
+        }
+
+        @DisplayName("GIVEN more medicalRecords than the page size " +
+                "WHEN function getMedicalRecords is called after a given id " +
+                "THEN a page of the requested size is returned with the id of its last medicalRecords as next cursor.")
+        @Test
+        public void getMedicalRecordsWithNextPageTest() {
+            //GIVEN
+            //a list of 2 medicalRecords, one more than the requested page size
+            MedicalRecords medicalRecords1 = new MedicalRecords();
+            MedicalRecords medicalRecords2 = new MedicalRecords();
+            medicalRecords1.setMedicalId(11);
+            medicalRecords2.setMedicalId(12);
+            medicalRecords1.addPerson(new Person("firstNameTest1", "lastNameTest1"));
+            medicalRecords2.addPerson(new Person("firstNameTest2", "lastNameTest2"));
+            List<MedicalRecords> medicalRecordsList = List.of(medicalRecords1, medicalRecords2);
+            doReturn(medicalRecordsList).when(medicalRecordsRepository).findByMedicalIdGreaterThanOrderByMedicalIdAsc(anyInt(), any(Pageable.class));
+            //WHEN
+            //the tested function getMedicalRecords is called with a page size of 1
+            KeysetPage<MedicalRecordDTO> result = medicalRecordsService.getMedicalRecords(10, 1);
+            //THEN
+            //the page should contain the first medicalRecords and the next cursor should be its id
+            assertThat(result.getContent().size()).isEqualTo(1);
+            assertThat(result.getContent().get(0).getFirstName()).isEqualTo("firstNameTest1");
+            assertThat(result.getNextCursor()).isEqualTo("11");
+            verify(medicalRecordsRepository, Mockito.times(1)).findByMedicalIdGreaterThanOrderByMedicalIdAsc(10, PageRequest.of(0, 2));
         }
 
         @DisplayName("GIVEN an empty list of medicalRecords " +
@@ -92,13 +127,47 @@ public class MedicalRecordsServiceTest {
         public void getMedicalRecordsWhenEmptyTest() {
             //GIVEN
             //an empty list of medical records
-            when(medicalRecordsRepository.findAll()).thenReturn(new ArrayList<>());
+            when(medicalRecordsRepository.findAllByOrderByMedicalIdAsc(any(Pageable.class))).thenReturn(new ArrayList<>());
             //WHEN
             // the tested function getMedicalRecords is called
             //THEN
             // an emptyMedicalrecordsException should be thrown
-            assertThrows(EmptyObjectException.class, () -> medicalRecordsService.getMedicalRecords());
-            verify(medicalRecordsRepository, Mockito.times(1)).findAll();
+            assertThrows(EmptyObjectException.class, () -> medicalRecordsService.getMedicalRecords(null, null));
+            verify(medicalRecordsRepository, Mockito.times(1)).findAllByOrderByMedicalIdAsc(any(Pageable.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("forEachMedicalRecordDTO() tests:")
+    class ForEachMedicalRecordDTOTest {
+
+        @DisplayName("GIVEN medicalRecords streamed by medicalRecordsRepository " +
+                "WHEN function forEachMedicalRecordDTO is called " +
+                "THEN each medicalRecords is given to the consumer in the order of the stream, with its medications and allergies fetched by batch.")
+        @Test
+        public void forEachMedicalRecordDTOTest() {
+            //GIVEN
+            //two medicalRecords streamed by medicalRecordsRepository
+            MedicalRecords medicalRecords1 = new MedicalRecords();
+            MedicalRecords medicalRecords2 = new MedicalRecords();
+            medicalRecords1.addPerson(new Person("firstNameTest1", "lastNameTest1"));
+            medicalRecords2.addPerson(new Person("firstNameTest2", "lastNameTest2"));
+            medicalRecords1.addMedication(new Medication("medicationTest"));
+            medicalRecords2.addAllergy(new Allergy("allergyTest"));
+            when(medicalRecordsRepository.streamAllWithPerson()).thenReturn(Stream.of(medicalRecords1, medicalRecords2));
+            List<MedicalRecordDTO> result = new ArrayList<>();
+            //WHEN
+            //the tested function forEachMedicalRecordDTO is called
+            medicalRecordsService.forEachMedicalRecordDTO(result::add);
+            //THEN
+            //both medicalRecords are given in order, the medications and allergies being fetched once for the batch
+            assertThat(result.size()).isEqualTo(2);
+            assertThat(result.get(0).getFirstName()).isEqualTo("firstNameTest1");
+            assertThat(result.get(0).getMedications()).containsExactly("medicationTest");
+            assertThat(result.get(1).getFirstName()).isEqualTo("firstNameTest2");
+            assertThat(result.get(1).getAllergies()).containsExactly("allergyTest");
+            verify(medicalRecordsRepository, Mockito.times(1)).fetchMedications(any());
+            verify(medicalRecordsRepository, Mockito.times(1)).fetchAllergies(any());
         }
     }
 
@@ -237,6 +306,41 @@ public class MedicalRecordsServiceTest {
             verify(personService, Mockito.times(1)).getPersonById(firstName.toUpperCase() + lastName.toUpperCase());
         }
 
+        @Test
+        @DisplayName("GIVEN an existing person with medical records partly given again " +
+                "WHEN the function addNewMedicalRecords is called  " +
+                "THEN the medications and allergies given again are kept and only the differences are removed or added.")
+        void addNewMedicalRecordsKeepingUnchangedItemsTest() {
+            // GIVEN
+            //an existing person with medical records, one medication being given twice
+            String firstName = "fistNameTest";
+            String lastName = "lastNameTest";
+            MedicalRecordDTO medicalRecordsTest = new MedicalRecordDTO(firstName, lastName, "14/11/1982",
+                    List.of("medicationTest1", "medicationTest3", "medicationTest1"), List.of("allergyTest"));
+
+            Person personTest = new Person(firstName, lastName);
+            MedicalRecords medicalRecords = new MedicalRecords();
+            Medication keptMedication = new Medication("medicationTest1");
+            medicalRecords.addMedication(keptMedication);
+            medicalRecords.addMedication(new Medication("medicationTest2"));
+            Allergy keptAllergy = new Allergy("allergyTest");
+            medicalRecords.addAllergy(keptAllergy);
+            medicalRecords.addPerson(personTest);
+
+            doReturn(personTest).when(personService).getPersonById(firstName.toUpperCase() + lastName.toUpperCase());
+            doReturn(null).when(medicalRecordsRepository).save(any());
+            // WHEN
+            //the tested function addNewMedicalRecords is called
+            MedicalRecords result = medicalRecordsService.addNewMedicalRecords(medicalRecordsTest);
+            // THEN
+            //the items given again are the same objects, so they are neither deleted nor inserted again
+            assertThat(result.getMedications()).extracting(Medication::getMedicationName)
+                    .containsExactly("medicationTest1", "medicationTest1", "medicationTest3");
+            assertThat(result.getMedications().get(0)).isSameAs(keptMedication);
+            assertThat(result.getAllergies()).containsExactly(keptAllergy);
+            verify(medicalRecordsRepository, Mockito.times(1)).save(any());
+        }
+
         @Test
         @DisplayName("GIVEN a non-existing person " +
                 "WHEN the function addNewMedicalRecords is called  " +
@@ -1,8 +1,12 @@
 package com.safetynet.alert.unitTests;
 
 import com.safetynet.alert.exceptions.*;
+import com.safetynet.alert.model.DTO.BulkItemResult;
+import com.safetynet.alert.model.DTO.BulkReport;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.PersonDTO;
 import com.safetynet.alert.model.Person;
+import com.safetynet.alert.service.BulkWriteService;
 import com.safetynet.alert.service.PersonService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
@@ -19,13 +23,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -43,6 +51,9 @@ public class PersonControllerTest {
     @MockBean
     private PersonService personService;
 
+    @MockBean
+    private BulkWriteService bulkWriteService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -64,7 +75,7 @@ public class PersonControllerTest {
             List<PersonDTO> personList = new ArrayList<>();
             personList.add(person1);
             personList.add(person2);
-            doReturn(personList).when(personService).getPersonsDTO();
+            doReturn(new KeysetPage<>(personList, null)).when(personService).getPersonsDTO(null, null);
             // WHEN
             //we call the uri "/person"
             mockMvc.perform(get("/person"))
@@ -77,7 +88,60 @@ public class PersonControllerTest {
                     .andExpect(jsonPath("$[0].lastName", is("LastName1")))
                     .andExpect(jsonPath("$[1].firstName", is("FirstName2")))
                     .andExpect(jsonPath("$[1].lastName", is("LastName2")));
-            verify(personService, Mockito.times(1)).getPersonsDTO();
+            verify(personService, Mockito.times(1)).getPersonsDTO(null, null);
+        }
+
+        @Test
+        @DisplayName("GIVEN a page of persons followed by another page " +
+                "WHEN we call the uri \"/person\" with the parameters after and size, " +
+                "THEN we should have an \"isOk\" status and the X-Next-Cursor header should give the id of the last person of the page.")
+        void getAllPersonsWithNextPageTest() throws Exception {
+            // GIVEN
+            //a page of one person, followed by another page
+            PersonDTO person1 = new PersonDTO("FirstName1", "LastName1", "address test", "12345", "city test", "1234567890", "test@mail.com");
+            doReturn(new KeysetPage<>(List.of(person1), "FIRSTNAME1LASTNAME1")).when(personService).getPersonsDTO("FIRSTNAME0LASTNAME0", 1);
+            // WHEN
+            //we call the uri "/person" with the parameters after and size
+            mockMvc.perform(get("/person").param("after", "FIRSTNAME0LASTNAME0").param("size", "1"))
+                    // THEN
+                    //we should have an "isOk" status and the X-Next-Cursor header should give the id of the last person of the page
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, "FIRSTNAME1LASTNAME1"))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].firstName", is("FirstName1")));
+            verify(personService, Mockito.times(1)).getPersonsDTO("FIRSTNAME0LASTNAME0", 1);
+        }
+
+        @Test
+        @DisplayName("GIVEN persons given one by one by personService " +
+                "WHEN we call the uri \"/person/stream\", " +
+                "THEN we should have an \"isOk\" status and the response's body should contain one JSON object per person and per line.")
+        void streamAllPersonsTest() throws Exception {
+            // GIVEN
+            //persons given one by one by personService
+            doAnswer(invocation -> {
+                Consumer<PersonDTO> consumer = invocation.getArgument(0);
+                consumer.accept(new PersonDTO("FirstName1", "LastName1", "address test", "12345", "city test", "1234567890", "test@mail.com"));
+                consumer.accept(new PersonDTO("FirstName2", "LastName2", "address test 2", "12345", "city test", "9876543210", "test2@mail.com"));
+                return null;
+            }).when(personService).forEachPersonDTO(any());
+            // WHEN
+            //we call the uri "/person/stream"
+            MvcResult mvcResult = mockMvc.perform(get("/person/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            // THEN
+            //we should have an "isOk" status and the response's body should contain one JSON object per person and per line
+            String body = mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andReturn().getResponse().getContentAsString();
+            String[] lines = body.split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).contains("\"firstName\":\"FirstName1\"");
+            assertThat(lines[1]).contains("\"firstName\":\"FirstName2\"");
+            verify(personService, Mockito.times(1)).forEachPersonDTO(any());
+            verify(personService, Mockito.times(0)).getPersonsDTO(any(), any());
         }
 
         @Test
@@ -88,7 +152,7 @@ public class PersonControllerTest {
             //GIVEN
             // an empty list of persons
             EmptyObjectException emptyObjectException = new EmptyObjectException("error message");
-            doThrow(emptyObjectException).when(personService).getPersonsDTO();
+            doThrow(emptyObjectException).when(personService).getPersonsDTO(null, null);
             //WHEN
             //we call the uri "/person"
             mockMvc.perform(get("/person"))
@@ -96,7 +160,7 @@ public class PersonControllerTest {
                     //we should have a "notFound" status and the response's body should contain a String with the expected error message
                     .andExpect(status().isNotFound())
                     .andExpect(content().string("error message"));
-            verify(personService, Mockito.times(1)).getPersonsDTO();
+            verify(personService, Mockito.times(1)).getPersonsDTO(null, null);
         }
 
 
@@ -265,6 +329,33 @@ public class PersonControllerTest {
                     .andExpect(content().string("The request is not correct: please verify the request's body.\n"));
             verify(personService, Mockito.times(0)).createPerson(any(PersonDTO.class));
         }
+
+        @Test
+        @DisplayName("GIVEN an array of persons in the request's body, " +
+                "WHEN we call the uri \"/person/bulk\", " +
+                "THEN we should have an \"isOk\" status and the response should contain the report of the bulk creation.")
+        public void addNewPersonsTest() throws Exception {
+            // GIVEN
+            //an array of two persons in the request's body, the second one being rejected
+            String personsToPost = "[{\"firstName\":\"firstName1\",\"lastName\":\"lastName1\"},{\"firstName\":\"firstName2\"}]";
+            BulkReport report = new BulkReport();
+            report.addAll(List.of(new BulkItemResult(0, BulkItemResult.Status.CREATED, "created"),
+                    new BulkItemResult(1, BulkItemResult.Status.REJECTED, "rejected")));
+            doReturn(report).when(bulkWriteService).createPersons(anyList());
+            // WHEN
+            //we call the uri "/person/bulk"
+            mockMvc.perform(post("/person/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(personsToPost))
+                    // THEN
+                    //we should have an "isOk" status and the response should contain the report of the bulk creation
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created", is(1)))
+                    .andExpect(jsonPath("$.rejected", is(1)))
+                    .andExpect(jsonPath("$.items[1].status", is("REJECTED")));
+            verify(bulkWriteService, Mockito.times(1)).createPersons(anyList());
+            verify(personService, Mockito.times(0)).createPerson(any(PersonDTO.class));
+        }
     }
 
     @Nested
@@ -1,13 +1,16 @@
 package com.safetynet.alert.unitTests;
 
+import com.safetynet.alert.model.Address;
 import com.safetynet.alert.model.Person;
 import com.safetynet.alert.repository.PersonRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -28,6 +31,8 @@ public class PersonRepositoryTest {
     @Autowired
     private PersonRepository personRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Nested
     @DisplayName("FindByFirstNameAndLastName tests:")
@@ -91,4 +96,72 @@ public class PersonRepositoryTest {
             assertTrue(personTest.isEmpty());
         }
     }
+
+    @Nested
+    @DisplayName("FindByStationIdFetchingAddressAndMedicalRecords tests:")
+    class FindByStationIdFetchingAddressAndMedicalRecordsTest {
+
+        @DisplayName("GIVEN a person living at an address covered by a firestation " +
+                "WHEN the function findByStationIdFetchingAddressAndMedicalRecords is called " +
+                "THEN it returns this person with its address already loaded.")
+        @Transactional
+        @Test
+        public void findByStationIdTest() {
+            //GIVEN
+            jdbcTemplate.update("INSERT INTO firestation VALUES (9)");
+            jdbcTemplate.update("UPDATE address SET station_id = 9 WHERE address_id = 1");
+            //WHEN
+            List<Person> personTest = personRepository.findByStationIdFetchingAddressAndMedicalRecords(9);
+            //THEN
+            assertThat(personTest.size()).isEqualTo(1);
+            assertThat(personTest.get(0).getId()).isEqualTo("FIRSTNAME1LASTNAME1");
+            assertTrue(Hibernate.isInitialized(personTest.get(0).getAddress()));
+            assertThat(personTest.get(0).getAddress().getStreet()).isEqualTo("addressTest1");
+        }
+
+        @DisplayName("GIVEN a firestation covering no address " +
+                "WHEN the function findByStationIdFetchingAddressAndMedicalRecords is called " +
+                "THEN it returns an empty list.")
+        @Transactional
+        @Test
+        public void findByStationIdWithoutAddressTest() {
+            //GIVEN
+            jdbcTemplate.update("INSERT INTO firestation VALUES (9)");
+            //WHEN
+            List<Person> personTest = personRepository.findByStationIdFetchingAddressAndMedicalRecords(9);
+            //THEN
+            assertTrue(personTest.isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("FindMailsByNormalizedCity tests:")
+    class FindMailsByNormalizedCityTest {
+
+        @DisplayName("GIVEN a person living in an existing city " +
+                "WHEN the function findMailsByNormalizedCity is called with the city written in another case " +
+                "THEN it returns the mail of this person.")
+        @Transactional
+        @Test
+        public void findMailsByNormalizedCityTest() {
+            //GIVEN
+            //WHEN
+            List<String> mails = personRepository.findMailsByNormalizedCity(Address.normalizeCity(" citytest1 "));
+            //THEN
+            assertThat(mails).containsExactly("person1@mail.com");
+        }
+
+        @DisplayName("GIVEN a non-existing city " +
+                "WHEN the function findMailsByNormalizedCity is called " +
+                "THEN it returns an empty list.")
+        @Transactional
+        @Test
+        public void findMailsByNormalizedCityNotExistingTest() {
+            //GIVEN
+            //WHEN
+            List<String> mails = personRepository.findMailsByNormalizedCity(Address.normalizeCity("cityTest0"));
+            //THEN
+            assertTrue(mails.isEmpty());
+        }
+    }
 }
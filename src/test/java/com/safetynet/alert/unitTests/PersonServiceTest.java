@@ -2,6 +2,7 @@ package com.safetynet.alert.unitTests;
 
 import com.safetynet.alert.exceptions.*;
 import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.DTO.KeysetPage;
 import com.safetynet.alert.model.DTO.PersonDTO;
 import com.safetynet.alert.model.MedicalRecords;
 import com.safetynet.alert.model.Person;
@@ -17,6 +18,8 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -103,8 +106,8 @@ public class PersonServiceTest {
     class getPersonsDTOTest {
 
         @DisplayName("GIVEN persons returned by personRepository " +
-                "WHEN function getPersonsDTO() is called " +
-                "THEN it returns a list with the corresponding personsDTO.")
+                "WHEN function getPersonsDTO() is called for the first page " +
+                "THEN it returns a page with the corresponding personsDTO and no next cursor.")
         @Test
         public void getPersonsDTOWhenNonEmptyTest() {
             //GIVEN
@@ -120,37 +123,67 @@ public class PersonServiceTest {
                         new MedicalRecords());
                 AllPersonsTest.add(person);
             }
-            when(personRepository.findAll()).thenReturn(AllPersonsTest);
+            when(personRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(AllPersonsTest);
             //WHEN
-            //the tested function getPersons is called
-            List<PersonDTO> result = personService.getPersonsDTO();
+            //the tested function getPersonsDTO is called
+            KeysetPage<PersonDTO> result = personService.getPersonsDTO(null, null);
             //THEN
-            //the result should contain 3 persons and should be the same as the list created first
-            assertThat(result.size()).isEqualTo(3);
-            assertThat(result.get(0).getFirstName()).isEqualToIgnoringCase(AllPersonsTest.get(0).getFirstName());
-            assertThat(result.get(1).getFirstName()).isEqualToIgnoringCase(AllPersonsTest.get(1).getFirstName());
-            assertThat(result.get(2).getFirstName()).isEqualToIgnoringCase(AllPersonsTest.get(2).getFirstName());
-            assertThat(result.get(0).getLastName()).isEqualToIgnoringCase(AllPersonsTest.get(0).getLastName());
-            assertThat(result.get(1).getLastName()).isEqualToIgnoringCase(AllPersonsTest.get(1).getLastName());
-            assertThat(result.get(2).getLastName()).isEqualToIgnoringCase(AllPersonsTest.get(2).getLastName());
-            verify(personRepository, Mockito.times(1)).findAll();
+            //the page should contain 3 persons, the same as the list created first, and be the last page
+            assertThat(result.getContent().size()).isEqualTo(3);
+            assertThat(result.getContent().get(0).getFirstName()).isEqualToIgnoringCase(AllPersonsTest.get(0).getFirstName());
+            assertThat(result.getContent().get(1).getFirstName()).isEqualToIgnoringCase(AllPersonsTest.get(1).getFirstName());
+            assertThat(result.getContent().get(2).getFirstName()).isEqualToIgnoringCase(AllPersonsTest.get(2).getFirstName());
+            assertThat(result.getContent().get(0).getLastName()).isEqualToIgnoringCase(AllPersonsTest.get(0).getLastName());
+            assertThat(result.getContent().get(1).getLastName()).isEqualToIgnoringCase(AllPersonsTest.get(1).getLastName());
+            assertThat(result.getContent().get(2).getLastName()).isEqualToIgnoringCase(AllPersonsTest.get(2).getLastName());
+            assertThat(result.getNextCursor()).isNull();
+            verify(personRepository, Mockito.times(1)).findAllByOrderByIdAsc(any(Pageable.class));
+        }
+
+        @DisplayName("GIVEN more persons returned by personRepository than the page size " +
+                "WHEN function getPersonsDTO() is called after a given id " +
+                "THEN it returns a page of the requested size and the id of its last person as next cursor.")
+        @Test
+        public void getPersonsDTOWithNextPageTest() {
+            //GIVEN
+            //a list containing 3 persons, one more than the requested page size
+            ArrayList<Person> AllPersonsTest = new ArrayList<>();
+            for (int numberOfPersonsTest = 0; numberOfPersonsTest < 3; numberOfPersonsTest++) {
+                Person person = new Person("IDTEST" + numberOfPersonsTest,
+                        "FIRSTNAME" + numberOfPersonsTest,
+                        "LASTNAME" + numberOfPersonsTest,
+                        new Address(" main street", "1234" + numberOfPersonsTest, "CITY" + numberOfPersonsTest),
+                        "123456789" + numberOfPersonsTest,
+                        "person" + numberOfPersonsTest + "@mail.com",
+                        new MedicalRecords());
+                AllPersonsTest.add(person);
+            }
+            when(personRepository.findByIdGreaterThanOrderByIdAsc(any(String.class), any(Pageable.class))).thenReturn(AllPersonsTest);
+            //WHEN
+            //the tested function getPersonsDTO is called with a page size of 2
+            KeysetPage<PersonDTO> result = personService.getPersonsDTO("idtest", 2);
+            //THEN
+            //the page should contain the 2 first persons and the next cursor should be the id of the second one
+            assertThat(result.getContent().size()).isEqualTo(2);
+            assertThat(result.getNextCursor()).isEqualTo("IDTEST1");
+            verify(personRepository, Mockito.times(1)).findByIdGreaterThanOrderByIdAsc("IDTEST", PageRequest.of(0, 3));
         }
 
         @DisplayName("GIVEN an empty list returned by personRepository " +
-                "WHEN function getPersonsDTO() is called " +
+                "WHEN function getPersonsDTO() is called for the first page " +
                 "THEN an EmptyObjectException should be thrown with the expected error message.")
         @Test
         public void getPersonsDTOWhenEmptyTest() {
             //GIVEN
             //an empty list of persons
-            when(personRepository.findAll()).thenReturn(new ArrayList<>());
+            when(personRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(new ArrayList<>());
             //WHEN
             // the function getPersonsDTO() is called
             //THEN
             // an EmptyObjectException should be thrown with the expected error message
-            Exception exception = assertThrows(EmptyObjectException.class, () -> personService.getPersonsDTO());
+            Exception exception = assertThrows(EmptyObjectException.class, () -> personService.getPersonsDTO(null, null));
             assertEquals("There are no persons registered.\n", exception.getMessage());
-            verify(personRepository, Mockito.times(1)).findAll();
+            verify(personRepository, Mockito.times(1)).findAllByOrderByIdAsc(any(Pageable.class));
         }
     }
 
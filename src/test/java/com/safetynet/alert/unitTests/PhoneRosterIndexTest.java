@@ -0,0 +1,80 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.event.DatasetChangedEvent;
+import com.safetynet.alert.index.PhoneRosterIndex;
+import com.safetynet.alert.model.Firestation;
+import com.safetynet.alert.repository.FirestationRepository;
+import com.safetynet.alert.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@Tag("FirestationTests")
+public class PhoneRosterIndexTest {
+
+    private PersonRepository personRepository;
+
+    private FirestationRepository firestationRepository;
+
+    private PhoneRosterIndex phoneRosterIndex;
+
+    @BeforeEach
+    public void setUp() {
+        personRepository = Mockito.mock(PersonRepository.class);
+        firestationRepository = Mockito.mock(FirestationRepository.class);
+        doReturn(List.of(new Firestation(1, new ArrayList<>()), new Firestation(2, new ArrayList<>()), new Firestation(3, new ArrayList<>())))
+                .when(firestationRepository).findAll();
+        List<Object[]> phoneNumbers = new ArrayList<>();
+        phoneNumbers.add(new Object[]{1, "1111111111"});
+        phoneNumbers.add(new Object[]{1, "2222222222"});
+        phoneNumbers.add(new Object[]{1, "1111111111"});
+        phoneNumbers.add(new Object[]{2, "3333333333"});
+        doReturn(phoneNumbers).when(personRepository).findPhoneNumbersOfAllStations();
+        phoneRosterIndex = new PhoneRosterIndex(personRepository, firestationRepository);
+    }
+
+    @DisplayName("GIVEN persons covered by firestations " +
+            "WHEN the function getPhoneNumbers is called " +
+            "THEN the distinct phone numbers of each firestation are returned, an empty roster for a firestation without person.")
+    @Test
+    public void getPhoneNumbersTest() {
+        //GIVEN
+        //WHEN
+        //THEN
+        assertThat(phoneRosterIndex.getPhoneNumbers(1)).contains(List.of("1111111111", "2222222222"));
+        assertThat(phoneRosterIndex.getPhoneNumbers(2)).contains(List.of("3333333333"));
+        assertThat(phoneRosterIndex.getPhoneNumbers(3)).contains(List.of());
+        assertThat(phoneRosterIndex.getPhoneNumbers(4)).isEmpty();
+        verify(personRepository, Mockito.times(1)).findPhoneNumbersOfAllStations();
+    }
+
+    @DisplayName("GIVEN a person who moved from the firestation 1 to the firestation 2, and the firestation 3 deleted " +
+            "WHEN a DatasetChangedEvent is received " +
+            "THEN only the rosters of these firestations are refreshed.")
+    @Test
+    public void onDatasetChangedTest() {
+        //GIVEN
+        phoneRosterIndex.getPhoneNumbers(1);
+        doReturn(true).when(firestationRepository).existsById(1);
+        doReturn(true).when(firestationRepository).existsById(2);
+        doReturn(false).when(firestationRepository).existsById(3);
+        doReturn(List.of("1111111111")).when(personRepository).findPhoneNumbersByStationId(1);
+        doReturn(List.of("3333333333", "2222222222")).when(personRepository).findPhoneNumbersByStationId(2);
+        //WHEN
+        phoneRosterIndex.onDatasetChanged(new DatasetChangedEvent().station(1).station(2).station(3));
+        //THEN
+        assertThat(phoneRosterIndex.getPhoneNumbers(1)).contains(List.of("1111111111"));
+        assertThat(phoneRosterIndex.getPhoneNumbers(2)).contains(List.of("3333333333", "2222222222"));
+        assertThat(phoneRosterIndex.getPhoneNumbers(3)).isEmpty();
+        verify(personRepository, Mockito.times(1)).findPhoneNumbersOfAllStations();
+    }
+}
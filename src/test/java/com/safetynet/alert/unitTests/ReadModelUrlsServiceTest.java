@@ -0,0 +1,230 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.exceptions.ObjectNotFoundException;
+import com.safetynet.alert.model.DTO.ChildInfoDTO;
+import com.safetynet.alert.model.DTO.FireInfoDTO;
+import com.safetynet.alert.model.DTO.FirestationInfoDTO;
+import com.safetynet.alert.model.DTO.MedicalRecordDTO;
+import com.safetynet.alert.model.DTO.PersonInfo2DTO;
+import com.safetynet.alert.readmodel.ReadModelHolder;
+import com.safetynet.alert.service.MedicalRecordsService;
+import com.safetynet.alert.service.PersonService;
+import com.safetynet.alert.service.ReadModelUrlsServiceImpl;
+import com.safetynet.alert.service.UrlsService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+/**
+ * Station 7 covers one address where an adult and a child live.
+ */
+@Tag("UrlsTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest(properties = "alert.read-model.enabled=true")
+public class ReadModelUrlsServiceTest {
+
+    @Autowired
+    private UrlsService urlsService;
+
+    @Autowired
+    private MedicalRecordsService medicalRecordsService;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private ReadModelHolder readModelHolder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("INSERT INTO firestation VALUES (7)");
+        jdbcTemplate.update("INSERT INTO address VALUES (700, 'readStreet', '11111', 'READCITY', 7, 'READSTREET', 'READCITY')");
+        jdbcTemplate.update("INSERT INTO medical_records VALUES (700, DATE '1980-01-01')");
+        jdbcTemplate.update("INSERT INTO medical_records VALUES (701, ?)", Date.valueOf(LocalDate.now().minusYears(10)));
+        jdbcTemplate.update("INSERT INTO medication VALUES (700, 'aznol:350mg', 700)");
+        jdbcTemplate.update("INSERT INTO allergy VALUES (700, 'nillacilan', 700)");
+        jdbcTemplate.update("INSERT INTO person VALUES ('READADULTREADLAST', 'READADULT', 'READLAST', 700, '8410000000', 'adult@mail.com', 700)");
+        jdbcTemplate.update("INSERT INTO person VALUES ('READCHILDREADLAST', 'READCHILD', 'READLAST', 700, '8410000000', 'child@mail.com', 701)");
+        //the rows inserted above don't publish any event
+        readModelHolder.rebuild();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM person WHERE address_id = 700");
+        jdbcTemplate.update("DELETE FROM medication WHERE medical_id IN (700, 701)");
+        jdbcTemplate.update("DELETE FROM allergy WHERE medical_id IN (700, 701)");
+        jdbcTemplate.update("DELETE FROM medical_records WHERE medical_id IN (700, 701)");
+        jdbcTemplate.update("DELETE FROM address WHERE address_id = 700");
+        jdbcTemplate.update("DELETE FROM firestation WHERE station_id = 7");
+        readModelHolder.rebuild();
+    }
+
+    @DisplayName("GIVEN the property alert.read-model.enabled set to true " +
+            "WHEN the UrlsService is injected " +
+            "THEN the read model implementation is used.")
+    @Test
+    public void readModelImplementationTest() {
+        //GIVEN
+        //WHEN
+        //THEN
+        assertThat(urlsService).isInstanceOf(ReadModelUrlsServiceImpl.class);
+    }
+
+    @DisplayName("GIVEN a firestation covering an adult and a child " +
+            "WHEN the function getPersonsCoveredByFirestation is called " +
+            "THEN both persons are returned and counted.")
+    @Test
+    public void getPersonsCoveredByFirestationTest() {
+        //GIVEN
+        //WHEN
+        FirestationInfoDTO result = urlsService.getPersonsCoveredByFirestation(7);
+        //THEN
+        assertThat(result.getNumberOfAdults()).isEqualTo(1);
+        assertThat(result.getNumberOfChildren()).isEqualTo(1);
+        assertThat(result.getPersonsCoveredByStation().get(0).getAddress()).isEqualTo("readStreet - 11111 READCITY");
+    }
+
+    @DisplayName("GIVEN a non-existing firestation " +
+            "WHEN the function getPersonsCoveredByFirestation is called " +
+            "THEN an ObjectNotFoundException is thrown.")
+    @Test
+    public void getPersonsCoveredByNonExistingFirestationTest() {
+        //GIVEN
+        //WHEN
+        //THEN
+        Exception exception = assertThrows(ObjectNotFoundException.class, () -> urlsService.getPersonsCoveredByFirestation(70));
+        assertThat(exception.getMessage()).isEqualTo("The firestation with Id number 70 was not found.\n");
+    }
+
+    @DisplayName("GIVEN an address where a child lives " +
+            "WHEN the function getChildrenByAddress is called with the street written differently " +
+            "THEN the child is returned with the other members of the household.")
+    @Test
+    public void getChildrenByAddressTest() {
+        //GIVEN
+        //WHEN
+        List<ChildInfoDTO> result = urlsService.getChildrenByAddress("read street");
+        //THEN
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getFirstName()).isEqualTo("READCHILD");
+        assertThat(result.get(0).getAge()).isEqualTo(10);
+        assertThat(result.get(0).getHouseholdMembers()).containsExactly("READADULT READLAST");
+    }
+
+    @DisplayName("GIVEN two persons sharing a phone number " +
+            "WHEN the function getPhoneNumbersByFirestation is called " +
+            "THEN the phone number is returned once.")
+    @Test
+    public void getPhoneNumbersByFirestationTest() {
+        //GIVEN
+        //WHEN
+        List<String> result = urlsService.getPhoneNumbersByFirestation(7);
+        //THEN
+        assertThat(result).containsExactly("8410000000");
+    }
+
+    @DisplayName("GIVEN an address covered by a firestation " +
+            "WHEN the functions getPersonsByAddress and getHouseholdsByStation are called " +
+            "THEN the residents are returned with their medical data.")
+    @Test
+    public void getPersonsByAddressAndHouseholdsByStationTest() {
+        //GIVEN
+        //WHEN
+        FireInfoDTO fire = urlsService.getPersonsByAddress("readStreet");
+        List<FireInfoDTO> flood = urlsService.getHouseholdsByStation(List.of(7, 7));
+        //THEN
+        assertThat(fire.getStation()).isEqualTo(7);
+        assertThat(fire.getPersonList()).hasSize(2);
+        assertThat(fire.getPersonList().get(0).getMedications()).containsExactly("aznol:350mg");
+        assertThat(flood).hasSize(1);
+        assertThat(flood.get(0).getAddress()).isEqualTo("readStreet");
+        assertThat(flood.get(0).getPersonList()).hasSize(2);
+    }
+
+    @DisplayName("GIVEN a person with medical data " +
+            "WHEN the function getPersonsByName is called " +
+            "THEN the person is returned with its mail, medications and allergies.")
+    @Test
+    public void getPersonsByNameTest() {
+        //GIVEN
+        //WHEN
+        List<PersonInfo2DTO> result = urlsService.getPersonsByName("readAdult", "readLast");
+        //THEN
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getMail()).isEqualTo("adult@mail.com");
+        assertThat(result.get(0).getAllergies()).containsExactly("nillacilan");
+    }
+
+    @DisplayName("GIVEN two persons living in a city " +
+            "WHEN the function getMailsByCity is called ignoring case " +
+            "THEN their mails are returned.")
+    @Test
+    public void getMailsByCityTest() {
+        //GIVEN
+        //WHEN
+        List<String> result = urlsService.getMailsByCity("readCity");
+        //THEN
+        assertThat(result).containsExactly("adult@mail.com", "child@mail.com");
+    }
+
+    @DisplayName("GIVEN a read model already built " +
+            "WHEN the medical records of a person are updated " +
+            "THEN the read model is replaced once the update is committed.")
+    @Test
+    public void updateMedicalRecordTest() {
+        //GIVEN
+        MedicalRecordDTO medicalRecordDTO = new MedicalRecordDTO(null, null, null, List.of("pharmacol:5000mg"), List.of());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        //WHEN
+        transactionTemplate.execute(status -> medicalRecordsService.updateMedicalRecord("readChild", "readLast", medicalRecordDTO));
+        //THEN
+        List<PersonInfo2DTO> result = urlsService.getPersonsByName("readChild", "readLast");
+        assertThat(result.get(0).getMedications()).containsExactly("pharmacol:5000mg");
+    }
+
+    @DisplayName("GIVEN a read model already built " +
+            "WHEN a person is deleted " +
+            "THEN the household, the firestation and the mails of the city of the person are updated once the deletion is committed.")
+    @Test
+    public void deletePersonTest() {
+        //GIVEN
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int numberOfStations = readModelHolder.get().getNumberOfStations();
+        //WHEN
+        transactionTemplate.executeWithoutResult(status -> personService.deletePersonById("READCHILDREADLAST"));
+        //THEN
+        FirestationInfoDTO firestationInfo = urlsService.getPersonsCoveredByFirestation(7);
+        assertThat(firestationInfo.getNumberOfChildren()).isZero();
+        assertThat(firestationInfo.getNumberOfAdults()).isEqualTo(1);
+        assertThat(urlsService.getPersonsByAddress("readStreet").getPersonList()).hasSize(1);
+        assertThat(urlsService.getMailsByCity("readCity")).containsExactly("adult@mail.com");
+        assertThat(readModelHolder.get().getNumberOfStations()).isEqualTo(numberOfStations);
+    }
+}
@@ -0,0 +1,139 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.cache.RequestCoalescer;
+import com.safetynet.alert.exceptions.ObjectNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("UrlsTests")
+public class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestCoalescer requestCoalescer;
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(meterRegistry);
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @DisplayName("GIVEN a computation running for a request " +
+            "WHEN the same request arrives meanwhile " +
+            "THEN it gets the result of the running computation and the saved computation is counted.")
+    @Test
+    public void executeConcurrentIdenticalRequestsTest() throws Exception {
+        //GIVEN
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> expected = List.of("result");
+        Supplier<List<String>> computation = () -> {
+            computations.incrementAndGet();
+            await(release);
+            return expected;
+        };
+        Future<List<String>> first = executorService.submit(() -> requestCoalescer.execute("fire", "ADDRESSTEST1", computation));
+        waitUntil(() -> computations.get() == 1);
+        //WHEN
+        Future<List<String>> second = executorService.submit(() -> requestCoalescer.execute("fire", "ADDRESSTEST1", computation));
+        waitUntil(() -> savedComputations("fire") == 1);
+        release.countDown();
+        //THEN
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(expected);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(expected);
+        assertThat(computations.get()).isEqualTo(1);
+    }
+
+    @DisplayName("GIVEN a computation running for a request and failing " +
+            "WHEN the same request arrives meanwhile " +
+            "THEN it gets the same exception.")
+    @Test
+    public void executeConcurrentFailingRequestsTest() throws Exception {
+        //GIVEN
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> computation = () -> {
+            started.countDown();
+            await(release);
+            throw new ObjectNotFoundException("The firestation with Id number 3 was not found.\n");
+        };
+        Future<String> first = executorService.submit(() -> requestCoalescer.execute("firestation", 3, computation));
+        await(started);
+        //WHEN
+        Future<Exception> second = executorService.submit(() -> {
+            try {
+                requestCoalescer.execute("firestation", 3, computation);
+                return null;
+            } catch (ObjectNotFoundException e) {
+                return e;
+            }
+        });
+        waitUntil(() -> savedComputations("firestation") == 1);
+        release.countDown();
+        //THEN
+        assertThat(second.get(5, TimeUnit.SECONDS)).hasMessage("The firestation with Id number 3 was not found.\n");
+        Exception exception = assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertThat(exception.getCause()).isInstanceOf(ObjectNotFoundException.class);
+    }
+
+    @DisplayName("GIVEN a request already answered " +
+            "WHEN the same request arrives again, or another request arrives " +
+            "THEN the result is computed again, nothing is kept once the computation is over.")
+    @Test
+    public void executeSuccessiveRequestsTest() {
+        //GIVEN
+        AtomicInteger computations = new AtomicInteger();
+        requestCoalescer.execute("fire", "ADDRESSTEST1", computations::incrementAndGet);
+        //WHEN
+        requestCoalescer.execute("fire", "ADDRESSTEST1", computations::incrementAndGet);
+        requestCoalescer.execute("childAlert", "ADDRESSTEST1", computations::incrementAndGet);
+        //THEN
+        assertThat(computations.get()).isEqualTo(3);
+        assertThat(savedComputations("fire")).isZero();
+    }
+
+    private double savedComputations(String query) {
+        return meterRegistry.counter(RequestCoalescer.SAVED_COMPUTATIONS_METRIC, "query", query).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.get()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.safetynet.alert.unitTests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+@Tag("InitTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+public class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DisplayName("GIVEN the test profile " +
+            "WHEN the application starts " +
+            "THEN the versioned migrations are applied in order and the test data are loaded after them.")
+    @Test
+    public void migrationsAppliedTest() {
+        //GIVEN
+        //WHEN
+        MigrationInfo[] applied = flyway.info().applied();
+        //THEN
+        assertThat(applied).extracting(MigrationInfo::getScript)
+                .containsExactly("V1__create_tables.sql", "V2__add_finder_and_foreign_key_indexes.sql", "V3__create_dataset_metadata.sql",
+                        "V4__create_staging_schema.sql", "R__test_data.sql");
+        assertThat(applied).allMatch(migration -> migration.getState().isApplied());
+    }
+
+    @DisplayName("GIVEN the migrated schema " +
+            "WHEN the indexes are read from the information schema " +
+            "THEN the finder and foreign key indexes exist, each foreign key using its named index only.")
+    @Test
+    public void indexesCreatedTest() {
+        //GIVEN
+        //WHEN
+        List<String> indexes = jdbcTemplate.queryForList("SELECT DISTINCT index_name FROM information_schema.indexes " +
+                "WHERE index_name LIKE 'IDX_%'", String.class);
+        Integer personAddressIndexes = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT index_name) FROM information_schema.indexes " +
+                "WHERE table_name = 'PERSON' AND column_name = 'ADDRESS_ID' AND ordinal_position = 1", Integer.class);
+        //THEN
+        assertThat(indexes).contains("IDX_PERSON_FIRST_NAME_LAST_NAME", "IDX_ADDRESS_STREET", "IDX_PERSON_ADDRESS_ID",
+                "IDX_PERSON_MEDICAL_ID", "IDX_ADDRESS_STATION_ID", "IDX_MEDICATION_MEDICAL_ID", "IDX_ALLERGY_MEDICAL_ID");
+        assertThat(personAddressIndexes).isEqualTo(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.init.ImportReport;
+import com.safetynet.alert.init.StreamingDataImporter;
+import com.safetynet.alert.model.Address;
+import com.safetynet.alert.model.Person;
+import com.safetynet.alert.repository.AddressRepository;
+import com.safetynet.alert.repository.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.transaction.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+@Tag("InitTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+public class StreamingDataImporterTest {
+
+    private static final String DATA_FILE = "{\"persons\": [" +
+            "{ \"firstName\":\"John\", \"lastName\":\"Boyd\", \"address\":\"1509 Culver St\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-6512\", \"email\":\"jaboyd@email.com\" }," +
+            "{ \"firstName\":\"Jacob\", \"lastName\":\"Boyd\", \"address\":\"1509 Culver St\", \"city\":\"Culver\", \"zip\":\"97451\", \"phone\":\"841-874-6513\", \"email\":\"drk@email.com\" }]," +
+            "\"firestations\": [" +
+            "{ \"address\":\"1509 Culver St\", \"station\":\"3\" }," +
+            "{ \"address\":\"29 15th St\", \"station\":\"2\" }]," +
+            "\"medicalrecords\": [" +
+            "{ \"firstName\":\"John\", \"lastName\":\"Boyd\", \"birthdate\":\"03/06/1984\", \"medications\":[\"aznol:350mg\", \"hydrapermazol:100mg\"], \"allergies\":[\"nillacilan\"] }," +
+            "{ \"firstName\":\"Unknown\", \"lastName\":\"Person\", \"birthdate\":\"01/01/2000\", \"medications\":[], \"allergies\":[] }]}";
+
+    @Autowired
+    private StreamingDataImporter streamingDataImporter;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @DisplayName("GIVEN a data file with persons, firestations and medical records " +
+            "WHEN the function importData is called " +
+            "THEN all the elements are saved in database and the report counts them.")
+    @Transactional
+    @Test
+    public void importDataTest() throws Exception {
+        //GIVEN
+        InputStream inputStream = new ByteArrayInputStream(DATA_FILE.getBytes(StandardCharsets.UTF_8));
+        //WHEN
+        ImportReport report = streamingDataImporter.importData(inputStream);
+        //THEN
+        assertThat(report.getPersons()).isEqualTo(2);
+        assertThat(report.getFirestationMappings()).isEqualTo(2);
+        assertThat(report.getMedicalRecords()).isEqualTo(2);
+        assertThat(report.getRows()).isEqualTo(6);
+        Optional<Person> john = personRepository.findById("JOHNBOYD");
+        assertTrue(john.isPresent());
+        assertThat(john.get().getPhoneNumber()).isEqualTo("8418746512");
+        assertThat(john.get().getAddress().getCity()).isEqualTo("CULVER");
+        assertThat(john.get().getAddress().getFirestation().getStationId()).isEqualTo(3);
+        assertThat(john.get().getMedicalRecords().getBirthdate()).isEqualTo(LocalDate.of(1984, 3, 6));
+        assertThat(john.get().getMedicalRecords().getMedications()).hasSize(2);
+        assertThat(john.get().getMedicalRecords().getAllergies()).hasSize(1);
+        assertThat(personRepository.findById("JACOBBOYD").get().getAddress().getAddressId()).isEqualTo(john.get().getAddress().getAddressId());
+        assertTrue(personRepository.findById("UNKNOWNPERSON").isPresent());
+        Optional<Address> addressOnlyMapped = addressRepository.findByStreet("29 15th St");
+        assertTrue(addressOnlyMapped.isPresent());
+        assertThat(addressOnlyMapped.get().getZip()).isEqualTo("97451");
+        assertThat(addressOnlyMapped.get().getFirestation().getStationId()).isEqualTo(2);
+    }
+}
@@ -1,5 +1,7 @@
 package com.safetynet.alert.unitTests;
 
+import com.safetynet.alert.cache.DatasetVersions;
+import com.safetynet.alert.event.DatasetChangedEvent;
 import com.safetynet.alert.exceptions.ObjectNotFoundException;
 import com.safetynet.alert.model.DTO.*;
 import com.safetynet.alert.service.UrlsService;
@@ -13,18 +15,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -42,6 +49,9 @@ public class UrlsControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private DatasetVersions datasetVersions;
+
     @Nested
     @Tag("UrlsControllerTests")
     @DisplayName("getPersonsCoveredByStation tests:")
@@ -75,6 +85,59 @@ public class UrlsControllerTest {
             verify(urlsService, Mockito.times(1)).getPersonsCoveredByFirestation(1);
         }
 
+        @Test
+        @DisplayName("GIVEN a response already received with its ETag, " +
+                "WHEN we call the uri \"/firestation?stationNumber=<station_number>\" again with this ETag in If-None-Match, " +
+                "THEN when should have an \"isNotModified\" status and the service isn't called.")
+        public void getPersonsCoveredByStationNotModifiedTest() throws Exception {
+            // GIVEN
+            //a response already received with its ETag
+            FirestationInfoDTO firestationInfoDTO = new FirestationInfoDTO(1, 0, 0, new ArrayList<>());
+            doReturn(firestationInfoDTO).when(urlsService).getPersonsCoveredByFirestation(1);
+            MvcResult firstResult = mockMvc.perform(get("/firestation")
+                            .param("stationId", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andReturn();
+            String eTag = firstResult.getResponse().getHeader(HttpHeaders.ETAG);
+            // WHEN
+            //we call the uri "/firestation?stationNumber=<station_number>" again with this ETag
+            mockMvc.perform(get("/firestation")
+                            .param("stationId", "1")
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    // THEN
+                    //when should have an "isNotModified" status and the service is only called for the first request
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+            verify(urlsService, Mockito.times(1)).getPersonsCoveredByFirestation(1);
+        }
+
+        @Test
+        @DisplayName("GIVEN a response received with its ETag and then a change of the station, " +
+                "WHEN we call the uri \"/firestation?stationNumber=<station_number>\" again with this ETag in If-None-Match, " +
+                "THEN when should have an \"isOk\" status with a new ETag.")
+        public void getPersonsCoveredByStationModifiedTest() throws Exception {
+            // GIVEN
+            //a response received with its ETag and then a change of the station
+            FirestationInfoDTO firestationInfoDTO = new FirestationInfoDTO(1, 0, 0, new ArrayList<>());
+            doReturn(firestationInfoDTO).when(urlsService).getPersonsCoveredByFirestation(1);
+            String eTag = mockMvc.perform(get("/firestation")
+                            .param("stationId", "1"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            datasetVersions.onDatasetChanged(new DatasetChangedEvent().station(1));
+            // WHEN
+            //we call the uri "/firestation?stationNumber=<station_number>" again with this ETag
+            MvcResult result = mockMvc.perform(get("/firestation")
+                            .param("stationId", "1")
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    // THEN
+                    //when should have an "isOk" status with a new ETag
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertNotEquals(eTag, result.getResponse().getHeader(HttpHeaders.ETAG));
+            verify(urlsService, Mockito.times(2)).getPersonsCoveredByFirestation(1);
+        }
+
         @Test
         @DisplayName("GIVEN a non-existing firestation, " +
                 "WHEN we call the uri \"/firestation?stationNumber=<station_number>\", " +
@@ -95,6 +158,27 @@ public class UrlsControllerTest {
             verify(urlsService, Mockito.times(1)).getPersonsCoveredByFirestation(1);
         }
 
+        @Test
+        @DisplayName("GIVEN a non-existing firestation, " +
+                "WHEN we call the uri \"/firestation?stationNumber=<station_number>\" with an outdated ETag in If-None-Match, " +
+                "THEN when should have an \"isNotFound\" status without any ETag.")
+        public void getPersonsCoveredByStationNonExistingETagTest() throws Exception {
+            // GIVEN
+            //a non-existing firestation
+            ObjectNotFoundException objectNotFoundException = new ObjectNotFoundException("error message");
+            doThrow(objectNotFoundException).when(urlsService).getPersonsCoveredByFirestation(1);
+            // WHEN
+            //we call the uri "/firestation?stationNumber=<station_number>" with an outdated ETag
+            mockMvc.perform(get("/firestation")
+                            .param("stationId", "1")
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"outdated\""))
+                    // THEN
+                    //when should have an "isNotFound" status without any ETag, so the error isn't cached as the response of the firestation
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+            verify(urlsService, Mockito.times(1)).getPersonsCoveredByFirestation(1);
+        }
+
         @Test
         @DisplayName("GIVEN a request parameter missing, " +
                 "WHEN we call the uri \"/firestation?stationNumber=<station_number>\", " +
@@ -705,6 +789,35 @@ public class UrlsControllerTest {
                     .andExpect(content().string("A request parameter is missing.\n"));
             verify(urlsService, Mockito.times(0)).getMailsByCity(anyString());
         }
+
+        @Test
+        @DisplayName("GIVEN mails of a city, " +
+                "WHEN we call the uri \"/communityEmail/stream?city=<city>\",\n" +
+                "THEN when should have an \"isOk\" status and the response's body contains one JSON string per line.")
+        public void streamMailsByCityTest() throws Exception {
+            // GIVEN
+            //mails of a city
+            doAnswer(invocation -> {
+                Consumer<String> consumer = invocation.getArgument(1);
+                consumer.accept("mail 1");
+                consumer.accept("mail 2");
+                return null;
+            }).when(urlsService).forEachMailByCity(eq("cityTest"), any());
+            // WHEN
+            //we call the uri "/communityEmail/stream?city=<city>"
+            MvcResult mvcResult = mockMvc.perform(get("/communityEmail/stream")
+                            .param("city", "cityTest"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            // THEN
+            //when should have an "isOk" status and the response's body contains one JSON string per line
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andExpect(content().string("\"mail 1\"\n\"mail 2\"\n"));
+            verify(urlsService, Mockito.times(1)).forEachMailByCity(eq("cityTest"), any());
+            verify(urlsService, Mockito.times(0)).getMailsByCity(anyString());
+        }
     }
 
 }
@@ -1,5 +1,7 @@
 package com.safetynet.alert.unitTests;
 
+import com.safetynet.alert.exceptions.ObjectNotFoundException;
+import com.safetynet.alert.index.PhoneRosterIndex;
 import com.safetynet.alert.model.*;
 import com.safetynet.alert.model.DTO.ChildInfoDTO;
 import com.safetynet.alert.model.DTO.FireInfoDTO;
@@ -22,10 +24,14 @@ import org.springframework.test.context.ActiveProfiles;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
@@ -49,6 +55,9 @@ public class UrlsServiceTest {
     @MockBean
     private AddressService addressService;
 
+    @MockBean
+    private PhoneRosterIndex phoneRosterIndex;
+
 
     @Test
     void getPersonsCoveredByFirestationTest() {
@@ -73,8 +82,7 @@ public class UrlsServiceTest {
         Firestation firestation = new Firestation(1, new ArrayList<>());
         firestation.addAddress(address);
         doReturn(firestation).when(firestationService).getFirestationById(1);
-        List<Person> allPersons = List.of(person1, person2, person3);
-        doReturn(allPersons).when(personService).getPersons();
+        doReturn(List.of(person1, person2)).when(personService).getPersonsByStation(1);
         // WHEN
         //the function getPersonsCoveredByFirestation is called
         FirestationInfoDTO result = urlsService.getPersonsCoveredByFirestation(1);
@@ -87,7 +95,8 @@ public class UrlsServiceTest {
         assertFalse(result.getPersonsCoveredByStation().get(0).isChild());
         assertTrue(result.getPersonsCoveredByStation().get(1).isChild());
         verify(firestationService, Mockito.times(1)).getFirestationById(1);
-        verify(personService, Mockito.times(1)).getPersons();
+        verify(personService, Mockito.times(1)).getPersonsByStation(1);
+        verify(personService, Mockito.times(0)).getPersons();
     }
 
     @Test
@@ -109,9 +118,8 @@ public class UrlsServiceTest {
         MedicalRecords medicalRecords2 = new MedicalRecords();
         medicalRecords2.setBirthdate(birthdate2);
         medicalRecords2.addPerson(person2);
-        List<Person> allPersons = List.of(person1, person2, person3);
         doReturn(address).when(addressService).getAddress("streetTest");
-        doReturn(allPersons).when(personService).getPersons();
+        doReturn(address.getPersonList()).when(personService).getResidentsWithMedicalData(address);
         // WHEN
         List<ChildInfoDTO> result = urlsService.getChildrenByAddress("streetTest");
         // THEN
@@ -122,33 +130,34 @@ public class UrlsServiceTest {
         assertThat(result.get(0).getHouseholdMembers().size()).isEqualTo(1);
         assertTrue(result.get(0).getHouseholdMembers().get(0).contains("firstNameTest1"));
         verify(addressService, Mockito.times(1)).getAddress("streetTest");
-        verify(personService, Mockito.times(2)).getPersons();
+        verify(personService, Mockito.times(1)).getResidentsWithMedicalData(address);
+        verify(personService, Mockito.times(0)).getPersons();
     }
 
     @Test
     void getPhoneNumbersByFirestationTest() {
         // GIVEN
-        Address address = new Address("streetTest", "zipTest", "cityTest");
-        Address address2 = new Address("StreetTest2", "ZipTest2", "cityTest2");
-        Person person1 = new Person("firstNameTest1", "lastNameTest1");
-        Person person2 = new Person("firstNameTest2", "lastNameTest2");
-        Person person3 = new Person("firstNameTest3", "lastNameTest2");
-        address.addPerson(person1);
-        address.addPerson(person2);
-        address2.addPerson(person3);
-        person1.setPhoneNumber("phoneNumberTest1");
-        person2.setPhoneNumber("phoneNumberTest2");
-        person3.setPhoneNumber("phoneNumberTest3");
-        Firestation firestation = new Firestation(1, new ArrayList<>());
-        firestation.addAddress(address);
-        doReturn(firestation).when(firestationService).getFirestationById(1);
+        //the roster of the firestation number 1
+        doReturn(Optional.of(List.of("phoneNumberTest1", "phoneNumberTest2"))).when(phoneRosterIndex).getPhoneNumbers(1);
         // WHEN
         List<String> result = urlsService.getPhoneNumbersByFirestation(1);
         // THEN
         assertThat(result.size()).isEqualTo(2);
         assertThat(result).contains("phoneNumberTest1", "phoneNumberTest2");
         assertThat(result).doesNotContain("phoneNumberTest3");
-        verify(firestationService, Mockito.times(1)).getFirestationById(1);
+        verify(phoneRosterIndex, Mockito.times(1)).getPhoneNumbers(1);
+        verify(firestationService, Mockito.times(0)).getFirestationById(1);
+    }
+
+    @Test
+    void getPhoneNumbersByNonExistingFirestationTest() {
+        // GIVEN
+        //no roster for the firestation number 1, which doesn't exist
+        doReturn(Optional.empty()).when(phoneRosterIndex).getPhoneNumbers(1);
+        // WHEN
+        // THEN
+        Exception exception = assertThrows(ObjectNotFoundException.class, () -> urlsService.getPhoneNumbersByFirestation(1));
+        assertThat(exception.getMessage()).isEqualTo("The firestation with Id number 1 was not found.\n");
     }
 
     @Test
@@ -180,6 +189,7 @@ public class UrlsServiceTest {
         Firestation firestation = new Firestation(1, new ArrayList<>());
         firestation.addAddress(address);
         doReturn(address).when(addressService).getAddress("streetTest");
+        doReturn(address.getPersonList()).when(personService).getResidentsWithMedicalData(address);
         // WHEN
         FireInfoDTO result = urlsService.getPersonsByAddress("streetTest");
         // THEN
@@ -191,6 +201,7 @@ public class UrlsServiceTest {
         assertThat(result.getPersonList().get(0).getMedications().size()).isEqualTo(2);
         assertThat(result.getPersonList().get(1).getMedications().size()).isEqualTo(0);
         verify(addressService, Mockito.times(1)).getAddress("streetTest");
+        verify(personService, Mockito.times(1)).getResidentsWithMedicalData(address);
     }
 
     @Test
@@ -229,12 +240,11 @@ public class UrlsServiceTest {
         Firestation firestation2 = new Firestation(2, new ArrayList<>());
         firestation.addAddress(address);
         firestation2.addAddress(address2);
-        doReturn(firestation).when(firestationService).getFirestationById(1);
-        doReturn(firestation2).when(firestationService).getFirestationById(2);
-        doReturn(address).when(addressService).getAddress("streetTest");
-        doReturn(address2).when(addressService).getAddress("streetTest2");
+        doReturn(List.of(firestation, firestation2)).when(firestationService).getFirestationsById(Set.of(1, 2));
+        doReturn(List.of(address, address2)).when(addressService).getAddressesByStations(Set.of(1, 2));
+        doReturn(List.of(person1, person2, person3)).when(personService).getPersonsByStationsWithMedicalData(Set.of(1, 2));
         // WHEN
-        List<FireInfoDTO> result = urlsService.getHouseholdsByStation(List.of(1, 2));
+        List<FireInfoDTO> result = urlsService.getHouseholdsByStation(List.of(1, 2, 1));
         // THEN
         assertThat(result.size()).isEqualTo(2);
         assertThat(result.get(0).getStation()).isEqualTo(1);
@@ -242,10 +252,10 @@ public class UrlsServiceTest {
         assertThat(result.get(0).getPersonList().get(0).getFirstName()).isEqualTo("firstNameTest1");
         assertThat(result.get(0).getPersonList().get(1).getFirstName()).isEqualTo("firstNameTest2");
         assertThat(result.get(1).getPersonList().get(0).getFirstName()).isEqualTo("firstNameTest3");
-        verify(firestationService, Mockito.times(1)).getFirestationById(1);
-        verify(firestationService, Mockito.times(1)).getFirestationById(2);
-        verify(addressService, Mockito.times(1)).getAddress("streetTest");
-        verify(addressService, Mockito.times(1)).getAddress("streetTest2");
+        verify(firestationService, Mockito.times(1)).getFirestationsById(Set.of(1, 2));
+        verify(addressService, Mockito.times(1)).getAddressesByStations(Set.of(1, 2));
+        verify(personService, Mockito.times(1)).getPersonsByStationsWithMedicalData(Set.of(1, 2));
+        verify(addressService, Mockito.times(0)).getAddress(anyString());
     }
 
     @Test
@@ -286,39 +296,28 @@ public class UrlsServiceTest {
         firestation2.addAddress(address2);
 
         List<Person> personList = List.of(person1, person2);
-        doReturn(personList).when(personService).getPersonsByName("firstNameTest", "lastNameTest");
+        doReturn(personList).when(personService).getPersonsByNameWithMedicalData("firstNameTest", "lastNameTest");
         // WHEN
         List<PersonInfo2DTO> result = urlsService.getPersonsByName("firstNameTest", "lastNameTest");
         // THEN
         assertThat(result.size()).isEqualTo(2);
         assertThat(result.get(0).getPhoneNumber()).isEqualTo("phoneNumberTest1");
         assertThat(result.get(1).getAllergies().size()).isEqualTo(1);
-        verify(personService, Mockito.times(1)).getPersonsByName("firstNameTest", "lastNameTest");
+        verify(personService, Mockito.times(1)).getPersonsByNameWithMedicalData("firstNameTest", "lastNameTest");
     }
 
     @Test
     void getMailsByCityTest() {
         // GIVEN
-        Address address = new Address("streetTest", "zipTest", "cityTest");
-        Address address2 = new Address("StreetTest2", "ZipTest", "cityTest");
-        Address address3 = new Address("StreetTest3", "ZipTest3", "cityTest3");
-        Person person1 = new Person("firstNameTest1", "lastNameTest1");
-        Person person2 = new Person("firstNameTest2", "lastNameTest2");
-        Person person3 = new Person("firstNameTest3", "lastNameTest2");
-        address.addPerson(person1);
-        address2.addPerson(person2);
-        address3.addPerson(person3);
-        person1.setMail("mailTest1");
-        person2.setMail("mailTest2");
-        person2.setMail("mailTest2");
-        List<Person> personList = List.of(person1,person2,person3);
-        doReturn(personList).when(personService).getPersons();
+        //the mails of the persons living in the city, read by personService
+        doReturn(List.of("mailTest1", "mailTest2")).when(personService).getMailsByCity("cityTest");
         // WHEN
         List<String> result = urlsService.getMailsByCity("cityTest");
         // THEN
         assertThat(result.size()).isEqualTo(2);
         assertThat(result).contains("mailTest1", "mailTest2");
         assertThat(result).doesNotContain("mailTest3");
-        verify(personService, Mockito.times(1)).getPersons();
+        verify(personService, Mockito.times(1)).getMailsByCity("cityTest");
+        verify(personService, Mockito.times(0)).getPersons();
     }
 }
@@ -0,0 +1,208 @@
+package com.safetynet.alert.unitTests;
+
+import com.safetynet.alert.model.DTO.FireInfoDTO;
+import com.safetynet.alert.model.DTO.FirestationInfoDTO;
+import com.safetynet.alert.model.DTO.PersonInfo2DTO;
+import com.safetynet.alert.service.UrlsService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_CLASS;
+
+/**
+ * Counts the SQL statements run by the emergency endpoints, which must not depend on the number of persons returned.
+ * Station 8 covers one address with one resident, station 9 covers one address with three residents.
+ */
+@Tag("UrlsTests")
+@Slf4j
+@ActiveProfiles("test")
+@DirtiesContext(classMode = AFTER_CLASS)
+@SpringBootTest
+public class UrlsStatementCountTest {
+
+    @Autowired
+    private UrlsService urlsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        jdbcTemplate.update("INSERT INTO firestation VALUES (8), (9)");
+        jdbcTemplate.update("INSERT INTO address VALUES (800, 'countStreet1', '11111', 'COUNTCITY', 8, 'COUNTSTREET1', 'COUNTCITY')");
+        jdbcTemplate.update("INSERT INTO address VALUES (801, 'countStreet2', '11111', 'COUNTCITY', 9, 'COUNTSTREET2', 'COUNTCITY')");
+        insertPerson(0, 800);
+        insertPerson(1, 801);
+        insertPerson(2, 801);
+        insertPerson(3, 801);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        jdbcTemplate.update("DELETE FROM person WHERE address_id IN (800, 801)");
+        jdbcTemplate.update("DELETE FROM medication WHERE medical_id BETWEEN 800 AND 803");
+        jdbcTemplate.update("DELETE FROM allergy WHERE medical_id BETWEEN 800 AND 803");
+        jdbcTemplate.update("DELETE FROM medical_records WHERE medical_id BETWEEN 800 AND 803");
+        jdbcTemplate.update("DELETE FROM address WHERE address_id IN (800, 801)");
+        jdbcTemplate.update("DELETE FROM firestation WHERE station_id IN (8, 9)");
+    }
+
+    @DisplayName("GIVEN two addresses with one and three residents " +
+            "WHEN /fire is called for each of them " +
+            "THEN the same small number of statements is run.")
+    @Test
+    public void fireStatementCountTest() {
+        //GIVEN
+        //WHEN
+        long oneResident = countStatements(() -> urlsService.getPersonsByAddress("countStreet1"));
+        long threeResidents = countStatements(() -> urlsService.getPersonsByAddress("countStreet2"));
+        //THEN
+        assertThat(threeResidents).isEqualTo(oneResident);
+        assertThat(threeResidents).isLessThanOrEqualTo(5);
+    }
+
+    @DisplayName("GIVEN two addresses with one and three residents " +
+            "WHEN /childAlert is called for each of them " +
+            "THEN the same small number of statements is run.")
+    @Test
+    public void childAlertStatementCountTest() {
+        //GIVEN
+        //WHEN
+        long oneResident = countStatements(() -> urlsService.getChildrenByAddress("countStreet1"));
+        long threeResidents = countStatements(() -> urlsService.getChildrenByAddress("countStreet2"));
+        //THEN
+        assertThat(threeResidents).isEqualTo(oneResident);
+        assertThat(threeResidents).isLessThanOrEqualTo(5);
+    }
+
+    @DisplayName("GIVEN two firestations covering households of one and three residents " +
+            "WHEN /firestation is called for each of them " +
+            "THEN the same small number of statements is run.")
+    @Test
+    public void firestationStatementCountTest() {
+        //GIVEN
+        //WHEN
+        long oneResident = countStatements(() -> urlsService.getPersonsCoveredByFirestation(8));
+        long threeResidents = countStatements(() -> {
+            FirestationInfoDTO result = urlsService.getPersonsCoveredByFirestation(9);
+            assertThat(result.getNumberOfAdults()).isEqualTo(3);
+            return result;
+        });
+        //THEN
+        assertThat(threeResidents).isEqualTo(oneResident);
+        assertThat(threeResidents).isLessThanOrEqualTo(2);
+    }
+
+    @DisplayName("GIVEN a city where four persons live " +
+            "WHEN /communityEmail is called " +
+            "THEN the mails are read with one statement.")
+    @Test
+    public void communityEmailStatementCountTest() {
+        //GIVEN
+        //WHEN
+        long statements = countStatements(() -> {
+            List<String> result = urlsService.getMailsByCity("countCity");
+            assertThat(result).hasSize(4);
+            return result;
+        });
+        //THEN
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @DisplayName("GIVEN two firestations covering households of one and three residents " +
+            "WHEN /flood/stations is called for each of them " +
+            "THEN the same small number of statements is run.")
+    @Test
+    public void floodStatementCountTest() {
+        //GIVEN
+        //WHEN
+        long oneResident = countStatements(() -> urlsService.getHouseholdsByStation(List.of(8)));
+        long threeResidents = countStatements(() -> urlsService.getHouseholdsByStation(List.of(9)));
+        //THEN
+        assertThat(threeResidents).isEqualTo(oneResident);
+        assertThat(threeResidents).isLessThanOrEqualTo(5);
+    }
+
+    @DisplayName("GIVEN two firestations covering one address each " +
+            "WHEN /flood/stations is called for one and then for both of them " +
+            "THEN the same number of statements is run and the repeated station is read once.")
+    @Test
+    public void floodSeveralStationsStatementCountTest() {
+        //GIVEN
+        //WHEN
+        long oneStation = countStatements(() -> urlsService.getHouseholdsByStation(List.of(8)));
+        long twoStations = countStatements(() -> {
+            List<FireInfoDTO> result = urlsService.getHouseholdsByStation(List.of(8, 9, 8));
+            assertThat(result).hasSize(2);
+            assertThat(result.get(1).getPersonList()).hasSize(3);
+            return result;
+        });
+        //THEN
+        assertThat(twoStations).isEqualTo(oneStation);
+    }
+
+    @DisplayName("GIVEN a person with medications and allergies " +
+            "WHEN /personInfo is called " +
+            "THEN the person, the medications and the allergies are read with one statement each.")
+    @Test
+    public void personInfoStatementCountTest() {
+        //GIVEN
+        //WHEN
+        long statements = countStatements(() -> {
+            List<PersonInfo2DTO> result = urlsService.getPersonsByName("countFirst2", "countLast2");
+            assertThat(result.get(0).getMedications()).hasSize(2);
+            assertThat(result.get(0).getAllergies()).hasSize(1);
+            return result;
+        });
+        //THEN
+        assertThat(statements).isLessThanOrEqualTo(3);
+    }
+
+    private void insertPerson(int index, int addressId) {
+        int medicalId = 800 + index;
+        jdbcTemplate.update("INSERT INTO medical_records VALUES (?, DATE '1980-01-01')", medicalId);
+        jdbcTemplate.update("INSERT INTO medication VALUES (?, 'aznol:350mg', ?)", 800 + 2 * index, medicalId);
+        jdbcTemplate.update("INSERT INTO medication VALUES (?, 'hydrapermazol:100mg', ?)", 801 + 2 * index, medicalId);
+        jdbcTemplate.update("INSERT INTO allergy VALUES (?, 'nillacilan', ?)", 800 + index, medicalId);
+        jdbcTemplate.update("INSERT INTO person VALUES (?, ?, ?, ?, '8410000000', 'count@mail.com', ?)",
+                "COUNTFIRST" + index + "COUNTLAST" + index, "COUNTFIRST" + index, "COUNTLAST" + index, addressId, medicalId);
+    }
+
+    private long countStatements(Supplier<Object> request) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics.clear();
+        transactionTemplate.execute(status -> request.get());
+        long statements = statistics.getPrepareStatementCount();
+        log.info(statements + " statements run.");
+        return statements;
+    }
+}
@@ -1,3 +1,4 @@
+-- rows shared by the tests, loaded by the test profile after the versioned migrations
 INSERT INTO person VALUES
 ('FIRSTNAME1LASTNAME1','firstName1', 'lastName1', null,'1111111111','person1@mail.com',null);
 --(3,'FIRSTNAME3', 'LASTNAME3', 3 ,'3333333333','person3@mail.com',3);
@@ -6,13 +7,15 @@ INSERT INTO person VALUES
 --1),(2),(3);
 
 INSERT INTO address VALUES
-(1,'addressTest1','11111','cityTest1',null);
+(1,'addressTest1','11111','cityTest1',null,'ADDRESSTEST1','CITYTEST1');
 --(2,'ADDRESS12','CITY1','11111',1),
 --(3,'ADDRESS13','CITY2','22222',1);
 --(4,'ADDRESS21','CITY1','11111',2),
 --(5,'ADDRESS22','CITY2','22222',2),
 --(6,'ADDRESS31','CITY1','11111',3);
 UPDATE person SET address_id = 1 WHERE id='FIRSTNAME1LASTNAME1';
+-- the generated address ids have to begin after the address inserted above
+ALTER SEQUENCE address_seq RESTART WITH 51;
 --INSERT INTO medical_records VALUES
 --(1,'12/11/1982'),
 --(2,'15/04/2013'),